@@ -1,5 +1,7 @@
 package com.rosty.maze;
 
+import java.util.Arrays;
+
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PropertyConfigurator;
@@ -7,13 +9,16 @@ import org.apache.log4j.PropertyConfigurator;
 import com.rosty.maze.application.AppLauncher;
 import com.rosty.maze.application.AppLauncher.Dimensions;
 import com.rosty.maze.application.AppLoader;
+import com.rosty.maze.application.BatchLauncher;
 
 import javafx.application.Application;
 import javafx.application.Platform;
 
 /**
  * Classe principale de l'application. Celle-ci traite les arguments passés en
- * entrée au lancement du logiciel.
+ * entrée au lancement du logiciel. Avec l'argument <b>-batch</b>, le logiciel
+ * est lancé sans IHM en mode de traitement par lots (cf.
+ * {@link BatchLauncher}).
  * 
  * @author Martin Rostagnat
  * @version 1.1
@@ -52,8 +57,8 @@ public class Mazette {
 		LOGGER.info("──────────────────┘");
 		LOGGER.info(null);
 
-		LOGGER.info("Playing beep.wav");
-		AppLauncher.playSound("beep.wav");
+		// En mode de traitement par lots, aucune IHM n'est lancée.
+		boolean batch = Arrays.asList(args).contains("-batch");
 
 		LOGGER.info("Reading arguments:");
 		for (int id = 0, len = args.length; id < len; id++) {
@@ -91,7 +96,7 @@ public class Mazette {
 				}
 
 				LOGGER.info(" * fxdebug: " + fxDebug);
-			} else if (kv[0].equals("-size")) {
+			} else if (kv[0].equals("-size") && !batch) {
 				String sizeValue = kv[1];
 				if (sizeValue.equals("full")) {
 					dimensions.setFullScreen(true);
@@ -147,6 +152,19 @@ public class Mazette {
 			}
 		}
 
+		if (batch) {
+			System.setProperty("java.awt.headless", "true");
+			int status = BatchLauncher.launch(args);
+
+			LOGGER.info(null);
+			LOGGER.info(" END              |");
+			LOGGER.info("──────────────────┘");
+			System.exit(status);
+		}
+
+		LOGGER.info("Playing beep.wav");
+		AppLauncher.playSound("beep.wav");
+
 		if (!noSplashScreen)
 			System.setProperty("javafx.preloader", AppLoader.class.getCanonicalName());
 
@@ -0,0 +1,463 @@
+package com.rosty.maze.application;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import com.rosty.maze.Mazette;
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.Algorithm;
+import com.rosty.maze.model.algorithm.generation.AldousBroderAlgorithm;
+import com.rosty.maze.model.algorithm.generation.BinaryTreeAlgorithm;
+import com.rosty.maze.model.algorithm.generation.EllerAlgorithm;
+import com.rosty.maze.model.algorithm.generation.EllerStream;
+import com.rosty.maze.model.algorithm.generation.GrowingTreeAlgorithm;
+import com.rosty.maze.model.algorithm.generation.HuntAndKillAlgorithm;
+import com.rosty.maze.model.algorithm.generation.KruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ParallelKruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.Personal2Algorithm;
+import com.rosty.maze.model.algorithm.generation.PersonalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.PrimAlgorithm;
+import com.rosty.maze.model.algorithm.generation.RecursiveBacktrackingAlgorithm;
+import com.rosty.maze.model.algorithm.generation.RecursiveDivisionAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ShuffledKruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.SidewinderAlgorithm;
+import com.rosty.maze.model.algorithm.generation.WilsonAlgorithm;
+import com.rosty.maze.model.algorithm.solving.AStarAlgorithm;
+import com.rosty.maze.model.algorithm.solving.DeadEndFillingAlgorithm;
+import com.rosty.maze.model.algorithm.solving.DijkstraAlgorithm;
+import com.rosty.maze.model.algorithm.solving.LeeAlgorithm;
+import com.rosty.maze.model.algorithm.solving.PledgeAlgorithm;
+import com.rosty.maze.model.algorithm.solving.PrimJarnikAlgorithm;
+import com.rosty.maze.model.algorithm.solving.RandomMouseAlgorithm;
+import com.rosty.maze.model.algorithm.solving.SuiviDeadEndFillingAlgorithm;
+import com.rosty.maze.model.algorithm.solving.TremeauxAlgorithm;
+import com.rosty.maze.model.algorithm.solving.WallFollowingAlgorithm;
+import com.rosty.maze.model.storage.CellPlane;
+import com.rosty.maze.model.storage.MazeStorage;
+import com.rosty.util.maze.MazeImageWriter;
+import com.rosty.util.maze.MazeRowWriter;
+
+/**
+ * Classe gérant le lancement du logiciel en mode de traitement par lots : des
+ * labyrinthes sont générés (et éventuellement résolus) en parallèle, sans IHM.
+ * Aucune classe JavaFX n'est chargée dans ce mode.
+ * <p>
+ * Paramètres reconnus (en plus de <b>-batch</b>) :
+ * <ul>
+ * <li><b>-algo=&lt;nom&gt;</b> : algorithme de génération (cf.
+ * {@link #GENERATORS}) ;</li>
+ * <li><b>-solve=&lt;nom&gt;</b> : algorithme de résolution (cf.
+ * {@link #SOLVERS}), aucun par défaut ;</li>
+ * <li><b>-size=&lt;lignes&gt;x&lt;colonnes&gt;</b> : dimensions des
+ * labyrinthes ;</li>
+ * <li><b>-count=&lt;n&gt;</b> : nombre de labyrinthes ;</li>
+ * <li><b>-threads=&lt;n&gt;</b> : nombre de <i>threads</i> de calcul (nombre de
+ * processeurs par défaut) ;</li>
+ * <li><b>-out=&lt;dossier&gt;</b> : dossier de sauvegarde des fichiers
+ * <b>.maz</b>, aucune sauvegarde par défaut ;</li>
+ * <li><b>-image=&lt;png|gif|jpg&gt;</b> : format des images exportées dans ce
+ * dossier, aucune image par défaut ; leur taille est vérifiée avant la
+ * génération (cf. {@link MazeImageWriter#checkSize(int, int, int)}) ;</li>
+ * <li><b>-cell=&lt;n&gt;</b> : côté d'une case dans les images, en pixels ;</li>
+ * <li><b>-storage=&lt;flat|packed|tiled|mapped&gt;</b> : support mémoire des
+ * labyrinthes (cf. {@link MazeStorage.Kind}), <b>flat</b> par défaut ; avec
+ * <b>mapped</b>, chaque labyrinthe est rangé dans un fichier <b>.map</b> du
+ * dossier de sortie (dans un fichier temporaire sinon), qui remplace le fichier
+ * <b>.maz</b>. C'est le seul support des labyrinthes de plus de
+ * <code>2<sup>31</sup></code> cases, qui ne peuvent être ni résolus ni exportés
+ * en image, et sont générés par l'un des algorithmes de
+ * {@link #LARGE_GENERATORS} ;</li>
+ * <li><b>-cells=&lt;8|16|32&gt;</b> : largeur initiale des valeurs des cases,
+ * en bits (cf. {@link CellPlane.Width}), 32 par défaut ;</li>
+ * <li><b>-seed=&lt;n&gt;</b> : graine du lot, tirée au hasard par défaut ; un
+ * même lot relancé avec la même graine produit les mêmes labyrinthes, quel que
+ * soit le nombre de <i>threads</i> ;</li>
+ * <li><b>-stream</b> : les labyrinthes sont générés par l'algorithme d'Eller en
+ * flux (cf. {@link EllerStream}) et écrits ligne par ligne dans des fichiers
+ * <b>.mzr</b> (cf. {@link MazeRowWriter}), sans jamais être stockés en mémoire ;
+ * ce mode requiert <b>-out</b> et exclut <b>-solve</b> et <b>-image</b>.</li>
+ * </ul>
+ * Le débit et les temps de génération et de résolution sont affichés dans le
+ * journal à la fin du traitement.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class BatchLauncher {
+	/** Algorithmes de génération, par nom de paramètre. */
+	public static final Map<String, Function<MazeBoard, Algorithm>> GENERATORS = new LinkedHashMap<>();
+	static {
+		GENERATORS.put("kruskal", KruskalAlgorithm::new);
+		GENERATORS.put("shuffledkruskal", ShuffledKruskalAlgorithm::new);
+		GENERATORS.put("parallelkruskal", ParallelKruskalAlgorithm::new);
+		GENERATORS.put("backtracking", RecursiveBacktrackingAlgorithm::new);
+		GENERATORS.put("division", RecursiveDivisionAlgorithm::new);
+		GENERATORS.put("prim", PrimAlgorithm::new);
+		GENERATORS.put("huntandkill", HuntAndKillAlgorithm::new);
+		GENERATORS.put("aldousbroder", AldousBroderAlgorithm::new);
+		GENERATORS.put("wilson", WilsonAlgorithm::new);
+		GENERATORS.put("binarytree", BinaryTreeAlgorithm::new);
+		GENERATORS.put("sidewinder", SidewinderAlgorithm::new);
+		GENERATORS.put("eller", EllerAlgorithm::new);
+		GENERATORS.put("personal", PersonalAlgorithm::new);
+		GENERATORS.put("personal2", Personal2Algorithm::new);
+		GENERATORS.put("growingtree", GrowingTreeAlgorithm::new);
+	}
+
+	/**
+	 * Algorithmes de génération dont l'état ne dépend que de la largeur du
+	 * labyrinthe, seuls utilisables au-delà de <code>2<sup>31</sup></code> cases
+	 * (cf. {@link MazeStorage.Kind#MAPPED}).
+	 */
+	public static final Set<String> LARGE_GENERATORS = Collections
+			.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("binarytree", "sidewinder", "eller", "division")));
+
+	/** Algorithmes de résolution, par nom de paramètre. */
+	public static final Map<String, Function<MazeBoard, Algorithm>> SOLVERS = new LinkedHashMap<>();
+	static {
+		SOLVERS.put("wallfollowing", WallFollowingAlgorithm::new);
+		SOLVERS.put("astar", AStarAlgorithm::new);
+		SOLVERS.put("dijkstra", DijkstraAlgorithm::new);
+		SOLVERS.put("primjarnik", PrimJarnikAlgorithm::new);
+		SOLVERS.put("lee", LeeAlgorithm::new);
+		SOLVERS.put("pledge", PledgeAlgorithm::new);
+		SOLVERS.put("tremeaux", TremeauxAlgorithm::new);
+		SOLVERS.put("randommouse", RandomMouseAlgorithm::new);
+		SOLVERS.put("deadendfilling", DeadEndFillingAlgorithm::new);
+		SOLVERS.put("suivideadendfilling", SuiviDeadEndFillingAlgorithm::new);
+	}
+
+	private Function<MazeBoard, Algorithm> generator = GENERATORS.get("kruskal"), solver;
+	private String generatorName;
+	private boolean stream;
+	private int rows = 100, cols = 100, count = 1, cellSize = 4;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File outDir;
+	private String imageFormat;
+	private MazeStorage.Kind storageKind = MazeStorage.Kind.FLAT;
+	private CellPlane.Width cellWidth = CellPlane.Width.INT;
+	private long seed = ThreadLocalRandom.current().nextLong();
+
+	/**
+	 * Lance le traitement par lots décrit par les paramètres de lancement du
+	 * logiciel.
+	 *
+	 * @param args Paramètres de lancement du logiciel.
+	 * @return Code de sortie : <b>0</b> en cas de succès, <b>1</b> si un
+	 *         labyrinthe n'a pas pu être traité, <b>2</b> en cas de paramètre
+	 *         invalide.
+	 */
+	public static int launch(String... args) {
+		BatchLauncher launcher = new BatchLauncher();
+		try {
+			launcher.readArguments(args);
+		} catch (IllegalArgumentException e) {
+			Mazette.LOGGER.error(e.getMessage());
+			return 2;
+		}
+
+		return launcher.run();
+	}
+
+	private void readArguments(String... args) {
+		Mazette.LOGGER.info("Reading batch arguments:");
+		for (String arg : args) {
+			String[] kv = arg.split("=", 2);
+			String value = (kv.length > 1) ? kv[1] : "";
+			switch (kv[0]) {
+				case "-algo":
+					generatorName = value.toLowerCase();
+					generator = GENERATORS.get(generatorName);
+					if (generator == null)
+						throw new IllegalArgumentException("Unknown generation algorithm: " + value + " "
+								+ GENERATORS.keySet());
+					break;
+				case "-solve":
+					solver = SOLVERS.get(value.toLowerCase());
+					if (solver == null)
+						throw new IllegalArgumentException("Unknown solving algorithm: " + value + " " + SOLVERS.keySet());
+					break;
+				case "-size":
+					String[] values = value.split("x");
+					rows = positive(kv[0], values[0]);
+					cols = (values.length > 1) ? positive(kv[0], values[1]) : rows;
+					break;
+				case "-count":
+					count = positive(kv[0], value);
+					break;
+				case "-threads":
+					threads = positive(kv[0], value);
+					break;
+				case "-out":
+					outDir = new File(value);
+					break;
+				case "-image":
+					imageFormat = value.toLowerCase();
+					break;
+				case "-cell":
+					cellSize = positive(kv[0], value);
+					break;
+				case "-seed":
+					try {
+						seed = Long.parseLong(value);
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Syntax error: " + arg);
+					}
+					break;
+				case "-storage":
+					try {
+						storageKind = MazeStorage.Kind.valueOf(value.toUpperCase());
+					} catch (IllegalArgumentException e) {
+						throw new IllegalArgumentException("Unknown storage: " + value + " "
+								+ Arrays.toString(MazeStorage.Kind.values()).toLowerCase());
+					}
+					break;
+				case "-cells":
+					switch (value) {
+						case "8":
+							cellWidth = CellPlane.Width.BYTE;
+							break;
+						case "16":
+							cellWidth = CellPlane.Width.SHORT;
+							break;
+						case "32":
+							cellWidth = CellPlane.Width.INT;
+							break;
+						default:
+							throw new IllegalArgumentException("Syntax error: " + arg);
+					}
+					break;
+				case "-stream":
+					stream = true;
+					break;
+				case "-batch":
+				case "-loglevel":
+					continue;
+				default:
+					Mazette.LOGGER.warn("Ignored argument: " + arg);
+					continue;
+			}
+
+			Mazette.LOGGER.info(" * " + arg);
+		}
+
+		if (imageFormat != null) {
+			if (outDir == null)
+				throw new IllegalArgumentException("-image requires an output folder (-out)");
+			if (!Arrays.asList("png", "gif", "jpg", "jpeg").contains(imageFormat))
+				throw new IllegalArgumentException("Unsupported image format: " + imageFormat + " [png, gif, jpg]");
+
+			// Une image trop grande n'échouerait qu'après la génération des labyrinthes.
+			MazeImageWriter.checkSize(rows, cols, cellSize);
+		}
+
+		if (cellWidth != CellPlane.Width.INT
+				&& (storageKind == MazeStorage.Kind.TILED || storageKind == MazeStorage.Kind.MAPPED))
+			Mazette.LOGGER.warn("-cells is ignored by the " + storageKind.name().toLowerCase() + " storage");
+
+		if ((long) rows * cols > Integer.MAX_VALUE - 8 && !stream) {
+			String name = (generatorName != null) ? generatorName : "kruskal";
+			if (storageKind != MazeStorage.Kind.MAPPED)
+				throw new IllegalArgumentException("Mazes over 2^31 cells require -storage=mapped");
+			if (!LARGE_GENERATORS.contains(name))
+				throw new IllegalArgumentException(
+						"Mazes over 2^31 cells only support the generators " + LARGE_GENERATORS);
+			if (solver != null || imageFormat != null)
+				throw new IllegalArgumentException("Mazes over 2^31 cells cannot be combined with -solve or -image");
+		}
+
+		if (stream) {
+			if (outDir == null)
+				throw new IllegalArgumentException("-stream requires an output folder (-out)");
+			if (solver != null || imageFormat != null)
+				throw new IllegalArgumentException("-stream cannot be combined with -solve or -image");
+			if (generatorName != null && !generatorName.equals("eller"))
+				throw new IllegalArgumentException("-stream only supports the Eller algorithm");
+		}
+	}
+
+	private static int positive(String key, String value) {
+		try {
+			int n = Integer.parseInt(value);
+			if (n > 0)
+				return n;
+		} catch (NumberFormatException e) {
+			// Traité ci-dessous
+		}
+
+		throw new IllegalArgumentException("Syntax error: " + key + "=" + value);
+	}
+
+	/**
+	 * Génère les labyrinthes en parallèle et affiche les statistiques du
+	 * traitement.
+	 *
+	 * @return Code de sortie du traitement.
+	 */
+	private int run() {
+		if (outDir != null && !outDir.isDirectory() && !outDir.mkdirs()) {
+			Mazette.LOGGER.error("Cannot create the output folder: " + outDir);
+			return 1;
+		}
+
+		Mazette.LOGGER.info(String.format("Batch: %d maze(s) of %dx%d cells on %d thread(s), seed %d", count, rows,
+				cols, threads, seed));
+
+		// Les graines de chaque labyrinthe sont tirées dans l'ordre du lot, avant
+		// répartition entre les threads.
+		SplittableRandom seeds = new SplittableRandom(seed);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<long[]>> jobs = new ArrayList<>(count);
+		long tic = System.nanoTime();
+		for (int id = 0; id < count; id++) {
+			final int index = id;
+			final long generationSeed = seeds.nextLong(), solvingSeed = seeds.nextLong();
+			jobs.add(executor.submit(() -> process(index, generationSeed, solvingSeed)));
+		}
+
+		int status = 0;
+		long[] generation = new long[count], solving = new long[count];
+		int done = 0;
+		for (Future<long[]> job : jobs) {
+			try {
+				long[] times = job.get();
+				generation[done] = times[0];
+				solving[done++] = times[1];
+			} catch (ExecutionException e) {
+				Mazette.LOGGER.error(e.getCause().getMessage(), e.getCause());
+				status = 1;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				status = 1;
+				break;
+			}
+		}
+
+		executor.shutdownNow();
+		double elapsed = (System.nanoTime() - tic) / 1e9D;
+
+		Mazette.LOGGER.info(String.format("Batch: %d/%d maze(s) in %.3f s - %.2f mazes/s, %.2f Mcells/s", done, count,
+				elapsed, done / elapsed, done * (double) rows * cols / elapsed / 1e6D));
+		logLatencies("generation", Arrays.copyOf(generation, done));
+		if (solver != null)
+			logLatencies("solving", Arrays.copyOf(solving, done));
+
+		return status;
+	}
+
+	/**
+	 * Génère, résout et enregistre un labyrinthe.
+	 *
+	 * @param index          Numéro du labyrinthe dans le lot.
+	 * @param generationSeed Graine de l'algorithme de génération.
+	 * @param solvingSeed    Graine de l'algorithme de résolution.
+	 * @return Durées de la génération et de la résolution (en nanosecondes).
+	 * @throws IOException En cas de problème lors de l'enregistrement.
+	 */
+	private long[] process(int index, long generationSeed, long solvingSeed) throws IOException {
+		String name = String.format("maze_%0" + String.valueOf(count - 1).length() + "d", index);
+		if (stream) {
+			long tic = System.nanoTime();
+			try (MazeRowWriter writer = new MazeRowWriter(new FileOutputStream(new File(outDir, name + ".mzr")), rows,
+					cols)) {
+				new EllerStream(rows, cols, generationSeed).generate(writer);
+			}
+
+			return new long[] { System.nanoTime() - tic, 0L };
+		}
+
+		// Un support projeté est rangé dans le dossier de sortie, ou à défaut dans un
+		// fichier temporaire supprimé après traitement.
+		Path mapFile = null;
+		boolean temporary = false;
+		if (storageKind == MazeStorage.Kind.MAPPED) {
+			temporary = (outDir == null);
+			mapFile = temporary ? Files.createTempFile(name, ".map") : new File(outDir, name + ".map").toPath();
+		}
+
+		MazeStorage storage = storageKind.create(rows, cols, cellWidth, mapFile);
+		long tic, tac, toc;
+		try {
+			Maze maze = new Maze(storage);
+			MazeBoard board = new MazeBoard(maze);
+
+			tic = System.nanoTime();
+			execute(generator.apply(board), generationSeed);
+			tac = System.nanoTime();
+			if (solver != null)
+				execute(solver.apply(board), solvingSeed);
+			toc = System.nanoTime();
+
+			if (outDir != null) {
+				if (mapFile == null) {
+					try (ObjectOutputStream oos = new ObjectOutputStream(
+							new BufferedOutputStream(new FileOutputStream(new File(outDir, name + ".maz"))))) {
+						oos.writeObject(maze);
+					}
+				}
+
+				if (imageFormat != null)
+					MazeImageWriter.write(maze, board.getPath(), cellSize, new File(outDir, name + "." + imageFormat));
+			}
+		} finally {
+			if (storage instanceof Closeable)
+				((Closeable) storage).close();
+			if (temporary)
+				Files.deleteIfExists(mapFile);
+		}
+
+		return new long[] { tac - tic, toc - tac };
+	}
+
+	/** Exécute un algorithme jusqu'à son terme, avec la graine indiquée. */
+	private static void execute(Algorithm algo, long seed) {
+		algo.setSeed(seed);
+		algo.init();
+		algo.runToCompletion();
+		algo.finish();
+	}
+
+	/** Affiche la répartition des durées d'une phase du traitement. */
+	private static void logLatencies(String phase, long[] times) {
+		if (times.length == 0)
+			return;
+
+		Arrays.sort(times);
+		double sum = 0D;
+		for (long time : times)
+			sum += time;
+
+		Mazette.LOGGER.info(String.format("Batch: %s (ms) - min %.3f, mean %.3f, p50 %.3f, p95 %.3f, p99 %.3f, max %.3f",
+				phase, times[0] / 1e6D, sum / times.length / 1e6D, percentile(times, 0.50D) / 1e6D,
+				percentile(times, 0.95D) / 1e6D, percentile(times, 0.99D) / 1e6D, times[times.length - 1] / 1e6D));
+	}
+
+	/** Fournit le centile d'une série triée (méthode du rang le plus proche). */
+	private static long percentile(long[] sorted, double p) {
+		int rank = (int) Math.ceil(p * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+}
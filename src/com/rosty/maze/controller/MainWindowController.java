@@ -52,6 +52,10 @@ public class MainWindowController implements Observer {
 	@FXML
 	private GIntegerField newMazeRows, newMazeColumns;
 
+	/** Graine des algorithmes ; un champ vide laisse les tirages au hasard. */
+	@FXML
+	private GLongField seed;
+
 	@FXML
 	private Label algoName;
 
@@ -243,6 +247,7 @@ public class MainWindowController implements Observer {
 	 */
 	public final void regenerate(MazeGenerationAlgorithm genAlgo) {
 		mazePanel.clear();
+		genAlgo.setSeed(getSeed());
 		GENERATOR.setAlgorithm(genAlgo);
 		GENERATOR.reset();
 
@@ -267,6 +272,7 @@ public class MainWindowController implements Observer {
 				route.setEnd(mazePanel.getMaze().getNbRows() - 1, mazePanel.getMaze().getNbColumns() - 1);
 				mazePanel.setRoute(route);
 
+				solAlgo.setSeed(getSeed());
 				SOLVER.setAlgorithm(solAlgo);
 				SOLVER.reset();
 			} else
@@ -280,6 +286,28 @@ public class MainWindowController implements Observer {
 		}
 	}
 
+	/**
+	 * Fournit la graine saisie par l'utilisateur, où <code>null</code> si le champ
+	 * est vide. Une graine hors de l'intervalle des entiers à 8 octets est signalée
+	 * à l'utilisateur et ignorée.
+	 */
+	private Long getSeed() {
+		String text = seed.getText();
+		if (text == null || text.isEmpty() || text.equals("-"))
+			return null;
+
+		try {
+			return seed.getValue();
+		} catch (NumberFormatException e) {
+			Mazette.LOGGER.error(e.getMessage(), e);
+
+			MessageBox box = new MessageBox(AlertType.ERROR, LocaleManager.getString("error.maze.run"));
+			box.setContentText(LocaleManager.getString("error.maze.run.seed"));
+			box.showAndWait();
+			return null;
+		}
+	}
+
 	/**
 	 * Affiche le nom d'un algorithme dans l'IHM avec la locale courante.
 	 * 
@@ -20,6 +20,7 @@ import com.rosty.maze.model.algorithm.generation.EllerAlgorithm;
 import com.rosty.maze.model.algorithm.generation.GrowingTreeAlgorithm;
 import com.rosty.maze.model.algorithm.generation.HuntAndKillAlgorithm;
 import com.rosty.maze.model.algorithm.generation.KruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ParallelKruskalAlgorithm;
 import com.rosty.maze.model.algorithm.generation.Personal2Algorithm;
 import com.rosty.maze.model.algorithm.generation.PersonalAlgorithm;
 import com.rosty.maze.model.algorithm.generation.PrimAlgorithm;
@@ -132,145 +133,151 @@ public class MenuBarController {
 	@FXML
 	private void generateKruskal() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new KruskalAlgorithm(controller.mazePanel));
+		controller.regenerate(new KruskalAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateShuffledKruskal() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new ShuffledKruskalAlgorithm(controller.mazePanel));
+		controller.regenerate(new ShuffledKruskalAlgorithm(controller.mazePanel.getBoard()));
+	}
+
+	@FXML
+	private void generateParallelKruskal() {
+		MainWindowController controller = AppLauncher.getMainController();
+		controller.regenerate(new ParallelKruskalAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateRecursiveBacktracker() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new RecursiveBacktrackingAlgorithm(controller.mazePanel));
+		controller.regenerate(new RecursiveBacktrackingAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateRecursiveDivision() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new RecursiveDivisionAlgorithm(controller.mazePanel));
+		controller.regenerate(new RecursiveDivisionAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generatePrim() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new PrimAlgorithm(controller.mazePanel));
+		controller.regenerate(new PrimAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateHuntAndKill() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new HuntAndKillAlgorithm(controller.mazePanel));
+		controller.regenerate(new HuntAndKillAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateAldousBroder() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new AldousBroderAlgorithm(controller.mazePanel));
+		controller.regenerate(new AldousBroderAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateWilson() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new WilsonAlgorithm(controller.mazePanel));
+		controller.regenerate(new WilsonAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateBinaryTree() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new BinaryTreeAlgorithm(controller.mazePanel));
+		controller.regenerate(new BinaryTreeAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateSidewinder() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new SidewinderAlgorithm(controller.mazePanel));
+		controller.regenerate(new SidewinderAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateEller() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new EllerAlgorithm(controller.mazePanel));
+		controller.regenerate(new EllerAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generatePersonal() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new PersonalAlgorithm(controller.mazePanel));
+		controller.regenerate(new PersonalAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generatePersonal2() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new Personal2Algorithm(controller.mazePanel));
+		controller.regenerate(new Personal2Algorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void generateGrowingTree() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.regenerate(new GrowingTreeAlgorithm(controller.mazePanel));
+		controller.regenerate(new GrowingTreeAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveWallFollowing() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new WallFollowingAlgorithm(controller.mazePanel));
+		controller.resetSolve(new WallFollowingAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveAStar() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new AStarAlgorithm(controller.mazePanel));
+		controller.resetSolve(new AStarAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveDijkstra() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new DijkstraAlgorithm(controller.mazePanel));
+		controller.resetSolve(new DijkstraAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solvePrimJarnik() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new PrimJarnikAlgorithm(controller.mazePanel));
+		controller.resetSolve(new PrimJarnikAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveLee() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new LeeAlgorithm(controller.mazePanel));
+		controller.resetSolve(new LeeAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solvePledge() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new PledgeAlgorithm(controller.mazePanel));
+		controller.resetSolve(new PledgeAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveTremeaux() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new TremeauxAlgorithm(controller.mazePanel));
+		controller.resetSolve(new TremeauxAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveRandomMouse() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new RandomMouseAlgorithm(controller.mazePanel));
+		controller.resetSolve(new RandomMouseAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveDeadEndFillingByScan() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new DeadEndFillingAlgorithm(controller.mazePanel));
+		controller.resetSolve(new DeadEndFillingAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
 	private void solveDeadEndFillingBySuivi() {
 		MainWindowController controller = AppLauncher.getMainController();
-		controller.resetSolve(new SuiviDeadEndFillingAlgorithm(controller.mazePanel));
+		controller.resetSolve(new SuiviDeadEndFillingAlgorithm(controller.mazePanel.getBoard()));
 	}
 
 	@FXML
@@ -5,6 +5,7 @@ import java.util.Observer;
 
 import com.rosty.maze.Mazette;
 import com.rosty.maze.application.labels.LocaleManager;
+import com.rosty.maze.model.algorithm.Algorithm;
 import com.rosty.maze.model.algorithm.AlgorithmRunner;
 import com.rosty.maze.model.algorithm.AlgorithmRunner.ObsRunnerState;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
@@ -113,11 +114,11 @@ public class ApplicationModel implements Observer {
 		// le lanceur, une NullPointerException va être lancée car l'on va remettre à
 		// zéro une instance Algorithm qui a été retirée.
 		if ((ObsRunnerState) arg == ObsRunnerState.ALGORITHM) {
-			// Recherche de la super-classe pour détecter le type d'algorithme
-			Class<?> algoClass = ((AlgorithmRunner) o).getAlgorithm().getClass().getSuperclass();
-			if (algoClass == MazeGenerationAlgorithm.class)
+			// Recherche de la classe de base pour détecter le type d'algorithme
+			Algorithm algo = ((AlgorithmRunner) o).getAlgorithm();
+			if (algo instanceof MazeGenerationAlgorithm)
 				mode = Mode.GENERATION;
-			else if (algoClass == MazeSolvingAlgorithm.class)
+			else if (algo instanceof MazeSolvingAlgorithm)
 				mode = Mode.RESOLUTION;
 			else
 				Mazette.LOGGER.error("This algorithm cannot be determined for the application.");
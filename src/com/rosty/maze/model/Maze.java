@@ -1,13 +1,81 @@
 package com.rosty.maze.model;
 
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
+import java.io.ObjectInputStream.GetField;
 import java.io.ObjectOutputStream;
+import java.io.ObjectOutputStream.PutField;
+import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.rosty.maze.model.storage.BitPackedStorage;
+import com.rosty.maze.model.storage.CellLayer;
+import com.rosty.maze.model.storage.CellPlane;
+import com.rosty.maze.model.storage.FlatStorage;
+import com.rosty.maze.model.storage.MappedStorage;
+import com.rosty.maze.model.storage.MazeStorage;
+import com.rosty.maze.model.storage.SnapshotStorage;
 
 /**
  * Classe représentant un labyrinthe (<i>maze</i> en anglais) de forme
- * rectangulaire.
+ * rectangulaire. Les valeurs des cases et des murs sont conservées dans un
+ * support mémoire interchangeable ({@link MazeStorage}).
+ * <p>
+ * Les cases peuvent être désignées par leurs coordonnées ou par leur indice
+ * <code>row * nbCol + col</code> (cf. {@link #cellIndex(int, int)}). Les
+ * méthodes suffixées par <i>Unchecked</i> ne vérifient pas cet indice et sont
+ * réservées aux boucles dont les bornes sont déjà garanties. Les indices étant
+ * des entiers, ces méthodes ne couvrent que les <code>2<sup>31</sup></code>
+ * premières cases des très grands terrains (cf. {@link MappedStorage}).
+ * </p>
+ * <p>
+ * Chaque modification du labyrinthe incrémente son numéro de version
+ * ({@link #getVersion()}) et date la région de {@value #REGION_SIZE}x{@value #REGION_SIZE}
+ * cases concernée. Un consommateur (affichage, analyse, sauvegarde) peut ainsi
+ * ne traiter que les régions modifiées depuis une version donnée (cf.
+ * {@link #getChangedRegions(long)}). Les écritures faites directement dans le
+ * support mémoire ({@link #getStorage()}) ne sont pas suivies.
+ * </p>
+ * <p>
+ * Une vue figée du labyrinthe peut être obtenue en temps constant par la
+ * méthode {@link #snapshot()} ; les régions modifiées ensuite sont copiées
+ * juste avant leur première modification, jusqu'à la libération de la vue.
+ * </p>
+ * <p>
+ * Le masque des côtés ouverts de chaque case (cf. {@link #openMask(int, int)})
+ * est construit à la première demande puis tenu à jour par les méthodes
+ * <code>setWall</code>. Au-delà de <code>2<sup>31</sup></code> cases, les
+ * masques ne sont pas conservés : ils sont lus à chaque demande dans le support
+ * mémoire.
+ * </p>
+ * <p>
+ * Les valeurs des cases rangées dans le support mémoire sont celles de
+ * l'algorithme de génération. D'autres valeurs peuvent être rangées dans des
+ * couches nommées ({@link CellLayer}), créées, effacées et supprimées
+ * indépendamment : les algorithmes de résolution travaillent ainsi dans la
+ * couche {@value #SOLVE_LAYER} sans écraser le labyrinthe généré. Les couches
+ * ne sont ni copiées, ni sérialisées, ni suivies par les numéros de version.
+ * </p>
+ * <p>
+ * La forme sérialisée ne dépend pas du support mémoire : elle reprend les champs
+ * des premières versions du logiciel (<code>nbRow</code>, <code>nbCol</code> et
+ * <code>table</code>), ce qui permet de relire les anciens fichiers
+ * <b>.maz</b>, puis les valeurs des cases et des murs (cf.
+ * {@link #writeObject(ObjectOutputStream)}). Un labyrinthe désérialisé est
+ * rangé dans un {@link FlatStorage}.
+ * </p>
  * 
  * @author Martin Rostagnat
  * @version 1.0
@@ -16,11 +84,100 @@ public class Maze implements Serializable {
 	/** Generated by Java */
 	private static final long serialVersionUID = -8063575449512444646L;
 
+	/**
+	 * Champs sérialisés : ceux des premières versions du logiciel. Le tableau
+	 * <code>table</code> des cases et des murs, indexé dans la grille
+	 * <code>(2*nbRow+1) x (2*nbCol+1)</code>, n'est renseigné que dans les anciens
+	 * fichiers.
+	 */
+	private static final ObjectStreamField[] serialPersistentFields = { //
+			new ObjectStreamField("nbRow", int.class), //
+			new ObjectStreamField("nbCol", int.class), //
+			new ObjectStreamField("table", int[][].class) };
+
+	/** Version de la forme sérialisée écrite après les champs. */
+	private static final int SERIAL_FORMAT = 1;
+
 	/** Nombre de lignes et de colonnes du labyrinthe */
 	private int nbRow, nbCol;
 
-	/** Tableau des cases du labyrinthe */
-	private int[][] table;
+	/** Support mémoire des cases et des murs du labyrinthe */
+	private transient MazeStorage storage;
+
+	/**
+	 * Écart d'indice entre une case et sa voisine, pour chaque direction (dans
+	 * l'ordre des constantes de {@link Side}).
+	 */
+	private transient int[] steps;
+
+	/** Décalage binaire correspondant à la taille d'une région suivie. */
+	private static final int REGION_SHIFT = 6;
+
+	/** Nombre de lignes et de colonnes de cases d'une région suivie. */
+	public static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+	/**
+	 * Numéro de version du labyrinthe, incrémenté à chaque modification. Comme les
+	 * versions des régions, c'est un champ ordinaire, écrit sans barrière
+	 * mémoire : il est publié aux autres fils d'exécution par
+	 * {@link #publishedVersion}.
+	 */
+	private transient long version = 0;
+
+	/**
+	 * Dernière version publiée. Cette écriture volatile, faite une fois par
+	 * écriture groupée (cf. {@link #fillCells(int)}), à la
+	 * fermeture d'un {@link WallWriter} et à l'effacement du labyrinthe, rend
+	 * visibles les écritures précédentes aux fils d'exécution qui la lisent (cf.
+	 * {@link #getVersion()} et {@link #getChangedRegions(long)}).
+	 */
+	private transient volatile long publishedVersion = 0;
+
+	/** Nombre de colonnes de régions suivies. */
+	private transient int regionCols;
+
+	/**
+	 * Version de la dernière modification de chaque région, rangées ligne par
+	 * ligne ; ce tableau est recréé à la demande après une désérialisation.
+	 */
+	private transient long[] regionVersions;
+
+	/**
+	 * Masques des côtés ouverts des cases, rangés ligne par ligne : le bit
+	 * <code>1 << side.ordinal()</code> est levé si le mur correspondant est
+	 * ouvert. Ce tableau est construit à la demande.
+	 */
+	private transient byte[] openMasks;
+
+	/**
+	 * Côtés ouverts correspondant à chacun des 16 masques possibles, dans l'ordre
+	 * des constantes de {@link Side}.
+	 */
+	private static final Side[][] OPEN_SIDES = new Side[16][];
+	static {
+		for (int mask = 0; mask < 16; mask++) {
+			OPEN_SIDES[mask] = new Side[Integer.bitCount(mask)];
+			for (int k = 0, n = 0; k < 4; k++)
+				if ((mask & (1 << k)) != 0)
+					OPEN_SIDES[mask][n++] = Side.of(k);
+		}
+	}
+
+	/**
+	 * Vues figées du labyrinthe encore utilisées. La liste est modifiée sous le
+	 * verrou du labyrinthe et lue sans verrou, ni barrière mémoire, à chaque
+	 * écriture (cf. {@link #snapshot()}).
+	 */
+	private transient List<WeakReference<SnapshotStorage>> snapshots;
+
+	/** Nom de la couche de travail des algorithmes de résolution. */
+	public static final String SOLVE_LAYER = "solve";
+
+	/** Nom de la couche des annotations de l'utilisateur. */
+	public static final String ANNOTATION_LAYER = "annotations";
+
+	/** Couches de valeurs des cases, par nom, dans l'ordre de leur création. */
+	private transient Map<String, CellLayer> layers;
 
 	/**
 	 * Constructeur de la classe {@link Maze}.
@@ -29,34 +186,62 @@ public class Maze implements Serializable {
 	 * @param nbCol Nombre de colonnes du terrain.
 	 */
 	public Maze(int nbRow, int nbCol) {
-		this.nbRow = nbRow;
-		this.nbCol = nbCol;
-		init();
+		this(new FlatStorage(nbRow, nbCol));
 	}
 
 	/**
-	 * Constructeur par copie de la classe {@link Maze}.
+	 * Constructeur de la classe {@link Maze} dont les valeurs des cases sont
+	 * codées sur 8, 16 ou 32 bits. Les algorithmes qui ne rangent dans les cases
+	 * que de petits marqueurs peuvent ainsi réduire la mémoire occupée ; les
+	 * cases sont élargies automatiquement quand une valeur l'impose.
 	 * 
-	 * @param old Matrice d'origine.
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @param width Largeur initiale des valeurs des cases.
 	 */
-	public Maze(Maze old) {
-		this.nbRow = old.nbRow;
-		this.nbCol = old.nbCol;
+	public Maze(int nbRow, int nbCol, CellPlane.Width width) {
+		this(new FlatStorage(nbRow, nbCol, width));
+	}
 
-		int r = 2 * nbRow + 1, c = 2 * nbCol + 1;
-		this.table = new int[r][c];
-		for (int i = 0; i < r; i++)
-			for (int j = 0; j < c; j++)
-				this.table[i][j] = old.table[i][j];
+	/**
+	 * Constructeur de la classe {@link Maze} s'appuyant sur un support mémoire
+	 * spécifique, par exemple {@link BitPackedStorage} pour les grandes grilles ou
+	 * {@link MappedStorage} pour celles qui dépassent la taille du tas.
+	 * 
+	 * @param storage Support des cases et des murs du labyrinthe.
+	 */
+	public Maze(MazeStorage storage) {
+		this.nbRow = storage.getNbRows();
+		this.nbCol = storage.getNbColumns();
+		this.storage = storage;
+		this.steps = new int[] { -nbCol, 1, nbCol, -1 };
+		this.regionCols = (nbCol + REGION_SIZE - 1) >>> REGION_SHIFT;
+	}
+
+	/**
+	 * Crée un labyrinthe sur le support mémoire de type spécifié ; un
+	 * {@link MappedStorage} est rangé dans un fichier temporaire.
+	 * 
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @param kind  Type de support mémoire.
+	 * @param width Largeur initiale des valeurs des cases.
+	 * @throws IOException Si le fichier support ne peut pas être créé.
+	 * @see MazeStorage.Kind#create(int, int, CellPlane.Width, java.nio.file.Path)
+	 */
+	public static Maze create(int nbRow, int nbCol, MazeStorage.Kind kind, CellPlane.Width width) throws IOException {
+		return new Maze(kind.create(nbRow, nbCol, width, null));
 	}
 
 	/**
-	 * Charge le terrain sur lequel sera construit le labyrinthe. Par défaut, les
-	 * murs ont pour valeur 1 et les cases ont pour valeur 0.
+	 * Constructeur par copie de la classe {@link Maze}. Un support
+	 * {@link MappedStorage} est copié dans un fichier temporaire, supprimé à la
+	 * fermeture du support de la copie (cf. {@link #getStorage()}).
+	 * 
+	 * @param old Matrice d'origine.
 	 */
-	private void init() {
-		table = new int[2 * nbRow + 1][];
-		clear();
+	public Maze(Maze old) {
+		this(old.storage.copy());
 	}
 
 	/** Indique le nombre de lignes du labyrinthe. */
@@ -69,6 +254,351 @@ public class Maze implements Serializable {
 		return nbCol;
 	}
 
+	/** Indique le nombre de cases du labyrinthe. */
+	public long getNbCells() {
+		return (long) nbRow * nbCol;
+	}
+
+	/**
+	 * Fournit le numéro de version du labyrinthe. Ce numéro augmente à chaque
+	 * modification d'une case ou d'un mur. Lu depuis un autre fil d'exécution que
+	 * celui qui modifie le labyrinthe, il est au moins égal à la dernière version
+	 * publiée.
+	 */
+	public long getVersion() {
+		long published = publishedVersion; // Lecture volatile : écritures publiées visibles
+		return Math.max(published, version);
+	}
+
+	/** Indique le nombre de lignes de régions suivies. */
+	public int getRegionRows() {
+		return (nbRow + REGION_SIZE - 1) >>> REGION_SHIFT;
+	}
+
+	/** Indique le nombre de colonnes de régions suivies. */
+	public int getRegionColumns() {
+		return regionCols;
+	}
+
+	/**
+	 * Fournit les régions du labyrinthe modifiées depuis une version donnée. La
+	 * région de la ligne <code>r</code> et de la colonne <code>c</code> correspond
+	 * au bit <code>r * getRegionColumns() + c</code> ; elle couvre les cases des
+	 * lignes <code>[r * REGION_SIZE, (r + 1) * REGION_SIZE[</code> et des colonnes
+	 * <code>[c * REGION_SIZE, (c + 1) * REGION_SIZE[</code>. Un mur modifié marque
+	 * les régions de ses deux cases adjacentes.
+	 * 
+	 * <p>
+	 * Les versions des régions sont écrites sans barrière mémoire : depuis un
+	 * autre fil d'exécution, toutes les modifications publiées (cf.
+	 * {@link #getVersion()}) sont visibles, les suivantes pas nécessairement.
+	 * </p>
+	 * 
+	 * @param since Version de référence, par exemple celle renvoyée par
+	 *              {@link #getVersion()} lors du dernier traitement.
+	 */
+	public BitSet getChangedRegions(long since) {
+		long published = publishedVersion; // Lecture volatile : écritures publiées visibles
+		long[] versions = regionVersions;
+		int count = getRegionRows() * regionCols;
+		BitSet changed = new BitSet(count);
+		for (int r = 0; r < count; r++)
+			if (((versions != null) ? versions[r] : Math.max(published, version)) > since)
+				changed.set(r);
+
+		return changed;
+	}
+
+	/** Fournit les versions des régions suivies, en les créant si besoin. */
+	private long[] regions() {
+		if (regionVersions == null) {
+			// Après désérialisation, toutes les régions sont considérées modifiées.
+			regionVersions = new long[getRegionRows() * regionCols];
+			Arrays.fill(regionVersions, version);
+		}
+
+		return regionVersions;
+	}
+
+	/** Date la modification de la case spécifiée. */
+	private void touch(int row, int col) {
+		regions()[(row >>> REGION_SHIFT) * regionCols + (col >>> REGION_SHIFT)] = ++version;
+	}
+
+	/** Publie les modifications faites jusqu'ici (cf. {@link #publishedVersion}). */
+	private void publish() {
+		publishedVersion = version;
+	}
+
+	/** Date la modification de la case d'indice spécifié. */
+	private void touch(int index) {
+		int row = index / nbCol;
+		touch(row, index - row * nbCol);
+	}
+
+	/** Date la modification d'un mur intérieur, donc de ses deux cases adjacentes. */
+	private void touchWall(int row, int col, Side side) {
+		touch(row, col);
+		switch (side) {
+			case UP:
+				row--;
+				break;
+			case DOWN:
+				row++;
+				break;
+			case LEFT:
+				col--;
+				break;
+			case RIGHT:
+				col++;
+				break;
+		}
+		regions()[(row >>> REGION_SHIFT) * regionCols + (col >>> REGION_SHIFT)] = version;
+	}
+
+	/**
+	 * Fournit une vue figée du labyrinthe, en lecture seule, dans son état actuel.
+	 * La vue est obtenue en temps constant et reste cohérente quand le labyrinthe
+	 * est modifié par la suite : avant la première modification d'une région de
+	 * cases, celle-ci est copiée dans les vues qui l'utilisent.
+	 * <p>
+	 * Les écritures case par case ne lisent la liste des vues qu'avec une lecture
+	 * ordinaire. Si la vue est demandée depuis un autre fil d'exécution que celui
+	 * qui modifie le labyrinthe, ce dernier doit donc se synchroniser avec le
+	 * demandeur (verrou, variable volatile, file de messages...) avant ses
+	 * écritures suivantes ; les écritures groupées et les écritures simultanées
+	 * (cf. {@link #concurrentWalls(int, int)}) lisent la liste sous le verrou du
+	 * labyrinthe et n'ont pas cette contrainte.
+	 * </p>
+	 * <p>
+	 * La vue doit être libérée dès qu'elle n'est plus utile (cf.
+	 * {@link Snapshot#close()}), de préférence dans un bloc
+	 * <code>try</code>-with-resources ; à défaut, elle n'est plus mise à jour dès
+	 * qu'elle n'est plus référencée.
+	 * </p>
+	 * 
+	 * @return Labyrinthe en lecture seule ; ses méthodes de modification lèvent
+	 *         une {@link UnsupportedOperationException}.
+	 */
+	public Snapshot snapshot() {
+		SnapshotStorage view = new SnapshotStorage(storage);
+		synchronized (this) {
+			if (snapshots == null)
+				snapshots = new CopyOnWriteArrayList<>();
+			else
+				snapshots.removeIf(ref -> ref.get() == null);
+
+			snapshots.add(new WeakReference<>(view));
+		}
+
+		Snapshot maze = new Snapshot(this, view);
+		((Maze) maze).version = getVersion();
+
+		return maze;
+	}
+
+	/** Cesse de tenir à jour une vue figée du labyrinthe. */
+	private synchronized void release(SnapshotStorage view) {
+		if (snapshots != null)
+			snapshots.removeIf(ref -> {
+				SnapshotStorage other = ref.get();
+				return other == null || other == view;
+			});
+	}
+
+	/**
+	 * Conserve, dans les vues figées, la région de la case spécifiée avant sa
+	 * modification.
+	 */
+	private void preserve(int row, int col) {
+		preserve(snapshots, row, col);
+	}
+
+	/**
+	 * Conserve, dans les vues figées spécifiées, la région de la case spécifiée
+	 * avant sa modification.
+	 */
+	private static void preserve(List<WeakReference<SnapshotStorage>> views, int row, int col) {
+		if (views != null && !views.isEmpty()) {
+			for (WeakReference<SnapshotStorage> ref : views) {
+				SnapshotStorage view = ref.get();
+				if (view != null) // Les vues perdues sont retirées à la prochaine création d'une vue.
+					view.preserve(row, col);
+			}
+		}
+	}
+
+	/**
+	 * Conserve, dans les vues figées, la région du mur spécifié avant sa
+	 * modification, c'est-à-dire celle de la case dont il est le mur du bas ou de
+	 * droite.
+	 */
+	private void preserveWall(int row, int col, Side side) {
+		if (side == Side.UP)
+			preserve(row - 1, col);
+		else if (side == Side.LEFT)
+			preserve(row, col - 1);
+		else
+			preserve(row, col);
+	}
+
+	/**
+	 * Fournit la couche de valeurs des cases de nom spécifié, en la créant si elle
+	 * n'existe pas encore. Une nouvelle couche a toutes ses cases à 0.
+	 * 
+	 * @param name Nom de la couche, par exemple {@link #SOLVE_LAYER}.
+	 */
+	public synchronized CellLayer createLayer(String name) {
+		if (layers == null)
+			layers = new LinkedHashMap<>();
+
+		CellLayer layer = layers.get(name);
+		if (layer == null) {
+			if ((long) nbRow * nbCol > Integer.MAX_VALUE - 8)
+				throw new IllegalStateException("Maze too large for a cell layer: " + nbRow + "x" + nbCol);
+
+			layer = new CellLayer(name, nbRow, nbCol);
+			layers.put(name, layer);
+		}
+
+		return layer;
+	}
+
+	/**
+	 * Fournit la couche de valeurs des cases de nom spécifié, où <code>null</code>
+	 * si elle n'existe pas.
+	 * 
+	 * @param name Nom de la couche.
+	 */
+	public synchronized CellLayer getLayer(String name) {
+		return (layers == null) ? null : layers.get(name);
+	}
+
+	/**
+	 * Supprime la couche de valeurs des cases de nom spécifié et libère sa
+	 * mémoire.
+	 * 
+	 * @param name Nom de la couche.
+	 * @return <code>true</code> si la couche existait, <code>false</code> sinon.
+	 */
+	public synchronized boolean dropLayer(String name) {
+		return layers != null && layers.remove(name) != null;
+	}
+
+	/** Fournit les noms des couches de valeurs existantes. */
+	public synchronized Set<String> getLayerNames() {
+		if (layers == null)
+			return Collections.emptySet();
+
+		return Collections.unmodifiableSet(new LinkedHashSet<>(layers.keySet()));
+	}
+
+	/**
+	 * Fournit le masque des côtés ouverts d'une case : le bit
+	 * <code>1 << side.ordinal()</code> est levé si le mur de la case dans la
+	 * direction <code>side</code> est ouvert (de valeur 0). Une case située hors du
+	 * terrain a pour masque 0.
+	 * 
+	 * @param row Numéro de ligne de la case.
+	 * @param col Numéro de colonne de la case.
+	 * @see #openSide(int, int)
+	 */
+	public int openMask(int row, int col) {
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol) {
+			byte[] masks = masks();
+			return (masks != null) ? masks[row * nbCol + col] : storageMask(row, col);
+		} else
+			return 0;
+	}
+
+	/**
+	 * Indique le nombre de côtés ouverts d'une case : 1 pour une impasse, 2 pour un
+	 * couloir, 3 ou 4 pour un carrefour.
+	 * 
+	 * @param row Numéro de ligne de la case.
+	 * @param col Numéro de colonne de la case.
+	 */
+	public int degree(int row, int col) {
+		return Integer.bitCount(openMask(row, col));
+	}
+
+	/**
+	 * Fournit le nombre de côtés ouverts d'un masque.
+	 * 
+	 * @param mask Masque des côtés ouverts d'une case (cf.
+	 *             {@link #openMask(int, int)}).
+	 */
+	public static int openSideCount(int mask) {
+		return Integer.bitCount(mask & 0xF);
+	}
+
+	/**
+	 * Fournit un côté ouvert d'un masque, sans allocation : les côtés ouverts sont
+	 * numérotés de <b>0</b> à <code>openSideCount(mask) - 1</code>, dans l'ordre
+	 * des constantes de {@link Side}.
+	 * 
+	 * @param mask Masque des côtés ouverts d'une case (cf.
+	 *             {@link #openMask(int, int)}).
+	 * @param k    Rang du côté ouvert.
+	 */
+	public static Side openSide(int mask, int k) {
+		return OPEN_SIDES[mask & 0xF][k];
+	}
+
+	/**
+	 * Fournit les masques des côtés ouverts des cases, en les construisant si
+	 * besoin, ou <code>null</code> si le labyrinthe compte trop de cases pour les
+	 * ranger dans un tableau.
+	 */
+	private byte[] masks() {
+		byte[] masks = openMasks;
+		if (masks == null) {
+			if (getNbCells() > Integer.MAX_VALUE - 8)
+				return null;
+
+			masks = new byte[nbRow * nbCol];
+			for (int i = 0, index = 0; i < nbRow; i++)
+				for (int j = 0; j < nbCol; j++, index++)
+					masks[index] = (byte) storageMask(i, j);
+
+			openMasks = masks;
+		}
+
+		return masks;
+	}
+
+	/** Calcule le masque des côtés ouverts d'une case d'après le support mémoire. */
+	private int storageMask(int row, int col) {
+		int mask = 0;
+		for (int k = 0; k < Side.COUNT; k++)
+			if (storage.getWall(row, col, Side.of(k)) == 0)
+				mask |= 1 << k;
+
+		return mask;
+	}
+
+	/** Met à jour les masques des deux cases adjacentes à un mur intérieur modifié. */
+	private void updateMasks(int row, int col, Side side, int value) {
+		byte[] masks = openMasks;
+		if (masks != null) {
+			int index = row * nbCol + col;
+			int next = index + steps[side.ordinal()];
+			int bit = 1 << side.ordinal(), opposite = 1 << side.opposite().ordinal();
+			if (value == 0) {
+				masks[index] |= bit;
+				masks[next] |= opposite;
+			} else {
+				masks[index] &= ~bit;
+				masks[next] &= ~opposite;
+			}
+		}
+	}
+
+	/** Fournit le support mémoire du labyrinthe. */
+	public MazeStorage getStorage() {
+		return storage;
+	}
+
 	/**
 	 * Définit la valeur de la cellule à la ligne et à la colonne indiquée.
 	 * 
@@ -77,14 +607,17 @@ public class Maze implements Serializable {
 	 * @param value Valeur de la case.
 	 */
 	public void setCell(int row, int col, int value) {
-		if (row < nbRow && col < nbCol)
-			table[2 * row + 1][2 * col + 1] = value;
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol) {
+			preserve(row, col);
+			storage.setCell(row, col, value);
+			touch(row, col);
+		}
 	}
 
 	/** Fournit la valeur de la cellule à la ligne et à la colonne indiquée. */
 	public int getCell(int row, int col) {
-		if (row < nbRow && col < nbCol)
-			return table[2 * row + 1][2 * col + 1];
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol)
+			return storage.getCell(row, col);
 		else
 			return -1;
 	}
@@ -98,25 +631,30 @@ public class Maze implements Serializable {
 	 * @param value Valeur associée au mur.
 	 */
 	public void setWall(int row, int col, Side side, int value) {
-		if (col >= 0 && col < nbCol && row >= 0 && row < nbRow) {
-			switch (side) {
-				case UP:
-					if (row > 0)
-						table[2 * row][2 * col + 1] = value;
-					break;
-				case DOWN:
-					if (row < nbRow - 1)
-						table[2 * row + 2][2 * col + 1] = value;
-					break;
-				case LEFT:
-					if (col > 0)
-						table[2 * row + 1][2 * col] = value;
-					break;
-				case RIGHT:
-					if (col < nbCol - 1)
-						table[2 * row + 1][2 * col + 2] = value;
-					break;
-			}
+		if (isInnerWall(row, col, side)) {
+			preserveWall(row, col, side);
+			storage.setWall(row, col, side, value);
+			updateMasks(row, col, side, value);
+			touchWall(row, col, side);
+		}
+	}
+
+	/** Indique si le mur spécifié est un mur intérieur du terrain. */
+	private boolean isInnerWall(int row, int col, Side side) {
+		if (col < 0 || col >= nbCol || row < 0 || row >= nbRow)
+			return false;
+
+		switch (side) {
+			case UP:
+				return row > 0;
+			case DOWN:
+				return row < nbRow - 1;
+			case LEFT:
+				return col > 0;
+			case RIGHT:
+				return col < nbCol - 1;
+			default:
+				return false;
 		}
 	}
 
@@ -130,44 +668,262 @@ public class Maze implements Serializable {
 	 */
 	public int getWall(int row, int col, Side side) {
 		if (col >= 0 && col < nbCol && row >= 0 && row < nbRow)
-			switch (side) {
-				case UP:
-					return table[2 * row][2 * col + 1];
-				case DOWN:
-					return table[2 * row + 2][2 * col + 1];
-				case LEFT:
-					return table[2 * row + 1][2 * col];
-				case RIGHT:
-					return table[2 * row + 1][2 * col + 2];
-				default:
-					return -1;
-			}
+			return storage.getWall(row, col, side);
+		else
+			return -1;
+	}
+
+	/**
+	 * Fournit l'indice de la case à la ligne et à la colonne indiquée, où
+	 * <b>-1</b> si cette case n'est pas présente sur le terrain ou si son indice
+	 * dépasse la capacité d'un entier.
+	 * 
+	 * @param row Numéro de ligne.
+	 * @param col Numéro de colonne.
+	 */
+	public int cellIndex(int row, int col) {
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol) {
+			long index = (long) row * nbCol + col;
+			return (index <= Integer.MAX_VALUE) ? (int) index : -1;
+		} else
+			return -1;
+	}
+
+	/** Fournit le numéro de ligne de la case d'indice spécifié. */
+	public int rowOf(int index) {
+		return index / nbCol;
+	}
+
+	/** Fournit le numéro de colonne de la case d'indice spécifié. */
+	public int columnOf(int index) {
+		return index % nbCol;
+	}
+
+	/**
+	 * Fournit l'indice de la case voisine d'une case donnée dans une direction
+	 * donnée, où <b>-1</b> si cette case voisine n'est pas présente sur le terrain.
+	 * 
+	 * @param index Indice de la case.
+	 * @param side  Direction de la case voisine.
+	 */
+	public int neighbourIndex(int index, Side side) {
+		if (index < 0 || index >= getNbCells())
+			return -1;
+
+		switch (side) {
+			case UP:
+				return (index >= nbCol) ? index - nbCol : -1;
+			case DOWN:
+				return (index < getNbCells() - nbCol) ? index + nbCol : -1;
+			case LEFT:
+				return (index % nbCol != 0) ? index - 1 : -1;
+			case RIGHT:
+				return (index % nbCol != nbCol - 1) ? index + 1 : -1;
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * Indique si le mur d'une case dans une direction donnée est ouvert, c'est-à-dire
+	 * si l'on peut passer à la case voisine. Les murs de bordure sont toujours
+	 * fermés.
+	 * 
+	 * @param index Indice de la case.
+	 * @param side  Direction du mur par rapport à la case.
+	 */
+	public boolean isOpen(int index, Side side) {
+		return getWall(index, side) == 0;
+	}
+
+	/**
+	 * Définit la valeur de la cellule d'indice spécifié.
+	 * 
+	 * @param index Indice de la case.
+	 * @param value Valeur de la case.
+	 */
+	public void setCellAt(int index, int value) {
+		if (index >= 0 && index < getNbCells()) {
+			preserve(index / nbCol, index % nbCol);
+			storage.setCell(index, value);
+			touch(index);
+		}
+	}
+
+	/**
+	 * Fournit la valeur de la cellule d'indice spécifié, où <b>-1</b> si cette case
+	 * n'est pas présente sur le terrain.
+	 */
+	public int getCellAt(int index) {
+		if (index >= 0 && index < getNbCells())
+			return storage.getCell(index);
+		else
+			return -1;
+	}
+
+	/**
+	 * Définit la valeur d'un mur du terrain en se référant à l'indice d'une case
+	 * adjacente. Les murs de bordure ne sont pas modifiables.
+	 * 
+	 * @param index Indice de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 * @param value Valeur associée au mur.
+	 */
+	public void setWall(int index, Side side, int value) {
+		if (neighbourIndex(index, side) >= 0) {
+			preserveWall(index / nbCol, index % nbCol, side);
+			storage.setWall(index, side, value);
+			updateMasks(index / nbCol, index % nbCol, side, value);
+			touchWall(index / nbCol, index % nbCol, side);
+		}
+	}
+
+	/**
+	 * Fournit la valeur d'un mur en se référant à l'indice d'une case adjacente, où
+	 * <b>-1</b> si cette case n'est pas présente sur le terrain.
+	 * 
+	 * @param index Indice de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 */
+	public int getWall(int index, Side side) {
+		if (index >= 0 && index < getNbCells())
+			return storage.getWall(index, side);
 		else
 			return -1;
 	}
 
 	/**
-	 * Définit la valeur d'une case du terrain.
+	 * Fournit la valeur de la cellule d'indice spécifié, sans vérifier que cet
+	 * indice est situé sur le terrain.
+	 */
+	public int getCellUnchecked(int index) {
+		return storage.getCell(index);
+	}
+
+	/**
+	 * Définit la valeur de la cellule d'indice spécifié, sans vérifier que cet
+	 * indice est situé sur le terrain. L'écriture est faite directement dans le
+	 * support mémoire : ni les vues figées, ni les versions ne sont tenues à jour.
+	 * Une boucle d'écriture est donc encadrée par
+	 * {@link #preserveRegion(int, int, int, int)} et
+	 * {@link #touchRegion(int, int, int, int)} sur la zone qu'elle couvre.
+	 */
+	public void setCellUnchecked(int index, int value) {
+		storage.setCell(index, value);
+	}
+
+	/**
+	 * Conserve, dans les vues figées, les cases des lignes <code>[row0, row1[</code>
+	 * et des colonnes <code>[col0, col1[</code>, avant que celles-ci ne soient
+	 * modifiées par des écritures non suivies (cf.
+	 * {@link #setCellUnchecked(int, int)}). La partie de cette zone située hors du
+	 * terrain est ignorée.
+	 * 
+	 * @param row0 Première ligne (incluse).
+	 * @param col0 Première colonne (incluse).
+	 * @param row1 Dernière ligne (exclue).
+	 * @param col1 Dernière colonne (exclue).
+	 */
+	public void preserveRegion(int row0, int col0, int row1, int col1) {
+		row0 = Math.max(row0, 0);
+		col0 = Math.max(col0, 0);
+		row1 = Math.min(row1, nbRow);
+		col1 = Math.min(col1, nbCol);
+		if (row0 < row1 && col0 < col1)
+			preserveRange(row0, col0, row1, col1);
+	}
+
+	/**
+	 * Date, d'un seul numéro de version, la modification des cases des lignes
+	 * <code>[row0, row1[</code> et des colonnes <code>[col0, col1[</code> par des
+	 * écritures non suivies (cf. {@link #setCellUnchecked(int, int)}), et publie
+	 * ces écritures aux autres fils d'exécution. La partie de cette zone située
+	 * hors du terrain est ignorée.
+	 * 
+	 * @param row0 Première ligne (incluse).
+	 * @param col0 Première colonne (incluse).
+	 * @param row1 Dernière ligne (exclue).
+	 * @param col1 Dernière colonne (exclue).
+	 */
+	public void touchRegion(int row0, int col0, int row1, int col1) {
+		row0 = Math.max(row0, 0);
+		col0 = Math.max(col0, 0);
+		row1 = Math.min(row1, nbRow);
+		col1 = Math.min(col1, nbCol);
+		if (row0 < row1 && col0 < col1)
+			touchRange(row0, col0, row1, col1);
+	}
+
+	/**
+	 * Indique si le mur d'une case dans une direction donnée est ouvert, sans
+	 * vérifier que l'indice de la case est situé sur le terrain. Les murs de
+	 * bordure restent fermés.
+	 */
+	public boolean isOpenUnchecked(int index, Side side) {
+		return storage.getWall(index, side) == 0;
+	}
+
+	/**
+	 * Fournit le masque des côtés ouverts de la case d'indice spécifié (cf.
+	 * {@link #openMask(int, int)}), sans vérifier que cet indice est situé sur le
+	 * terrain.
+	 */
+	public int openMaskUnchecked(int index) {
+		byte[] masks = masks();
+		return (masks != null) ? masks[index] : storageMask(index / nbCol, index % nbCol);
+	}
+
+	/**
+	 * Fournit l'indice de la case voisine dans une direction donnée, sans vérifier
+	 * que cette voisine existe : le mur correspondant doit être ouvert, ou la case
+	 * éloignée des bordures.
+	 */
+	public int neighbourIndexUnchecked(int index, Side side) {
+		return index + steps[side.ordinal()];
+	}
+
+	/**
+	 * Définit la valeur d'une case du terrain, exprimée dans la grille
+	 * <code>(2*nbRow+1) x (2*nbCol+1)</code> des cases, des murs et des jonctions
+	 * de murs. Les murs de bordure et les jonctions de murs ne sont pas
+	 * modifiables.
 	 * 
 	 * @param row   Numéro de ligne de la case.
 	 * @param col   Numéro de colonne de la case.
 	 * @param value Valeur de la case.
 	 */
 	public void set(int row, int col, int value) {
-		if (row >= 0 && row <= 2 * nbRow && col >= 0 && col <= 2 * nbCol)
-			table[row][col] = value;
+		if (row >= 0 && row <= 2 * nbRow && col >= 0 && col <= 2 * nbCol) {
+			if (row % 2 == 1 && col % 2 == 1)
+				setCell(row / 2, col / 2, value);
+			else if (row % 2 == 1)
+				setWall(row / 2, col / 2, Side.LEFT, value);
+			else if (col % 2 == 1)
+				setWall(row / 2, col / 2, Side.UP, value);
+		}
 	}
 
 	/**
-	 * Fournit la valeur de la case du terrain aux coordonnées indiquées.
+	 * Fournit la valeur de la case du terrain aux coordonnées indiquées, exprimées
+	 * dans la grille <code>(2*nbRow+1) x (2*nbCol+1)</code> des cases, des murs et
+	 * des jonctions de murs.
 	 * 
 	 * @param row Numéro de ligne de la case.
 	 * @param col Numéro de colonne de la case.
 	 */
 	public int get(int row, int col) {
-		if (row >= 0 && row <= 2 * nbRow && col >= 0 && col <= 2 * nbCol)
-			return table[row][col];
-		else
+		if (row >= 0 && row <= 2 * nbRow && col >= 0 && col <= 2 * nbCol) {
+			if (row % 2 == 1 && col % 2 == 1) // Case
+				return storage.getCell(row / 2, col / 2);
+			else if (row % 2 == 1) // Mur vertical
+				return (col == 2 * nbCol) ? storage.getWall(row / 2, nbCol - 1, Side.RIGHT)
+						: storage.getWall(row / 2, col / 2, Side.LEFT);
+			else if (col % 2 == 1) // Mur horizontal
+				return (row == 2 * nbRow) ? storage.getWall(nbRow - 1, col / 2, Side.DOWN)
+						: storage.getWall(row / 2, col / 2, Side.UP);
+			else // Jonction de murs
+				return 1;
+		} else
 			return -1;
 	}
 
@@ -193,6 +949,66 @@ public class Maze implements Serializable {
 		}
 	}
 
+	/**
+	 * Fournit la valeur de la case voisine à une case donnée dans une direction
+	 * donnée, où <b>-1</b> si cette case voisine n'est pas présente sur le terrain.
+	 * 
+	 * @param row  Numéro de ligne de la case.
+	 * @param col  Numéro de colonne de la case.
+	 * @param side Direction de la case voisine.
+	 */
+	public int getNeighbourCell(int row, int col, Side side) {
+		return getCell(row + side.dr, col + side.dc);
+	}
+
+	/**
+	 * Enumère les directions des cases voisines d'une case donnée qui sont
+	 * présentes sur le terrain, dans l'ordre des constantes de {@link Side}. Les
+	 * directions sont rangées au début du tampon fourni, ce qui permet de
+	 * parcourir les voisins d'une case sans créer d'objet.
+	 * 
+	 * @param row    Numéro de ligne de la case.
+	 * @param col    Numéro de colonne de la case.
+	 * @param buffer Tampon d'au moins {@link Side#COUNT} éléments.
+	 * @return Nombre de directions rangées dans le tampon.
+	 */
+	public int neighbours(int row, int col, Side[] buffer) {
+		int count = 0;
+		if (row > 0)
+			buffer[count++] = Side.UP;
+
+		if (col < nbCol - 1)
+			buffer[count++] = Side.RIGHT;
+
+		if (row < nbRow - 1)
+			buffer[count++] = Side.DOWN;
+
+		if (col > 0)
+			buffer[count++] = Side.LEFT;
+
+		return count;
+	}
+
+	/**
+	 * Enumère les directions des cases voisines d'une case donnée dont la valeur
+	 * est celle spécifiée, dans l'ordre des constantes de {@link Side}.
+	 * 
+	 * @param row    Numéro de ligne de la case.
+	 * @param col    Numéro de colonne de la case.
+	 * @param value  Valeur recherchée dans les cases voisines.
+	 * @param buffer Tampon d'au moins {@link Side#COUNT} éléments.
+	 * @return Nombre de directions rangées dans le tampon.
+	 * @see #neighbours(int, int, Side[])
+	 */
+	public int neighbours(int row, int col, int value, Side[] buffer) {
+		int count = 0;
+		for (int k = 0, n = neighbours(row, col, buffer); k < n; k++)
+			if (getCell(row + buffer[k].dr, col + buffer[k].dc) == value)
+				buffer[count++] = buffer[k];
+
+		return count;
+	}
+
 	/**
 	 * Affiche le labyrinthe sous forme d'un tableau textuel affichant la valeur de
 	 * ses cases et de ses murs.
@@ -202,43 +1018,553 @@ public class Maze implements Serializable {
 		String format = "%" + N + "d";
 		for (int i = 0, lenI = 2 * nbRow + 1; i < lenI; i++) {
 			for (int j = 0, lenJ = 2 * nbCol + 1; j < lenJ; j++)
-				System.out.print(String.format(format, table[i][j]) + " ");
+				System.out.print(String.format(format, get(i, j)) + " ");
 
 			System.out.println();
 		}
 	}
 
+	/**
+	 * Attribue la même valeur à toutes les cases du labyrinthe.
+	 * 
+	 * @param value Valeur des cases.
+	 */
+	public void fillCells(int value) {
+		fillRegion(0, 0, nbRow, nbCol, value);
+	}
+
+	/**
+	 * Attribue la même valeur aux cases des lignes <code>[row0, row1[</code> et des
+	 * colonnes <code>[col0, col1[</code>. La partie de cette zone située hors du
+	 * terrain est ignorée.
+	 * 
+	 * @param row0  Première ligne (incluse).
+	 * @param col0  Première colonne (incluse).
+	 * @param row1  Dernière ligne (exclue).
+	 * @param col1  Dernière colonne (exclue).
+	 * @param value Valeur des cases.
+	 */
+	public void fillRegion(int row0, int col0, int row1, int col1, int value) {
+		row0 = Math.max(row0, 0);
+		col0 = Math.max(col0, 0);
+		row1 = Math.min(row1, nbRow);
+		col1 = Math.min(col1, nbCol);
+		if (row0 >= row1 || col0 >= col1)
+			return;
+
+		preserveRange(row0, col0, row1, col1);
+		for (int row = row0; row < row1; row++)
+			storage.fillCells(row, col0, col1, value);
+
+		touchRange(row0, col0, row1, col1);
+	}
+
+	/** Retire tous les murs intérieurs du labyrinthe ; les bordures sont conservées. */
+	public void removeAllInteriorWalls() {
+		setAllInteriorWalls(0);
+	}
+
+	/** Place tous les murs intérieurs du labyrinthe. */
+	public void setAllWalls() {
+		setAllInteriorWalls(1);
+	}
+
+	/** Attribue la même valeur à tous les murs intérieurs du labyrinthe. */
+	private void setAllInteriorWalls(int value) {
+		preserveRange(0, 0, nbRow, nbCol);
+		for (int row = 0; row < nbRow; row++) {
+			if (row < nbRow - 1)
+				storage.fillWalls(row, 0, nbCol, Side.DOWN, value);
+
+			storage.fillWalls(row, 0, nbCol - 1, Side.RIGHT, value);
+		}
+
+		if (value == 0)
+			openMasks = null; // Reconstruits à la demande
+		else if (openMasks != null)
+			Arrays.fill(openMasks, (byte) 0);
+
+		touchRange(0, 0, nbRow, nbCol);
+	}
+
+	/**
+	 * Attribue la même valeur aux murs situés du côté <code>side</code> des cases
+	 * de la ligne <code>row</code> dont les colonnes sont comprises entre
+	 * <code>col0</code> (inclus) et <code>col1</code> (exclu). Les murs de bordure
+	 * et les cases hors du terrain sont ignorés.
+	 * 
+	 * @param row   Numéro de ligne.
+	 * @param col0  Première colonne (incluse).
+	 * @param col1  Dernière colonne (exclue).
+	 * @param side  Côté des murs par rapport aux cases.
+	 * @param value Valeur des murs.
+	 */
+	public void setRowWalls(int row, int col0, int col1, Side side, int value) {
+		writeRowWalls(row, col0, col1, side, value, true);
+	}
+
+	/**
+	 * Ecrit des murs d'une ligne (cf. {@link #setRowWalls(int, int, int, Side, int)}),
+	 * en tenant à jour ou non les vues figées, les masques et les versions.
+	 */
+	private void writeRowWalls(int row, int col0, int col1, Side side, int value, boolean tracked) {
+		// Les murs du haut et de gauche sont ceux du bas et de droite des cases voisines.
+		if (side == Side.UP || side == Side.LEFT) {
+			row += side.dr;
+			col0 += side.dc;
+			col1 += side.dc;
+			side = side.opposite();
+		}
+
+		col0 = Math.max(col0, 0);
+		col1 = Math.min(col1, (side == Side.RIGHT) ? nbCol - 1 : nbCol);
+		if (row < 0 || row >= ((side == Side.DOWN) ? nbRow - 1 : nbRow) || col0 >= col1)
+			return;
+
+		if (!tracked) {
+			storage.fillWalls(row, col0, col1, side, value);
+			return;
+		}
+
+		preserveRange(row, col0, row + 1, col1);
+		storage.fillWalls(row, col0, col1, side, value);
+		for (int col = col0; col < col1; col++)
+			updateMasks(row, col, side, value);
+
+		touchRange(row, col0, row + side.dr + 1, col1 + side.dc);
+	}
+
+	/**
+	 * Attribue la même valeur aux murs situés du côté <code>side</code> des cases
+	 * de la colonne <code>col</code> dont les lignes sont comprises entre
+	 * <code>row0</code> (inclus) et <code>row1</code> (exclu). Les murs de bordure
+	 * et les cases hors du terrain sont ignorés.
+	 * 
+	 * @param col   Numéro de colonne.
+	 * @param row0  Première ligne (incluse).
+	 * @param row1  Dernière ligne (exclue).
+	 * @param side  Côté des murs par rapport aux cases.
+	 * @param value Valeur des murs.
+	 */
+	public void setColumnWalls(int col, int row0, int row1, Side side, int value) {
+		writeColumnWalls(col, row0, row1, side, value, true);
+	}
+
+	/**
+	 * Ecrit des murs d'une colonne (cf.
+	 * {@link #setColumnWalls(int, int, int, Side, int)}), en tenant à jour ou non
+	 * les vues figées, les masques et les versions.
+	 */
+	private void writeColumnWalls(int col, int row0, int row1, Side side, int value, boolean tracked) {
+		// Les murs du haut et de gauche sont ceux du bas et de droite des cases voisines.
+		if (side == Side.UP || side == Side.LEFT) {
+			col += side.dc;
+			row0 += side.dr;
+			row1 += side.dr;
+			side = side.opposite();
+		}
+
+		row0 = Math.max(row0, 0);
+		row1 = Math.min(row1, (side == Side.DOWN) ? nbRow - 1 : nbRow);
+		if (col < 0 || col >= ((side == Side.RIGHT) ? nbCol - 1 : nbCol) || row0 >= row1)
+			return;
+
+		if (!tracked) {
+			for (int row = row0; row < row1; row++)
+				storage.setWall(row, col, side, value);
+			return;
+		}
+
+		preserveRange(row0, col, row1, col + 1);
+		for (int row = row0; row < row1; row++) {
+			storage.setWall(row, col, side, value);
+			updateMasks(row, col, side, value);
+		}
+
+		touchRange(row0, col, row1 + side.dr, col + side.dc + 1);
+	}
+
+	/**
+	 * Retire les murs des cases des lignes <code>[row0, row1[</code> d'après les
+	 * masques de leurs côtés ouverts : le bit <code>1 << side.ordinal()</code> du
+	 * masque d'une case est levé pour chaque mur à retirer. Les autres murs ne sont
+	 * pas modifiés, et les bits des murs de bordure sont ignorés.
+	 * 
+	 * @param row0   Première ligne (incluse).
+	 * @param row1   Dernière ligne (exclue).
+	 * @param masks  Masques des côtés ouverts, rangés ligne par ligne.
+	 * @param offset Position du masque de la première case de la ligne
+	 *               <code>row0</code>.
+	 */
+	public void openWalls(int row0, int row1, byte[] masks, int offset) {
+		writeOpenWalls(row0, row1, masks, offset, true);
+	}
+
+	/**
+	 * Retire des murs d'après des masques (cf.
+	 * {@link #openWalls(int, int, byte[], int)}), en tenant à jour ou non les vues
+	 * figées, les masques et les versions.
+	 */
+	private void writeOpenWalls(int row0, int row1, byte[] masks, int offset, boolean tracked) {
+		row0 = Math.max(row0, 0);
+		row1 = Math.min(row1, nbRow);
+		if (row0 >= row1)
+			return;
+
+		// Les murs du haut de la première ligne appartiennent à la ligne précédente.
+		int top = Math.max(row0 - 1, 0);
+		if (tracked)
+			preserveRange(top, 0, row1, nbCol);
+
+		for (int row = row0; row < row1; row++) {
+			for (int col = 0; col < nbCol; col++) {
+				int mask = masks[offset++];
+				if (mask == 0)
+					continue;
+
+				for (Side side : OPEN_SIDES[mask & 0xF]) {
+					int i = row + side.dr, j = col + side.dc;
+					if (i >= 0 && i < nbRow && j >= 0 && j < nbCol) {
+						storage.setWall(row, col, side, 0);
+						if (tracked)
+							updateMasks(row, col, side, 0);
+					}
+				}
+			}
+		}
+
+		if (tracked)
+			touchRange(top, 0, Math.min(row1 + 1, nbRow), nbCol);
+	}
+
+	/**
+	 * Ouvre l'écriture simultanée, par plusieurs threads, des murs des cases des
+	 * lignes <code>[row0, row1[</code> (cf. {@link WallWriter}). Les régions
+	 * concernées sont conservées dès maintenant dans les vues figées.
+	 * 
+	 * @param row0 Première ligne (incluse).
+	 * @param row1 Dernière ligne (exclue).
+	 * @return Ecriture à fermer, dans le thread courant, une fois toutes les
+	 *         écritures terminées.
+	 */
+	public WallWriter concurrentWalls(int row0, int row1) {
+		return concurrentWalls(row0, row1, null);
+	}
+
+	/**
+	 * Ouvre l'écriture simultanée des murs des cases des lignes
+	 * <code>[row0, row1[</code>, avec une action exécutée à sa fermeture.
+	 */
+	WallWriter concurrentWalls(int row0, int row1, Runnable onClose) {
+		row0 = Math.max(row0, 0);
+		row1 = Math.min(row1, nbRow);
+		if (row0 < row1)
+			preserveRange(Math.max(row0 - 1, 0), 0, row1, nbCol);
+
+		return new WallWriter(row0, row1, onClose);
+	}
+
+	/**
+	 * Conserve, dans les vues figées, les régions des cases des lignes
+	 * <code>[row0, row1[</code> et des colonnes <code>[col0, col1[</code> avant leur
+	 * modification.
+	 */
+	private void preserveRange(int row0, int col0, int row1, int col1) {
+		List<WeakReference<SnapshotStorage>> views;
+		synchronized (this) { // Une fois par écriture groupée : voit les vues des autres fils
+			views = snapshots;
+		}
+
+		if (views != null && !views.isEmpty())
+			for (int row = row0 & -REGION_SIZE; row < row1; row += REGION_SIZE)
+				for (int col = col0 & -REGION_SIZE; col < col1; col += REGION_SIZE)
+					preserve(views, Math.max(row, row0), Math.max(col, col0));
+	}
+
+	/**
+	 * Date, d'un même numéro de version, la modification des régions des cases des
+	 * lignes <code>[row0, row1[</code> et des colonnes <code>[col0, col1[</code>.
+	 */
+	private void touchRange(int row0, int col0, int row1, int col1) {
+		long[] versions = regions();
+		long stamp = ++version;
+		for (int r = row0 >>> REGION_SHIFT, lenR = (row1 - 1) >>> REGION_SHIFT; r <= lenR; r++)
+			for (int c = col0 >>> REGION_SHIFT, lenC = (col1 - 1) >>> REGION_SHIFT; c <= lenC; c++)
+				versions[r * regionCols + c] = stamp;
+
+		publish();
+	}
+
 	/**
 	 * Efface les valeurs du labyrinthe en apposant la valeur 0 aux cases et la
 	 * valeur 1 aux murs.
 	 */
 	public void clear() {
-		for (int i = 0, lenI = table.length; i < lenI; i++) {
-			table[i] = new int[2 * nbCol + 1];
-			for (int j = 0, lenJ = table[i].length; j < lenJ; j++)
-				table[i][j] = (i % 2 == 0) || (j % 2 == 0) ? 1 : 0;
+		List<WeakReference<SnapshotStorage>> views;
+		synchronized (this) {
+			views = snapshots;
 		}
+
+		if (views != null)
+			for (WeakReference<SnapshotStorage> ref : views) {
+				SnapshotStorage view = ref.get();
+				if (view != null)
+					view.preserveAll();
+			}
+
+		storage.clear();
+		if (openMasks != null)
+			Arrays.fill(openMasks, (byte) 0);
+
+		Arrays.fill(regions(), ++version);
+		publish();
 	}
 
-	public void writeObject(ObjectOutputStream out) throws IOException {
-		out.writeInt(this.nbRow);
-		out.writeInt(this.nbCol);
+	/**
+	 * Sérialise le labyrinthe : les champs {@link #serialPersistentFields} (sans
+	 * <code>table</code>), la version du format, puis pour chaque ligne les valeurs
+	 * de ses cases, de ses murs du bas et de ses murs de droite.
+	 * 
+	 * @serialData Version du format (<b>1</b>), puis
+	 *             <code>3 * nbRow * nbCol</code> entiers.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		PutField fields = out.putFields();
+		fields.put("nbRow", nbRow);
+		fields.put("nbCol", nbCol);
+		fields.put("table", null);
+		out.writeFields();
 
-		int r = 2 * nbRow + 1, c = 2 * nbCol + 1;
-		for (int i = 0; i < r; i++)
-			for (int j = 0; j < c; j++)
-				out.writeInt(this.table[i][j]);
+		out.writeInt(SERIAL_FORMAT);
+		for (int row = 0; row < nbRow; row++) {
+			for (int col = 0; col < nbCol; col++)
+				out.writeInt(storage.getCell(row, col));
+			for (int col = 0; col < nbCol; col++)
+				out.writeInt(storage.getWall(row, col, Side.DOWN));
+			for (int col = 0; col < nbCol; col++)
+				out.writeInt(storage.getWall(row, col, Side.RIGHT));
+		}
 	}
 
-	public void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		this.nbRow = in.readInt();
-		this.nbCol = in.readInt();
+	/**
+	 * Désérialise le labyrinthe, qu'il ait été écrit par
+	 * {@link #writeObject(ObjectOutputStream)} ou par une ancienne version du
+	 * logiciel (tableau <code>table</code>).
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		GetField fields = in.readFields();
+		nbRow = fields.get("nbRow", 0);
+		nbCol = fields.get("nbCol", 0);
+		if (nbRow <= 0 || nbCol <= 0)
+			throw new InvalidObjectException("Invalid maze size: " + nbRow + "x" + nbCol);
+
+		storage = new FlatStorage(nbRow, nbCol);
+		steps = new int[] { -nbCol, 1, nbCol, -1 };
+		regionCols = (nbCol + REGION_SIZE - 1) >>> REGION_SHIFT;
+
+		int[][] table = (int[][]) fields.get("table", null);
+		if (table != null) { // Ancien format
+			if (table.length != 2 * nbRow + 1)
+				throw new InvalidObjectException("Invalid maze table");
+
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] == null || table[i].length != 2 * nbCol + 1)
+					throw new InvalidObjectException("Invalid maze table");
+
+				for (int j = 0; j < table[i].length; j++)
+					set(i, j, table[i][j]);
+			}
+		} else {
+			int format = in.readInt();
+			if (format != SERIAL_FORMAT)
+				throw new InvalidObjectException("Unsupported maze format: " + format);
+
+			for (int row = 0; row < nbRow; row++) {
+				for (int col = 0; col < nbCol; col++)
+					storage.setCell(row, col, in.readInt());
+				for (int col = 0; col < nbCol; col++) {
+					int value = in.readInt();
+					if (row < nbRow - 1)
+						storage.setWall(row, col, Side.DOWN, value);
+				}
+				for (int col = 0; col < nbCol; col++) {
+					int value = in.readInt();
+					if (col < nbCol - 1)
+						storage.setWall(row, col, Side.RIGHT, value);
+				}
+			}
+		}
 
-		int r = 2 * nbRow + 1, c = 2 * nbCol + 1;
-		this.table = new int[r][c];
-		for (int i = 0; i < r; i++)
-			for (int j = 0; j < c; j++)
-				this.table[i][j] = in.readInt();
+		// Le labyrinthe relu débute à la version 0.
+		version = 0;
+		regionVersions = null;
+	}
+
+	/**
+	 * Ecriture simultanée, par plusieurs threads, des murs des cases d'un ensemble
+	 * de lignes (cf. {@link Maze#concurrentWalls(int, int)}). Les méthodes
+	 * d'écriture peuvent être appelées en même temps pour des murs distincts : le
+	 * support mémoire est alors écrit directement si chaque mur y occupe un
+	 * emplacement propre (cf. {@link MazeStorage#supportsConcurrentWalls()}), et
+	 * les écritures sont sérialisées sinon. Les murs des cases situées hors des
+	 * lignes de l'écriture sont ignorés.
+	 * <p>
+	 * Les versions des régions écrites sont datées d'un seul numéro à la fermeture
+	 * de l'écriture, et les masques des côtés ouverts sont alors reconstruits à la
+	 * demande.
+	 * </p>
+	 * 
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	public final class WallWriter implements AutoCloseable, WallSink {
+		/** Lignes de l'écriture. */
+		private final int row0, row1;
+
+		/** Verrou des écritures, ou <code>null</code> si elles sont simultanées. */
+		private final Object lock;
+
+		/** Action exécutée à la fermeture, ou <code>null</code>. */
+		private Runnable onClose;
+
+		/** Indique si l'écriture est fermée. */
+		private boolean closed;
+
+		/**
+		 * Constructeur de la classe {@link WallWriter}.
+		 * 
+		 * @param row0    Première ligne (incluse).
+		 * @param row1    Dernière ligne (exclue).
+		 * @param onClose Action exécutée à la fermeture, ou <code>null</code>.
+		 */
+		private WallWriter(int row0, int row1, Runnable onClose) {
+			this.row0 = row0;
+			this.row1 = row1;
+			this.onClose = onClose;
+			lock = storage.supportsConcurrentWalls() ? null : this;
+		}
+
+		/** Cf. {@link Maze#setWall(int, int, Side, int)}. */
+		@Override
+		public void setWall(int row, int col, Side side, int value) {
+			if (row < row0 || row >= row1 || !isInnerWall(row, col, side))
+				return;
+
+			if (lock == null)
+				storage.setWall(row, col, side, value);
+			else
+				synchronized (lock) {
+					storage.setWall(row, col, side, value);
+				}
+		}
+
+		/** Cf. {@link Maze#setRowWalls(int, int, int, Side, int)}. */
+		@Override
+		public void setRowWalls(int row, int col0, int col1, Side side, int value) {
+			if (row < row0 || row >= row1)
+				return;
+
+			if (lock == null)
+				writeRowWalls(row, col0, col1, side, value, false);
+			else
+				synchronized (lock) {
+					writeRowWalls(row, col0, col1, side, value, false);
+				}
+		}
+
+		/** Cf. {@link Maze#setColumnWalls(int, int, int, Side, int)}. */
+		@Override
+		public void setColumnWalls(int col, int from, int to, Side side, int value) {
+			from = Math.max(from, row0);
+			to = Math.min(to, row1);
+			if (lock == null)
+				writeColumnWalls(col, from, to, side, value, false);
+			else
+				synchronized (lock) {
+					writeColumnWalls(col, from, to, side, value, false);
+				}
+		}
+
+		/** Cf. {@link Maze#openWalls(int, int, byte[], int)}. */
+		public void openWalls(int from, int to, byte[] masks, int offset) {
+			if (from < row0) {
+				offset += (row0 - from) * nbCol;
+				from = row0;
+			}
+
+			to = Math.min(to, row1);
+			if (lock == null)
+				writeOpenWalls(from, to, masks, offset, false);
+			else
+				synchronized (lock) {
+					writeOpenWalls(from, to, masks, offset, false);
+				}
+		}
+
+		/**
+		 * Ferme l'écriture, une fois toutes les écritures terminées : les régions
+		 * écrites sont datées et les masques des côtés ouverts sont invalidés.
+		 */
+		@Override
+		public void close() {
+			if (closed)
+				return;
+
+			closed = true;
+			if (row0 < row1) {
+				openMasks = null; // Reconstruits à la demande
+				touchRange(Math.max(row0 - 1, 0), 0, Math.min(row1 + 1, nbRow), nbCol);
+			}
+
+			if (onClose != null) {
+				onClose.run();
+				onClose = null;
+			}
+		}
+	}
+
+	/**
+	 * Vue figée d'un labyrinthe, obtenue par {@link Maze#snapshot()}. Tant qu'elle
+	 * n'est pas libérée, chaque région modifiée du labyrinthe d'origine y est
+	 * copiée ; une fois libérée, la vue n'est plus figée et lit directement le
+	 * labyrinthe d'origine. La vue est sérialisée sous la forme d'une copie
+	 * indépendante.
+	 * 
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	public static final class Snapshot extends Maze implements AutoCloseable {
+		/** Generated by Java */
+		private static final long serialVersionUID = -2519262766383151950L;
+
+		/** Labyrinthe d'origine, <code>null</code> une fois la vue libérée. */
+		private transient Maze origin;
+
+		/**
+		 * Constructeur de la classe {@link Snapshot}.
+		 * 
+		 * @param origin Labyrinthe d'origine.
+		 * @param view   Vue figée de son support mémoire.
+		 */
+		private Snapshot(Maze origin, SnapshotStorage view) {
+			super(view);
+			this.origin = origin;
+		}
+
+		/** Libère la vue : le labyrinthe d'origine cesse de la tenir à jour. */
+		@Override
+		public void close() {
+			Maze maze = origin;
+			if (maze != null) {
+				origin = null;
+				maze.release((SnapshotStorage) getStorage());
+			}
+		}
+
+		/** Sérialise la vue sous la forme d'une copie indépendante. */
+		private Object writeReplace() throws ObjectStreamException {
+			return new Maze(this);
+		}
 	}
 
 	/**
@@ -250,16 +1576,52 @@ public class Maze implements Serializable {
 	 */
 	public enum Side {
 		/** Mur situé à gauche de la case. */
-		UP,
+		UP(-1, 0),
 
 		/** Mur situé à droite de la case. */
-		RIGHT,
+		RIGHT(0, 1),
 
 		/** Mur situé en bas de la case. */
-		DOWN,
+		DOWN(1, 0),
 
 		/** Mur situé en haut de la case. */
-		LEFT;
+		LEFT(0, -1);
+
+		/**
+		 * Constantes de l'énumération, dans l'ordre ; contrairement à
+		 * {@link #values()}, ce tableau n'est pas recopié à chaque appel.
+		 */
+		private static final Side[] VALUES = values();
+
+		/** Nombre de directions. */
+		public static final int COUNT = VALUES.length;
+
+		/** Ecart de ligne et de colonne entre une case et sa voisine dans cette direction. */
+		public final int dr, dc;
+
+		/**
+		 * Constructeur de l'énumération {@link Side}.
+		 * 
+		 * @param dr Ecart de ligne vers la case voisine.
+		 * @param dc Ecart de colonne vers la case voisine.
+		 */
+		private Side(int dr, int dc) {
+			this.dr = dr;
+			this.dc = dc;
+		}
+
+		/**
+		 * Fournit la direction de code spécifié, c'est-à-dire de rang
+		 * <code>ordinal</code> dans l'énumération.
+		 */
+		public static Side of(int ordinal) {
+			return VALUES[ordinal];
+		}
+
+		/** Fournit la direction opposée. */
+		public Side opposite() {
+			return VALUES[(ordinal() + 2) & 3];
+		}
 	}
 
 	/**
@@ -0,0 +1,332 @@
+package com.rosty.maze.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.storage.CellLayer;
+
+/**
+ * Support d'écriture des algorithmes : un labyrinthe ({@link Maze}), le chemin
+ * tracé dans ce labyrinthe ({@link MazeRoute}) et la couche de valeurs des
+ * cases en cours d'utilisation.
+ * <p>
+ * Cette classe ne dépend d'aucune bibliothèque graphique : les algorithmes
+ * peuvent être exécutés sans affichage, par exemple dans un traitement par
+ * lots. Un affichage s'abonne aux modifications du support (cf.
+ * {@link Listener}) ; sans abonné, chaque écriture se résume à celle du
+ * labyrinthe.
+ * </p>
+ * <p>
+ * Lorsqu'une couche est active (cf. {@link #setLayer(CellLayer)}), les
+ * méthodes de lecture et d'écriture des cases travaillent dans cette couche,
+ * sans toucher aux valeurs du labyrinthe.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class MazeBoard implements WallSink {
+	/** Labyrinthe modifié par les algorithmes. */
+	private Maze maze;
+
+	/** Chemin tracé dans le labyrinthe. */
+	private MazeRoute route;
+
+	/** Couche de valeurs des cases en cours d'utilisation (null : valeurs du labyrinthe). */
+	private CellLayer layer;
+
+	/** Abonnés aux modifications du support. */
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Constructeur de la classe {@link MazeBoard}, avec un chemin vierge allant
+	 * de la première à la dernière case du labyrinthe.
+	 *
+	 * @param maze Labyrinthe modifié par les algorithmes.
+	 */
+	public MazeBoard(Maze maze) {
+		this(maze, new MazeRoute());
+		route.setEnd(maze.getNbRows() - 1, maze.getNbColumns() - 1);
+	}
+
+	/**
+	 * Constructeur de la classe {@link MazeBoard}.
+	 *
+	 * @param maze  Labyrinthe modifié par les algorithmes.
+	 * @param route Chemin tracé dans le labyrinthe.
+	 */
+	public MazeBoard(Maze maze, MazeRoute route) {
+		this.maze = maze;
+		this.route = route;
+	}
+
+	/** Abonne un affichage aux modifications du support. */
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	/** Désabonne un affichage des modifications du support. */
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/** Fournit le labyrinthe. */
+	public Maze getMaze() {
+		return maze;
+	}
+
+	/**
+	 * Définit le labyrinthe ; la couche en cours d'utilisation est abandonnée. Les
+	 * abonnés ne sont pas notifiés : le propriétaire du support se charge de les
+	 * reconstruire.
+	 */
+	public void setMaze(Maze value) {
+		maze = value;
+		layer = null;
+	}
+
+	/** Fournit le chemin tracé dans le labyrinthe. */
+	public MazeRoute getRoute() {
+		return route;
+	}
+
+	/** Définit le chemin tracé dans le labyrinthe. */
+	public void setRoute(MazeRoute value) {
+		route = value;
+	}
+
+	/** Fournit la case de départ du chemin (ligne et colonne). */
+	public int[] getStart() {
+		return route.getStart();
+	}
+
+	/** Fournit la case d'arrivée du chemin (ligne et colonne). */
+	public int[] getEnd() {
+		return route.getEnd();
+	}
+
+	/** Fournit les cases du chemin tracé dans le labyrinthe. */
+	public List<int[]> getPath() {
+		return route.getPath();
+	}
+
+	/**
+	 * Fournit la couche de valeurs des cases en cours d'utilisation, où
+	 * <code>null</code> s'il s'agit des valeurs du labyrinthe.
+	 */
+	public CellLayer getLayer() {
+		return layer;
+	}
+
+	/**
+	 * Définit la couche de valeurs des cases en cours d'utilisation ; les méthodes
+	 * {@link #getCell(int, int)}, {@link #setCell(int, int, int)} et
+	 * {@link #getNeighbourCell(int, int, Side)} travaillent alors dans cette
+	 * couche.
+	 *
+	 * @param value Couche de valeurs, où <code>null</code> pour revenir aux
+	 *              valeurs du labyrinthe.
+	 */
+	public void setLayer(CellLayer value) {
+		layer = value;
+		for (Listener listener : listeners)
+			listener.layerChanged();
+	}
+
+	/** Fournit la valeur de la cellule à la ligne et à la colonne indiquée. */
+	public int getCell(int row, int col) {
+		return (layer == null) ? maze.getCell(row, col) : layer.get(row, col);
+	}
+
+	/**
+	 * Définit la valeur de la cellule à la ligne et à la colonne indiquée.
+	 *
+	 * @param row   Numéro de ligne.
+	 * @param col   Numéro de colonne.
+	 * @param value Valeur de la case.
+	 */
+	public void setCell(int row, int col, int value) {
+		if (layer == null)
+			maze.setCell(row, col, value);
+		else
+			layer.set(row, col, value);
+
+		for (Listener listener : listeners)
+			listener.cellChanged(row, col, value);
+	}
+
+	/**
+	 * Fournit la valeur d'un mur en se référant à une case adjacente, où <b>-1</b>
+	 * si ce mur n'est pas présent sur le terrain.
+	 *
+	 * @param row  Numéro de ligne de la case adjacente.
+	 * @param col  Numéro de colonne de la case adjacente.
+	 * @param side Direction du mur par rapport à la case adjacente.
+	 */
+	public int getWall(int row, int col, Side side) {
+		return maze.getWall(row, col, side);
+	}
+
+	/**
+	 * Définit la valeur d'un mur du terrain en se référant à une case adjacente.
+	 *
+	 * @param row   Numéro de ligne de la case adjacente.
+	 * @param col   Numéro de colonne de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 * @param value Valeur associée au mur.
+	 */
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		maze.setWall(row, col, side, value);
+		for (Listener listener : listeners)
+			listener.wallChanged(row, col, side, value);
+	}
+
+	/**
+	 * Récupère la valeur d'une case voisine à la case spécifiée.
+	 *
+	 * @param wall Coordonnées du mur séparant les deux cases.
+	 * @return Valeur de la case voisine.
+	 */
+	public int getNeighbourCell(WallCoord wall) {
+		return getNeighbourCell(wall.x, wall.y, wall.side);
+	}
+
+	/**
+	 * Récupère la valeur de la case voisine à la case spécifiée dans une direction
+	 * donnée, sans créer de {@link WallCoord}.
+	 *
+	 * @param row  Numéro de ligne de la case.
+	 * @param col  Numéro de colonne de la case.
+	 * @param side Direction de la case voisine.
+	 * @return Valeur de la case voisine.
+	 */
+	public int getNeighbourCell(int row, int col, Side side) {
+		return getCell(row + side.dr, col + side.dc);
+	}
+
+	/**
+	 * Attribue la même valeur à toutes les cases, dans la couche en cours
+	 * d'utilisation s'il y en a une.
+	 *
+	 * @param value Valeur des cases.
+	 */
+	public void fillCells(int value) {
+		if (layer == null) {
+			maze.fillCells(value);
+			fireMazeChanged();
+		} else {
+			layer.clear(value);
+			for (Listener listener : listeners)
+				listener.layerChanged();
+		}
+	}
+
+	/** Retire tous les murs intérieurs du labyrinthe. */
+	public void removeAllInteriorWalls() {
+		maze.removeAllInteriorWalls();
+		fireMazeChanged();
+	}
+
+	/** Place tous les murs intérieurs du labyrinthe. */
+	public void setAllWalls() {
+		maze.setAllWalls();
+		fireMazeChanged();
+	}
+
+	/**
+	 * Attribue la même valeur à une suite de murs d'une ligne de cases (cf.
+	 * {@link Maze#setRowWalls(int, int, int, Side, int)}).
+	 */
+	@Override
+	public void setRowWalls(int row, int col0, int col1, Side side, int value) {
+		maze.setRowWalls(row, col0, col1, side, value);
+		if (!listeners.isEmpty())
+			for (int col = Math.max(col0, 0), len = Math.min(col1, maze.getNbColumns()); col < len; col++)
+				if (maze.getWall(row, col, side) == value)
+					for (Listener listener : listeners)
+						listener.wallChanged(row, col, side, value);
+	}
+
+	/**
+	 * Attribue la même valeur à une suite de murs d'une colonne de cases (cf.
+	 * {@link Maze#setColumnWalls(int, int, int, Side, int)}).
+	 */
+	@Override
+	public void setColumnWalls(int col, int row0, int row1, Side side, int value) {
+		maze.setColumnWalls(col, row0, row1, side, value);
+		if (!listeners.isEmpty())
+			for (int row = Math.max(row0, 0), len = Math.min(row1, maze.getNbRows()); row < len; row++)
+				if (maze.getWall(row, col, side) == value)
+					for (Listener listener : listeners)
+						listener.wallChanged(row, col, side, value);
+	}
+
+	/**
+	 * Efface les cases, les murs et le chemin du labyrinthe ; le support revient
+	 * aux valeurs du labyrinthe.
+	 */
+	public void clear() {
+		layer = null;
+		maze.clear();
+		route.getPath().clear();
+
+		for (Listener listener : listeners)
+			listener.layerChanged();
+		fireMazeChanged();
+	}
+
+	/**
+	 * Retire les murs d'une suite de lignes d'après les masques de leurs côtés
+	 * ouverts (cf. {@link Maze#openWalls(int, int, byte[], int)}).
+	 */
+	public void openWalls(int row0, int row1, byte[] masks, int offset) {
+		maze.openWalls(row0, row1, masks, offset);
+		fireMazeChanged();
+	}
+
+	/**
+	 * Ouvre l'écriture simultanée, par plusieurs threads, des murs des cases des
+	 * lignes <code>[row0, row1[</code> (cf.
+	 * {@link Maze#concurrentWalls(int, int)}) ; les abonnés sont notifiés à sa
+	 * fermeture.
+	 */
+	public Maze.WallWriter concurrentWalls(int row0, int row1) {
+		return maze.concurrentWalls(row0, row1, this::fireMazeChanged);
+	}
+
+	private void fireMazeChanged() {
+		for (Listener listener : listeners)
+			listener.mazeChanged();
+	}
+
+	/**
+	 * Interface des abonnés aux modifications d'un {@link MazeBoard}. Les
+	 * notifications sont émises dans le thread de l'algorithme.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	public interface Listener {
+		/** Notifie la modification d'une case (du labyrinthe ou de la couche). */
+		default void cellChanged(int row, int col, int value) {
+		}
+
+		/** Notifie la modification d'un mur intérieur. */
+		default void wallChanged(int row, int col, Side side, int value) {
+		}
+
+		/**
+		 * Notifie une modification d'ensemble du labyrinthe ; les régions concernées
+		 * sont fournies par {@link Maze#getChangedRegions(long)}.
+		 */
+		default void mazeChanged() {
+		}
+
+		/** Notifie le changement ou l'effacement de la couche en cours d'utilisation. */
+		default void layerChanged() {
+		}
+	}
+}
@@ -1,13 +1,22 @@
 package com.rosty.maze.model;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Classe définissant un chemin parcouru dans un labyrinthe. Ce chemin est
  * défini par un point de départ, une série de cases successives et un point
  * d'arrivée.
- * 
+ * <p>
+ * Les modifications de la série de cases sont notifiées aux abonnés
+ * ({@link PathListener}), par exemple un affichage ; la classe ne dépend
+ * d'aucune bibliothèque graphique.
+ * </p>
+ *
  * @author Martin Rostagnat
  * @version 1.0
  */
@@ -16,7 +25,10 @@ public class MazeRoute {
 	private final int[] start = { 0, 0 }, end = { 0, 0 };
 
 	/** Liste de cellules composant le chemin dans le labyrinthe */
-	private final ObservableList<int[]> path = FXCollections.observableArrayList();
+	private final Path path = new Path();
+
+	/** Abonnés aux modifications du chemin. */
+	private final List<PathListener> listeners = new CopyOnWriteArrayList<>();
 
 	public int[] getStart() {
 		return start;
@@ -36,7 +48,122 @@ public class MazeRoute {
 		end[1] = j;
 	}
 
-	public ObservableList<int[]> getPath() {
+	public List<int[]> getPath() {
 		return path;
 	}
-}
\ No newline at end of file
+
+	/** Abonne un observateur aux modifications de la série de cases. */
+	public void addListener(PathListener listener) {
+		listeners.add(listener);
+	}
+
+	/** Désabonne un observateur des modifications de la série de cases. */
+	public void removeListener(PathListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Interface des abonnés aux modifications de la série de cases d'un chemin.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	public interface PathListener {
+		/**
+		 * Notifie l'insertion de cases dans le chemin.
+		 *
+		 * @param path Cases du chemin, après insertion.
+		 * @param from Position de la première case insérée.
+		 * @param to   Position suivant la dernière case insérée.
+		 */
+		void added(List<int[]> path, int from, int to);
+
+		/**
+		 * Notifie le retrait de cases du chemin.
+		 *
+		 * @param from Position de la première case retirée.
+		 * @param to   Position suivant la dernière case retirée.
+		 */
+		void removed(int from, int to);
+	}
+
+	/**
+	 * Série de cases d'un chemin, dont les insertions et les retraits sont
+	 * notifiés aux abonnés du chemin.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	private class Path extends AbstractList<int[]> implements RandomAccess {
+		private final ArrayList<int[]> cells = new ArrayList<>();
+
+		@Override
+		public int[] get(int index) {
+			return cells.get(index);
+		}
+
+		@Override
+		public int size() {
+			return cells.size();
+		}
+
+		@Override
+		public int[] set(int index, int[] element) {
+			int[] old = cells.set(index, element);
+			fireRemoved(index, index + 1);
+			fireAdded(index, index + 1);
+
+			return old;
+		}
+
+		@Override
+		public void add(int index, int[] element) {
+			cells.add(index, element);
+			modCount++;
+			fireAdded(index, index + 1);
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends int[]> c) {
+			return addAll(cells.size(), c);
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends int[]> c) {
+			if (!cells.addAll(index, c))
+				return false;
+
+			modCount++;
+			fireAdded(index, index + c.size());
+			return true;
+		}
+
+		@Override
+		public int[] remove(int index) {
+			int[] old = cells.remove(index);
+			modCount++;
+			fireRemoved(index, index + 1);
+
+			return old;
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			if (fromIndex < toIndex) {
+				cells.subList(fromIndex, toIndex).clear();
+				modCount++;
+				fireRemoved(fromIndex, toIndex);
+			}
+		}
+
+		private void fireAdded(int from, int to) {
+			for (PathListener listener : listeners)
+				listener.added(this, from, to);
+		}
+
+		private void fireRemoved(int from, int to) {
+			for (PathListener listener : listeners)
+				listener.removed(from, to);
+		}
+	}
+}
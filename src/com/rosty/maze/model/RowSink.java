@@ -0,0 +1,32 @@
+package com.rosty.maze.model;
+
+import java.io.IOException;
+
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Destinataire des lignes d'un labyrinthe produites au fil de l'eau, sans que
+ * le labyrinthe soit jamais stocké en entier (cf.
+ * {@link com.rosty.maze.model.algorithm.generation.EllerStream}).
+ * <p>
+ * Chaque ligne est décrite par les masques des côtés ouverts de ses cases : le
+ * bit <code>1 << side.ordinal()</code> du masque d'une case est levé si le mur
+ * correspondant est ouvert (cf. {@link Side}).
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowSink {
+	/**
+	 * Reçoit une ligne terminée du labyrinthe. Le tableau des masques est réutilisé
+	 * pour la ligne suivante et ne doit pas être conservé.
+	 *
+	 * @param row   Numéro de la ligne.
+	 * @param masks Masques des côtés ouverts des cases de la ligne, de gauche à
+	 *              droite.
+	 * @throws IOException En cas de problème lors de la transmission de la ligne.
+	 */
+	void accept(long row, byte[] masks) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.rosty.maze.model;
+
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Destinataire des écritures de murs d'un algorithme : le support d'écriture
+ * ({@link MazeBoard}), qui notifie ses abonnés à chaque mur, ou une écriture
+ * simultanée par plusieurs threads ({@link Maze.WallWriter}). Un algorithme
+ * peut ainsi poser ses murs de la même façon en pas à pas et d'un seul tenant.
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public interface WallSink {
+	/** Cf. {@link Maze#setWall(int, int, Side, int)}. */
+	void setWall(int row, int col, Side side, int value);
+
+	/** Cf. {@link Maze#setRowWalls(int, int, int, Side, int)}. */
+	void setRowWalls(int row, int col0, int col1, Side side, int value);
+
+	/** Cf. {@link Maze#setColumnWalls(int, int, int, Side, int)}. */
+	void setColumnWalls(int col, int row0, int row1, Side side, int value);
+}
@@ -1,5 +1,8 @@
 package com.rosty.maze.model.algorithm;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
 import com.rosty.maze.Mazette;
 
 /**
@@ -20,10 +23,72 @@ import com.rosty.maze.Mazette;
  * exécution.
  * </p>
  * 
+ * <p>
+ * Les tirages aléatoires passent par le générateur {@link #rand}, propre à
+ * chaque instance : deux exécutions de même graine (cf. {@link #setSeed(Long)})
+ * sont identiques, et des algorithmes exécutés en parallèle ne partagent aucun
+ * générateur.
+ * </p>
+ * 
  * @author Martin Rostagnat
  * @version 1.1
  */
 public abstract class Algorithm {
+	/**
+	 * Graine fixée par l'utilisateur, où <code>null</code> pour tirer une nouvelle
+	 * graine à chaque remise à zéro du générateur.
+	 */
+	private Long seed;
+
+	/** Graine du générateur courant. */
+	private long currentSeed;
+
+	/** Générateur de nombres aléatoires de l'algorithme. */
+	protected SplittableRandom rand;
+
+	/** Constructeur de la classe {@link Algorithm}. */
+	protected Algorithm() {
+		reseed();
+	}
+
+	/**
+	 * Fournit la graine fixée par l'utilisateur, où <code>null</code> si aucune
+	 * graine n'est fixée.
+	 */
+	public Long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Fixe la graine du générateur de nombres aléatoires et remet celui-ci à zéro.
+	 *
+	 * @param value Graine, où <code>null</code> pour tirer une nouvelle graine à
+	 *              chaque remise à zéro.
+	 */
+	public void setSeed(Long value) {
+		seed = value;
+		reseed();
+	}
+
+	/**
+	 * Fournit la graine du générateur courant ; elle permet de reproduire une
+	 * exécution dont la graine n'était pas fixée.
+	 */
+	public long getCurrentSeed() {
+		return currentSeed;
+	}
+
+	/**
+	 * Remet à zéro le générateur de nombres aléatoires, avec la graine fixée par
+	 * l'utilisateur s'il y en a une. Cette méthode est appelée avant
+	 * {@link #init()} pour qu'une nouvelle exécution rejoue la même suite de
+	 * tirages.
+	 */
+	public void reseed() {
+		currentSeed = (seed != null) ? seed : ThreadLocalRandom.current().nextLong();
+		rand = new SplittableRandom(currentSeed);
+	}
+
 	/**
 	 * Fournit un label désignant l'algorithme. Ce label peut-être:
 	 * <ul>
@@ -50,6 +115,24 @@ public abstract class Algorithm {
 	/** Exécute l'étape suivante de l'algorithme. */
 	public abstract void step();
 
+	/**
+	 * Exécute toutes les étapes restantes de l'algorithme, jusqu'au critère
+	 * d'arrêt ; la finition ({@link #finish()}) reste à la charge de l'appelant.
+	 * <p>
+	 * Cette méthode est utilisée lorsqu'aucune pause n'est demandée entre deux
+	 * étapes. Par défaut, elle enchaîne les appels à {@link #isComplete()} et
+	 * {@link #step()} ; un algorithme dont le critère d'arrêt est coûteux à
+	 * évaluer la surcharge par une boucle dédiée. L'exécution s'arrête plus tôt
+	 * si le <i>thread</i> courant est interrompu : l'algorithme peut alors être
+	 * repris pas à pas.
+	 * </p>
+	 */
+	public void runToCompletion() {
+		Thread thread = Thread.currentThread();
+		while (!isComplete() && !thread.isInterrupted())
+			step();
+	}
+
 	/**
 	 * Lance la dernière action de l'algorithme, une fois le critère d'arrêt
 	 * atteint. Cette fonction peut être surchargée.
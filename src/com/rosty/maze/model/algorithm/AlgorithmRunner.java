@@ -20,6 +20,11 @@ import com.rosty.maze.widgets.Chrono.ObsChronoState;
  * </ul>
  * 
  * <p>
+ * Lors d'une exécution directe sans laps de temps, les étapes sont enchaînées
+ * par {@link Algorithm#runToCompletion()}.
+ * </p>
+ * 
+ * <p>
  * Lors d'une exécution directe, il est également possible de mettre
  * l'algorithme en pause puis de le relancer. Il est également possible, en
  * plein fonctionnement, de passer d'une exécution directe à une exécution
@@ -45,8 +50,16 @@ public class AlgorithmRunner extends Observable implements Observer {
 		try {
 			timer.start();
 
-			while (!algorithm.isComplete())
-				nextStep();
+			if (timeout == 0L) {
+				// Sans pause entre deux étapes, l'algorithme enchaîne ses étapes d'un seul
+				// tenant ; il s'arrête plus tôt s'il est mis en pause.
+				begun = true;
+				algorithm.runToCompletion();
+				if (!algorithm.isComplete())
+					return;
+			} else
+				while (!algorithm.isComplete())
+					nextStep();
 
 			algorithm.finish();
 			timer.stop();
@@ -204,8 +217,11 @@ public class AlgorithmRunner extends Observable implements Observer {
 	/** Réinitialise l'algorithme et remet le chronomètre à zéro. */
 	public void reset() {
 		timer.reset();
-		if (algorithm != null)
+		if (algorithm != null) {
+			algorithm.reseed();
 			algorithm.init();
+			Mazette.LOGGER.info(algorithm.getLabel() + " - seed " + algorithm.getCurrentSeed());
+		}
 	}
 
 	@Override
@@ -0,0 +1,148 @@
+package com.rosty.maze.model.algorithm;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Structure d'ensembles disjoints (<i>union-find</i>) sur les entiers de
+ * <b>0</b> à <b>size - 1</b>, utilisable simultanément par plusieurs threads
+ * sans verrou.
+ * <p>
+ * Les parents sont stockés dans un {@link AtomicIntegerArray} et modifiés
+ * uniquement par <i>compare-and-set</i> :
+ * <ul>
+ * <li>la recherche de représentant raccourcit le chemin parcouru en rattachant
+ * chaque élément à son grand-parent (<i>path splitting</i>) ;</li>
+ * <li>l'union rattache le représentant de plus faible priorité à l'autre, et
+ * recommence si l'un des deux a cessé d'être un représentant entre-temps.</li>
+ * </ul>
+ * Les priorités forment un ordre total, pseudo-aléatoire et fixé à l'avance
+ * (cf. {@link #priority(int)}), ce qui interdit la formation de cycles et
+ * garde les arbres peu profonds. Chaque union réussie réunit donc deux
+ * ensembles distincts, quel que soit l'entrelacement des threads.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ * @see DisjointSet
+ */
+public class ConcurrentDisjointSet {
+	/** Parent de chaque élément ; un représentant est son propre parent. */
+	private final AtomicIntegerArray parents;
+
+	/**
+	 * Constructeur de la classe {@link ConcurrentDisjointSet} ; chaque élément
+	 * forme un ensemble à lui seul.
+	 *
+	 * @param size Nombre d'éléments.
+	 */
+	public ConcurrentDisjointSet(int size) {
+		parents = new AtomicIntegerArray(size);
+		for (int x = 0; x < size; x++)
+			parents.lazySet(x, x);
+	}
+
+	/**
+	 * Constructeur de la classe {@link ConcurrentDisjointSet}, reprenant la
+	 * partition d'une structure séquentielle.
+	 *
+	 * @param sets Ensembles disjoints à recopier.
+	 */
+	public ConcurrentDisjointSet(DisjointSet sets) {
+		this(sets.size());
+		for (int x = 0, size = sets.size(); x < size; x++) {
+			int root = sets.find(x);
+			if (root != x)
+				union(x, root);
+		}
+	}
+
+	/** Fournit le nombre d'éléments. */
+	public int size() {
+		return parents.length();
+	}
+
+	/**
+	 * Fournit le représentant de l'ensemble contenant un élément. Le résultat est
+	 * exact à l'instant de l'appel ; une union concurrente peut le rendre caduc.
+	 *
+	 * @param x Elément.
+	 */
+	public int find(int x) {
+		for (;;) {
+			int parent = parents.get(x);
+			if (parent == x)
+				return x;
+
+			int grandParent = parents.get(parent);
+			if (grandParent != parent)
+				parents.compareAndSet(x, parent, grandParent);
+
+			x = parent;
+		}
+	}
+
+	/** Indique si deux éléments appartiennent au même ensemble. */
+	public boolean connected(int a, int b) {
+		for (;;) {
+			a = find(a);
+			b = find(b);
+			if (a == b)
+				return true;
+
+			// Si "a" est toujours un représentant, les deux ensembles sont distincts.
+			if (parents.get(a) == a)
+				return false;
+		}
+	}
+
+	/**
+	 * Réunit les ensembles de deux éléments.
+	 *
+	 * @param a Premier élément.
+	 * @param b Second élément.
+	 * @return Ancien représentant de l'ensemble absorbé, ou <b>-1</b> si les deux
+	 *         éléments étaient déjà dans le même ensemble. Parmi plusieurs unions
+	 *         concurrentes des deux mêmes ensembles, une seule réussit.
+	 */
+	public int union(int a, int b) {
+		for (;;) {
+			a = find(a);
+			b = find(b);
+			if (a == b)
+				return -1;
+
+			if (priority(a) < priority(b) || (priority(a) == priority(b) && a < b)) {
+				int swap = a;
+				a = b;
+				b = swap;
+			}
+
+			if (parents.compareAndSet(b, b, a))
+				return b;
+		}
+	}
+
+	/**
+	 * Rattache un représentant à l'ensemble d'un autre élément, sans test.
+	 * L'appelant garantit qu'aucune autre opération ne rattache le même
+	 * représentant en même temps, et que les rattachements simultanés ne forment
+	 * pas de cycle (cf.
+	 * {@link com.rosty.maze.model.algorithm.generation.ParallelKruskalAlgorithm}).
+	 *
+	 * @param root   Représentant à rattacher.
+	 * @param target Elément d'un autre ensemble.
+	 */
+	public void link(int root, int target) {
+		parents.set(root, target);
+	}
+
+	/**
+	 * Fournit la priorité d'un élément, obtenue en mélangeant les bits de son
+	 * indice : des éléments voisins ont ainsi des priorités sans rapport.
+	 */
+	private static int priority(int x) {
+		x = (x ^ (x >>> 16)) * 0x85EBCA6B;
+		x = (x ^ (x >>> 13)) * 0xC2B2AE35;
+		return x ^ (x >>> 16);
+	}
+}
@@ -0,0 +1,180 @@
+package com.rosty.maze.model.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Structure d'ensembles disjoints (<i>union-find</i>) sur les entiers de
+ * <b>0</b> à <b>size - 1</b>, typiquement les indices des cases d'un
+ * labyrinthe.
+ * <p>
+ * Les ensembles sont des forêts stockées dans deux tableaux (parents et rangs,
+ * ces derniers sur un octet) : la recherche de représentant raccourcit de moitié
+ * le chemin parcouru et l'union rattache l'arbre de plus faible rang à l'autre. Chaque opération
+ * s'exécute ainsi en temps quasi constant (<b>O(α(n))</b> amorti).
+ * </p>
+ * <p>
+ * Sur demande (cf. {@link #trackMembers()}), les éléments de chaque ensemble
+ * sont en outre chaînés en cycle, ce qui permet de parcourir un ensemble sans
+ * balayer tous les éléments.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class DisjointSet {
+	/** Parent de chaque élément ; un représentant est son propre parent. */
+	private final int[] parents;
+
+	/**
+	 * Rang (majorant de la hauteur) de l'arbre de chaque représentant. Un rang
+	 * <b>r</b> suppose au moins <b>2<sup>r</sup></b> éléments : il tient sur un
+	 * octet.
+	 */
+	private final byte[] ranks;
+
+	/** Elément suivant dans le cycle des membres de chaque ensemble, ou null. */
+	private int[] next;
+
+	/** Nombre d'ensembles. */
+	private int count;
+
+	/**
+	 * Constructeur de la classe {@link DisjointSet} ; chaque élément forme un
+	 * ensemble à lui seul.
+	 *
+	 * @param size Nombre d'éléments.
+	 */
+	public DisjointSet(int size) {
+		parents = new int[size];
+		for (int x = 0; x < size; x++)
+			parents[x] = x;
+
+		ranks = new byte[size];
+		count = size;
+	}
+
+	/** Fournit le nombre d'éléments. */
+	public int size() {
+		return parents.length;
+	}
+
+	/** Fournit le nombre d'ensembles. */
+	public int getNbSets() {
+		return count;
+	}
+
+	/**
+	 * Fournit le représentant de l'ensemble contenant un élément, en rattachant
+	 * chaque élément rencontré à son grand-parent (division par deux du chemin, en
+	 * un seul parcours).
+	 *
+	 * @param x Elément.
+	 */
+	public int find(int x) {
+		int parent;
+		while ((parent = parents[x]) != x) {
+			int grandParent = parents[parent];
+			parents[x] = grandParent;
+			x = grandParent;
+		}
+
+		return x;
+	}
+
+	/** Indique si deux éléments appartiennent au même ensemble. */
+	public boolean connected(int a, int b) {
+		return find(a) == find(b);
+	}
+
+	/**
+	 * Réunit les ensembles de deux éléments.
+	 *
+	 * @param a Premier élément.
+	 * @param b Second élément.
+	 * @return Ancien représentant de l'ensemble absorbé, ou <b>-1</b> si les deux
+	 *         éléments étaient déjà dans le même ensemble. Le représentant de la
+	 *         réunion est alors <code>find(a)</code>.
+	 */
+	public int union(int a, int b) {
+		int ra = find(a), rb = find(b);
+		if (ra == rb)
+			return -1;
+
+		if (ranks[ra] < ranks[rb]) {
+			int swap = ra;
+			ra = rb;
+			rb = swap;
+		} else if (ranks[ra] == ranks[rb])
+			ranks[ra]++;
+
+		parents[rb] = ra;
+		count--;
+
+		// Le cycle de l'ensemble absorbé est inséré juste après le représentant.
+		if (next != null) {
+			int swap = next[ra];
+			next[ra] = next[rb];
+			next[rb] = swap;
+		}
+
+		return rb;
+	}
+
+	/**
+	 * Rétablit la partition initiale : chaque élément forme de nouveau un ensemble
+	 * à lui seul. Les membres restent chaînés s'ils l'étaient.
+	 */
+	public void reset() {
+		for (int x = 0; x < parents.length; x++) {
+			parents[x] = x;
+			if (next != null)
+				next[x] = x;
+		}
+
+		Arrays.fill(ranks, (byte) 0);
+		count = parents.length;
+	}
+
+	/** Indique si les membres de chaque ensemble sont chaînés. */
+	public boolean tracksMembers() {
+		return next != null;
+	}
+
+	/**
+	 * Chaîne les membres de chaque ensemble en cycle, à partir de la partition
+	 * courante ; les unions suivantes entretiennent ces cycles. Sans effet si les
+	 * membres sont déjà chaînés.
+	 */
+	public void trackMembers() {
+		if (next != null)
+			return;
+
+		next = new int[parents.length];
+		Arrays.fill(next, -1);
+		for (int x = 0; x < next.length; x++) {
+			int root = find(x);
+			if (x == root) {
+				if (next[x] < 0)
+					next[x] = x;
+			} else {
+				if (next[root] < 0)
+					next[root] = root;
+
+				next[x] = next[root];
+				next[root] = x;
+			}
+		}
+	}
+
+	/**
+	 * Fournit l'élément suivant dans le cycle des membres d'un ensemble (cf.
+	 * {@link #trackMembers()}). Juste après une union, les membres de l'ensemble
+	 * absorbé sont ceux qui suivent le nouveau représentant, jusqu'à l'ancien
+	 * représentant absorbé inclus.
+	 *
+	 * @param x Elément.
+	 */
+	public int nextMember(int x) {
+		return next[x];
+	}
+}
@@ -0,0 +1,239 @@
+package com.rosty.maze.model.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.graph.JunctionGraph;
+
+/**
+ * Classe de base des algorithmes de résolution par recherche du plus court
+ * chemin, exécutés sur le graphe contracté du labyrinthe ({@link JunctionGraph})
+ * plutôt que case par case.
+ * <p>
+ * Chaque étape développe un seul carrefour, celui dont la priorité (distance
+ * parcourue depuis le départ augmentée de l'estimation {@link #estimate(int)})
+ * est la plus faible, et parcourt d'un coup les couloirs qui en partent : les
+ * cases de ces couloirs sont marquées dans la couche de travail comme si elles
+ * avaient été visitées une à une. Le chemin trouvé est développé en cases à la
+ * fin de l'exécution.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public abstract class JunctionSearchAlgorithm extends MazeSolvingAlgorithm {
+	/** Graphe contracté du labyrinthe, dont le départ et l'arrivée sont des noeuds. */
+	protected JunctionGraph graph;
+
+	/** Noeuds de départ et d'arrivée. */
+	protected int startNode, endNode;
+
+	/** Distance de chaque noeud au départ. */
+	private int[] distances;
+
+	/** Arc par lequel chaque noeud a été atteint, et noeud de départ de cet arc. */
+	private int[] parentEdges, parentNodes;
+
+	/** Noeuds déjà développés. */
+	private boolean[] closed;
+
+	/**
+	 * File de priorité des noeuds à développer, en tas binaire : chaque élément
+	 * porte la priorité dans ses 32 bits de poids fort et le noeud dans les autres.
+	 * Un noeud dont la distance diminue est inséré à nouveau.
+	 */
+	private long[] heap;
+
+	/** Nombre d'éléments de la file. */
+	private int heapSize;
+
+	/** Nombre de noeuds développés depuis l'initialisation. */
+	private int expanded;
+
+	/**
+	 * Constructeur de la classe {@link JunctionSearchAlgorithm}.
+	 *
+	 * @param board Support d'écriture de l'algorithme.
+	 */
+	public JunctionSearchAlgorithm(MazeBoard board) {
+		super(board);
+	}
+
+	/**
+	 * Construit le graphe contracté du labyrinthe et place le départ dans la file.
+	 * Cette méthode est appelée par la méthode {@link #init()}, après
+	 * {@link #resetLayer(int)}.
+	 */
+	protected void startSearch() {
+		Maze maze = board.getMaze();
+		int[] start = board.getStart(), end = board.getEnd();
+		int startCell = maze.cellIndex(start[0], start[1]), endCell = maze.cellIndex(end[0], end[1]);
+
+		graph = JunctionGraph.of(maze, startCell, endCell);
+		startNode = graph.nodeOf(startCell);
+		endNode = graph.nodeOf(endCell);
+
+		int n = graph.getNbNodes();
+		distances = new int[n];
+		Arrays.fill(distances, Integer.MAX_VALUE);
+		parentEdges = new int[n];
+		parentNodes = new int[n];
+		closed = new boolean[n];
+		heap = new long[16];
+		heapSize = 0;
+		expanded = 0;
+
+		distances[startNode] = 0;
+		push(startNode, estimate(startCell));
+		paint(startCell, 0);
+	}
+
+	/**
+	 * Estime la distance restant à parcourir entre une case et l'arrivée. Cette
+	 * estimation ne doit jamais dépasser la distance réelle ; par défaut, elle
+	 * est nulle.
+	 *
+	 * @param cell Indice de la case.
+	 */
+	protected int estimate(int cell) {
+		return 0;
+	}
+
+	/**
+	 * Fournit la valeur affichée dans une case visitée. Par défaut, il s'agit de
+	 * la distance parcourue depuis le départ.
+	 *
+	 * @param cell     Indice de la case.
+	 * @param distance Distance de la case au départ.
+	 */
+	protected int cellValue(int cell, int distance) {
+		return distance;
+	}
+
+	/** Indique le nombre de carrefours développés depuis l'initialisation. */
+	public int getExpandedNodes() {
+		return expanded;
+	}
+
+	/** Indique si le noeud d'arrivée a été développé. */
+	protected boolean isEndReached() {
+		return closed[endNode];
+	}
+
+	/**
+	 * Fournit la priorité du prochain noeud à développer, où <b>-1</b> s'il n'y en
+	 * a plus. Les éléments de la file désignant des noeuds déjà développés sont
+	 * écartés au passage.
+	 */
+	protected int nextPriority() {
+		while (heapSize > 0 && closed[(int) heap[0]])
+			pop();
+
+		return (heapSize == 0) ? -1 : (int) (heap[0] >>> 32);
+	}
+
+	/** Indique s'il ne reste aucun noeud à développer. */
+	protected boolean isExhausted() {
+		return nextPriority() < 0;
+	}
+
+	@Override
+	public boolean isComplete() {
+		return isEndReached() || isExhausted();
+	}
+
+	@Override
+	public void step() {
+		// Etape 1 : extraction du noeud de plus faible priorité non encore développé
+		if (nextPriority() < 0)
+			return;
+
+		int node = pop();
+
+		closed[node] = true;
+		expanded++;
+
+		// Etape 2 : parcours des couloirs partant du noeud
+		int distance = distances[node];
+		for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+			int weight = graph.weight(edge);
+			for (int k = 0; k < weight - 1; k++)
+				paint(graph.corridorCell(edge, k), distance + k + 1);
+
+			int next = graph.target(edge);
+			if (!closed[next] && distance + weight < distances[next]) {
+				distances[next] = distance + weight;
+				parentEdges[next] = edge;
+				parentNodes[next] = node;
+				push(next, distance + weight + estimate(graph.cellOf(next)));
+				paint(graph.cellOf(next), distance + weight);
+			}
+		}
+	}
+
+	@Override
+	public void finish() {
+		super.finish();
+
+		if (distances[endNode] == Integer.MAX_VALUE)
+			return;
+
+		// Développement du chemin, de l'arrivée vers le départ
+		Maze maze = board.getMaze();
+		List<int[]> path = new ArrayList<>(distances[endNode] + 1);
+		for (int node = endNode; node != startNode; node = parentNodes[node]) {
+			int edge = parentEdges[node];
+			addCell(path, maze, graph.cellOf(node));
+			for (int k = graph.weight(edge) - 2; k >= 0; k--)
+				addCell(path, maze, graph.corridorCell(edge, k));
+		}
+
+		addCell(path, maze, graph.cellOf(startNode));
+		board.getPath().addAll(path);
+	}
+
+	/** Marque une case si sa nouvelle valeur est plus faible que l'actuelle. */
+	private void paint(int cell, int distance) {
+		int value = cellValue(cell, distance), old = layer.get(cell);
+		if (old == layer.getDefaultValue() || value < old)
+			board.setCell(cell / nbCol, cell % nbCol, value);
+	}
+
+	private static void addCell(List<int[]> path, Maze maze, int cell) {
+		path.add(new int[] { maze.rowOf(cell), maze.columnOf(cell) });
+	}
+
+	private void push(int node, int priority) {
+		if (heapSize == heap.length)
+			heap = Arrays.copyOf(heap, 2 * heapSize);
+
+		long item = ((long) priority << 32) | node;
+		int k = heapSize++;
+		while (k > 0 && heap[(k - 1) >>> 1] > item) {
+			heap[k] = heap[(k - 1) >>> 1];
+			k = (k - 1) >>> 1;
+		}
+
+		heap[k] = item;
+	}
+
+	private int pop() {
+		int node = (int) heap[0];
+		long last = heap[--heapSize];
+		int k = 0;
+		for (int child; (child = 2 * k + 1) < heapSize; k = child) {
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+
+			heap[k] = heap[child];
+		}
+
+		heap[k] = last;
+		return node;
+	}
+}
@@ -1,7 +1,8 @@
 package com.rosty.maze.model.algorithm;
 
 import com.rosty.maze.model.Maze;
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
 
 /**
  * Classe abstraite définissant un algorithme appliqué à un élément
@@ -12,25 +13,30 @@ import com.rosty.maze.widgets.MazePanel;
  */
 public abstract class MazeGenerationAlgorithm extends Algorithm {
 	/** Labyrinthe sur lequel sera appliqué l'algorithme. */
-	protected MazePanel mazePanel;
+	protected MazeBoard board;
 	/**
 	 * Nombre de lignes et de colonnes du labyrinthe ; ces attributs sont des
 	 * tampons pour ne pas avoir à requérir plusieurs fois la taille du labyrinthe
-	 * dans l'attribut {@link Algorithm#mazePanel} ; ils sont facultatifs.
+	 * dans l'attribut {@link #board} ; ils sont facultatifs.
 	 */
 	protected int nbRow, nbCol;
+	/**
+	 * Tampon des directions voisines d'une case, réutilisé à chaque étape (cf.
+	 * {@link Maze#neighbours(int, int, Side[])}).
+	 */
+	protected final Side[] neighbours = new Side[Side.COUNT];
 
 	/**
 	 * Constructeur de la classe {@link MazeGenerationAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public MazeGenerationAlgorithm(MazePanel panel) {
-		this.mazePanel = panel;
+	public MazeGenerationAlgorithm(MazeBoard board) {
+		this.board = board;
 
 		// Stockage des dimensions du labyrinthe
-		nbRow = mazePanel.getMaze().getNbRows();
-		nbCol = mazePanel.getMaze().getNbColumns();
+		nbRow = board.getMaze().getNbRows();
+		nbCol = board.getMaze().getNbColumns();
 	}
 	
 	@Override
@@ -1,32 +1,63 @@
 package com.rosty.maze.model.algorithm;
 
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.storage.CellLayer;
 
 public abstract class MazeSolvingAlgorithm extends Algorithm {
 	/** Labyrinthe sur lequel sera appliqué l'algorithme. */
-	protected MazePanel mazePanel;
+	protected MazeBoard board;
 	/**
 	 * Nombre de lignes et de colonnes du labyrinthe ; ces attributs sont des
 	 * tampons pour ne pas avoir à requérir plusieurs fois la taille du labyrinthe
-	 * dans l'attribut {@link Algorithm#mazePanel} ; ils sont facultatifs.
+	 * dans l'attribut {@link #board} ; ils sont facultatifs.
 	 */
 	protected int nbRow, nbCol;
+	/**
+	 * Tampon des directions voisines d'une case, réutilisé à chaque étape (cf.
+	 * {@link Maze#neighbours(int, int, Side[])}).
+	 */
+	protected final Side[] neighbours = new Side[Side.COUNT];
+	/**
+	 * Couche de travail de l'algorithme, dans laquelle sont rangées les valeurs
+	 * des cases sans écraser celles du labyrinthe généré (cf.
+	 * {@link #resetLayer(int)}).
+	 */
+	protected CellLayer layer;
 
 	/**
 	 * Constructeur de la classe {@link MazeSolvingAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public MazeSolvingAlgorithm(MazePanel panel) {
-		this.mazePanel = panel;
+	public MazeSolvingAlgorithm(MazeBoard board) {
+		this.board = board;
 
 		// Stockage des dimensions du labyrinthe
-		nbRow = mazePanel.getMaze().getNbRows();
-		nbCol = mazePanel.getMaze().getNbColumns();
+		nbRow = board.getMaze().getNbRows();
+		nbCol = board.getMaze().getNbColumns();
 	}
 	
 	@Override
 	public String getLabel() {
 		return "resolution";
 	}
+
+	/**
+	 * Prépare la couche de travail {@link Maze#SOLVE_LAYER} du labyrinthe et
+	 * l'affiche dans le composant graphique : toutes ses cases prennent la valeur
+	 * spécifiée, en temps constant. Cette méthode est appelée au début de la
+	 * méthode {@link #init()}.
+	 * 
+	 * @param value Valeur initiale des cases.
+	 * @return Couche de travail de l'algorithme.
+	 */
+	protected CellLayer resetLayer(int value) {
+		layer = board.getMaze().createLayer(Maze.SOLVE_LAYER);
+		layer.clear(value);
+		board.setLayer(layer);
+
+		return layer;
+	}
 }
\ No newline at end of file
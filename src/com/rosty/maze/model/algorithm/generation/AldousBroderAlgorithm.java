@@ -1,13 +1,8 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme d'Aldous-Broder</h1>
@@ -47,16 +42,13 @@ public class AldousBroderAlgorithm extends MazeGenerationAlgorithm {
 	/** Compteur de cases visitées par l'algorithme. */
 	private int cellCounter;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link AldousBroderAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public AldousBroderAlgorithm(MazePanel panel) {
-		super(panel);
+	public AldousBroderAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -68,9 +60,7 @@ public class AldousBroderAlgorithm extends MazeGenerationAlgorithm {
 	public void init() {
 		// Initialisation de la grille ; toutes les cases sont marquées à 0 pour
 		// indiquer que la case est inexplorée.
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 0);
+		board.fillCells(0);
 
 		// Placement aléatoire du point de départ
 		x = rand.nextInt(nbRow - 1);
@@ -79,7 +69,7 @@ public class AldousBroderAlgorithm extends MazeGenerationAlgorithm {
 		// Lancement du décompte des cellules explorées
 		cellCounter = 0;
 
-		mazePanel.getMaze().setCell(x, y, 1); // La case départ est marquée comme explorée
+		board.getMaze().setCell(x, y, 1); // La case départ est marquée comme explorée
 		cellCounter++;
 	}
 
@@ -91,44 +81,20 @@ public class AldousBroderAlgorithm extends MazeGenerationAlgorithm {
 	@Override
 	public void step() {
 		// La cellule courante est marquée comme visitée (si ce n'est déjà fait).
-		if (mazePanel.getCell(x, y) != 2)
-			mazePanel.setCell(x, y, 2);
+		if (board.getCell(x, y) != 2)
+			board.setCell(x, y, 2);
 
-		List<WallCoord> sides = getSides(x, y);
-		WallCoord selectedSide = sides.get(rand.nextInt(sides.size()));
-		move(selectedSide.side); // Déplacement aléatoire d'une case
+		int count = board.getMaze().neighbours(x, y, neighbours);
+		Side side = neighbours[rand.nextInt(count)];
+		int i = x, j = y;
+		move(side); // Déplacement aléatoire d'une case
 
-		if (mazePanel.getNeighbourCell(selectedSide) == 0) { // Si la nouvelle cellule n'a pas été visitée, ...
+		if (board.getCell(x, y) == 0) { // Si la nouvelle cellule n'a pas été visitée, ...
 			cellCounter++; // ...celle-ci est notifiée ...
-			mazePanel.setWall(selectedSide.x, selectedSide.y, selectedSide.side, 0); // ...et le mur est brisé.
+			board.setWall(i, j, side, 0); // ...et le mur est brisé.
 		}
 
-		mazePanel.setCell(x, y, 1); // Marquage de la nouvelle cellule.
-	}
-
-	/**
-	 * Fournit la liste des murs adjacents à la cellule spécifiée (la méthode ne
-	 * prend pas en compte les murs situés à la périphérie de la grille).
-	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste d'instance {@link WallCoord}}.
-	 */
-	private ArrayList<WallCoord> getSides(int i, int j) {
-		ArrayList<WallCoord> sides = new ArrayList<>();
-		if (i > 0)
-			sides.add(new WallCoord(i, j, Side.UP));
-
-		if (j > 0)
-			sides.add(new WallCoord(i, j, Side.LEFT));
-
-		if (i < nbRow - 1)
-			sides.add(new WallCoord(i, j, Side.DOWN));
-
-		if (j < nbCol - 1)
-			sides.add(new WallCoord(i, j, Side.RIGHT));
-
-		return sides;
+		board.setCell(x, y, 1); // Marquage de la nouvelle cellule.
 	}
 
 	/**
@@ -137,21 +103,7 @@ public class AldousBroderAlgorithm extends MazeGenerationAlgorithm {
 	 * @param direction Direction du déplacement.
 	 */
 	private void move(Side direction) {
-		switch (direction) {
-			case UP:
-				x--;
-				break;
-			case LEFT:
-				y--;
-				break;
-			case DOWN:
-				x++;
-				break;
-			case RIGHT:
-				y++;
-				break;
-			default:
-				break;
-		}
+		x += direction.dr;
+		y += direction.dc;
 	}
 }
\ No newline at end of file
@@ -1,14 +1,10 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
-import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.MazeBoard;
 
 /**
  * <h1>Algorithme de l'arbre binaire</h1>
@@ -46,25 +42,25 @@ import com.rosty.maze.widgets.MazePanel;
  * en O(1) et une complexité temporelle en O(M*N).
  * </p>
  * 
+ * <p>
+ * Chaque case étant traitée indépendamment des autres, les lignes peuvent être
+ * calculées en parallèle (cf. {@link RowStripAlgorithm}).
+ * </p>
+ * 
  * @author Martin Rostagnat
  * @version 1.0
  */
-public class BinaryTreeAlgorithm extends MazeGenerationAlgorithm {
-	/** Position du curseur dans la grille. */
-	private int x0 /* ligne */, y0 /* colonne */;
+public class BinaryTreeAlgorithm extends RowStripAlgorithm {
 	/** Coin de la grille où se situe la racine de l'arbre binaire. */
 	private Corner corner = Corner.UPPER_RIGHT;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link BinaryTreeAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public BinaryTreeAlgorithm(MazePanel panel) {
-		super(panel);
+	public BinaryTreeAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -75,64 +71,37 @@ public class BinaryTreeAlgorithm extends MazeGenerationAlgorithm {
 	@Override
 	public void init() {
 		// Initialisation de la grille
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 0);
-
-		// Positionnement dans la grille
-		x0 = 0;
-		y0 = -1;
+		board.fillCells(0);
+		super.init();
 	}
 
 	@Override
-	public boolean isComplete() {
-		return (x0 == nbRow - 1) && (y0 == nbCol - 1);
-	}
-
-	@Override
-	public void step() {
-		// Incrémentation des coordonnées (x0,y0)
-		y0++;
-		if (y0 == nbCol) {
-			y0 = 0;
-			x0++;
-		}
-
-		// Sélection des murs qui peuvent être retirés.
-		ArrayList<WallCoord> sides = getSides(x0, y0);
-		sides.removeIf(wall -> !corner.sides.contains(wall.side));
-
-		// Retrait aléatoire d'un mur
-		if (!sides.isEmpty()) { // S'il est possible de retirer un mur, ...
-			// ...alors on retire l'un des murs au hasard.
-			WallCoord selectedSide = sides.get(rand.nextInt(sides.size()));
-			mazePanel.setWall(selectedSide.x, selectedSide.y, selectedSide.side, 0);
+	protected void carveRow(SplittableRandom rand, int row, byte[] masks, int offset) {
+		for (int col = 0; col < nbCol; col++) {
+			// Sélection des murs qui peuvent être retirés, dans l'ordre des côtés
+			int first = -1, second = -1;
+			for (int k = 0, len = Maze.openSideCount(corner.mask); k < len; k++) {
+				Side side = Maze.openSide(corner.mask, k);
+				if (isInner(row, col, side)) {
+					if (first < 0)
+						first = side.ordinal();
+					else
+						second = side.ordinal();
+				}
+			}
+
+			// Retrait aléatoire d'un mur, s'il est possible d'en retirer un
+			if (first >= 0) {
+				int chosen = (rand.nextInt(second < 0 ? 1 : 2) == 0) ? first : second;
+				masks[offset + col] |= 1 << chosen;
+			}
 		}
 	}
 
-	/**
-	 * Fournit la liste des murs adjacents à la cellule spécifiée (la méthode ne
-	 * prend pas en compte les murs situés à la périphérie de la grille).
-	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste d'instance {@link WallCoord}}.
-	 */
-	private ArrayList<WallCoord> getSides(int i, int j) {
-		ArrayList<WallCoord> sides = new ArrayList<>();
-		if (i > 0)
-			sides.add(new WallCoord(i, j, Side.UP));
-
-		if (j > 0)
-			sides.add(new WallCoord(i, j, Side.LEFT));
-
-		if (i < nbRow - 1)
-			sides.add(new WallCoord(i, j, Side.DOWN));
-
-		if (j < nbCol - 1)
-			sides.add(new WallCoord(i, j, Side.RIGHT));
-
-		return sides;
+	/** Indique si le mur d'une case dans une direction donnée n'est pas en bordure. */
+	private boolean isInner(int row, int col, Side side) {
+		int i = row + side.dr, j = col + side.dc;
+		return i >= 0 && i < nbRow && j >= 0 && j < nbCol;
 	}
 
 	/**
@@ -143,24 +112,31 @@ public class BinaryTreeAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	enum Corner {
 		/** Bord supérieur gauche */
-		UPPER_LEFT(Arrays.asList(Side.UP, Side.LEFT)),
+		UPPER_LEFT(Side.UP, Side.LEFT),
 		/** Bord supérieur droit */
-		UPPER_RIGHT(Arrays.asList(Side.UP, Side.RIGHT)),
+		UPPER_RIGHT(Side.UP, Side.RIGHT),
 		/** Bord inférieur gauche */
-		LOWER_LEFT(Arrays.asList(Side.DOWN, Side.LEFT)),
+		LOWER_LEFT(Side.DOWN, Side.LEFT),
 		/** Bord inférieur droit */
-		LOWER_RIGHT(Arrays.asList(Side.DOWN, Side.RIGHT));
+		LOWER_RIGHT(Side.DOWN, Side.RIGHT);
 
-		/** Côtés accessibles pour un coin donné de la grille. */
-		private List<Side> sides;
+		/**
+		 * Côtés accessibles pour un coin donné de la grille, le bit
+		 * <code>side.ordinal()</code> étant levé pour chaque côté accessible.
+		 */
+		private final int mask;
 
 		/**
 		 * Constructeur de l'énuméré {@link Corner}.
 		 * 
 		 * @param sides Indique les murs accessibles pour un coin donné.
 		 */
-		private Corner(List<Side> sides) {
-			this.sides = sides;
+		private Corner(Side... sides) {
+			int mask = 0;
+			for (Side side : sides)
+				mask |= 1 << side.ordinal();
+
+			this.mask = mask;
 		}
 	}
 }
\ No newline at end of file
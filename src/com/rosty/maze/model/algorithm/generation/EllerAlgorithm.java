@@ -1,11 +1,8 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.Random;
-
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme d'Eller</h1>
@@ -50,10 +47,19 @@ import com.rosty.maze.widgets.MazePanel;
  * </p>
  * 
  * <p>
+ * <h2>Mise en oeuvre</h2> Les groupes de la ligne courante sont suivis par une
+ * structure d'ensembles disjoints sur les colonnes ({@link EllerSets}) : savoir
+ * si deux cases sont dans le même groupe, si une case est la dernière de son
+ * groupe ou si le groupe communique déjà avec la ligne suivante se fait en
+ * temps quasi constant. Les valeurs des cases ne servent plus qu'à l'affichage ;
+ * lors d'une fusion, seules les cases du groupe absorbé sont renumérotées.
+ * </p>
+ * 
+ * <p>
  * <h2>Complexité</h2> L'algorithme a une complexité temporelle en O(M*N) ; plus
  * précisément, (2M-1)*N opérations sont effectuées. La complexité mémoire est
  * en O(M) car l'évolution des groupes de chemins peut être suivie en ne se
- * focalisant que sur la ligne courante.
+ * focalisant que sur la ligne courante (cf. {@link EllerStream}).
  * </p>
  * 
  * @author Martin Rostagnat
@@ -61,7 +67,7 @@ import com.rosty.maze.widgets.MazePanel;
  */
 public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	/** Indicateur de position dans la grille. */
-	private int cellId;
+	private long cellId;
 
 	/** Mode de construction du labyrinthe sur la ligne courante. */
 	private Mode mode;
@@ -69,16 +75,16 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	/** Incrémenteur de la valeur de la cellule. */
 	private int inc;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
+	/** Groupes de cases de la ligne courante. */
+	private EllerSets sets;
 
 	/**
 	 * Constructeur de la classe {@link EllerAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public EllerAlgorithm(MazePanel panel) {
-		super(panel);
+	public EllerAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -89,21 +95,12 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	@Override
 	public void init() {
 		// Tous les murs intérieurs de la grille sont retirés.
-		for (int i = 0; i < nbRow - 1; i++) {
-			for (int j = 0; j < nbCol - 1; j++) {
-				mazePanel.setWall(i, j, Side.DOWN, 0);
-				mazePanel.setWall(i, j, Side.RIGHT, 0);
-			}
-
-			mazePanel.setWall(i, nbCol - 1, Side.DOWN, 0);
-		}
-
-		for (int j = 0; j < nbCol - 1; j++)
-			mazePanel.setWall(nbRow - 1, j, Side.RIGHT, 0);
+		board.removeAllInteriorWalls();
 		
 		// Initialisation de la position et de l'incrémenteur
 		cellId = 0;
 		inc = 2;
+		sets = new EllerSets(nbCol);
 		
 		// Le balayage commence par les murs du bas.
 		mode = Mode.SOUTH_PROCESS;
@@ -111,23 +108,26 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public boolean isComplete() {
-		return cellId == nbRow * nbCol - 1;
+		return cellId == (long) nbRow * nbCol - 1;
 	}
 
 	@Override
 	public void step() {
 		// Calcul des coordonnées de la case courante
-		int i = cellId / nbCol;
-		int j = cellId % nbCol;
+		int i = (int) (cellId / nbCol);
+		int j = (int) (cellId % nbCol);
 
 		// Assignation d'un nombre pour toutes les cases de la grille
 		if (j == 0) {
 			// Le mode est "renversé" à chaque début de ligne.
 			mode = (mode == Mode.EAST_PROCESS ? Mode.SOUTH_PROCESS : Mode.EAST_PROCESS);
 			if (mode == Mode.EAST_PROCESS) {
+				if (i > 0)
+					sets.nextRow(); // Groupes hérités de la ligne précédente
 				fillWalls(i); // Placement des murs à chaque nouvelle ligne visitée
 				fillCells(i); // Remplissage des cases vides au commencement d'une nouvelle ligne
-			}
+			} else
+				sets.beginSouth();
 		}
 
 		// Lancement du processus sur la cellule courante
@@ -162,12 +162,8 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	 * @param row Numéro de ligne.
 	 */
 	private void fillWalls(int row) {
-		for (int k = 0; k < nbCol - 1; k++)
-			mazePanel.setWall(row, k, Side.RIGHT, 1);
-
-		if (row < nbRow - 1)
-			for (int k = 0; k < nbCol; k++)
-				mazePanel.setWall(row, k, Side.DOWN, 1);
+		board.setRowWalls(row, 0, nbCol, Side.RIGHT, 1);
+		board.setRowWalls(row, 0, nbCol, Side.DOWN, 1);
 	}
 
 	/**
@@ -180,13 +176,13 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	private void fillCells(int row) {
 		if (row == 0)
 			for (int k = 0; k < nbCol; k++)
-				mazePanel.setCell(row, k, inc++);
+				board.setCell(row, k, inc++);
 		else
 			for (int k = 0; k < nbCol; k++)
-				if (mazePanel.getWall(row, k, Side.UP) == 0)
-					mazePanel.setCell(row, k, mazePanel.getCell(row - 1, k));
+				if (board.getWall(row, k, Side.UP) == 0)
+					board.setCell(row, k, board.getCell(row - 1, k));
 				else
-					mazePanel.setCell(row, k, inc++);
+					board.setCell(row, k, inc++);
 	}
 
 	/**
@@ -197,28 +193,30 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 	 * @param col Numéro de colonne.
 	 */
 	private void eastAction(int row, int col) {
-		if (col < nbCol - 1) {
+		if (col < nbCol - 1 && sets.find(col) != sets.find(col + 1)) {
 			boolean rightWallToRemove = false;
 
-			int val = mazePanel.getCell(row, col);
-			int nextVal = mazePanel.getCell(row, col + 1);
-
-			if (val != nextVal)
-				if (row == nbRow - 1) {
-					// S'il s'agit de la dernière ligne de la grille, le placement des murs est
-					// complètement déterminé.
-					rightWallToRemove = true;
-				} else if (rand.nextBoolean() == false) {
-					// Dans le cas contraire, les murs sont retirés aléatoirement.
-					rightWallToRemove = true;
-				}
+			if (row == nbRow - 1) {
+				// S'il s'agit de la dernière ligne de la grille, le placement des murs est
+				// complètement déterminé.
+				rightWallToRemove = true;
+			} else if (rand.nextBoolean() == false) {
+				// Dans le cas contraire, les murs sont retirés aléatoirement.
+				rightWallToRemove = true;
+			}
 
 			if (rightWallToRemove) {
-				mazePanel.setWall(row, col, Side.RIGHT, 0);
+				board.setWall(row, col, Side.RIGHT, 0);
 
-				ArrayList<Integer> family = findCellsByValue(row, nextVal);
-				for (int c : family)
-					mazePanel.setCell(row, c, val);
+				// Les cases du groupe absorbé prennent la valeur du groupe qui l'absorbe.
+				int absorbed = sets.union(col, col + 1);
+				int root = sets.find(col);
+				int val = board.getCell(row, root);
+				for (int c = sets.nextMember(root);; c = sets.nextMember(c)) {
+					board.setCell(row, c, val);
+					if (c == absorbed)
+						break;
+				}
 			}
 		}
 	}
@@ -234,24 +232,11 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 		if (row < nbRow - 1) {
 			boolean downWallToRemove = false;
 
-			int val = mazePanel.getCell(row, col);
-			ArrayList<Integer> family = findCellsByValue(row, val);
-
-			if (family.size() == 1) { // Situation 1
-				downWallToRemove = true;
-			} else if (col == family.get(family.size() - 1)) { // Situation 2
-				// Cette situation est traitée lorsque la case courante correspond à la dernière
-				// du groupe. Si aucune cellule du groupe n'a été percée par le bas, il faut
-				// forcément briser le mur sous la cellule courante pour ne pas créer d'ilôt.
-				boolean isIslet = true;
-				for (int c : family)
-					if (mazePanel.getWall(row, c, Side.DOWN) == 0) {
-						isIslet = false;
-						break;
-					}
-
-				if (isIslet)
-					downWallToRemove = true;
+			if (sets.southLast(col)) { // Situations 1 et 2
+				// La case courante est la dernière de son groupe (éventuellement la seule). Si
+				// aucune cellule du groupe n'a été percée par le bas, il faut forcément briser
+				// le mur sous la cellule courante pour ne pas créer d'ilôt.
+				downWallToRemove = !sets.hasDown(col);
 			} else if (rand.nextBoolean() == false) {
 				// Ces deux cas mis à part, l'algorithme choisit de retirer le mur du bas de
 				// façon purement aléatoire.
@@ -259,29 +244,13 @@ public class EllerAlgorithm extends MazeGenerationAlgorithm {
 			}
 
 			if (downWallToRemove) {
-				mazePanel.setWall(row, col, Side.DOWN, 0);
-				mazePanel.setCell(row + 1, col, val);
+				board.setWall(row, col, Side.DOWN, 0);
+				board.setCell(row + 1, col, board.getCell(row, col));
+				sets.markDown(col);
 			}
 		}
 	}
 
-	/**
-	 * Fournit la liste des cases possédant une valeur spécifique sur la ligne
-	 * donnée.
-	 * 
-	 * @param row   Numéro de ligne.
-	 * @param value Valeur des cases à rechercher.
-	 * @return Liste d'entiers représentant le numéro de colonne de la case.
-	 */
-	protected ArrayList<Integer> findCellsByValue(int row, int value) {
-		ArrayList<Integer> group = new ArrayList<Integer>();
-		for (int c = 0; c < nbCol; c++)
-			if (mazePanel.getCell(row, c) == value)
-				group.add(c);
-
-		return group;
-	}
-
 	/**
 	 * Enumération des processus appliqués dans cet algorithme.
 	 * 
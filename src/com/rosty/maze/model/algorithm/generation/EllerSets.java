@@ -0,0 +1,108 @@
+package com.rosty.maze.model.algorithm.generation;
+
+import java.util.Arrays;
+
+import com.rosty.maze.model.algorithm.DisjointSet;
+
+/**
+ * Ensembles de cases de la ligne courante de l'algorithme d'Eller, indicés par
+ * numéro de colonne (cf. {@link EllerAlgorithm} et {@link EllerStream}).
+ * <p>
+ * Les ensembles sont ceux d'une structure d'ensembles disjoints sur les
+ * colonnes, dont les membres sont chaînés (cf. {@link DisjointSet}) ; chaque
+ * représentant porte en outre le nombre de ses cases restant à visiter lors du
+ * balayage SUD et un indicateur de passage vers la ligne suivante. Toutes les
+ * opérations sur une case s'exécutent ainsi en temps quasi constant, et la
+ * mémoire occupée ne dépend que de la largeur du labyrinthe.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+final class EllerSets extends DisjointSet {
+	/** Nombre de cases de l'ensemble de chaque représentant restant à balayer. */
+	private final int[] remaining;
+
+	/** Indique si un mur du bas a été retiré dans l'ensemble de chaque représentant. */
+	private final boolean[] down;
+
+	/** Indique si le mur du bas de chaque colonne a été retiré. */
+	private final boolean[] carved;
+
+	/** Nouveau représentant de chaque ancien ensemble, lors du passage à la ligne suivante. */
+	private final int[] heads;
+
+	/**
+	 * Constructeur de la classe {@link EllerSets} ; chaque case de la première
+	 * ligne forme un ensemble à elle seule.
+	 *
+	 * @param width Nombre de colonnes.
+	 */
+	EllerSets(int width) {
+		super(width);
+		trackMembers();
+		remaining = new int[width];
+		down = new boolean[width];
+		carved = new boolean[width];
+		heads = new int[width];
+	}
+
+	/** Prépare le balayage SUD de la ligne courante. */
+	void beginSouth() {
+		Arrays.fill(remaining, 0);
+		for (int c = 0; c < remaining.length; c++)
+			remaining[find(c)]++;
+	}
+
+	/**
+	 * Compte une case de plus dans le balayage SUD, et indique s'il s'agit de la
+	 * dernière case de son ensemble. Les cases doivent être balayées dans l'ordre,
+	 * une seule fois chacune, après {@link #beginSouth()}.
+	 */
+	boolean southLast(int col) {
+		return --remaining[find(col)] == 0;
+	}
+
+	/** Indique si l'ensemble d'une colonne communique déjà avec la ligne suivante. */
+	boolean hasDown(int col) {
+		return down[find(col)];
+	}
+
+	/** Note le retrait du mur du bas d'une colonne. */
+	void markDown(int col) {
+		carved[col] = true;
+		down[find(col)] = true;
+	}
+
+	/**
+	 * Passe à la ligne suivante : les cases situées sous un mur retiré restent dans
+	 * l'ensemble de la case du dessus, les autres forment chacune un nouvel
+	 * ensemble.
+	 */
+	void nextRow() {
+		int width = size();
+
+		// Ancien représentant de chaque colonne percée par le bas ("remaining" n'est
+		// plus utile d'ici au prochain balayage SUD).
+		for (int c = 0; c < width; c++)
+			remaining[c] = carved[c] ? find(c) : -1;
+
+		reset();
+		Arrays.fill(heads, -1);
+		Arrays.fill(down, false);
+
+		// Les colonnes percées d'un même ancien ensemble sont réunies à la première
+		// d'entre elles.
+		for (int c = 0; c < width; c++) {
+			int old = remaining[c];
+			if (old >= 0) {
+				if (heads[old] < 0)
+					heads[old] = c;
+				else
+					union(heads[old], c);
+			}
+
+			carved[c] = false;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.rosty.maze.model.algorithm.generation;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.RowSink;
+
+/**
+ * <h1>Algorithme d'Eller en flux</h1>
+ *
+ * <p>
+ * <h2>Principe</h2> L'algorithme d'Eller (cf. la classe {@link EllerAlgorithm})
+ * ne consulte que la ligne courante pour construire la suivante. Cette variante
+ * en tire parti pour générer des labyrinthes de hauteur quelconque sans jamais
+ * les stocker : chaque ligne terminée est transmise à un {@link RowSink}
+ * (fichier, flux réseau, traitement à la volée...), puis oubliée.
+ * </p>
+ *
+ * <p>
+ * <h2>Complexité</h2> La complexité temporelle est en O(M*N) et la complexité
+ * mémoire en O(N), N étant le nombre de colonnes : seuls les ensembles de la
+ * ligne courante (cf. {@link EllerSets}) et les masques de ses cases sont
+ * conservés.
+ * </p>
+ *
+ * <p>
+ * A graine égale, les murs retirés sont les mêmes que ceux de
+ * {@link EllerAlgorithm}.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class EllerStream {
+	private static final byte UP = (byte) (1 << Side.UP.ordinal()), RIGHT = (byte) (1 << Side.RIGHT.ordinal()),
+			DOWN = (byte) (1 << Side.DOWN.ordinal()), LEFT = (byte) (1 << Side.LEFT.ordinal());
+
+	/** Nombre de lignes. */
+	private final long nbRow;
+
+	/** Nombre de colonnes. */
+	private final int nbCol;
+
+	/** Générateur de nombres aléatoires. */
+	private final SplittableRandom rand;
+
+	/**
+	 * Constructeur de la classe {@link EllerStream}.
+	 *
+	 * @param nbRow Nombre de lignes du labyrinthe.
+	 * @param nbCol Nombre de colonnes du labyrinthe.
+	 * @param seed  Graine du générateur de nombres aléatoires.
+	 * @throws IllegalArgumentException Si l'une des dimensions est nulle ou
+	 *                                  négative.
+	 */
+	public EllerStream(long nbRow, int nbCol, long seed) throws IllegalArgumentException {
+		if (nbRow <= 0 || nbCol <= 0)
+			throw new IllegalArgumentException("Invalid maze size: " + nbRow + "x" + nbCol);
+
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+		this.rand = new SplittableRandom(seed);
+	}
+
+	/** Fournit le nombre de lignes. */
+	public long getNbRows() {
+		return nbRow;
+	}
+
+	/** Fournit le nombre de colonnes. */
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	/**
+	 * Génère le labyrinthe ligne par ligne, de haut en bas. La génération s'arrête
+	 * prématurément si le thread courant est interrompu.
+	 *
+	 * @param sink Destinataire des lignes terminées.
+	 * @return Nombre de lignes transmises.
+	 * @throws IOException En cas de problème lors de la transmission d'une ligne.
+	 */
+	public long generate(RowSink sink) throws IOException {
+		EllerSets sets = new EllerSets(nbCol);
+		byte[] masks = new byte[nbCol];
+		Thread thread = Thread.currentThread();
+
+		long row = 0L;
+		for (; row < nbRow && !thread.isInterrupted(); row++) {
+			boolean last = (row == nbRow - 1);
+
+			// Processus EST : sur la dernière ligne, tous les ensembles sont réunis.
+			for (int c = 0; c < nbCol - 1; c++) {
+				if (sets.find(c) != sets.find(c + 1) && (last || !rand.nextBoolean())) {
+					sets.union(c, c + 1);
+					masks[c] |= RIGHT;
+					masks[c + 1] |= LEFT;
+				}
+			}
+
+			// Processus SUD : chaque ensemble doit communiquer avec la ligne suivante.
+			if (!last) {
+				sets.beginSouth();
+				for (int c = 0; c < nbCol; c++) {
+					boolean carve = sets.southLast(c) ? !sets.hasDown(c) : !rand.nextBoolean();
+					if (carve) {
+						sets.markDown(c);
+						masks[c] |= DOWN;
+					}
+				}
+			}
+
+			sink.accept(row, masks);
+
+			// Les murs du bas retirés deviennent les murs du haut de la ligne suivante.
+			for (int c = 0; c < nbCol; c++)
+				masks[c] = ((masks[c] & DOWN) != 0) ? UP : 0;
+
+			sets.nextRow();
+		}
+
+		return row;
+	}
+}
@@ -2,12 +2,10 @@ package com.rosty.maze.model.algorithm.generation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme du blob</h1>
@@ -65,16 +63,13 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	private List<int[]> pendingCells;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link GrowingTreeAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public GrowingTreeAlgorithm(MazePanel panel) {
-		super(panel);
+	public GrowingTreeAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -87,14 +82,12 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 		pendingCells = new ArrayList<>();
 
 		/* Etape 1 : remplissage du terrain avec la valeur 2. */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 2);
+		board.fillCells(2);
 
 		/* Etape 2 : placement de la toute première cellule à analyser. */
 		int r = rand.nextInt(nbRow), c = rand.nextInt(nbCol);
 		pendingCells.add(new int[] { r, c });
-		mazePanel.setCell(r, c, 1);
+		board.setCell(r, c, 1);
 	}
 
 	@Override
@@ -125,7 +118,7 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 	 *         the ratio.
 	 */
 	private SubAlgo nextAlgo() {
-		float ran = rand.nextFloat();
+		float ran = (float) rand.nextDouble();
 		if (ran == algoRatio)
 			return nextAlgo();
 		else
@@ -151,46 +144,18 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 	 * @param index Indice de la cellule dans la liste.
 	 */
 	private void carve(int index) {
-		int[] selectedCell = pendingCells.get(index), selectedNewCell = null;
+		int[] selectedCell = pendingCells.get(index);
 		int r = selectedCell[0], c = selectedCell[1];
 
 		// Répérage des murs qui peuvent être retirés
-		List<Side> removableWalls = new ArrayList<>();
-		if (r > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.UP)) == 2)
-			removableWalls.add(Side.UP);
-
-		if (r < nbRow - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.DOWN)) == 2)
-			removableWalls.add(Side.DOWN);
-
-		if (c > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.LEFT)) == 2)
-			removableWalls.add(Side.LEFT);
-
-		if (c < nbCol - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.RIGHT)) == 2)
-			removableWalls.add(Side.RIGHT);
-
-		if (!removableWalls.isEmpty()) { // Si une cellule inexplorée est repérée, ...
-			Side removedWall = removableWalls.get(rand.nextInt(removableWalls.size()));
-			switch (removedWall) {
-				case UP:
-					selectedNewCell = new int[] { r - 1, c };
-					break;
-				case DOWN:
-					selectedNewCell = new int[] { r + 1, c };
-					break;
-				case LEFT:
-					selectedNewCell = new int[] { r, c - 1 };
-					break;
-				case RIGHT:
-					selectedNewCell = new int[] { r, c + 1 };
-					break;
-				default:
-					break;
-			}
+		int count = board.getMaze().neighbours(r, c, 2, neighbours);
+
+		if (count > 0) { // Si une cellule inexplorée est repérée, ...
+			Side removedWall = neighbours[rand.nextInt(count)];
 
 			// ...alors la cellule est insérée dans la liste et marquée dans la grille.
-			mazePanel.setWall(r, c, removedWall, 0);
-			if (selectedNewCell != null)
-				addPending(selectedNewCell);
+			board.setWall(r, c, removedWall, 0);
+			addPending(new int[] { r + removedWall.dr, c + removedWall.dc });
 		} else // Sinon retirer la cellule courante et le marquer dans la grille.
 			removePending(index);
 	}
@@ -202,7 +167,7 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	private void addPending(int[] newCell) {
 		pendingCells.add(newCell);
-		mazePanel.setCell(newCell[0], newCell[1], 1);
+		board.setCell(newCell[0], newCell[1], 1);
 	}
 
 	/**
@@ -213,7 +178,7 @@ public class GrowingTreeAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	private void removePending(int index) {
 		int[] cell = pendingCells.get(index);
-		mazePanel.setCell(cell[0], cell[1], 0);
+		board.setCell(cell[0], cell[1], 0);
 
 		pendingCells.remove(index);
 	}
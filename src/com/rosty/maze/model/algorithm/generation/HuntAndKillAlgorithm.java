@@ -1,13 +1,8 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme "Hunt-and-Kill"</h1>
@@ -75,16 +70,13 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 	/** Point de lancement du mode KILL. */
 	private int lineLevel;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link HuntAndKillAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public HuntAndKillAlgorithm(MazePanel panel) {
-		super(panel);
+	public HuntAndKillAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -96,15 +88,13 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 	public void init() {
 		// Initialisation de la grille ; toutes les cases sont marquées à 0 pour
 		// indiquer que la case est inexplorée.
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 0);
+		board.fillCells(0);
 
 		// Placement aléatoire du point de départ
 		x = rand.nextInt(nbRow - 1);
 		y = rand.nextInt(nbCol - 1);
 
-		mazePanel.getMaze().setCell(x, y, 1); // La case départ est marquée comme explorée
+		board.getMaze().setCell(x, y, 1); // La case départ est marquée comme explorée
 
 		// Ligne de départ de l'algorithme
 		lineLevel = 0;
@@ -125,39 +115,28 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 	public void step() {
 		switch (mode) {
 			case HUNT:
-				int index = -1;
-				ArrayList<WallCoord> visitedSides = null;
+				int index = -1, count = 0;
 
 				if (vertical)
 					for (int j = 0; j < nbCol; j++) {
-						boolean unvisitedCell = (mazePanel.getCell(lineLevel, j) == 0);
-						visitedSides = getSides(lineLevel, j);
+						boolean unvisitedCell = (board.getCell(lineLevel, j) == 0);
 						// Retrait des murs qui sont associés à des cellules non-visitées
-						visitedSides.removeIf(wc -> {
-							int neighbour = mazePanel.getNeighbourCell(wc);
-							return neighbour != 2 // case visitée
-									&& neighbour != 1; // case marquée comme visitée
-						});
+						count = unvisitedCell ? sides(lineLevel, j, true) : 0;
 
 						// Si la cellule n'est pas visitée mais possède un voisin qui a été visité, ...
-						if (unvisitedCell && !visitedSides.isEmpty()) {
+						if (count > 0) {
 							index = j;
 							break; // ...alors on arrête la recherche.
 						}
 					}
 				else
 					for (int i = 0; i < nbRow; i++) {
-						boolean unvisitedCell = (mazePanel.getCell(i, lineLevel) == 0);
-						visitedSides = getSides(i, lineLevel);
+						boolean unvisitedCell = (board.getCell(i, lineLevel) == 0);
 						// Retrait des murs qui sont associés à des cellules non-visitées
-						visitedSides.removeIf(wc -> {
-							int neighbour = mazePanel.getNeighbourCell(wc);
-							return neighbour != 2 // case visitée
-									&& neighbour != 1; // case marquée comme visitée
-						});
+						count = unvisitedCell ? sides(i, lineLevel, true) : 0;
 
 						// Si la cellule n'est pas visitée mais possède un voisin qui a été visité, ...
-						if (unvisitedCell && !visitedSides.isEmpty()) {
+						if (count > 0) {
 							index = i;
 							break; // ...alors on arrête la recherche.
 						}
@@ -175,12 +154,11 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 						y = lineLevel;
 					}
 
-					mazePanel.setCell(x, y, 1);
+					board.setCell(x, y, 1);
 
-					// visitedSides contient au moins un élément ; on le choisit au hasard dans la
-					// liste pour débuter le mode KILL.
-					WallCoord wall = visitedSides.get(rand.nextInt(visitedSides.size()));
-					mazePanel.setWall(wall.x, wall.y, wall.side, 0);
+					// Le tampon contient au moins une direction vers une case visitée ; on la
+					// choisit au hasard pour débuter le mode KILL.
+					board.setWall(x, y, neighbours[rand.nextInt(count)], 0);
 
 					// Réinitialisation du mode HUNT (pour la prochaine fois)
 					lineLevel = 0;
@@ -190,26 +168,17 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 				break;
 			case KILL:
 				// Repérage des directions à explorer
-				List<WallCoord> unexplored = new ArrayList<>();
-
-				List<WallCoord> sides = getSides(x, y);
-				for (WallCoord side : sides) {
-					int sideValue = mazePanel.getNeighbourCell(side);
-					if (sideValue != -1 /* hors-grille, c'est une simple sécurité */
-							&& sideValue != 1 /* case explorée */
-							&& sideValue != 2 /* case explorée mais non coloriée */)
-						unexplored.add(side);
-				}
+				int unexplored = sides(x, y, false);
 
 				// Phase d'exploration (ou de rembobinage)
-				mazePanel.setCell(x, y, 2); // Case courante marquée comme explorée
-				if (!unexplored.isEmpty()) {
-					WallCoord selectedSide = unexplored.get(rand.nextInt(unexplored.size()));
-					move(selectedSide.side);
-
-					mazePanel.setCell(x, y, 1); // Nouvelle case explorée
+				board.setCell(x, y, 2); // Case courante marquée comme explorée
+				if (unexplored > 0) {
+					Side selectedSide = neighbours[rand.nextInt(unexplored)];
 					// Brisage du mur
-					mazePanel.setWall(selectedSide.x, selectedSide.y, selectedSide.side, 0);
+					board.setWall(x, y, selectedSide, 0);
+					move(selectedSide);
+
+					board.setCell(x, y, 1); // Nouvelle case explorée
 				} else {
 					mode = Mode.HUNT;
 				}
@@ -221,28 +190,25 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 	}
 
 	/**
-	 * Fournit la liste des murs adjacents à la cellule spécifiée (la méthode ne
-	 * prend pas en compte les murs situés à la périphérie de la grille).
+	 * Range dans le tampon {@link #neighbours} les directions des cellules
+	 * voisines à la cellule spécifiée qui ont été visitées (ou, au contraire, qui
+	 * ne l'ont pas été). La méthode ne prend pas en compte les murs situés à la
+	 * périphérie de la grille.
 	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste d'instance {@link WallCoord}}.
+	 * @param i       Ligne de la cellule courante.
+	 * @param j       Colonne de la cellule courante.
+	 * @param visited Indique si l'on recherche les cellules visitées.
+	 * @return Nombre de directions rangées dans le tampon.
 	 */
-	private ArrayList<WallCoord> getSides(int i, int j) {
-		ArrayList<WallCoord> sides = new ArrayList<>();
-		if (i > 0)
-			sides.add(new WallCoord(i, j, Side.UP));
-
-		if (j > 0)
-			sides.add(new WallCoord(i, j, Side.LEFT));
-
-		if (i < nbRow - 1)
-			sides.add(new WallCoord(i, j, Side.DOWN));
-
-		if (j < nbCol - 1)
-			sides.add(new WallCoord(i, j, Side.RIGHT));
+	private int sides(int i, int j, boolean visited) {
+		int count = 0;
+		for (int k = 0, n = board.getMaze().neighbours(i, j, neighbours); k < n; k++) {
+			int neighbour = board.getNeighbourCell(i, j, neighbours[k]);
+			if ((neighbour == 1 || neighbour == 2) == visited)
+				neighbours[count++] = neighbours[k];
+		}
 
-		return sides;
+		return count;
 	}
 
 	/**
@@ -251,22 +217,8 @@ public class HuntAndKillAlgorithm extends MazeGenerationAlgorithm {
 	 * @param direction Direction du déplacement.
 	 */
 	private void move(Side direction) {
-		switch (direction) {
-			case UP:
-				x--;
-				break;
-			case LEFT:
-				y--;
-				break;
-			case DOWN:
-				x++;
-				break;
-			case RIGHT:
-				y++;
-				break;
-			default:
-				break;
-		}
+		x += direction.dr;
+		y += direction.dc;
 	}
 
 	/**
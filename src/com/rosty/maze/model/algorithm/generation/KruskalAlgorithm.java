@@ -1,13 +1,12 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.BitSet;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.DisjointSet;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de Kruskal standard</h1>
@@ -69,6 +68,16 @@ import com.rosty.maze.widgets.MazePanel;
  * </p>
  * 
  * <p>
+ * <h2>Mise en oeuvre</h2> Les ensembles de cases reliées sont suivis par une
+ * structure d'ensembles disjoints ({@link DisjointSet}) : tester puis relier
+ * deux cases se fait en temps quasi constant, et l'algorithme s'arrête dès
+ * qu'il ne reste qu'un ensemble. Les valeurs des cases ne servent qu'à
+ * l'affichage ; elles ne sont tenues à jour que lors d'une exécution pas à pas
+ * (seules les cases de l'ensemble absorbé sont renumérotées), et uniformisées
+ * en fin d'exécution d'un seul tenant (cf. {@link #runToCompletion()}).
+ * </p>
+ * 
+ * <p>
  * <h2>Complexité</h2> Pour un labyrinthe parfait (sans ilôts), le nombre
  * d'étapes est égal au nombre de cases oté de 1. En effet, retirer ce nombre de
  * murs est suffisant pour que toutes les cases soient reliées par un même
@@ -94,23 +103,30 @@ import com.rosty.maze.widgets.MazePanel;
  */
 public class KruskalAlgorithm extends MazeGenerationAlgorithm {
 	/**
-	 * Liste des murs intérieurs i.e. autres que les bordures du terrain, qui n'ont
-	 * pas été analysés par l'algorithme. Tous les murs doivent être analysés pour
-	 * déterminer s'il est nécessaire de les enlever ou non pour former l'arbre des
-	 * chemins du labyrinthe.
+	 * Murs intérieurs i.e. autres que les bordures du terrain. Tous les murs
+	 * doivent être analysés pour déterminer s'il est nécessaire de les enlever ou
+	 * non pour former l'arbre des chemins du labyrinthe. Chaque mur est codé par
+	 * un entier (cf. {@link #encode(int, Side)}) ; les murs déjà analysés sont
+	 * ceux qui précèdent le curseur {@link #cursor}.
 	 */
-	private List<WallCoord> walls;
+	protected int[] walls;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
+	/** Nombre de murs déjà analysés, placés en tête du tableau {@link #walls}. */
+	protected int cursor;
+
+	/** Ensembles de cases reliées entre elles, indicées par ligne * nbCol + colonne. */
+	protected DisjointSet sets;
+
+	/** Booléen indiquant si les valeurs des cases reflètent les ensembles. */
+	private boolean labelled;
 
 	/**
 	 * Constructeur de la classe {@link KruskalAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public KruskalAlgorithm(MazePanel panel) {
-		super(panel);
+	public KruskalAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -120,76 +136,176 @@ public class KruskalAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void init() {
-		/* Etape 1 : attribution d'un numéro identifiant chaque case du terrain. */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 2 + i * nbCol + j);
+		/*
+		 * Etape 1 : chaque case forme un ensemble à elle seule. Les numéros des cases
+		 * ne sont attribués qu'au premier pas (cf. step()), inutiles si l'algorithme
+		 * s'exécute d'un seul tenant.
+		 */
+		sets = new DisjointSet(nbRow * nbCol);
+		labelled = false;
 
 		/*
-		 * Etape 2 : mémorisation des murs "intérieurs" du terrain dans la liste
-		 * "walls". Cette liste indiquera en temps réel les murs qui n'ont pas été
+		 * Etape 2 : mémorisation des murs "intérieurs" du terrain dans le tableau
+		 * "walls". Le curseur indiquera en temps réel les murs qui n'ont pas été
 		 * analysés par l'algorithme.
 		 */
-		walls = new ArrayList<>();
-		for (int i = 0, lenI = nbRow - 1; i < lenI; i++) {
+		walls = new int[nbRow * (nbCol - 1) + (nbRow - 1) * nbCol];
+		cursor = 0;
+
+		int index = 0;
+		for (int i = 0; i < nbRow; i++) {
 			for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++)
-				walls.add(new WallCoord(i, j, Side.RIGHT));
+				walls[index++] = encode(i * nbCol + j, Side.RIGHT);
 
-			for (int j = 0; j < nbCol; j++)
-				walls.add(new WallCoord(i, j, Side.DOWN));
+			if (i < nbRow - 1)
+				for (int j = 0; j < nbCol; j++)
+					walls[index++] = encode(i * nbCol + j, Side.DOWN);
 		}
-
-		for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++)
-			walls.add(new WallCoord(nbRow - 1, j, Side.RIGHT));
 	}
 
 	@Override
 	public boolean isComplete() {
 		// L'algorithme s'arrête lorsque tous les murs intérieurs du terrain ont été
-		// analysés.
-		return walls.isEmpty();
+		// analysés, ou dès que toutes les cases sont reliées.
+		return cursor == walls.length || sets.getNbSets() == 1;
 	}
 
 	@Override
 	public void step() {
-		/* Etape 1 : sélection aléatoire d'un mur non-analysé. */
-		int start = rand.nextInt(walls.size());
-		int wallPosition = start;
-		WallCoord wall = walls.get(wallPosition);
+		// Lors d'une exécution pas à pas, les valeurs des cases suivent les ensembles.
+		sets.trackMembers();
+		if (!labelled) {
+			Maze maze = board.getMaze();
+			maze.preserveRegion(0, 0, nbRow, nbCol);
+			for (int cell = 0, len = nbRow * nbCol; cell < len; cell++)
+				maze.setCellUnchecked(cell, 2 + sets.find(cell));
 
-		int cell = mazePanel.getCell(wall.x, wall.y); // Valeur de la case associée au mur
-		int neighbour = mazePanel.getNeighbourCell(wall); // Valeur de la case voisine
+			maze.touchRegion(0, 0, nbRow, nbCol);
+			labelled = true;
+		}
+
+		int absorbed = carve();
+		if (absorbed < 0)
+			return;
 
 		/*
-		 * Etape 2 : si les deux cases entourant le mur sont de même valeur, on retire
-		 * le mur de la liste et on réitère l'étape 1 jusqu'à trouver deux valeurs
-		 * distinctes.
+		 * Etape 3 : mise à jour des valeurs du terrain : les cases de l'ensemble
+		 * absorbé prennent la valeur de l'ensemble qui l'absorbe.
 		 */
-		while (cell == neighbour) {
-			walls.remove(wallPosition);
-			// S'il n'y a plus de murs à analyser, l'étape est avortée.
-			if (walls.isEmpty())
-				return;
-
-			wallPosition = rand.nextInt(walls.size());
-//			wallPosition++;
-//			wallPosition %= walls.size();
-			wall = walls.get(wallPosition);
-
-			cell = mazePanel.getCell(wall.x, wall.y);
-			neighbour = mazePanel.getNeighbourCell(wall);
+		int root = sets.find(absorbed);
+		int value = board.getCell(root / nbCol, root % nbCol);
+		for (int cell = sets.nextMember(root);; cell = sets.nextMember(cell)) {
+			board.getMaze().setCell(cell / nbCol, cell % nbCol, value);
+			if (cell == absorbed)
+				break;
 		}
+	}
 
-		// Retrait du mur entre les deux cases
-		mazePanel.setWall(wall.x, wall.y, wall.side, 0);
+	/**
+	 * Enchaîne les étapes sans entretenir les valeurs des cases ; celles-ci
+	 * prennent toutes la même valeur une fois le labyrinthe terminé.
+	 */
+	@Override
+	public void runToCompletion() {
+		labelled = false;
+		carveRemaining();
 
-		/*
-		 * Etape 3 : mise à jour des valeurs du terrain : chaque case ayant la valeur la
-		 * plus forte obtient la valeur la plus faible.
-		 */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				if (mazePanel.getCell(i, j) == neighbour)
-					mazePanel.getMaze().setCell(i, j, cell);
+		if (isComplete())
+			board.fillCells(2 + sets.find(0));
+	}
+
+	/**
+	 * Analyse les murs restants jusqu'à la fin de l'algorithme, ou jusqu'à
+	 * l'interruption du thread courant, sans entretenir les valeurs des cases.
+	 * <p>
+	 * Les trois phases sont séparées pour limiter les défauts de cache : le
+	 * mélange des murs restants est achevé d'abord (mêmes tirages, donc même
+	 * labyrinthe qu'en pas à pas), les murs à retirer sont ensuite marqués pendant
+	 * les unions, puis retirés dans l'ordre du terrain.
+	 * </p>
+	 */
+	protected void carveRemaining() {
+		shuffleRemaining();
+
+		BitSet removed = new BitSet(2 * nbRow * nbCol);
+		Thread thread = Thread.currentThread();
+		while (!isComplete() && !thread.isInterrupted()) {
+			int wall = walls[cursor++];
+			int cell = wall >>> 1;
+			if (sets.union(cell, cell + ((wall & 1) == 0 ? 1 : nbCol)) >= 0)
+				removed.set(wall);
+		}
+
+		for (int wall = removed.nextSetBit(0); wall >= 0; wall = removed.nextSetBit(wall + 1)) {
+			int cell = wall >>> 1;
+			board.setWall(cell / nbCol, cell % nbCol, (wall & 1) == 0 ? Side.RIGHT : Side.DOWN, 0);
+		}
+	}
+
+	/**
+	 * Achève le mélange des murs non analysés, placés après le curseur ; les
+	 * tirages sont ceux que ferait {@link #nextWall()} mur après mur.
+	 */
+	protected void shuffleRemaining() {
+		for (int k = cursor; k < walls.length; k++) {
+			int index = k + rand.nextInt(walls.length - k);
+			int wall = walls[index];
+			walls[index] = walls[k];
+			walls[k] = wall;
+		}
+	}
+
+	/**
+	 * Analyse les murs jusqu'à en trouver un séparant deux ensembles distincts,
+	 * puis retire ce mur et réunit les deux ensembles.
+	 * 
+	 * @return Ancien représentant de l'ensemble absorbé, ou <b>-1</b> s'il ne reste
+	 *         aucun mur à retirer.
+	 */
+	private int carve() {
+		while (cursor < walls.length) {
+			/* Etape 1 : sélection d'un mur non-analysé. */
+			int wall = nextWall();
+			int cell = wall >>> 1;
+			Side side = (wall & 1) == 0 ? Side.RIGHT : Side.DOWN;
+
+			/*
+			 * Etape 2 : si les deux cases entourant le mur appartiennent au même
+			 * ensemble, le mur est conservé et l'on passe au suivant.
+			 */
+			int absorbed = sets.union(cell, cell + side.dr * nbCol + side.dc);
+			if (absorbed >= 0) {
+				// Retrait du mur entre les deux cases
+				board.setWall(cell / nbCol, cell % nbCol, side, 0);
+				return absorbed;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Fournit le prochain mur à analyser, et avance le curseur. Le mur est tiré au
+	 * hasard parmi les murs restants, puis échangé avec celui placé au curseur :
+	 * il s'agit d'un mélange de Fisher-Yates effectué au fil de l'eau.
+	 */
+	protected int nextWall() {
+		int index = cursor + rand.nextInt(walls.length - cursor);
+		int wall = walls[index];
+		walls[index] = walls[cursor];
+		walls[cursor++] = wall;
+		return wall;
+	}
+
+	/**
+	 * Code un mur intérieur par un entier : indice de la case (ligne * nbCol +
+	 * colonne) décalé d'un bit, le bit de poids faible valant <b>0</b> pour le mur
+	 * de droite et <b>1</b> pour le mur du bas.
+	 * 
+	 * @param cell Indice de la case.
+	 * @param side Côté du mur, {@link Side#RIGHT} ou {@link Side#DOWN}.
+	 */
+	protected static int encode(int cell, Side side) {
+		return cell << 1 | (side == Side.DOWN ? 1 : 0);
 	}
-}
\ No newline at end of file
+}
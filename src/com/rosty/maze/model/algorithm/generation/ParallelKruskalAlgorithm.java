@@ -0,0 +1,315 @@
+package com.rosty.maze.model.algorithm.generation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.ConcurrentDisjointSet;
+
+/**
+ * <h2>Algorithme de Kruskal parallèle</h2>
+ *
+ * <p>
+ * <h1>Principe</h1>L'algorithme reprend l'algorithme de Kruskal non-trié (cf.
+ * la classe {@link ShuffledKruskalAlgorithm}) : la liste des murs est mélangée
+ * puis analysée de gauche à droite. Lors d'une exécution d'un seul tenant (cf.
+ * {@link #runToCompletion()}), les murs sont répartis entre les threads d'un
+ * {@link ForkJoinPool}, qui testent et réunissent les ensembles de cases au
+ * moyen d'une structure d'ensembles disjoints sans verrou
+ * ({@link ConcurrentDisjointSet}).
+ * </p>
+ *
+ * <p>
+ * <h1>Conflits</h1>Les murs sont analysés par tranches successives de la liste,
+ * en plusieurs passes (<i>réservations déterministes</i>) :
+ * <ul>
+ * <li>chaque mur encore en attente dont les deux cases sont dans des ensembles
+ * distincts réserve les représentants de ces deux ensembles ; le mur le plus
+ * tôt dans la liste l'emporte. Les autres murs sont conservés ;</li>
+ * <li>chaque mur ayant obtenu l'un des deux représentants le rattache à
+ * l'ensemble de l'autre case, et retire lui-même le mur du labyrinthe (cf.
+ * {@link MazeBoard#concurrentWalls(int, int)}) ;</li>
+ * <li>les murs restants sont analysés à la passe suivante.</li>
+ * </ul>
+ * Un mur n'est ainsi retiré que si aucun mur le précédant dans la liste ne
+ * touche encore l'un de ses deux ensembles : les murs retirés sont exactement
+ * ceux de l'exécution séquentielle, quel que soit le nombre de threads.
+ * </p>
+ *
+ * <p>
+ * Le mélange lui-même est réparti entre les threads : chaque mur est placé dans
+ * un paquet tiré au hasard, puis chaque paquet est mélangé indépendamment. Les
+ * générateurs de nombres aléatoires des tronçons de la liste et des paquets
+ * sont tirés de la graine de l'algorithme ; le labyrinthe obtenu ne dépend donc
+ * que de cette graine, en pas à pas comme d'un seul tenant. L'interruption du
+ * thread appelant est prise en compte entre deux tranches.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class ParallelKruskalAlgorithm extends ShuffledKruskalAlgorithm {
+	/** Nombre de murs analysés par tranche. */
+	private static final int ROUND = 1 << 18;
+
+	/** Nombre de murs en deçà duquel une tâche n'est plus subdivisée. */
+	private static final int THRESHOLD = 1 << 12;
+
+	/** Décalage binaire correspondant au nombre moyen de murs par paquet du mélange. */
+	private static final int BUCKET_SHIFT = 16;
+
+	/** Nombre maximal de paquets du mélange. */
+	private static final int MAX_BUCKETS = 1 << 10;
+
+	/**
+	 * Constructeur de la classe {@link ParallelKruskalAlgorithm}.
+	 *
+	 * @param board Support d'écriture de l'algorithme.
+	 */
+	public ParallelKruskalAlgorithm(MazeBoard board) {
+		super(board);
+	}
+
+	@Override
+	public String getLabel() {
+		return "generation.kruskal.parallel";
+	}
+
+	/**
+	 * Mélange le tableau des murs en parallèle : la liste est découpée en autant
+	 * de tronçons que de paquets ; chaque mur est placé dans un paquet tiré par le
+	 * générateur de son tronçon, dans l'ordre des tronçons, puis chaque paquet est
+	 * mélangé par son propre générateur.
+	 */
+	@Override
+	protected void shuffle() {
+		int length = walls.length;
+		int nbBuckets = Math.max(1, Math.min(MAX_BUCKETS, length >>> BUCKET_SHIFT));
+		int chunk = (length + nbBuckets - 1) / nbBuckets;
+		long[] seeds = new long[2 * nbBuckets];
+		for (int k = 0; k < seeds.length; k++)
+			seeds[k] = rand.nextLong();
+
+		// Nombre de murs de chaque tronçon (ligne) placés dans chaque paquet (colonne)
+		int[] positions = new int[nbBuckets * nbBuckets];
+		invoke(0, nbBuckets, 1, (from, to) -> {
+			for (int c = from; c < to; c++) {
+				SplittableRandom random = new SplittableRandom(seeds[c]);
+				for (int k = c * chunk, end = Math.min(length, k + chunk); k < end; k++)
+					positions[c * nbBuckets + random.nextInt(nbBuckets)]++;
+			}
+
+			return 0;
+		});
+
+		// Position des murs de chaque tronçon dans chaque paquet
+		int[] starts = new int[nbBuckets + 1];
+		for (int b = 0, position = 0; b < nbBuckets; b++) {
+			starts[b] = position;
+			for (int c = 0; c < nbBuckets; c++) {
+				int count = positions[c * nbBuckets + b];
+				positions[c * nbBuckets + b] = position;
+				position += count;
+			}
+		}
+		starts[nbBuckets] = length;
+
+		// Répartition des murs, les mêmes tirages étant refaits
+		int[] shuffled = new int[length];
+		invoke(0, nbBuckets, 1, (from, to) -> {
+			for (int c = from; c < to; c++) {
+				SplittableRandom random = new SplittableRandom(seeds[c]);
+				for (int k = c * chunk, end = Math.min(length, k + chunk); k < end; k++)
+					shuffled[positions[c * nbBuckets + random.nextInt(nbBuckets)]++] = walls[k];
+			}
+
+			return 0;
+		});
+
+		// Mélange de Fisher-Yates de chaque paquet
+		invoke(0, nbBuckets, 1, (from, to) -> {
+			for (int b = from; b < to; b++) {
+				SplittableRandom random = new SplittableRandom(seeds[nbBuckets + b]);
+				for (int k = starts[b + 1] - 1; k > starts[b]; k--) {
+					int index = starts[b] + random.nextInt(k - starts[b] + 1);
+					int wall = shuffled[index];
+					shuffled[index] = shuffled[k];
+					shuffled[k] = wall;
+				}
+			}
+
+			return 0;
+		});
+
+		walls = shuffled;
+	}
+
+	@Override
+	protected void carveRemaining() {
+		ConcurrentDisjointSet shared = new ConcurrentDisjointSet(sets);
+		int nbSets = sets.getNbSets();
+
+		// Réservation de chaque représentant : priorité du mur réservant (plus grande
+		// pour les premiers murs de la liste), 0 si le représentant est libre.
+		AtomicIntegerArray reservations = new AtomicIntegerArray(sets.size());
+		int size = Math.min(ROUND, walls.length - cursor);
+		int[] roots = new int[2 * size];
+		boolean[] done = new boolean[size];
+
+		Thread thread = Thread.currentThread();
+		try (Maze.WallWriter writer = board.concurrentWalls(0, nbRow)) {
+			while (cursor < walls.length && nbSets > 1 && !thread.isInterrupted()) {
+				int offset = cursor, end = (int) Math.min((long) cursor + ROUND, walls.length);
+				Arrays.fill(done, false);
+
+				for (int pending = end - offset; pending > 0 && nbSets > 1;) {
+					// Passe 1 : abandon des murs internes à un ensemble, réservations des autres
+					pending -= invoke(offset, end, THRESHOLD, (from, to) -> {
+						int count = 0;
+						for (int k = from; k < to; k++) {
+							int i = k - offset;
+							if (done[i])
+								continue;
+
+							int cell = walls[k] >>> 1;
+							int a = shared.find(cell), b = shared.find(neighbour(cell, walls[k]));
+							if (a == b) {
+								done[i] = true;
+								count++;
+							} else {
+								roots[2 * i] = a;
+								roots[2 * i + 1] = b;
+								reserve(reservations, a, walls.length - k);
+								reserve(reservations, b, walls.length - k);
+							}
+						}
+
+						return count;
+					});
+
+					// Passe 2 : rattachement des représentants obtenus et retrait des murs
+					int carved = invoke(offset, end, THRESHOLD, (from, to) -> {
+						int count = 0;
+						for (int k = from; k < to; k++) {
+							int i = k - offset;
+							if (done[i])
+								continue;
+
+							int a = roots[2 * i], b = roots[2 * i + 1];
+							boolean first = reservations.get(a) == walls.length - k;
+							boolean second = reservations.get(b) == walls.length - k;
+							if (first)
+								reservations.set(a, 0);
+							if (second)
+								reservations.set(b, 0);
+
+							if (first || second) {
+								if (first)
+									shared.link(a, b);
+								else
+									shared.link(b, a);
+
+								int cell = walls[k] >>> 1;
+								writer.setWall(cell / nbCol, cell % nbCol, (walls[k] & 1) == 0 ? Side.RIGHT : Side.DOWN, 0);
+								done[i] = true;
+								count++;
+							}
+						}
+
+						return count;
+					});
+
+					pending -= carved;
+					nbSets -= carved;
+				}
+
+				cursor = end;
+			}
+		}
+
+		if (nbSets == 1)
+			cursor = walls.length;
+		else
+			for (int x = 0, len = sets.size(); x < len; x++)
+				sets.union(x, shared.find(x));
+	}
+
+	/** Fournit la case voisine d'une case à travers le mur codé spécifié. */
+	private int neighbour(int cell, int wall) {
+		return cell + ((wall & 1) == 0 ? 1 : nbCol);
+	}
+
+	/** Réserve un représentant pour un mur, si aucun mur prioritaire ne l'a réservé. */
+	private static void reserve(AtomicIntegerArray reservations, int root, int priority) {
+		int current = reservations.get(root);
+		while (current < priority && !reservations.compareAndSet(root, current, priority))
+			current = reservations.get(root);
+	}
+
+	/**
+	 * Traite en parallèle les indices de <code>[from, to[</code>, par
+	 * sous-intervalles d'au plus <b>grain</b> indices.
+	 *
+	 * @return Somme des résultats du traitement des sous-intervalles.
+	 */
+	private static int invoke(int from, int to, int grain, Body body) {
+		return ForkJoinPool.commonPool().invoke(new RangeTask(body, from, to, grain));
+	}
+
+	/**
+	 * Traitement d'un intervalle d'indices <code>[from, to[</code>.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	@FunctionalInterface
+	private interface Body {
+		int apply(int from, int to);
+	}
+
+	/**
+	 * Tâche traitant un intervalle d'indices, subdivisée tant qu'elle dépasse
+	 * une taille donnée.
+	 *
+	 * @return Somme des résultats du traitement des sous-intervalles.
+	 */
+	private static class RangeTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final Body body;
+		private final int from, to, grain;
+
+		/**
+		 * Constructeur de la classe {@link RangeTask}.
+		 *
+		 * @param body  Traitement d'un sous-intervalle.
+		 * @param from  Premier indice.
+		 * @param to    Indice suivant le dernier indice.
+		 * @param grain Taille en deçà de laquelle la tâche n'est plus subdivisée.
+		 */
+		RangeTask(Body body, int from, int to, int grain) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				RangeTask left = new RangeTask(body, from, middle, grain);
+				left.fork();
+				int count = new RangeTask(body, middle, to, grain).compute();
+				return count + left.join();
+			}
+
+			return body.apply(from, to);
+		}
+	}
+}
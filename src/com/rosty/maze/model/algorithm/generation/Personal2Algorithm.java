@@ -1,14 +1,11 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.DisjointSet;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme personnel n°2</h1>
@@ -158,24 +155,48 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 	/** Points identifiant le trait courant pendant la phase de tracé. */
 	private int[] A, B;
 	/**
-	 * Liste des murs reliant A à B (resp. B à A) en s'arrêtant à la première case
-	 * visitée.
+	 * Murs reliant A à B (resp. B à A) en s'arrêtant à la première case visitée,
+	 * codés <code>indice << 2 | côté</code> (indice de la case de départ du mur,
+	 * rang du côté dans {@link Side}).
 	 */
-	private ArrayList<WallCoord> pathFromAtoB, pathFromBtoA;
+	private int[] pathFromAtoB, pathFromBtoA;
+	/** Nombre de murs de {@link #pathFromAtoB} (resp. {@link #pathFromBtoA}). */
+	private int lengthAtoB, lengthBtoA;
 
 	/** Mode de fonctionnement de l'algorithme. */
 	private Mode mode;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
+	/** Nombre de groupes de cellules identifiés lors du dernier regroupement. */
+	private int groupCount;
+
+	/**
+	 * Indices des cellules inexplorées (valeur 0) ; le retrait d'une cellule la
+	 * remplace par la dernière de la liste.
+	 */
+	private int[] unexploredCells;
+	/** Position de chaque cellule dans {@link #unexploredCells}, ou <b>-1</b>. */
+	private int[] slots;
+	/** Nombre de cellules inexplorées. */
+	private int nbUnexplored;
+
+	/**
+	 * Murs séparant deux groupes lors du regroupement, codés
+	 * <code>2 * indice + 1</code> (côté droit) ou <code>2 * indice</code> (côté
+	 * bas).
+	 */
+	private int[] gatherWalls;
+	/** Nombre de murs restant à tirer dans {@link #gatherWalls}. */
+	private int nbGatherWalls;
+	/** Ensembles disjoints des groupes, dont les identifiants commencent à 3. */
+	private DisjointSet groups;
 
 	/**
 	 * Constructeur de la classe {@link Personal2Algorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public Personal2Algorithm(MazePanel panel) {
-		super(panel);
+	public Personal2Algorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -185,55 +206,79 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void init() {
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		board.fillCells(0);
 
 		// Initialisation du chemin
 		A = null;
 		B = null;
-		pathFromAtoB = new ArrayList<>();
-		pathFromBtoA = new ArrayList<>();
+		// Un trait compte au plus une case par ligne et par colonne traversée.
+		pathFromAtoB = new int[nbRow + nbCol];
+		pathFromBtoA = new int[nbRow + nbCol];
+		lengthAtoB = 0;
+		lengthBtoA = 0;
 		
 		// Mode de démarrage de l'algorithme
 		mode = Mode.DRAFT;
+		groupCount = 0;
+
+		// Toutes les cellules sont inexplorées.
+		unexploredCells = new int[nbRow * nbCol];
+		slots = new int[unexploredCells.length];
+		for (int cell = 0; cell < unexploredCells.length; cell++)
+			unexploredCells[cell] = slots[cell] = cell;
+
+		nbUnexplored = unexploredCells.length;
+		gatherWalls = null;
+		groups = null;
 	}
 
 	@Override
 	public boolean isComplete() {
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				if (mazePanel.getCell(i, j) != 3)
-					return false;
+		// Toutes les cases portent la valeur 3 lorsqu'un seul groupe a été identifié.
+		return groupCount == 1;
+	}
 
-		return true;
+	/**
+	 * Exécute l'algorithme d'un seul tenant. Les tirages sont ceux de
+	 * {@link #step()}, dans le même ordre : seule la recoloration des groupes après
+	 * chaque mur retiré est omise, si bien qu'une même graine donne le même
+	 * labyrinthe quel que soit le mode d'exécution.
+	 */
+	@Override
+	public void runToCompletion() {
+		Thread thread = Thread.currentThread();
+
+		// Etape 1 : tracé des chemins
+		while (mode != Mode.GATHERING && !thread.isInterrupted())
+			step();
+
+		// Etape 2 : regroupement des groupes de cellules
+		while (groupCount > 1 && !thread.isInterrupted())
+			joinGroups();
+
+		if (groupCount == 1)
+			board.fillCells(3);
 	}
 
 	@Override
 	public void step() {
 		switch (mode) {
 			case DRAFT:
-				// Listage de toutes les cellules non encore explorées
-				ArrayList<int[]> unexploredCells = new ArrayList<>();
-				for (int i = 0; i < nbRow; i++)
-					for (int j = 0; j < nbCol; j++)
-						if (mazePanel.getCell(i, j) == 0)
-							unexploredCells.add(new int[] { i, j });
-
-				if (unexploredCells.isEmpty()) {
-					identifyGroups();
-					mode = Mode.GATHERING;
-				} else if (unexploredCells.size() == 1) {
-					int[] lastCell = unexploredCells.get(0);
-					mazePanel.setCell(lastCell[0], lastCell[1], 1);
+				if (nbUnexplored == 0) {
+					startGathering();
+				} else if (nbUnexplored == 1) {
+					A = cellAt(unexploredCells[0]);
+					explore(A[0], A[1], 1);
 					mode = Mode.LAST_ONE_OUT;
 				} else { // Equivalent à "size > 1"
 					// Choix de deux cellules distincts, aléatoirement dans la liste.
-					int ranStart = rand.nextInt(unexploredCells.size());
-					A = unexploredCells.get(ranStart);
-					unexploredCells.remove(ranStart);
-					int ranEnd = rand.nextInt(unexploredCells.size());
-					B = unexploredCells.get(ranEnd);
+					int ranStart = rand.nextInt(nbUnexplored);
+					int ranEnd = rand.nextInt(nbUnexplored - 1);
+					if (ranEnd >= ranStart)
+						ranEnd++;
+
+					A = cellAt(unexploredCells[ranStart]);
+					B = cellAt(unexploredCells[ranEnd]);
 
 					// Esquisse du trait entre ces deux cellules
 					draftLine();
@@ -243,47 +288,114 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 				break;
 			case DRAWING:
 				drawLine();
-				// Listage de toutes les cellules non encore explorées
-				ArrayList<int[]> unexploredCellsList = new ArrayList<>();
-				for (int i = 0; i < nbRow; i++)
-					for (int j = 0; j < nbCol; j++)
-						if (mazePanel.getCell(i, j) == 0)
-							unexploredCellsList.add(new int[] { i, j });
-
-				if (unexploredCellsList.isEmpty()) {
-					identifyGroups();
-					mode = Mode.GATHERING;
-				} else {
+				if (nbUnexplored == 0)
+					startGathering();
+				else
 					mode = Mode.DRAFT;
-				}
+
 				break;
 			case LAST_ONE_OUT:
-				int[] L = null;
-				// Listage de toutes la cellule non-explorée
-				rowLoop: for (int i = 0; i < nbRow; i++)
-					for (int j = 0; j < nbCol; j++)
-						if (mazePanel.getCell(i, j) == 1) {
-							L = new int[] { i, j };
-							break rowLoop;
-						}
+				// La dernière cellule inexplorée est ouverte vers l'un de ses voisins.
+				int count = board.getMaze().neighbours(A[0], A[1], neighbours);
+				board.setWall(A[0], A[1], neighbours[rand.nextInt(count)], 0);
+				board.setCell(A[0], A[1], 2);
 
-				ArrayList<WallCoord> sides = getSides(L[0], L[1]);
-				WallCoord chosenWall = sides.get(rand.nextInt(sides.size()));
-				mazePanel.setWall(chosenWall.x, chosenWall.y, chosenWall.side, 0);
-				mazePanel.setCell(chosenWall.x, chosenWall.y, 2);
-
-				identifyGroups();
-				mode = Mode.GATHERING;
+				startGathering();
 				break;
 			case GATHERING:
-				gatherGroups();
-				identifyGroups();
+				if (joinGroups()) {
+					// Les cellules prennent la valeur du représentant de leur groupe.
+					for (int i = 0; i < nbRow; i++)
+						for (int j = 0; j < nbCol; j++) {
+							int value = groups.find(board.getCell(i, j) - 3) + 3;
+							if (value != board.getCell(i, j))
+								board.setCell(i, j, value);
+						}
+				}
+
+				if (groupCount == 1)
+					board.fillCells(3);
+
 				break;
 			default:
 				break;
 		}
 	}
 
+	/**
+	 * Marque une cellule et la retire, le cas échéant, des cellules inexplorées.
+	 * 
+	 * @param row   Indice de ligne de la cellule.
+	 * @param col   Indice de colonne de la cellule.
+	 * @param value Nouvelle valeur de la cellule.
+	 */
+	private void explore(int row, int col, int value) {
+		board.setCell(row, col, value);
+
+		int cell = row * nbCol + col, slot = slots[cell];
+		if (slot >= 0) {
+			int last = unexploredCells[--nbUnexplored];
+			unexploredCells[slot] = last;
+			slots[last] = slot;
+			slots[cell] = -1;
+		}
+	}
+
+	/** Fournit les coordonnées d'une cellule à partir de son indice. */
+	private int[] cellAt(int cell) {
+		return new int[] { cell / nbCol, cell % nbCol };
+	}
+
+	/**
+	 * Identifie les groupes de cellules et liste les murs qui les séparent, en
+	 * préparation du regroupement.
+	 */
+	private void startGathering() {
+		identifyGroups();
+		mode = Mode.GATHERING;
+
+		Maze maze = board.getMaze();
+		gatherWalls = new int[2 * nbRow * nbCol];
+		nbGatherWalls = 0;
+		for (int i = 0; i < nbRow; i++) {
+			for (int j = 0; j < nbCol; j++) {
+				int value = board.getCell(i, j);
+				if (j < nbCol - 1 && value != board.getNeighbourCell(i, j, Side.RIGHT))
+					gatherWalls[nbGatherWalls++] = 2 * maze.cellIndex(i, j) + 1;
+				if (i < nbRow - 1 && value != board.getNeighbourCell(i, j, Side.DOWN))
+					gatherWalls[nbGatherWalls++] = 2 * maze.cellIndex(i, j);
+			}
+		}
+
+		groups = new DisjointSet(groupCount);
+	}
+
+	/**
+	 * Utilise l'algorithme de Kruskal pour fusionner deux groupes de cellules dans
+	 * la grille : les murs sont tirés au hasard jusqu'à en trouver un qui sépare
+	 * deux groupes distincts, lequel est alors retiré.
+	 * 
+	 * @return <b>true</b> si deux groupes ont été fusionnés, <b>false</b> s'il ne
+	 *         reste aucun mur à tirer.
+	 */
+	private boolean joinGroups() {
+		while (nbGatherWalls > 0) {
+			int k = rand.nextInt(nbGatherWalls), wall = gatherWalls[k];
+			gatherWalls[k] = gatherWalls[--nbGatherWalls];
+
+			int cell = wall >> 1;
+			int i = cell / nbCol, j = cell % nbCol;
+			Side side = ((wall & 1) == 0) ? Side.DOWN : Side.RIGHT;
+			if (groups.union(board.getCell(i, j) - 3, board.getNeighbourCell(i, j, side) - 3) >= 0) {
+				board.setWall(i, j, side, 0);
+				groupCount = groups.getNbSets();
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * Identifie l'ensemble des groupes de cellules reliés entre eux. L'algorithme
 	 * lit les cellules inexplorées de gauche à droite et de haut en bas.
@@ -291,9 +403,7 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 	private void identifyGroups() {
 		// Applatissement des cellules avant analyse (toutes les cellules sont définies
 		// à une valeur de 2)
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 2);
+		board.fillCells(2);
 
 		int groupValue = 3; // Identifiant du groupe actuellement étudié
 
@@ -301,7 +411,7 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 		// Repérage du premier point à explorer pour identifier les groupes.
 		rowLoop: for (int i = 0; i < nbRow; i++)
 			for (int j = 0; j < nbCol; j++)
-				if (mazePanel.getCell(i, j) == 2) {
+				if (board.getCell(i, j) == 2) {
 					point = new int[] { i, j };
 					break rowLoop;
 				}
@@ -311,53 +421,20 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 			// valeur "groupValue".
 			visit(point, groupValue);
 			groupValue++; // Pour le groupe suivant, la valeur de groupe est incrémentée.
+			groupCount = groupValue - 3;
 
 			// Repérage du prochain point inexploré ; si on en trouve un, celui-ci sera le
 			// point de départ pour explorer un nouveau groupe.
 			point = null;
 			rowLoop: for (int i = 0; i < nbRow; i++)
 				for (int j = 0; j < nbCol; j++)
-					if (mazePanel.getCell(i, j) == 2) {
+					if (board.getCell(i, j) == 2) {
 						point = new int[] { i, j };
 						break rowLoop;
 					}
 		}
 	}
 
-	/**
-	 * Utilise l'algorithme de Kruskal pour fusionner deux groupes de cellules dans
-	 * la grille.
-	 */
-	private void gatherGroups() {
-		// Listage des murs qui peuvent être enlevés
-		ArrayList<WallCoord> walls = new ArrayList<>();
-		for (int i = 0, lenI = nbRow - 1; i < lenI; i++) {
-			for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++) {
-				WallCoord w = new WallCoord(i, j, Side.RIGHT);
-				if (mazePanel.getCell(i, j) != mazePanel.getNeighbourCell(w))
-					walls.add(w);
-			}
-
-			for (int j = 0; j < nbCol; j++) {
-				WallCoord w = new WallCoord(i, j, Side.DOWN);
-				if (mazePanel.getCell(i, j) != mazePanel.getNeighbourCell(w))
-					walls.add(w);
-			}
-		}
-
-		for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++) {
-			WallCoord w = new WallCoord(nbRow - 1, j, Side.RIGHT);
-			if (mazePanel.getCell(nbRow - 1, j) != mazePanel.getNeighbourCell(w))
-				walls.add(w);
-		}
-
-		// Retrait aléatoire de l'un des murs
-		if (!walls.isEmpty()) {
-			WallCoord selectedWall = walls.get(rand.nextInt(walls.size()));
-			mazePanel.setWall(selectedWall.x, selectedWall.y, selectedWall.side, 0);
-		}
-	}
-
 	/**
 	 * Visite pas-à-pas les cellules adjacentes à une cellule spécifique ; celles-ci
 	 * sont marquées d'un numéro identifiant le groupe que la fonction decouvre.
@@ -366,20 +443,17 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 	 * @param value Numéro de groupe.
 	 */
 	private void visit(int[] cell, int value) {
-		mazePanel.setCell(cell[0], cell[1], value);
-
-		ArrayList<WallCoord> sides1 = getSides(cell[0], cell[1]);
-		List<WallCoord> sides = new ArrayList<WallCoord>();
-		for (WallCoord wall : sides1)
-			if (mazePanel.getWall(wall.x, wall.y, wall.side) == 0 && mazePanel.getNeighbourCell(wall) == 2)
-				sides.add(wall);
-
-		if (!sides.isEmpty())
-			for (WallCoord w : sides) {
-				int[] C = Arrays.copyOf(cell, cell.length);
-				C = move(C, w.side);
-				visit(C, value);
-			}
+		board.setCell(cell[0], cell[1], value);
+
+		// Les côtés ouverts sont lus par rang (cf. Maze#openSide), sans allocation au
+		// fil des appels récursifs.
+		Maze maze = board.getMaze();
+		int mask = maze.openMask(cell[0], cell[1]);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side side = Maze.openSide(mask, k);
+			if (maze.getNeighbourCell(cell[0], cell[1], side) == 2)
+				visit(move(cell, side), value);
+		}
 	}
 
 	/**
@@ -388,9 +462,6 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 	 * important de le noter.
 	 */
 	private void draftLine() {
-		pathFromAtoB.clear();
-		pathFromBtoA.clear();
-
 		/*
 		 * Etape 1 : modélisation de la droite passant par les cellules "A" et "B",
 		 * notées A et B par la suite. La droite est modélisée par l'équation
@@ -400,175 +471,108 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 		double a = B[0] - A[0]; // a = yB - yA
 		double b = B[1] - A[1]; // b = xB - xA
 
-		// Calcul de la longueur entre A et B (sera utilisé dans l'étape 3)
-		double len = Math.sqrt(a * a + b * b);
-
 		/*
-		 * Etape 2 : détermination de la direction vers laquelle parcourir cette droite
-		 * pour aller respectivement de A vers B et de B vers A.
+		 * Etape 2 : détermination des directions vers lesquelles parcourir cette
+		 * droite pour aller de A vers B : l'une verticale, l'autre horizontale, chacune
+		 * absente si A et B sont sur la même ligne (resp. colonne).
 		 */
 
-		ArrayList<Side> fromAtoB = new ArrayList<>();
-		ArrayList<Side> fromBtoA = new ArrayList<>();
-
-		if (a < 0) {
-			fromAtoB.add(Side.UP);
-			fromBtoA.add(Side.DOWN);
-		} else if (a > 0) {
-			fromAtoB.add(Side.DOWN);
-			fromBtoA.add(Side.UP);
-		}
-
-		if (b < 0) {
-			fromAtoB.add(Side.LEFT);
-			fromBtoA.add(Side.RIGHT);
-		} else if (b > 0) {
-			fromAtoB.add(Side.RIGHT);
-			fromBtoA.add(Side.LEFT);
-		}
+		Side vertical = (a < 0) ? Side.UP : (a > 0) ? Side.DOWN : null;
+		Side horizontal = (b < 0) ? Side.LEFT : (b > 0) ? Side.RIGHT : null;
 
 		/*
-		 * Etape 3.1 : parcourir la droite case par case du point A vers le point B. A
-		 * ce stade, "fromAtoB" et "fromBtoA" sont tous les 2 non-vides. A chaque étape,
-		 * l'objectif est de trouver le point qui passe le plus près possible de la
-		 * droite ; dès que l'on atteint une case déjà explorée, le parcours s'arrête.
+		 * Etape 3.1 : parcourir la droite case par case du point A vers le point B ; la
+		 * direction verticale est préférée à égalité de distance.
 		 */
 
-		int[] M = Arrays.copyOf(A, A.length);
-		boolean unexplored = true;
-		while (!Arrays.equals(M, B) && unexplored) {
-			mazePanel.setCell(M[0], M[1], 1);
-
-			int[] _M = Arrays.copyOf(M, M.length);
-			double dist = 0; // Distance entre le point (_x,_y) et la droite (AB)
-
-			// Par défaut, le prochain point à parcourir est celui qui part dans la première
-			// direction donnée. Voyons si l'on peut trouver mieux...
-			int dirIndex = 0;
-			_M = move(_M, fromAtoB.get(dirIndex));
-			dist = Math.abs(b * (_M[0] - A[0]) - a * (_M[1] - A[1])) / len;
-			for (int id = 1; id < fromAtoB.size(); id++) {
-				// On repère les coordonnées du point situé dans la direction donnée
-				_M = Arrays.copyOf(M, M.length);
-				_M = move(_M, fromAtoB.get(id));
-				// Si ce point est plus proche que le point choisi, alors on doit mettre à jour
-				// "nextDirection".
-				double newDist = Math.abs(b * (_M[0] - A[0]) - a * (_M[1] - A[1])) / len;
-				if (newDist < dist) {
-					dist = newDist;
-					dirIndex = id;
-				}
-			}
-
-			// Une fois la meilleure direction choisie, il ne reste plus qu'à déplacer le
-			// point.
-			WallCoord direction = new WallCoord(M[0], M[1], fromAtoB.get(dirIndex));
-			pathFromAtoB.add(direction);
-			M = move(M, fromAtoB.get(dirIndex));
-			if (mazePanel.getCell(M[0], M[1]) != 0)
-				unexplored = false;
-		}
+		if (vertical != null)
+			lengthAtoB = traceLine(A, B, vertical, horizontal, a, b, pathFromAtoB);
+		else
+			lengthAtoB = traceLine(A, B, horizontal, null, a, b, pathFromAtoB);
 
 		/*
 		 * Etape 3.2 : réitérer l'opération en parcourant la droite du point B vers le
-		 * point A.
+		 * point A ; la direction horizontale est cette fois préférée.
 		 */
 
-		M = Arrays.copyOf(B, B.length);
-		unexplored = true;
-		while (!Arrays.equals(M, A) && unexplored) {
-			mazePanel.setCell(M[0], M[1], 1);
+		if (horizontal != null)
+			lengthBtoA = traceLine(B, A, horizontal.opposite(), (vertical != null) ? vertical.opposite() : null, a,
+					b, pathFromBtoA);
+		else
+			lengthBtoA = traceLine(B, A, vertical.opposite(), null, a, b, pathFromBtoA);
+	}
 
-			int[] _M = Arrays.copyOf(M, M.length);
-			double dist = 0; // Distance entre le point (_x,_y) et la droite (AB)
+	/**
+	 * Parcourt la droite (AB) case par case d'une extrémité vers l'autre. A chaque
+	 * étape, le point suivant est celui qui passe le plus près possible de la
+	 * droite ; dès que l'on atteint une case déjà explorée, le parcours s'arrête.
+	 * 
+	 * @param from  Point de départ.
+	 * @param to    Point d'arrivée.
+	 * @param first Direction choisie par défaut.
+	 * @param other Autre direction, choisie si elle mène strictement plus près de
+	 *              la droite, ou <b>null</b>.
+	 * @param a     Ecart de ligne entre A et B.
+	 * @param b     Ecart de colonne entre A et B.
+	 * @param path  Murs traversés, codés <code>indice << 2 | côté</code>.
+	 * @return Nombre de murs traversés.
+	 */
+	private int traceLine(int[] from, int[] to, Side first, Side other, double a, double b, int[] path) {
+		double len = Math.sqrt(a * a + b * b);
+		int length = 0;
+
+		int row = from[0], col = from[1];
+		boolean unexplored = true;
+		while ((row != to[0] || col != to[1]) && unexplored) {
+			explore(row, col, 1);
 
 			// Par défaut, le prochain point à parcourir est celui qui part dans la première
 			// direction donnée. Voyons si l'on peut trouver mieux...
-			int dirIndex = fromBtoA.size() - 1;
-			_M = move(_M, fromBtoA.get(dirIndex));
-			dist = Math.abs(b * (_M[0] - A[0]) - a * (_M[1] - A[1])) / len;
-			for (int id = dirIndex - 1; id >= 0; id--) {
-				// On repère les coordonnées du point situé dans la direction donnée
-				_M = Arrays.copyOf(M, M.length);
-				_M = move(_M, fromBtoA.get(id));
-				// Si ce point est plus proche que le point choisi, alors on doit mettre à jour
-				// "nextDirection".
-				double newDist = Math.abs(b * (_M[0] - A[0]) - a * (_M[1] - A[1])) / len;
-				if (newDist < dist) {
-					dist = newDist;
-					dirIndex = id;
-				}
+			Side side = first;
+			if (other != null) {
+				double dist = Math.abs(b * (row + first.dr - A[0]) - a * (col + first.dc - A[1])) / len;
+				double newDist = Math.abs(b * (row + other.dr - A[0]) - a * (col + other.dc - A[1])) / len;
+				if (newDist < dist)
+					side = other;
 			}
 
 			// Une fois la meilleure direction choisie, il ne reste plus qu'à déplacer le
 			// point.
-			WallCoord direction = new WallCoord(M[0], M[1], fromBtoA.get(dirIndex));
-			pathFromBtoA.add(direction);
-			M = move(M, fromBtoA.get(dirIndex));
-			if (mazePanel.getCell(M[0], M[1]) != 0)
+			path[length++] = (row * nbCol + col) << 2 | side.ordinal();
+			row += side.dr;
+			col += side.dc;
+			if (board.getCell(row, col) != 0)
 				unexplored = false;
 		}
+
+		return length;
 	}
 
 	/**
 	 * Trace la ligne esquissée entre A et B. Plus précisément, les murs enregistrés
-	 * dans les listes "pathFromAtoB" et "pathFromBtoA" sont retirés.
+	 * dans les tableaux "pathFromAtoB" et "pathFromBtoA" sont retirés.
 	 */
 	private void drawLine() {
-		if (!pathFromAtoB.isEmpty()) {
-			int index = 0;
-			boolean explored = false;
-			while (index < pathFromAtoB.size() && !explored) {
-				WallCoord wall = pathFromAtoB.get(index);
-				if (mazePanel.getCell(wall.x, wall.y) != 2) {
-					mazePanel.setCell(wall.x, wall.y, 2);
-					mazePanel.setWall(wall.x, wall.y, wall.side, 0);
-				} else
-					explored = true;
-
-				index++;
-			}
-		}
-
-		if (!pathFromBtoA.isEmpty()) {
-			int index = 0;
-			boolean explored = false;
-			while (index < pathFromBtoA.size() && !explored) {
-				WallCoord wall = pathFromBtoA.get(index);
-				if (mazePanel.getCell(wall.x, wall.y) != 2) {
-					mazePanel.setCell(wall.x, wall.y, 2);
-					mazePanel.setWall(wall.x, wall.y, wall.side, 0);
-				} else
-					explored = true;
-
-				index++;
-			}
-		}
+		drawPath(pathFromAtoB, lengthAtoB);
+		drawPath(pathFromBtoA, lengthBtoA);
 	}
 
 	/**
-	 * Fournit la liste des murs adjacents à la cellule spécifiée (la méthode ne
-	 * prend pas en compte les murs situés à la périphérie de la grille).
+	 * Retire les murs d'un chemin esquissé, jusqu'à la première case déjà tracée.
 	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste d'instance {@link WallCoord}}.
+	 * @param path   Murs du chemin, codés <code>indice << 2 | côté</code>.
+	 * @param length Nombre de murs du chemin.
 	 */
-	private ArrayList<WallCoord> getSides(int i, int j) {
-		ArrayList<WallCoord> sides = new ArrayList<>();
-		if (i > 0)
-			sides.add(new WallCoord(i, j, Side.UP));
-
-		if (j > 0)
-			sides.add(new WallCoord(i, j, Side.LEFT));
-
-		if (i < nbRow - 1)
-			sides.add(new WallCoord(i, j, Side.DOWN));
-
-		if (j < nbCol - 1)
-			sides.add(new WallCoord(i, j, Side.RIGHT));
+	private void drawPath(int[] path, int length) {
+		for (int index = 0; index < length; index++) {
+			int cell = path[index] >>> 2;
+			int row = cell / nbCol, col = cell % nbCol;
+			if (board.getCell(row, col) == 2)
+				break;
 
-		return sides;
+			board.setCell(row, col, 2);
+			board.setWall(row, col, Side.of(path[index] & 3), 0);
+		}
 	}
 
 	/**
@@ -578,20 +582,9 @@ public class Personal2Algorithm extends MazeGenerationAlgorithm {
 	 * @param dir   Direction du déplacement.
 	 */
 	private int[] move(int[] point, Side dir) {
-		if (point.length == 2) {
-			switch (dir) {
-				case UP:
-					return new int[] { point[0] - 1, point[1] };
-				case LEFT:
-					return new int[] { point[0], point[1] - 1 };
-				case DOWN:
-					return new int[] { point[0] + 1, point[1] };
-				case RIGHT:
-					return new int[] { point[0], point[1] + 1 };
-				default:
-					return null;
-			}
-		} else
+		if (point.length == 2)
+			return new int[] { point[0] + dir.dr, point[1] + dir.dc };
+		else
 			return null;
 	}
 
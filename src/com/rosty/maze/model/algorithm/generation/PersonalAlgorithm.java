@@ -1,13 +1,8 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme personnel</h1>
@@ -145,16 +140,13 @@ public class PersonalAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	private int cellValue;
 
-	/** Générateur de nombres aléatoires. */
-	private static final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link PersonalAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public PersonalAlgorithm(MazePanel panel) {
-		super(panel);
+	public PersonalAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -164,17 +156,8 @@ public class PersonalAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void init() {
-		for (int i = 0; i < nbRow - 1; i++) {
-			for (int j = 0; j < nbCol - 1; j++) {
-				mazePanel.setWall(i, j, Side.DOWN, 0);
-				mazePanel.setWall(i, j, Side.RIGHT, 0);
-			}
-
-			mazePanel.setWall(i, nbCol - 1, Side.DOWN, 0);
-		}
-
-		for (int j = 0; j < nbCol - 1; j++)
-			mazePanel.setWall(nbRow - 1, j, Side.RIGHT, 0);
+		// Tous les murs intérieurs de la grille sont retirés.
+		board.removeAllInteriorWalls();
 		
 		// Assignation des valeurs pour l'exploration des cellules
 		cellId = 0;
@@ -201,46 +184,27 @@ public class PersonalAlgorithm extends MazeGenerationAlgorithm {
 		 */
 		if (j == 0) {
 			for (int id = 0; id < nbCol; id++)
-				if (mazePanel.getCell(i, id) == 0)
-					mazePanel.setCell(i, id, cellValue++);
+				if (board.getCell(i, id) == 0)
+					board.setCell(i, id, cellValue++);
 
-			for (int id = 0; id < nbCol - 1; id++) {
-				mazePanel.setWall(i, id, Side.RIGHT, 1);
-				if (i < nbRow)
-					mazePanel.setWall(i, id, Side.DOWN, 1);
-			}
-
-			if (i < nbRow)
-				mazePanel.setWall(i, nbCol - 1, Side.DOWN, 1);
+			board.setRowWalls(i, 0, nbCol, Side.RIGHT, 1);
+			board.setRowWalls(i, 0, nbCol, Side.DOWN, 1);
 		}
 
 		// Détermination des murs qui peuvent être détruits à cette étape de
 		// l'algorithme
 
-		List<Side> availableWalls = new ArrayList<>();
-
-		if (i < nbRow - 1)
-			availableWalls.add(Side.DOWN);
-
-		int value = mazePanel.getCell(i, j);
+		int value = board.getCell(i, j);
 		int nValue = -1; // Valeur de la case voisine distante de la case actuelle du mur que l'on
 							// retirera (wow, je ne sais même pas si c'est français :O)
 
-		if (i > 0)
-			if (value != mazePanel.getNeighbourCell(new WallCoord(i, j, Side.UP)))
-				availableWalls.add(Side.UP);
-
-		if (j > 0)
-			if (value != mazePanel.getNeighbourCell(new WallCoord(i, j, Side.LEFT)))
-				availableWalls.add(Side.LEFT);
-
-		if (j < nbCol - 1)
-			if (value != mazePanel.getNeighbourCell(new WallCoord(i, j, Side.RIGHT)))
-				availableWalls.add(Side.RIGHT);
+		int count = 0;
+		for (int k = 0, n = board.getMaze().neighbours(i, j, neighbours); k < n; k++)
+			if (neighbours[k] == Side.DOWN || value != board.getNeighbourCell(i, j, neighbours[k]))
+				neighbours[count++] = neighbours[k];
 
-		int r = rand.nextInt(availableWalls.size());
-		Side direction = availableWalls.get(r);
-		mazePanel.setWall(i, j, direction, 0);
+		Side direction = neighbours[rand.nextInt(count)];
+		board.setWall(i, j, direction, 0);
 
 		// Mise à jour des ID : pour chaque case de la ligne courante et la ligne du
 		// dessus ayant l'ID le plus haut, l'ID le plus bas sera assigné. Il est inutile
@@ -248,29 +212,29 @@ public class PersonalAlgorithm extends MazeGenerationAlgorithm {
 
 		switch (direction) {
 		case DOWN:
-			mazePanel.setCell(i + 1, j, value);
+			board.setCell(i + 1, j, value);
 			break;
 		case LEFT:
 		case RIGHT:
 		case UP:
-			nValue = mazePanel.getNeighbourCell(new WallCoord(i, j, direction));
+			nValue = board.getNeighbourCell(i, j, direction);
 		default:
 			if (nValue != -1) {
 				int min = Math.min(value, nValue);
 				int max = Math.max(value, nValue);
 				for (int id = 0; id < nbCol; id++)
-					if (mazePanel.getCell(i, id) == max)
-						mazePanel.setCell(i, id, min);
+					if (board.getCell(i, id) == max)
+						board.setCell(i, id, min);
 
 				if (i > 0)
 					for (int id = 0; id < nbCol; id++)
-						if (mazePanel.getCell(i - 1, id) == max)
-							mazePanel.setCell(i - 1, id, min);
+						if (board.getCell(i - 1, id) == max)
+							board.setCell(i - 1, id, min);
 
 				if (i < nbRow - 1)
 					for (int id = 0; id < nbCol; id++)
-						if (mazePanel.getCell(i + 1, id) == max)
-							mazePanel.setCell(i + 1, id, min);
+						if (board.getCell(i + 1, id) == max)
+							board.setCell(i + 1, id, min);
 			}
 
 			break;
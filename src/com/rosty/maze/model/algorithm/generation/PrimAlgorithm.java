@@ -2,12 +2,10 @@ package com.rosty.maze.model.algorithm.generation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de Prim</h1>
@@ -59,16 +57,13 @@ public class PrimAlgorithm extends MazeGenerationAlgorithm {
 	 */
 	private List<int[]> pendingCells;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link PrimAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public PrimAlgorithm(MazePanel panel) {
-		super(panel);
+	public PrimAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -79,15 +74,13 @@ public class PrimAlgorithm extends MazeGenerationAlgorithm {
 	@Override
 	public void init() {
 		/* Etape 1 : remplissage du terrain avec la valeur 2. */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 2);
+		board.fillCells(2);
 
 		/* Etape 2 : placement de la toute première cellule à analyser. */
 		pendingCells = new ArrayList<>();
 		int r = rand.nextInt(nbRow), c = rand.nextInt(nbCol);
 		pendingCells.add(new int[] { r, c });
-		mazePanel.setCell(r, c, 1);
+		board.setCell(r, c, 1);
 	}
 
 	@Override
@@ -107,48 +100,20 @@ public class PrimAlgorithm extends MazeGenerationAlgorithm {
 		 */
 		int r = selectedCell[0], c = selectedCell[1];
 		pendingCells.remove(index);
-		mazePanel.setCell(r, c, 0);
-
-		List<Side> removableWalls = new ArrayList<>();
+		board.setCell(r, c, 0);
 
 		// Répérage des murs qui peuvent être retirés
-		if (r > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.UP)) == 0)
-			removableWalls.add(Side.UP);
-
-		if (r < nbRow - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.DOWN)) == 0)
-			removableWalls.add(Side.DOWN);
-
-		if (c > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.LEFT)) == 0)
-			removableWalls.add(Side.LEFT);
-
-		if (c < nbCol - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.RIGHT)) == 0)
-			removableWalls.add(Side.RIGHT);
+		int count = board.getMaze().neighbours(r, c, 0, neighbours);
 
 		// Retrait aléatoire d'un mur
-		if (!removableWalls.isEmpty()) {
-			Side removedWall = removableWalls.get(rand.nextInt(removableWalls.size()));
-			mazePanel.setWall(r, c, removedWall, 0);
-		}
+		if (count > 0)
+			board.setWall(r, c, neighbours[rand.nextInt(count)], 0);
 
 		/* Etape 3 : repérage des cases voisines à marquer "en attente" */
-		if (r > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.UP)) == 2) {
-			pendingCells.add(new int[] { r - 1, c });
-			mazePanel.setCell(r - 1, c, 1);
-		}
-
-		if (r < nbRow - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.DOWN)) == 2) {
-			pendingCells.add(new int[] { r + 1, c });
-			mazePanel.setCell(r + 1, c, 1);
-		}
-
-		if (c > 0 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.LEFT)) == 2) {
-			pendingCells.add(new int[] { r, c - 1 });
-			mazePanel.setCell(r, c - 1, 1);
-		}
-
-		if (c < nbCol - 1 && mazePanel.getNeighbourCell(new WallCoord(r, c, Side.RIGHT)) == 2) {
-			pendingCells.add(new int[] { r, c + 1 });
-			mazePanel.setCell(r, c + 1, 1);
+		for (int k = 0, n = board.getMaze().neighbours(r, c, 2, neighbours); k < n; k++) {
+			Side side = neighbours[k];
+			pendingCells.add(new int[] { r + side.dr, c + side.dc });
+			board.setCell(r + side.dr, c + side.dc, 1);
 		}
 	}
 }
\ No newline at end of file
@@ -2,12 +2,10 @@ package com.rosty.maze.model.algorithm.generation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de rembobinage récursif</h1>
@@ -49,16 +47,13 @@ public class RecursiveBacktrackingAlgorithm extends MazeGenerationAlgorithm {
 	/** Chemin de l'explorateur sans prendre en compte les retours en arrière. */
 	private List<int[]> directPath;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link RecursiveBacktrackingAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public RecursiveBacktrackingAlgorithm(MazePanel panel) {
-		super(panel);
+	public RecursiveBacktrackingAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -70,9 +65,7 @@ public class RecursiveBacktrackingAlgorithm extends MazeGenerationAlgorithm {
 	public void init() {
 		// Initialisation de la grille ; toutes les cases sont marquées à 0 pour
 		// indiquer que la case est inexplorée.
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 0);
+		board.fillCells(0);
 
 		// Définition (aléatoire) du point de départ
 		x0 = rand.nextInt(nbRow - 1);
@@ -81,7 +74,7 @@ public class RecursiveBacktrackingAlgorithm extends MazeGenerationAlgorithm {
 		// Placement de l'explorateur sur ce point de départ
 		directPath = new ArrayList<>();
 		directPath.add(new int[] { x0, y0 });
-		mazePanel.getMaze().setCell(x0, y0, 1); // La case est maintenant explorée
+		board.getMaze().setCell(x0, y0, 1); // La case est maintenant explorée
 	}
 
 	@Override
@@ -91,75 +84,29 @@ public class RecursiveBacktrackingAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void step() {
-		// Repérage des directions à explorer
-		List<WallCoord> unexplored = new ArrayList<>();
-
 		int[] pos = directPath.get(directPath.size() - 1); // Position courante
 		int x = pos[0], y = pos[1];
 
-		List<WallCoord> sides = getSides(x, y);
-		for (WallCoord side : sides) {
-			int sideValue = mazePanel.getNeighbourCell(side);
-			if (sideValue != -1 /* hors-grille, c'est une simple sécurité */
-					&& sideValue != 1 /* case explorée */
+		// Repérage des directions à explorer
+		int count = 0;
+		for (int k = 0, n = board.getMaze().neighbours(x, y, neighbours); k < n; k++) {
+			int sideValue = board.getNeighbourCell(x, y, neighbours[k]);
+			if (sideValue != 1 /* case explorée */
 					&& sideValue != 2 /* case explorée mais non coloriée */)
-				unexplored.add(side);
+				neighbours[count++] = neighbours[k];
 		}
 
 		// Phase d'exploration (ou de rembobinage)
-		if (!unexplored.isEmpty()) {
-			WallCoord selectedSide = unexplored.get(rand.nextInt(unexplored.size()));
-			switch (selectedSide.side) {
-			case UP:
-				x--;
-				break;
-			case LEFT:
-				y--;
-				break;
-			case DOWN:
-				x++;
-				break;
-			case RIGHT:
-				y++;
-				break;
-			default:
-				break;
-			}
-
-			directPath.add(new int[] { x, y });
-			mazePanel.setCell(x, y, 1); // Nouvelle case explorée
+		if (count > 0) {
+			Side selectedSide = neighbours[rand.nextInt(count)];
+			directPath.add(new int[] { x + selectedSide.dr, y + selectedSide.dc });
+			board.setCell(x + selectedSide.dr, y + selectedSide.dc, 1); // Nouvelle case explorée
 			// Brisage du mur
-			mazePanel.setWall(selectedSide.x, selectedSide.y, selectedSide.side, 0);
+			board.setWall(x, y, selectedSide, 0);
 		} else {
-			mazePanel.setCell(x, y, 2); // Case marquée comme explorée (rembobinage)
+			board.setCell(x, y, 2); // Case marquée comme explorée (rembobinage)
 			if (!directPath.isEmpty())
 				directPath.remove(directPath.size() - 1);
 		}
 	}
-
-	/**
-	 * Fournit la direction vers l'ensemble des cellules voisines à la cellule
-	 * spécifiée. Chaque direction est indiquée par un mur adjacent i.e. une
-	 * instance {@link WallCoord}.
-	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste des murs voisins à la cellule courante.
-	 */
-	private ArrayList<WallCoord> getSides(int i, int j) {
-		ArrayList<WallCoord> sides = new ArrayList<>();
-		if (i > 0)
-			sides.add(new WallCoord(i, j, Side.UP));
-
-		if (j > 0)
-			sides.add(new WallCoord(i, j, Side.LEFT));
-
-		if (i < nbRow - 1)
-			sides.add(new WallCoord(i, j, Side.DOWN));
-
-		if (j < nbCol - 1)
-			sides.add(new WallCoord(i, j, Side.RIGHT));
-
-		return sides;
-	}
 }
\ No newline at end of file
@@ -2,11 +2,18 @@ package com.rosty.maze.model.algorithm.generation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.WallSink;
 import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de séparation récursive</h1>
@@ -33,6 +40,18 @@ import com.rosty.maze.widgets.MazePanel;
  * horizontal a été placé. Pour résumer, l'algorithme met à jour la verticalité
  * des murs chaque fois que l'on change de niveau de sections.
  * </p>
+ * <p>
+ * Chaque pièce porte le sens de sa cloison et la graine de son propre
+ * générateur de nombres aléatoires, tirée lors de la division de la pièce
+ * parente. Les pièces étant indépendantes les unes des autres, le résultat ne
+ * dépend que de la graine de l'algorithme, et non de l'ordre de traitement des
+ * pièces : lors d'une exécution d'un seul tenant (cf.
+ * {@link #runToCompletion()}), les pièces sont divisées en parallèle dans un
+ * {@link ForkJoinPool}, et séquentiellement en deçà d'une certaine taille.
+ * Deux pièces n'ayant aucun mur en commun, chaque tâche pose elle-même les
+ * cloisons des pièces qu'elle divise (cf.
+ * {@link MazeBoard#concurrentWalls(int, int)}).
+ * </p>
  * 
  * <p>
  * <h2>Complexité</h2> Pour un labyrinthe parfait (sans ilôts), en considérant
@@ -52,21 +71,25 @@ import com.rosty.maze.widgets.MazePanel;
  * @version 1.0
  */
 public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
+	/** Nombre de cases en deçà duquel une pièce est divisée séquentiellement. */
+	private static final int THRESHOLD = 1 << 14;
+
+	/** Nombre d'entiers décrivant une cloison : sens, position, début, fin et porte. */
+	private static final int WALL = 5;
+
 	/** Liste des pièces obtenues par divisions successives. */
 	private List<Section> sections;
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
-	private boolean vertical; // Définit le sens des murs à placer
+	/** Demande d'arrêt des tâches parallèles, après interruption du thread appelant. */
+	private volatile boolean stopped;
 
 	/**
 	 * Constructeur de la classe {@link RecursiveDivisionAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public RecursiveDivisionAlgorithm(MazePanel panel) {
-		super(panel);
+	public RecursiveDivisionAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -77,24 +100,12 @@ public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
 	@Override
 	public void init() {
 		// Effacement de tous les murs à l'intérieur de la grille
-		for (int i = 0; i < nbRow - 1; i++) {
-			for (int j = 0; j < nbCol - 1; j++) {
-				mazePanel.setWall(i, j, Side.DOWN, 0);
-				mazePanel.setWall(i, j, Side.RIGHT, 0);
-			}
+		board.removeAllInteriorWalls();
 
-			mazePanel.setWall(i, nbCol - 1, Side.DOWN, 0);
-		}
-
-		for (int j = 0; j < nbCol - 1; j++)
-			mazePanel.setWall(nbRow - 1, j, Side.RIGHT, 0);
-
-		// Initialisation de la liste avec la première section
+		// Initialisation de la liste avec la première section, à placement vertical
+		// des murs pour débuter
 		sections = new ArrayList<>();
-		sections.add(new Section(0, 0, nbCol, nbRow));
-		
-		// Placement vertical des murs pour débuter
-		vertical = true;
+		sections.add(new Section(0, 0, nbCol, nbRow, true, rand.nextLong()));
 	}
 
 	@Override
@@ -104,92 +115,114 @@ public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void step() {
-		if (!sections.isEmpty()) {
+		while (!sections.isEmpty()) {
 			// Pour commencer, on retire la section la plus récente de la liste.
-			Section lastSection = sections.get(sections.size() - 1);
-			sections.remove(sections.size() - 1);
-
-			// Si cette section est indivisible, il n'y a rien de spécial à faire. On passe
-			// à l'étape suivante en mettant à jour la verticalité.
-			if (lastSection.isIndivisible()) {
-				vertical = !vertical;
-				step();
-			} else { // Dans le cas contraire, on subdivise puis on met à jour la verticalité.
-				if (vertical) {
-					if (lastSection.width() >= 2) { // Si la pièce est assez large pour y placer un mur
-						int r = 1 + rand.nextInt(lastSection.width() - 1);
-						// Installation du mur vertical
-						placeWallWithDoor(true, lastSection.leftIndex + r, lastSection.topIndex,
-								lastSection.bottomIndex);
-						// Déclaration des deux nouvelles pièces
-						sections.add(new Section(lastSection.leftIndex, lastSection.topIndex, lastSection.leftIndex + r,
-								lastSection.bottomIndex));
-						sections.add(new Section(lastSection.leftIndex + r, lastSection.topIndex,
-								lastSection.rightIndex, lastSection.bottomIndex));
-					}
-				} else {
-					if (lastSection.height() >= 2) { // Si la pièce est assez haute pour y placer un mur
-						int r = 1 + rand.nextInt(lastSection.height() - 1);
-						// Installation du mur horizontal
-						placeWallWithDoor(false, lastSection.topIndex + r, lastSection.leftIndex,
-								lastSection.rightIndex);
-						// Déclaration des deux nouvelles pièces
-						sections.add(new Section(lastSection.leftIndex, lastSection.topIndex, lastSection.rightIndex,
-								lastSection.topIndex + r));
-						sections.add(new Section(lastSection.leftIndex, lastSection.topIndex + r,
-								lastSection.rightIndex, lastSection.bottomIndex));
-					}
-				}
+			Section lastSection = sections.remove(sections.size() - 1);
 
-				vertical = !vertical;
+			// Si cette section est indivisible, il n'y a rien de spécial à faire. Dans le
+			// cas contraire, on la subdivise.
+			if (!lastSection.isIndivisible()) {
+				int[] wall = new int[WALL];
+				Section[] halves = divide(lastSection, wall);
+				placeWall(board, wall);
+				sections.add(halves[0]);
+				sections.add(halves[1]);
+				return;
 			}
 		}
 	}
 
 	/**
-	 * Installe une cloison dans la grille (via la méthode
-	 * {@link RecursiveDivisionAlgorithm::placeWall}) puis place aléatoirement une
-	 * ouverture de taille 1 dans ce mur.
+	 * Divise les pièces restantes en parallèle. Les tâches s'arrêtent dès que
+	 * possible si le thread appelant est interrompu ; les pièces non divisées sont
+	 * alors conservées pour la suite de l'exécution.
 	 */
-	private boolean placeWallWithDoor(boolean vertical, int lineId, int start, int end) {
-		placeWall(vertical, lineId, start, end);
-		if (end - start > 1) {
-			int index = start + rand.nextInt(end - start);
-			if (vertical)
-				mazePanel.setWall(index, lineId, Side.LEFT, 0);
-			else
-				mazePanel.setWall(lineId, index, Side.UP, 0);
-
-			return true;
-		} else
-			return false;
+	@Override
+	public void runToCompletion() {
+		ConcurrentLinkedQueue<Section> remaining = new ConcurrentLinkedQueue<>();
+		try (Maze.WallWriter writer = board.concurrentWalls(0, nbRow)) {
+			List<DivisionTask> tasks = new ArrayList<>();
+			for (Section section : sections)
+				tasks.add(new DivisionTask(section, writer, remaining));
+
+			sections.clear();
+			stopped = false;
+			ForkJoinTask<?> root = ForkJoinPool.commonPool().submit(() -> ForkJoinTask.invokeAll(tasks));
+			try {
+				root.get();
+			} catch (InterruptedException e) {
+				stopped = true;
+				root.join();
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		sections.addAll(remaining);
 	}
 
 	/**
-	 * Installe une cloison dans la grille. Cette cloison est soit verticale, soit
-	 * horizontale ; elle est définie par sa position (i.e. sa distance au bord
-	 * supérieur gauche) et par celle des deux points délimitant les bords de la
-	 * cloison.
+	 * Divise une pièce en deux, à l'aide de son propre générateur de nombres
+	 * aléatoires. Cette méthode ne modifie ni le labyrinthe, ni l'état de
+	 * l'algorithme.
 	 * 
-	 * @param vertical Booléen indiquant si le mur est vertical ou horizontal.
-	 * @param lineId   Numéro de ligne : on considère par convention, que la ligne
-	 *                 d'indice 0 est celle qui est voisine du bord de la grille (en
-	 *                 haut si la ligne est horizontale, à gauche si elle est
-	 *                 verticale).
-	 * @param start    Indice localisant le point de départ du mur. Par convention,
-	 *                 l'indice vaut 0 si le point se situe sur le bord de la grille
-	 *                 (en haut si la ligne est verticale, à gauche si la ligne est
-	 *                 horizontale).
-	 * @param end      Indice localisant le point d'arrivée du mur. La convention
-	 *                 est la même que pour le point de départ.
+	 * @param section Pièce divisible.
+	 * @param wall    Tableau de {@link #WALL} entiers où décrire la cloison à
+	 *                poser (cf. {@link #placeWall(WallSink, int[])}).
+	 * @return Les deux nouvelles pièces.
 	 */
-	private void placeWall(boolean vertical, int lineId, int start, int end) {
-		if (vertical)
-			for (int i = start; i < end; i++)
-				mazePanel.setWall(i, lineId, Side.LEFT, 1);
-		else
-			for (int i = start; i < end; i++)
-				mazePanel.setWall(lineId, i, Side.UP, 1);
+	private Section[] divide(Section section, int[] wall) {
+		SplittableRandom random = new SplittableRandom(section.seed);
+		boolean vertical = section.vertical;
+		int lineId, start, end;
+		Section[] halves = new Section[2];
+		if (vertical) { // Installation d'un mur vertical
+			lineId = section.leftIndex + 1 + random.nextInt(section.width() - 1);
+			start = section.topIndex;
+			end = section.bottomIndex;
+			halves[0] = new Section(section.leftIndex, start, lineId, end, false, random.nextLong());
+			halves[1] = new Section(lineId, start, section.rightIndex, end, false, random.nextLong());
+		} else { // Installation d'un mur horizontal
+			lineId = section.topIndex + 1 + random.nextInt(section.height() - 1);
+			start = section.leftIndex;
+			end = section.rightIndex;
+			halves[0] = new Section(start, section.topIndex, end, lineId, true, random.nextLong());
+			halves[1] = new Section(start, lineId, end, section.bottomIndex, true, random.nextLong());
+		}
+
+		wall[0] = vertical ? 1 : 0;
+		wall[1] = lineId;
+		wall[2] = start;
+		wall[3] = end;
+		wall[4] = start + random.nextInt(end - start); // Porte
+		return halves;
+	}
+
+	/**
+	 * Installe une cloison dans la grille puis place une ouverture de taille 1
+	 * dans celle-ci. Cette cloison est soit verticale, soit horizontale ; elle est
+	 * définie par sa position (i.e. sa distance au bord supérieur gauche) et par
+	 * celle des deux points délimitant les bords de la cloison.
+	 * 
+	 * @param target Destinataire des murs : le support d'écriture en pas à pas,
+	 *               une écriture simultanée dans les tâches parallèles.
+	 * @param wall   Cloison, décrite par {@link #WALL} entiers : sens (<b>1</b>
+	 *               si verticale), position, début, fin et position de la porte.
+	 *               Par convention, la position 0 est celle de la ligne voisine
+	 *               du bord de la grille (en haut si la ligne est horizontale, à
+	 *               gauche si elle est verticale) ; il en va de même pour le
+	 *               début et la fin de la cloison.
+	 */
+	private static void placeWall(WallSink target, int[] wall) {
+		int lineId = wall[1], door = wall[4];
+		if (wall[0] != 0) {
+			target.setColumnWalls(lineId, wall[2], wall[3], Side.LEFT, 1);
+			target.setWall(door, lineId, Side.LEFT, 0);
+		} else {
+			target.setRowWalls(lineId, wall[2], wall[3], Side.UP, 1);
+			target.setWall(lineId, door, Side.UP, 0);
+		}
 	}
 
 	/**
@@ -202,20 +235,26 @@ public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
 	private class Section {
 		int leftIndex, topIndex; // Coordonnées du bord supérieur gauche de la section
 		int rightIndex, bottomIndex; // Coordonnées du bord inférieur droit de la section
+		boolean vertical; // Définit le sens du mur à placer
+		long seed; // Graine du générateur de nombres aléatoires de la section
 
 		/**
 		 * Constructeur de la classe {@link Section}.
 		 * 
-		 * @param left   Indice du bord gauche de la section.
-		 * @param top    Indice du bord supérieur de la section.
-		 * @param right  Indice du bord droit de la section.
-		 * @param bottom Indice du bord inférieur de la section.
+		 * @param left     Indice du bord gauche de la section.
+		 * @param top      Indice du bord supérieur de la section.
+		 * @param right    Indice du bord droit de la section.
+		 * @param bottom   Indice du bord inférieur de la section.
+		 * @param vertical Booléen indiquant si le mur à placer est vertical.
+		 * @param seed     Graine du générateur de nombres aléatoires de la section.
 		 */
-		Section(int left, int top, int right, int bottom) {
+		Section(int left, int top, int right, int bottom, boolean vertical, long seed) {
 			this.leftIndex = left;
 			this.topIndex = top;
 			this.rightIndex = right;
 			this.bottomIndex = bottom;
+			this.vertical = vertical;
+			this.seed = seed;
 		}
 
 		/** Fournit la largeur de la section. */
@@ -228,6 +267,11 @@ public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
 			return bottomIndex - topIndex;
 		}
 
+		/** Fournit le nombre de cases de la section. */
+		long area() {
+			return (long) width() * height();
+		}
+
 		/**
 		 * Indique si la section peut être divisée par un mur.
 		 * 
@@ -245,4 +289,64 @@ public class RecursiveDivisionAlgorithm extends MazeGenerationAlgorithm {
 			return "[(" + leftIndex + "," + topIndex + ")--(" + rightIndex + "," + bottomIndex + ")]";
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Tâche divisant une pièce et ses sous-pièces : les grandes pièces sont
+	 * divisées en deux tâches parallèles, les petites séquentiellement. Chaque
+	 * tâche pose elle-même les cloisons calculées.
+	 * 
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	private class DivisionTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Section section;
+		private final Maze.WallWriter writer;
+		private final ConcurrentLinkedQueue<Section> remaining;
+
+		/**
+		 * Constructeur de la classe {@link DivisionTask}.
+		 * 
+		 * @param section   Pièce à diviser.
+		 * @param writer    Ecriture simultanée des murs du labyrinthe.
+		 * @param remaining Pièces non divisées en cas d'arrêt.
+		 */
+		DivisionTask(Section section, Maze.WallWriter writer, ConcurrentLinkedQueue<Section> remaining) {
+			this.section = section;
+			this.writer = writer;
+			this.remaining = remaining;
+		}
+
+		@Override
+		protected void compute() {
+			if (stopped)
+				remaining.add(section);
+			else if (section.area() <= THRESHOLD)
+				divideAll();
+			else if (!section.isIndivisible()) {
+				int[] wall = new int[WALL];
+				Section[] halves = divide(section, wall);
+				placeWall(writer, wall);
+				invokeAll(new DivisionTask(halves[0], writer, remaining),
+						new DivisionTask(halves[1], writer, remaining));
+			}
+		}
+
+		/** Divise séquentiellement la pièce jusqu'à obtenir des pièces indivisibles. */
+		private void divideAll() {
+			int[] wall = new int[WALL];
+			List<Section> stack = new ArrayList<>();
+			stack.add(section);
+			while (!stack.isEmpty()) {
+				Section current = stack.remove(stack.size() - 1);
+				if (!current.isIndivisible()) {
+					Section[] halves = divide(current, wall);
+					placeWall(writer, wall);
+					stack.add(halves[0]);
+					stack.add(halves[1]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.rosty.maze.model.algorithm.generation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
+
+/**
+ * Classe abstraite des algorithmes de génération dont chaque ligne se construit
+ * indépendamment des autres (cf. {@link BinaryTreeAlgorithm} et
+ * {@link SidewinderAlgorithm}).
+ * <p>
+ * La grille est découpée en bandes de {@link #STRIP} lignes, chacune disposant
+ * de son propre générateur de nombres aléatoires, tiré de la graine de
+ * l'algorithme. Les murs retirés ne dépendent donc que de la graine, et ni du
+ * mode d'exécution ni du nombre de <i>threads</i> :
+ * <ul>
+ * <li>pas à pas, les murs d'une ligne sont calculés lorsque l'algorithme y
+ * entre, puis retirés case par case ;</li>
+ * <li>d'un seul tenant (cf. {@link #runToCompletion()}), les bandes sont
+ * traitées en parallèle dans un {@link ForkJoinPool}, par tranches : chaque
+ * bande calcule les murs de ses lignes puis les retire elle-même du labyrinthe
+ * (cf. {@link MazeBoard#concurrentWalls(int, int)}).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public abstract class RowStripAlgorithm extends MazeGenerationAlgorithm {
+	/** Nombre de lignes par bande. */
+	protected static final int STRIP = 16;
+
+	/** Nombre de cases calculées par tranche, en exécution parallèle. */
+	private static final int ROUND = 1 << 24;
+
+	/** Générateurs de nombres aléatoires de chaque bande. */
+	private SplittableRandom[] strips;
+
+	/** Masques des côtés ouverts des cases de la ligne courante. */
+	private byte[] rowMasks;
+
+	/** Position du curseur dans la grille (prochaine case à traiter). */
+	private int row, col;
+
+	/**
+	 * Constructeur de la classe {@link RowStripAlgorithm}.
+	 *
+	 * @param board Support d'écriture de l'algorithme.
+	 */
+	protected RowStripAlgorithm(MazeBoard board) {
+		super(board);
+	}
+
+	@Override
+	public void init() {
+		// Un générateur par bande, tirés dans l'ordre à partir de la graine
+		strips = new SplittableRandom[(nbRow + STRIP - 1) / STRIP];
+		for (int s = 0; s < strips.length; s++)
+			strips[s] = rand.split();
+
+		rowMasks = new byte[nbCol];
+		row = 0;
+		col = 0;
+	}
+
+	@Override
+	public boolean isComplete() {
+		return row == nbRow;
+	}
+
+	@Override
+	public void step() {
+		if (col == 0) {
+			Arrays.fill(rowMasks, (byte) 0);
+			carveRow(strips[row / STRIP], row, rowMasks, 0);
+		}
+
+		for (int k = 0, len = Maze.openSideCount(rowMasks[col]); k < len; k++)
+			board.setWall(row, col, Maze.openSide(rowMasks[col], k), 0);
+		if (++col == nbCol) {
+			col = 0;
+			row++;
+		}
+	}
+
+	/**
+	 * Termine la ligne courante pas à pas, puis calcule les lignes suivantes en
+	 * parallèle, par tranches ; l'interruption du thread courant est prise en
+	 * compte entre deux tranches.
+	 */
+	@Override
+	public void runToCompletion() {
+		Thread thread = Thread.currentThread();
+		while (col != 0 && !thread.isInterrupted())
+			step();
+
+		int roundRows = Math.max(1, ROUND / (STRIP * nbCol)) * STRIP;
+		while (row < nbRow && !thread.isInterrupted()) {
+			// Les tranches s'arrêtent en fin de bande.
+			int end = Math.min(nbRow, (row / STRIP) * STRIP + roundRows);
+			try (Maze.WallWriter writer = board.concurrentWalls(row, end)) {
+				ForkJoinPool.commonPool().invoke(new StripTask(writer, row, end));
+			}
+
+			row = end;
+		}
+	}
+
+	/**
+	 * Calcule les murs retirés sur une ligne entière. Cette méthode peut être
+	 * appelée simultanément pour des lignes de bandes différentes : elle ne doit
+	 * modifier ni le labyrinthe, ni l'état de l'algorithme.
+	 *
+	 * @param rand   Générateur de nombres aléatoires de la bande de la ligne.
+	 * @param row    Numéro de ligne.
+	 * @param masks  Masques des côtés ouverts, initialement nuls, où lever le bit
+	 *               <code>1 << side.ordinal()</code> de chaque mur à retirer.
+	 * @param offset Position du masque de la première case de la ligne.
+	 */
+	protected abstract void carveRow(SplittableRandom rand, int row, byte[] masks, int offset);
+
+	/**
+	 * Tâche calculant et retirant les murs d'un ensemble de lignes, subdivisée
+	 * jusqu'à ne couvrir qu'une seule bande.
+	 */
+	private class StripTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Maze.WallWriter writer;
+		private final int from, to;
+
+		/**
+		 * Constructeur de la classe {@link StripTask}.
+		 *
+		 * @param writer Ecriture des murs de la tranche courante.
+		 * @param from   Première ligne à traiter.
+		 * @param to     Ligne suivant la dernière ligne à traiter.
+		 */
+		StripTask(Maze.WallWriter writer, int from, int to) {
+			this.writer = writer;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int fromStrip = from / STRIP, toStrip = (to - 1) / STRIP;
+			if (fromStrip < toStrip) {
+				int middle = ((fromStrip + toStrip + 1) / 2) * STRIP;
+				invokeAll(new StripTask(writer, from, middle), new StripTask(writer, middle, to));
+			} else {
+				byte[] masks = new byte[(to - from) * nbCol];
+				for (int i = from; i < to; i++)
+					carveRow(strips[fromStrip], i, masks, (i - from) * nbCol);
+
+				writer.openWalls(from, to, masks, 0);
+			}
+		}
+	}
+}
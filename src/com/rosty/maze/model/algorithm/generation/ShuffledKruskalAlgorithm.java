@@ -1,13 +1,6 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
-import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.MazeBoard;
 
 /**
  * <h2>Algorithme de Kruskal non-trié</h2>
@@ -23,83 +16,53 @@ import com.rosty.maze.widgets.MazePanel;
  * <li>Dans l'algorithme non-trié, la liste des murs est préalablement mélangée
  * et on analyse les murs en balayant la liste de gauche à droite.</li>
  * </ul>
- * La différence avec l'autre algorithme se fait donc sur les performances lors
- * de l'exécution ; alors que l'algorithme standard sélectionne puis enlève un
- * élément aléatoire dans la liste des murs, cet algorithme traite en permanence
- * le premier élément de la liste. Si l'accès aux données permet de gagner du
- * temps de calcul, il y a une perte de performances à cause du fait que l'on
- * retire le premier élément de la liste.
+ * Les deux variantes consomment le tableau des murs à l'aide d'un curseur, en
+ * temps constant par mur ; celle-ci ne tire plus aucun nombre aléatoire une
+ * fois l'initialisation terminée.
  * </p>
  * 
  * @author Martin Rostagnat
  * @version 1.0
  */
-public class ShuffledKruskalAlgorithm extends MazeGenerationAlgorithm {
-	private List<WallCoord> walls;
-
+public class ShuffledKruskalAlgorithm extends KruskalAlgorithm {
 	/**
 	 * Constructeur de la classe {@link ShuffledKruskalAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public ShuffledKruskalAlgorithm(MazePanel panel) {
-		super(panel);
+	public ShuffledKruskalAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
 	public String getLabel() {
-		return super.getLabel() + ".kruskal.unsorted";
+		return "generation.kruskal.unsorted";
 	}
 
 	@Override
 	public void init() {
-		walls = new ArrayList<>();
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.getMaze().setCell(i, j, 2 + i * nbCol + j);
-
-		for (int i = 0, lenI = nbRow - 1; i < lenI; i++) {
-			for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++)
-				walls.add(new WallCoord(i, j, Side.RIGHT));
+		super.init();
+		shuffle();
+	}
 
-			for (int j = 0; j < nbCol; j++)
-				walls.add(new WallCoord(i, j, Side.DOWN));
+	/** Mélange le tableau des murs, à partir du générateur de l'algorithme. */
+	protected void shuffle() {
+		// Mélange de Fisher-Yates
+		for (int k = walls.length - 1; k > 0; k--) {
+			int index = rand.nextInt(k + 1);
+			int wall = walls[index];
+			walls[index] = walls[k];
+			walls[k] = wall;
 		}
-
-		for (int j = 0, lenJ = nbCol - 1; j < lenJ; j++)
-			walls.add(new WallCoord(nbRow - 1, j, Side.RIGHT));
-
-		Collections.shuffle(walls);
 	}
 
 	@Override
-	public boolean isComplete() {
-		return walls.isEmpty();
+	protected int nextWall() {
+		return walls[cursor++];
 	}
 
+	/** Sans effet : les murs sont mélangés dès l'initialisation. */
 	@Override
-	public void step() {
-		WallCoord wall = walls.get(0);
-
-		int cell = mazePanel.getCell(wall.x, wall.y);
-		int neighbour = mazePanel.getNeighbourCell(wall);
-
-		while (cell == neighbour) {
-			walls.remove(0);
-			if (walls.isEmpty())
-				return;
-
-			wall = walls.get(0);
-
-			cell = mazePanel.getCell(wall.x, wall.y);
-			neighbour = mazePanel.getNeighbourCell(wall);
-		}
-
-		mazePanel.setWall(wall.x, wall.y, wall.side, 0);
-
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				if (mazePanel.getCell(i, j) == neighbour)
-					mazePanel.getMaze().setCell(i, j, cell);
+	protected void shuffleRemaining() {
 	}
 }
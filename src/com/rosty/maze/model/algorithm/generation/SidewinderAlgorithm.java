@@ -1,12 +1,9 @@
 package com.rosty.maze.model.algorithm.generation;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.algorithm.MazeGenerationAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.MazeBoard;
 
 /**
  * <h1>Algorithme de l'accordéon</h1>
@@ -23,8 +20,9 @@ import com.rosty.maze.widgets.MazePanel;
  * 
  * <p>
  * <h2>Dans le détail :</h2> La grille est visitée ligne par ligne en partant de
- * celle du haut. A chaque étape, une liste nommée 'rowBlock' enregistre la
- * cellule courante, ainsi que les précédentes dans le cas d'un couloir. Pour
+ * celle du haut. A chaque étape, le couloir horizontal courant ('rowBlock')
+ * s'étend jusqu'à la cellule courante ; seule sa première colonne est
+ * mémorisée. Pour
  * que l'algorithme fonctionne, tous les murs de la première ligne doivent être
  * retirés pour former un long couloir horizontal.
  * </p>
@@ -35,7 +33,7 @@ import com.rosty.maze.widgets.MazePanel;
  * <li>Soit l'algorithme fait une excavation vers l'est (il retire le mur à
  * droite de la cellule courante)</li>
  * <li>Soit l'algorithme fait une excavation "nord" ; dans ce cas, il
- * sélectionne au hasard une case dans la liste 'rowBlock' et il retire le mur
+ * sélectionne au hasard une case du couloir 'rowBlock' et il retire le mur
  * du haut.</li>
  * </ul>
  * En fin de ligne, l'algorithme n'a d'autre choix que de faire une excavation
@@ -43,34 +41,24 @@ import com.rosty.maze.widgets.MazePanel;
  * </p>
  * 
  * <p>
- * <h2>Complexité</h2> L'algorithme a une complexité mémoire en O(M) car
- * celui-ci enregistre un couloir horizontal dont la taille peut atteindre la
- * largeur du labyrinthe. Cependant, ce couloir horizontal est utilisé pour
- * déterminer le mur à retirer dans le cas d'une excavation nord. la pire
- * situation est atteinte lorsque sur chaque ligne, l'algorithme réalise autant
- * d'excavations "est" que "nord". Dans ce cas, la complexité temporelle est en
- * O(M².N).
+ * <h2>Complexité</h2> Le couloir horizontal courant étant repéré par sa
+ * première colonne, le choix du mur à retirer lors d'une excavation nord se
+ * fait en temps constant : l'algorithme a une complexité temporelle en O(M*N).
+ * Chaque ligne ne dépendant que d'elle-même, les lignes peuvent être calculées
+ * en parallèle (cf. {@link RowStripAlgorithm}).
  * </p>
  * 
  * @author Martin Rostagnat
  * @version 1.0
  */
-public class SidewinderAlgorithm extends MazeGenerationAlgorithm {
-	/** Indicateur de position dans la grille. */
-	private int cellId;
-	/** Liste des cases actuellement mémorisées pour une excavation nord. */
-	private List<int[]> rowBlock;
-
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
+public class SidewinderAlgorithm extends RowStripAlgorithm {
 	/**
 	 * Constructeur de la classe {@link SidewinderAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public SidewinderAlgorithm(MazePanel panel) {
-		super(panel);
+	public SidewinderAlgorithm(MazeBoard board) {
+		super(board);
 	}
 	
 	@Override
@@ -80,53 +68,27 @@ public class SidewinderAlgorithm extends MazeGenerationAlgorithm {
 
 	@Override
 	public void init() {
-		rowBlock = new ArrayList<>();
-		
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
-		
-		// Positionnement dans la grille
-		cellId = 0;
-	}
-
-	@Override
-	public boolean isComplete() {
-		return cellId == nbRow * nbCol;
+		board.fillCells(0);
+		super.init();
 	}
 
 	@Override
-	public void step() {
-		// Localisation de la case courante
-		int i = cellId / nbCol;
-		int j = cellId % nbCol;
-		rowBlock.add(new int[] { i, j });
-
-		if (i == 0) { // La première ligne est un long couloir horizontal.
-			if (j < nbCol - 1)
-				mazePanel.setWall(i, j, Side.RIGHT, 0);
-			else // Arrivé à droite, aucune excavation "nord" n'est faite.
-				rowBlock.clear();
-		} else { // Pour les lignes suivantes, deux options sont possibles :
-			if (j < nbCol - 1) {
-				boolean carveToEast = rand.nextBoolean();
-				if (carveToEast) // - Soit on retire le mur à droite de la cellule
-					mazePanel.setWall(i, j, Side.RIGHT, 0);
-				else // - Soit on fait une excavation "nord".
-					carveToNorth();
-			} else
-				carveToNorth();
-		}
-
-		cellId++;
-	}
-
-	/** Retire un mur au hasard sur la partie nord de 'rowBlock'. */
-	private void carveToNorth() {
-		if (!rowBlock.isEmpty()) {
-			int[] ranCell = rowBlock.get(rand.nextInt(rowBlock.size()));
-			mazePanel.setWall(ranCell[0], ranCell[1], Side.UP, 0);
-			rowBlock.clear();
+	protected void carveRow(SplittableRandom rand, int row, byte[] masks, int offset) {
+		// Première colonne du couloir horizontal courant ('rowBlock')
+		int runStart = 0;
+		for (int col = 0; col < nbCol; col++) {
+			if (row == 0) { // La première ligne est un long couloir horizontal.
+				if (col < nbCol - 1)
+					masks[offset + col] |= 1 << Side.RIGHT.ordinal();
+			} else if (col < nbCol - 1 && rand.nextBoolean()) {
+				// - Soit on retire le mur à droite de la cellule
+				masks[offset + col] |= 1 << Side.RIGHT.ordinal();
+			} else {
+				// - Soit on fait une excavation "nord" sur une case au hasard du couloir.
+				int carved = runStart + rand.nextInt(col - runStart + 1);
+				masks[offset + carved] |= 1 << Side.UP.ordinal();
+				runStart = col + 1;
+			}
 		}
 	}
-}
\ No newline at end of file
+}
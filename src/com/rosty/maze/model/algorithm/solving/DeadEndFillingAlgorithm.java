@@ -2,10 +2,10 @@ package com.rosty.maze.model.algorithm.solving;
 
 import java.util.Arrays;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de colmatage par scan</h1>
@@ -49,10 +49,10 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	/**
 	 * Constructeur de la classe {@link DeadEndFillingAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public DeadEndFillingAlgorithm(MazePanel panel) {
-		super(panel);
+	public DeadEndFillingAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -63,13 +63,13 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		// Détection de toutes les impasses dans le labyrinthe
+		resetLayer(0);
 		for (int i = 0; i < nbRow; i++)
 			for (int j = 0; j < nbCol; j++)
 				if (isDeadEnd(i, j)) {
-					mazePanel.setCell(i, j, 1);
+					board.setCell(i, j, 1);
 					visibleDeadEnds++;
-				} else
-					mazePanel.setCell(i, j, 0);
+				}
 	}
 
 	@Override
@@ -85,15 +85,15 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 		for (int i = 0; i < nbRow; i++)
 			for (int j = 0; j < nbCol; j++)
 				if (isFalseDeadEnd(i, j)) {
-					mazePanel.setCell(i, j, 2);
+					board.setCell(i, j, 2);
 					visibleDeadEnds++;
 				}
 
 		// Etape 2 : coloriage des cases détectées
 		for (int i = 0; i < nbRow; i++)
 			for (int j = 0; j < nbCol; j++)
-				if (mazePanel.getCell(i, j) == 2)
-					mazePanel.setCell(i, j, 1);
+				if (board.getCell(i, j) == 2)
+					board.setCell(i, j, 1);
 	}
 
 	@Override
@@ -102,21 +102,33 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 
 		// Les impasses sont toutes comblées ; laissons un explorateur tracer un chemin
 		// par "backtracking".
-		int[] explorer = mazePanel.getStart().clone();
-		mazePanel.getPath().add(explorer);
-		mazePanel.setCell(explorer[0], explorer[1], 2);
+		int[] explorer = board.getStart().clone();
+		board.getPath().add(explorer);
+		board.setCell(explorer[0], explorer[1], 2);
 
-		while (!Arrays.equals(explorer, mazePanel.getEnd())) {
+		while (!Arrays.equals(explorer, board.getEnd())) {
 			Side direction = canMove(explorer[0], explorer[1]);
 			if (direction != null) { // Le trajet de l'explorateur suit le premier chemin venu.
 				explorer = move(explorer[0], explorer[1], direction);
-				mazePanel.getPath().add(explorer);
-				mazePanel.setCell(explorer[0], explorer[1], 2);
+				board.getPath().add(explorer);
+				board.setCell(explorer[0], explorer[1], 2);
 			} else // Si aucun chemin n'est trouvé, revenir en arrière jusqu'à en trouver un.
-				mazePanel.getPath().remove(mazePanel.getPath().size() - 1);
+				board.getPath().remove(board.getPath().size() - 1);
 		}
 	}
 
+	/**
+	 * Indique si la case est le point de départ ou le point d'arrivée du
+	 * labyrinthe.
+	 * 
+	 * @param i Numéro de ligne.
+	 * @param j Numéro de colonne.
+	 */
+	private boolean isStartOrEnd(int i, int j) {
+		int[] start = board.getStart(), end = board.getEnd();
+		return (start[0] == i && start[1] == j) || (end[0] == i && end[1] == j);
+	}
+
 	/**
 	 * Indique si la case représente une impasse dans le labyrinthe i.e. entourée de
 	 * murs sauf dans une seule direction. Le point de départ et le point d'arrivée
@@ -126,16 +138,10 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private boolean isDeadEnd(int i, int j) {
-		if (Arrays.equals(mazePanel.getStart(), new int[] { i, j })
-				|| Arrays.equals(mazePanel.getEnd(), new int[] { i, j }))
+		if (isStartOrEnd(i, j))
 			return false;
 
-		int nbWays = 0;
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1)
-				nbWays++;
-
-		return nbWays == 1;
+		return board.getMaze().degree(i, j) == 1;
 	}
 
 	/**
@@ -148,17 +154,19 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private boolean isFalseDeadEnd(int i, int j) {
-		if (mazePanel.getCell(i, j) == 1) // Une case déjà visitée n'est pas comptée.
+		if (board.getCell(i, j) == 1) // Une case déjà visitée n'est pas comptée.
 			return false;
 
-		if (Arrays.equals(mazePanel.getStart(), new int[] { i, j })
-				|| Arrays.equals(mazePanel.getEnd(), new int[] { i, j }))
+		if (isStartOrEnd(i, j))
 			return false;
 
 		int nbWays = 0;
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1 && mazePanel.getNeighbourCell(new WallCoord(i, j, s)) != 1)
+		int mask = board.getMaze().openMask(i, j);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side s = Maze.openSide(mask, k);
+			if (board.getNeighbourCell(i, j, s) != 1)
 				nbWays++;
+		}
 
 		return nbWays == 1;
 	}
@@ -171,9 +179,12 @@ public class DeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private Side canMove(int i, int j) {
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1 && mazePanel.getNeighbourCell(new WallCoord(i, j, s)) == 0)
+		int mask = board.getMaze().openMask(i, j);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side s = Maze.openSide(mask, k);
+			if (board.getNeighbourCell(i, j, s) == 0)
 				return s;
+		}
 
 		return null;
 	}
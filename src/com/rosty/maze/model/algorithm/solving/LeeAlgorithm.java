@@ -1,10 +1,7 @@
 package com.rosty.maze.model.algorithm.solving;
 
-import java.util.ArrayList;
-
-import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.JunctionSearchAlgorithm;
 
 /**
  * <h1>Algorithme de Lee</h1>
@@ -24,39 +21,29 @@ import com.rosty.maze.widgets.MazePanel;
  * liste. La liste des cellules marquées lors d'une itération s'appelle la
  * "peau". A chaque itération, on accumule les "peaux" jusqu'à atteindre le
  * point d'arrivée.<br/>
- * L'algorithme n'utilise pas d'arbre de données pour parcourir la grille. Le
- * chemin entre le départ et l'arrivée se fait en parcourant le labyrinthe en
- * sens inverse, pas-à-pas en décrémentant le coût.
+ * Les "peaux" sont formées sur le graphe contracté du labyrinthe (cf.
+ * {@link JunctionSearchAlgorithm}) : une itération développe tous les
+ * carrefours de même coût, et les couloirs qui en partent sont marqués d'un
+ * seul tenant. Chaque carrefour mémorisant le couloir par lequel il a été
+ * atteint, le chemin est reconstitué sans reparcourir le labyrinthe.
  * </p>
  * 
  * <p>
- * <h2>Complexité</h2> Comme tout le monde ; O(MN) dans le pire des cas.
+ * <h2>Complexité</h2> Comme tout le monde ; O(MN) dans le pire des cas, mais
+ * seuls les carrefours et les impasses sont développés.
  * </p>
  * 
  * @author Martin Rostagnat
  * @version 1.0
  */
-public class LeeAlgorithm extends MazeSolvingAlgorithm {
-	/**
-	 * Coût de l'exploration, représentant le nombre de cases parcourues entre le
-	 * départ et la cellule actuellement explorée.
-	 */
-	private int cost = 1;
-
-	/**
-	 * Liste des cellules pondérées par le poids courant. De par la nature de
-	 * l'algorithme (BFS), la liste représente une "peau" entre les zones explorée
-	 * et inexplorée.
-	 */
-	private ArrayList<int[]> cellSkin = new ArrayList<>();
-
+public class LeeAlgorithm extends JunctionSearchAlgorithm {
 	/**
 	 * Constructeur de la classe {@link LeeAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public LeeAlgorithm(MazePanel panel) {
-		super(panel);
+	public LeeAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -67,73 +54,23 @@ public class LeeAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		/** Etape 1 : vidage du terrain */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
 		/** Etape 2 : formation de la "peau" */
-		int[] start = mazePanel.getStart();
-		mazePanel.setCell(start[0], start[1], cost);
-		cellSkin.add(start);
-	}
-
-	@Override
-	public boolean isComplete() {
-		int[] end = mazePanel.getEnd();
-
-		return mazePanel.getCell(end[0], end[1]) != 0;
+		startSearch();
 	}
 
 	@Override
 	public void step() {
-		// Formation de la nouvelle "peau" en incrémentant le coût
-		cost++;
-		ArrayList<int[]> newSkin = new ArrayList<>();
-
-		// Les cellules de la nouvelle "peau" sont inexplorées et distantes d'un pas
-		// avec les cellules de la "peau" actuelle.
-		for (int[] cell : cellSkin) {
-			int i = cell[0], j = cell[1];
-			if (i > 0 && mazePanel.getWall(i, j, Side.UP) != 1 && mazePanel.getCell(i - 1, j) == 0)
-				newSkin.add(new int[] { i - 1, j });
-
-			if (j > 0 && mazePanel.getWall(i, j, Side.LEFT) != 1 && mazePanel.getCell(i, j - 1) == 0)
-				newSkin.add(new int[] { i, j - 1 });
-
-			if (i < nbRow - 1 && mazePanel.getWall(i, j, Side.DOWN) != 1 && mazePanel.getCell(i + 1, j) == 0)
-				newSkin.add(new int[] { i + 1, j });
-
-			if (j < nbCol - 1 && mazePanel.getWall(i, j, Side.RIGHT) != 1 && mazePanel.getCell(i, j + 1) == 0)
-				newSkin.add(new int[] { i, j + 1 });
-		}
-
-		// La nouvelle "peau" est marquée et sauvegardée pour la prochaine itération.
-		cellSkin.clear();
-		cellSkin.addAll(newSkin);
-		for (int[] cell : newSkin)
-			mazePanel.setCell(cell[0], cell[1], cost);
+		// Tous les carrefours de la "peau" actuelle sont développés.
+		int cost = nextPriority();
+		while (cost >= 0 && nextPriority() == cost && !isEndReached())
+			super.step();
 	}
 
+	/** Le coût d'une case est le nombre de cases parcourues depuis le départ. */
 	@Override
-	public void finish() {
-		super.finish();
-
-		int[] cell = mazePanel.getEnd();
-		mazePanel.getRoute().getPath().add(cell);
-		int rCost = cost - 1; // "Reverted cost" ou "coût renversé"
-		while (rCost > 0) {
-			int i = cell[0], j = cell[1];
-			if (i > 0 && mazePanel.getWall(i, j, Side.UP) != 1 && mazePanel.getCell(i - 1, j) == rCost)
-				cell = new int[] { i - 1, j };
-			else if (j > 0 && mazePanel.getWall(i, j, Side.LEFT) != 1 && mazePanel.getCell(i, j - 1) == rCost)
-				cell = new int[] { i, j - 1 };
-			else if (i < nbRow - 1 && mazePanel.getWall(i, j, Side.DOWN) != 1 && mazePanel.getCell(i + 1, j) == rCost)
-				cell = new int[] { i + 1, j };
-			else if (j < nbCol - 1 && mazePanel.getWall(i, j, Side.RIGHT) != 1 && mazePanel.getCell(i, j + 1) == rCost)
-				cell = new int[] { i, j + 1 };
-
-			mazePanel.getRoute().getPath().add(0, cell);
-			rCost--;
-		}
+	protected int cellValue(int cell, int distance) {
+		return distance + 1;
 	}
-}
\ No newline at end of file
+}
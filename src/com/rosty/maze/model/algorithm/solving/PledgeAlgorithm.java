@@ -2,11 +2,10 @@ package com.rosty.maze.model.algorithm.solving;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de Pledge</h1>
@@ -61,10 +60,10 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 	/**
 	 * Constructeur de la classe {@link PledgeAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public PledgeAlgorithm(MazePanel panel) {
-		super(panel);
+	public PledgeAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -75,29 +74,27 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		/** Etape 1 : vidage du terrain */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
 		/** Etape 2 : début de l'exploration */
-		explorer = mazePanel.getStart();
-		mazePanel.setCell(explorer[0], explorer[1], 2);
+		explorer = board.getStart();
+		board.setCell(explorer[0], explorer[1], 2);
 		path.add(explorer.clone());
 	}
 
 	@Override
 	public boolean isComplete() {
-		return Arrays.equals(explorer, mazePanel.getEnd());
+		return Arrays.equals(explorer, board.getEnd());
 	}
 
 	@Override
 	public void step() {
 		if (goStraight) { // Si l'explorateur doit avancer tout droit ...
-			if (mazePanel.getWall(explorer[0], explorer[1], orientation) != 1) { // ...et que la voie est libre, ...
+			if (board.getWall(explorer[0], explorer[1], orientation) != 1) { // ...et que la voie est libre, ...
 				move(); // ...alors avancer d'une case.
 
 				// Marquage de la case et mise à jour du chemin
-				mazePanel.setCell(explorer[0], explorer[1], 2);
+				board.setCell(explorer[0], explorer[1], 2);
 				if (has(path, explorer))
 					removeAfter(path, explorer);
 				else
@@ -116,7 +113,7 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 			}
 
 			// Marquage de la case et mise à jour du chemin
-			mazePanel.setCell(explorer[0], explorer[1], 2);
+			board.setCell(explorer[0], explorer[1], 2);
 			if (has(path, explorer))
 				removeAfter(path, explorer);
 			else
@@ -128,7 +125,7 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 	public void finish() {
 		super.finish();
 
-		mazePanel.getPath().addAll(path);
+		board.getPath().addAll(path);
 	}
 
 	/**
@@ -141,11 +138,11 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 		int counter = 0;
 		if (handOnLeft) {
 			dir = lookToTheLeft(dir);
-			while (counter++ < Side.values().length && mazePanel.getWall(explorer[0], explorer[1], dir) == 1)
+			while (counter++ < Side.COUNT && board.getWall(explorer[0], explorer[1], dir) == 1)
 				dir = lookToTheRight(dir);
 		} else {
 			dir = lookToTheRight(dir);
-			while (counter++ < Side.values().length && mazePanel.getWall(explorer[0], explorer[1], dir) == 1)
+			while (counter++ < Side.COUNT && board.getWall(explorer[0], explorer[1], dir) == 1)
 				dir = lookToTheLeft(dir);
 		}
 
@@ -160,12 +157,9 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 	 * @return Direction représentant la gauche de la direction actuelle.
 	 */
 	private Side lookToTheLeft(Side direction) {
-		List<Side> sides = Arrays.asList(Side.values());
-		int index = sides.indexOf(direction);
-		index += (sides.size() - 1);
 		turnCount--;
 
-		return sides.get(mod(index, sides.size()));
+		return Side.of(mod(direction.ordinal() - 1, Side.COUNT));
 	}
 
 	/**
@@ -176,12 +170,9 @@ public class PledgeAlgorithm extends MazeSolvingAlgorithm {
 	 * @return Direction représentant la droite de la direction actuelle.
 	 */
 	private Side lookToTheRight(Side direction) {
-		List<Side> sides = Arrays.asList(Side.values());
-		int index = sides.indexOf(direction);
-		index++;
 		turnCount++;
 
-		return sides.get(mod(index, sides.size()));
+		return Side.of(mod(direction.ordinal() + 1, Side.COUNT));
 	}
 
 	/** Déplace l'explorateur d'une case dans sa direction. */
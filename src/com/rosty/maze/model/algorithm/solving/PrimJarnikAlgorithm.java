@@ -3,9 +3,8 @@ package com.rosty.maze.model.algorithm.solving;
 import java.util.ArrayList;
 
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de Prim-Jarnik</h1>
@@ -60,10 +59,10 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 	/**
 	 * Constructeur de la classe {@link PrimJarnikAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public PrimJarnikAlgorithm(MazePanel panel) {
-		super(panel);
+	public PrimJarnikAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -74,16 +73,14 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		/* Etape 1 : remplissage du terrain avec le poids des cellules. */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, Integer.MAX_VALUE);
+		resetLayer(Integer.MAX_VALUE);
 
 		/* Etape 2 : lancement de l'heuristique. */
-		int[] start = mazePanel.getStart();
+		int[] start = board.getStart();
 		cellTree = new HeurTree(start[0], start[1], 0);
 
 		freeLeafs.add(cellTree);
-		mazePanel.setCell(start[0], start[1], (int) cellTree.cost);
+		board.setCell(start[0], start[1], (int) cellTree.cost);
 	}
 
 	@Override
@@ -127,7 +124,7 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 
 		for (HeurTree node : nextNodes) {
 			nodeToSee.add(node);
-			mazePanel.setCell(node.i, node.j, (int) node.cost);
+			board.setCell(node.i, node.j, (int) node.cost);
 		}
 
 		// Etape 3 : sélection des noeuds à coût minimal et mise à jour de la liste
@@ -146,10 +143,10 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 	public void finish() {
 		super.finish();
 
-		ArrayList<HeurTree> endings = find(cellTree, mazePanel.getEnd()); // Noeud d'arrivée
+		ArrayList<HeurTree> endings = find(cellTree, board.getEnd()); // Noeud d'arrivée
 		if (!endings.isEmpty()) // Si un chemin est terminé, la 1ère arrivée est choisie
 			for (HeurTree node : endings.get(0).getAscendance())
-				mazePanel.getRoute().getPath().add(new int[] { node.i, node.j });
+				board.getPath().add(new int[] { node.i, node.j });
 	}
 
 	/**
@@ -216,8 +213,8 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 				break;
 		}
 
-		return withSides && mazePanel.getWall(i, j, side) == 0
-				&& mazePanel.getNeighbourCell(new WallCoord(i, j, side)) == Integer.MAX_VALUE;
+		return withSides && board.getWall(i, j, side) == 0
+				&& board.getNeighbourCell(i, j, side) == Integer.MAX_VALUE;
 	}
 
 	/**
@@ -234,11 +231,11 @@ public class PrimJarnikAlgorithm extends MazeSolvingAlgorithm {
 
 		// Le noeud est "bloqué" dans le labyrinthe si la case correspondante ne
 		// contient qu'un seul point d'accès (celui que l'on a emprunté pour entrer).
-		for (Side side : Side.values())
-			if (mazePanel.getWall(i, j, side) != 0)
+		for (int k = 0; k < Side.COUNT; k++)
+			if (board.getWall(i, j, Side.of(k)) != 0)
 				numberOfWalls++;
 
-		return numberOfWalls + 1 == Side.values().length;
+		return numberOfWalls + 1 == Side.COUNT;
 	}
 
 	/**
@@ -1,13 +1,12 @@
 package com.rosty.maze.model.algorithm.solving;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
 import com.rosty.maze.model.algorithm.generation.WilsonAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de la souris égarée</h1>
@@ -39,16 +38,13 @@ public class RandomMouseAlgorithm extends MazeSolvingAlgorithm {
 	/** Cellule actuellement explorée (symbolisée ici par une souris). */
 	private int[] mouse = new int[2];
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link RandomMouseAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public RandomMouseAlgorithm(MazePanel panel) {
-		super(panel);
+	public RandomMouseAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -58,52 +54,25 @@ public class RandomMouseAlgorithm extends MazeSolvingAlgorithm {
 
 	@Override
 	public void init() {
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
-		mouse = mazePanel.getStart();
-		mazePanel.setCell(mouse[0], mouse[1], 2);
+		mouse = board.getStart();
+		board.setCell(mouse[0], mouse[1], 2);
 	}
 
 	@Override
 	public boolean isComplete() {
-		return Arrays.equals(mouse, mazePanel.getEnd());
+		return Arrays.equals(mouse, board.getEnd());
 	}
 
 	@Override
 	public void step() {
-		ArrayList<Side> sides = getSides();
-		int index = rand.nextInt(sides.size());
-
-		mazePanel.setCell(mouse[0], mouse[1], 1);
-		move(sides.get(index));
-		mazePanel.setCell(mouse[0], mouse[1], 2);
-	}
-
-	/**
-	 * Fournit la liste des directions accessibles pour la souris (la méthode ne
-	 * prend pas en compte les murs situés en périphérie de la grille).
-	 * 
-	 * @return Liste d'instance {@link Side}}.
-	 */
-	private ArrayList<Side> getSides() {
-		int i = mouse[0], j = mouse[1];
-
-		ArrayList<Side> sides = new ArrayList<>();
-		if (i > 0 && mazePanel.getWall(i, j, Side.UP) != 1)
-			sides.add(Side.UP);
-
-		if (j > 0 && mazePanel.getWall(i, j, Side.LEFT) != 1)
-			sides.add(Side.LEFT);
-
-		if (i < nbRow - 1 && mazePanel.getWall(i, j, Side.DOWN) != 1)
-			sides.add(Side.DOWN);
-
-		if (j < nbCol - 1 && mazePanel.getWall(i, j, Side.RIGHT) != 1)
-			sides.add(Side.RIGHT);
+		int mask = board.getMaze().openMask(mouse[0], mouse[1]);
+		int index = rand.nextInt(Maze.openSideCount(mask));
 
-		return sides;
+		board.setCell(mouse[0], mouse[1], 1);
+		move(Maze.openSide(mask, index));
+		board.setCell(mouse[0], mouse[1], 2);
 	}
 
 	/**
@@ -112,21 +81,7 @@ public class RandomMouseAlgorithm extends MazeSolvingAlgorithm {
 	 * @param direction Direction du déplacement.
 	 */
 	private void move(Side direction) {
-		switch (direction) {
-			case UP:
-				mouse[0]--;
-				break;
-			case LEFT:
-				mouse[1]--;
-				break;
-			case DOWN:
-				mouse[0]++;
-				break;
-			case RIGHT:
-				mouse[1]++;
-				break;
-			default:
-				break;
-		}
+		mouse[0] += direction.dr;
+		mouse[1] += direction.dc;
 	}
 }
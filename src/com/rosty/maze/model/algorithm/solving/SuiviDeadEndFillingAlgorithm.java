@@ -1,12 +1,11 @@
 package com.rosty.maze.model.algorithm.solving;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de colmatage par suivi</h1>
@@ -44,16 +43,22 @@ import com.rosty.maze.widgets.MazePanel;
  * @version 1.0
  */
 public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
-	/** Liste des explorateurs d'impasses. */
-	ArrayList<WallCoord> deadEnds = new ArrayList<>();
+	/**
+	 * Explorateurs d'impasses, codés <code>indice << 2 | côté</code> (indice de la
+	 * case de l'explorateur, rang dans {@link Side} de la direction qu'il va
+	 * emprunter).
+	 */
+	int[] deadEnds = new int[16];
+	/** Nombre d'explorateurs d'impasses. */
+	int nbDeadEnds;
 
 	/**
 	 * Constructeur de la classe {@link SuiviDeadEndFillingAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public SuiviDeadEndFillingAlgorithm(MazePanel panel) {
-		super(panel);
+	public SuiviDeadEndFillingAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -64,43 +69,51 @@ public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		// Remise des cellules à 0
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
 		// Détection de toutes les impasses pour démarrer l'algorithme
+		nbDeadEnds = 0;
 		for (int i = 0; i < nbRow; i++)
 			for (int j = 0; j < nbCol; j++)
 				if (isDeadEnd(i, j)) { // La fin d'une impasse est mémorisée puis marquée dans la grille.
-					// Pour chaque impasse, on détermine la prochaine direction où aller.
-					deadEnds.add(new WallCoord(i, j, way(i, j)));
-					mazePanel.setCell(i, j, 1);
+					// Pour chaque impasse, on détermine la prochaine direction où aller ; une
+					// impasse débouchant sur une autre n'a nulle part où aller.
+					Side side = way(i, j);
+					if (side != null) {
+						if (nbDeadEnds == deadEnds.length)
+							deadEnds = Arrays.copyOf(deadEnds, 2 * nbDeadEnds);
+
+						deadEnds[nbDeadEnds++] = (i * nbCol + j) << 2 | side.ordinal();
+					}
+
+					board.setCell(i, j, 1);
 				}
 	}
 
 	@Override
 	public boolean isComplete() {
-		return deadEnds.isEmpty();
+		return nbDeadEnds == 0;
 	}
 
 	@Override
 	public void step() {
-		for (int k = 0; k < deadEnds.size();) { // Pour chaque impasse à explorer, ...
+		// Les explorateurs conservés sont recopiés en tête du tableau, dans l'ordre.
+		int count = 0;
+		for (int k = 0; k < nbDeadEnds; k++) { // Pour chaque impasse à explorer, ...
 			// ...se déplacer d'une case dans la direction mémorisée.
-			WallCoord explorer = deadEnds.get(k);
-			int[] coord = move(explorer.x, explorer.y, explorer.side);
+			int cell = deadEnds[k] >>> 2;
+			Side side = Side.of(deadEnds[k] & 3);
+			int i = cell / nbCol + side.dr, j = cell % nbCol + side.dc;
 
-			if (isFalseDeadEnd(coord[0], coord[1])) { // Si la nouvelle position est une "fausse impasse", ...
+			if (isFalseDeadEnd(i, j)) { // Si la nouvelle position est une "fausse impasse", ...
 				// ...alors mettre à jour l'exploration de l'impasse en notant la prochaine
 				// direction à prendre ...
-				deadEnds.set(k, new WallCoord(coord[0], coord[1], way(coord[0], coord[1])));
-				mazePanel.setCell(coord[0], coord[1], 1);
-
-				// ...et passer à la suite.
-				k++;
-			} else // Sinon, arrêter l'exploration de l'impasse.
-				deadEnds.remove(k);
+				deadEnds[count++] = (i * nbCol + j) << 2 | way(i, j).ordinal();
+				board.setCell(i, j, 1);
+			} // Sinon, arrêter l'exploration de l'impasse.
 		}
+
+		nbDeadEnds = count;
 	}
 
 	@Override
@@ -109,21 +122,33 @@ public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 
 		// Les impasses sont toutes comblées ; laissons un explorateur tracer un chemin
 		// par "backtracking".
-		int[] explorer = mazePanel.getStart().clone();
-		mazePanel.getPath().add(explorer);
-		mazePanel.setCell(explorer[0], explorer[1], 2);
+		int[] explorer = board.getStart().clone();
+		board.getPath().add(explorer);
+		board.setCell(explorer[0], explorer[1], 2);
 
-		while (!Arrays.equals(explorer, mazePanel.getEnd())) {
+		while (!Arrays.equals(explorer, board.getEnd())) {
 			Side direction = way(explorer[0], explorer[1]);
 			if (direction != null) { // Le trajet de l'explorateur suit le premier chemin venu.
 				explorer = move(explorer[0], explorer[1], direction);
-				mazePanel.getPath().add(explorer);
-				mazePanel.setCell(explorer[0], explorer[1], 2);
+				board.getPath().add(explorer);
+				board.setCell(explorer[0], explorer[1], 2);
 			} else // Si aucun chemin n'est trouvé, revenir en arrière jusqu'à en trouver un.
-				mazePanel.getPath().remove(mazePanel.getPath().size() - 1);
+				board.getPath().remove(board.getPath().size() - 1);
 		}
 	}
 
+	/**
+	 * Indique si la case est le point de départ ou le point d'arrivée du
+	 * labyrinthe.
+	 * 
+	 * @param i Numéro de ligne.
+	 * @param j Numéro de colonne.
+	 */
+	private boolean isStartOrEnd(int i, int j) {
+		int[] start = board.getStart(), end = board.getEnd();
+		return (start[0] == i && start[1] == j) || (end[0] == i && end[1] == j);
+	}
+
 	/**
 	 * Indique si la case représente une impasse dans le labyrinthe i.e. entourée de
 	 * murs sauf dans une seule direction. Le point de départ et le point d'arrivée
@@ -133,16 +158,10 @@ public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private boolean isDeadEnd(int i, int j) {
-		if (Arrays.equals(mazePanel.getStart(), new int[] { i, j })
-				|| Arrays.equals(mazePanel.getEnd(), new int[] { i, j }))
+		if (isStartOrEnd(i, j))
 			return false;
 
-		int nbWays = 0;
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1)
-				nbWays++;
-
-		return nbWays == 1;
+		return board.getMaze().degree(i, j) == 1;
 	}
 
 	/**
@@ -155,17 +174,19 @@ public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private boolean isFalseDeadEnd(int i, int j) {
-		if (mazePanel.getCell(i, j) == 1) // Une case déjà visitée n'est pas comptée.
+		if (board.getCell(i, j) == 1) // Une case déjà visitée n'est pas comptée.
 			return false;
 
-		if (Arrays.equals(mazePanel.getStart(), new int[] { i, j })
-				|| Arrays.equals(mazePanel.getEnd(), new int[] { i, j }))
+		if (isStartOrEnd(i, j))
 			return false;
 
 		int nbWays = 0;
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1 && mazePanel.getNeighbourCell(new WallCoord(i, j, s)) != 1)
+		int mask = board.getMaze().openMask(i, j);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side s = Maze.openSide(mask, k);
+			if (board.getNeighbourCell(i, j, s) != 1)
 				nbWays++;
+		}
 
 		return nbWays == 1;
 	}
@@ -178,9 +199,12 @@ public class SuiviDeadEndFillingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param j Numéro de colonne.
 	 */
 	private Side way(int i, int j) {
-		for (Side s : Side.values())
-			if (mazePanel.getWall(i, j, s) != 1 && mazePanel.getNeighbourCell(new WallCoord(i, j, s)) == 0)
+		int mask = board.getMaze().openMask(i, j);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side s = Maze.openSide(mask, k);
+			if (board.getNeighbourCell(i, j, s) == 0)
 				return s;
+		}
 
 		return null;
 	}
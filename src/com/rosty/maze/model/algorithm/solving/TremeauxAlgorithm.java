@@ -2,12 +2,11 @@ package com.rosty.maze.model.algorithm.solving;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
 
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de Trémeaux</h1>
@@ -43,16 +42,13 @@ public class TremeauxAlgorithm extends MazeSolvingAlgorithm {
 	/** Chemin sauvegardé pour l'algorithme. */
 	ArrayList<int[]> path = new ArrayList<int[]>();
 
-	/** Générateur de nombres aléatoires. */
-	private final Random rand = new Random();
-
 	/**
 	 * Constructeur de la classe {@link TremeauxAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public TremeauxAlgorithm(MazePanel panel) {
-		super(panel);
+	public TremeauxAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -63,28 +59,26 @@ public class TremeauxAlgorithm extends MazeSolvingAlgorithm {
 	@Override
 	public void init() {
 		/** Etape 1 : vidage du terrain */
-		for (int i = 0; i < nbRow; i++)
-			for (int j = 0; j < nbCol; j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
 		/** Etape 2 : début de l'exploration */
-		explorer = mazePanel.getStart();
-		mazePanel.setCell(explorer[0], explorer[1], 2);
+		explorer = board.getStart();
+		board.setCell(explorer[0], explorer[1], 2);
 		path.add(explorer.clone());
 	}
 
 	@Override
 	public boolean isComplete() {
-		return Arrays.equals(explorer, mazePanel.getEnd());
+		return Arrays.equals(explorer, board.getEnd());
 	}
 
 	@Override
 	public void step() {
-		ArrayList<Side> sides = lookAround();
-		if (sides.size() != 0) { // S'il est possible d'avancer quelque part, ...
-			Side newDirection = sides.get(rand.nextInt(sides.size()));
+		int count = lookAround();
+		if (count != 0) { // S'il est possible d'avancer quelque part, ...
+			Side newDirection = neighbours[rand.nextInt(count)];
 			move(newDirection); // ...alors se déplacer au hasard dans l'une de ces directions.
-			mazePanel.setCell(explorer[0], explorer[1], 2);
+			board.setCell(explorer[0], explorer[1], 2);
 			path.add(explorer.clone());
 		} else { // Sinon, reculer d'une case.
 			path.remove(path.size() - 1);
@@ -96,42 +90,30 @@ public class TremeauxAlgorithm extends MazeSolvingAlgorithm {
 	public void finish() {
 		super.finish();
 
-		mazePanel.getPath().addAll(path);
+		board.getPath().addAll(path);
 	}
 
 	/**
 	 * Détermine les directions vers lesquelles l'explorateur peut aller à sa
-	 * position actuelle.
+	 * position actuelle, et les range dans le tampon {@link #neighbours}.
 	 * 
-	 * @return Liste d'instances {@code Side}.
+	 * @return Nombre de directions rangées dans le tampon.
 	 */
-	private ArrayList<Side> lookAround() {
-		ArrayList<Side> sides = new ArrayList<Side>();
-		for (Side s : Side.values())
-			if (mazePanel.getWall(explorer[0], explorer[1], s) != 1
-					&& mazePanel.getNeighbourCell(new WallCoord(explorer[0], explorer[1], s)) == 0)
-				sides.add(s);
+	private int lookAround() {
+		int count = 0;
+		int mask = board.getMaze().openMask(explorer[0], explorer[1]);
+		for (int k = 0, len = Maze.openSideCount(mask); k < len; k++) {
+			Side s = Maze.openSide(mask, k);
+			if (board.getNeighbourCell(explorer[0], explorer[1], s) == 0)
+				neighbours[count++] = s;
+		}
 
-		return sides;
+		return count;
 	}
 
 	/** Déplace l'explorateur d'une case dans une direction spécifique. */
 	private void move(Side direction) {
-		switch (direction) {
-			case UP:
-				explorer[0]--;
-				break;
-			case LEFT:
-				explorer[1]--;
-				break;
-			case DOWN:
-				explorer[0]++;
-				break;
-			case RIGHT:
-				explorer[1]++;
-				break;
-			default:
-				break;
-		}
+		explorer[0] += direction.dr;
+		explorer[1] += direction.dc;
 	}
 }
\ No newline at end of file
@@ -1,11 +1,9 @@
 package com.rosty.maze.model.algorithm.solving;
 
-import java.util.ArrayList;
-import java.util.Random;
-
+import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.MazeSolvingAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 
 /**
  * <h1>Algorithme de suivi du mur</h1>
@@ -48,10 +46,10 @@ public class WallFollowingAlgorithm extends MazeSolvingAlgorithm {
 	/**
 	 * Constructeur de la classe {@link WallFollowingAlgorithm}.
 	 * 
-	 * @param panel Composant graphique du labyrinthe.
+	 * @param board Support d'écriture de l'algorithme.
 	 */
-	public WallFollowingAlgorithm(MazePanel panel) {
-		super(panel);
+	public WallFollowingAlgorithm(MazeBoard board) {
+		super(board);
 	}
 
 	@Override
@@ -61,20 +59,18 @@ public class WallFollowingAlgorithm extends MazeSolvingAlgorithm {
 
 	@Override
 	public void init() {
-		for (int i = 0; i < mazePanel.getMaze().getNbRows(); i++)
-			for (int j = 0; j < mazePanel.getMaze().getNbColumns(); j++)
-				mazePanel.setCell(i, j, 0);
+		resetLayer(0);
 
-		int[] start = mazePanel.getStart();
+		int[] start = board.getStart();
 		cur_i = start[0];
 		cur_j = start[1];
-		mazePanel.setCell(cur_i, cur_j, 1);
-		mazePanel.getPath().add(new int[] { cur_i, cur_j });
+		board.setCell(cur_i, cur_j, 1);
+		board.getPath().add(new int[] { cur_i, cur_j });
 	}
 
 	@Override
 	public boolean isComplete() {
-		int[] end = mazePanel.getEnd();
+		int[] end = board.getEnd();
 
 		return cur_i == end[0] && cur_j == end[1];
 	}
@@ -85,18 +81,18 @@ public class WallFollowingAlgorithm extends MazeSolvingAlgorithm {
 		move(sideToGo);
 		lastDirection = sideToGo;
 
-		if (mazePanel.getPath().size() >= 2) {
-			int[] anteCell = mazePanel.getPath().get(mazePanel.getPath().size() - 2);
+		if (board.getPath().size() >= 2) {
+			int[] anteCell = board.getPath().get(board.getPath().size() - 2);
 			if (anteCell[0] == cur_i && anteCell[1] == cur_j)
-				mazePanel.getPath().remove(mazePanel.getPath().size() - 1);
+				board.getPath().remove(board.getPath().size() - 1);
 			else
-				mazePanel.getPath().add(new int[] { cur_i, cur_j });
+				board.getPath().add(new int[] { cur_i, cur_j });
 		} else
-			mazePanel.getPath().add(new int[] { cur_i, cur_j });
+			board.getPath().add(new int[] { cur_i, cur_j });
 
 		// Marquage de la cellule explorée
-		if (mazePanel.getCell(cur_i, cur_j) != 1)
-			mazePanel.setCell(cur_i, cur_j, 1);
+		if (board.getCell(cur_i, cur_j) != 1)
+			board.setCell(cur_i, cur_j, 1);
 	}
 
 	/**
@@ -107,62 +103,24 @@ public class WallFollowingAlgorithm extends MazeSolvingAlgorithm {
 	 * @return Instance {@link Side} indiquant la direction à emprunter.
 	 */
 	private Side rightestWall() {
-		ArrayList<Side> sides = getSides(cur_i, cur_j);
+		int mask = board.getMaze().openMask(cur_i, cur_j);
 
 		// Lors de la première étape (lastDirection non-défini), un mur est choisi au
 		// hasard ; c'est celui-ci qui sera suivi durant l'exécution de l'algorithme.
 		if (lastDirection == null) {
-			Random ran = new Random();
-			return sides.get(ran.nextInt(sides.size()));
+			return Maze.openSide(mask, rand.nextInt(Maze.openSideCount(mask)));
 		}
 
-		// Utilisation de la direction opposée à lastDirection
-		Side wall = null;
-		switch (lastDirection) {
-			case UP:
-				wall = Side.DOWN;
-				break;
-			case DOWN:
-				wall = Side.UP;
-				break;
-			case LEFT:
-				wall = Side.RIGHT;
-				break;
-			case RIGHT:
-				wall = Side.LEFT;
-				break;
+		// Parcours cyclique des directions accessibles (haut, gauche, bas, droite) en
+		// partant de la direction opposée à lastDirection
+		Side wall = lastDirection.opposite();
+		for (int k = 1; k <= Side.COUNT; k++) {
+			Side side = Side.of((wall.ordinal() - k) & 3);
+			if ((mask & (1 << side.ordinal())) != 0)
+				return side;
 		}
 
-		// Incrémentation cyclique de l'index
-		int id = sides.indexOf(wall);
-		id = (id + 1) % sides.size();
-
-		return sides.get(id);
-	}
-
-	/**
-	 * Fournit la liste des directions accessibles pour la cellule spécifiée (la
-	 * méthode ne prend pas en compte les murs situés à la périphérie de la grille).
-	 * 
-	 * @param i Ligne de la cellule courante.
-	 * @param j Colonne de la cellule courante.
-	 * @return Liste d'instance {@link Side}}.
-	 */
-	private ArrayList<Side> getSides(int i, int j) {
-		ArrayList<Side> sides = new ArrayList<>();
-		if (i > 0 && mazePanel.getWall(i, j, Side.UP) != 1)
-			sides.add(Side.UP);
-
-		if (j > 0 && mazePanel.getWall(i, j, Side.LEFT) != 1)
-			sides.add(Side.LEFT);
-
-		if (i < nbRow - 1 && mazePanel.getWall(i, j, Side.DOWN) != 1)
-			sides.add(Side.DOWN);
-
-		if (j < nbCol - 1 && mazePanel.getWall(i, j, Side.RIGHT) != 1)
-			sides.add(Side.RIGHT);
-
-		return sides;
+		return wall;
 	}
 
 	/**
@@ -171,21 +129,7 @@ public class WallFollowingAlgorithm extends MazeSolvingAlgorithm {
 	 * @param direction Direction du déplacement.
 	 */
 	private void move(Side direction) {
-		switch (direction) {
-			case UP:
-				cur_i--;
-				break;
-			case LEFT:
-				cur_j--;
-				break;
-			case DOWN:
-				cur_i++;
-				break;
-			case RIGHT:
-				cur_j++;
-				break;
-			default:
-				break;
-		}
+		cur_i += direction.dr;
+		cur_j += direction.dc;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.rosty.maze.model.graph;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Graphe des passages d'un labyrinthe rangé sous forme compacte (<i>compressed
+ * sparse row</i>) : les arcs sortant du noeud <code>n</code> ont pour noeuds
+ * d'arrivée <code>targets[offsets[n]]</code> à
+ * <code>targets[offsets[n + 1] - 1]</code>.
+ * <p>
+ * Le graphe est construit une fois pour toutes (cf. {@link #of(Maze)}) et
+ * n'est pas tenu à jour lorsque le labyrinthe est modifié. Sans tableau de
+ * poids, tous les arcs ont pour longueur 1 ; sans tableau de cases, le noeud
+ * <code>n</code> est la case d'indice <code>n</code>.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class CsrGraph implements MazeGraph {
+	/** Position du premier arc de chaque noeud, suivie du nombre total d'arcs. */
+	private final int[] offsets;
+
+	/** Noeud d'arrivée de chaque arc. */
+	private final int[] targets;
+
+	/** Longueur de chaque arc, ou <code>null</code> si tous valent 1. */
+	private final int[] weights;
+
+	/** Case de chaque noeud, ou <code>null</code> si le noeud est la case. */
+	private final int[] cells;
+
+	/** Noeud de chaque case (-1 si aucun), ou <code>null</code> si la case est le noeud. */
+	private final int[] nodes;
+
+	/**
+	 * Constructeur de la classe {@link CsrGraph}.
+	 *
+	 * @param offsets Position du premier arc de chaque noeud, suivie du nombre
+	 *                total d'arcs.
+	 * @param targets Noeud d'arrivée de chaque arc.
+	 * @param weights Longueur de chaque arc, ou <code>null</code> si tous valent
+	 *                1.
+	 * @param cells   Case de chaque noeud, ou <code>null</code> si le noeud
+	 *                <code>n</code> est la case d'indice <code>n</code>.
+	 * @param nodes   Noeud de chaque case (-1 si aucun), ou <code>null</code> si
+	 *                <code>cells</code> l'est aussi.
+	 */
+	public CsrGraph(int[] offsets, int[] targets, int[] weights, int[] cells, int[] nodes) {
+		if (weights != null && weights.length != targets.length)
+			throw new IllegalArgumentException("One weight per edge expected");
+		if ((cells == null) != (nodes == null))
+			throw new IllegalArgumentException("Cell and node mappings go together");
+
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.cells = cells;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Construit le graphe des passages d'un labyrinthe, dont chaque case est un
+	 * noeud. Les arcs d'une case suivent l'ordre des constantes de {@link Side}.
+	 * <p>
+	 * Le support mémoire n'est lu qu'une fois, pour construire les masques des
+	 * côtés ouverts (cf. {@link Maze#openMask(int, int)}) s'ils ne le sont pas
+	 * déjà ; le graphe est ensuite déduit de ces masques en deux parcours
+	 * linéaires, sans tableau intermédiaire.
+	 * </p>
+	 *
+	 * @param maze Labyrinthe à convertir.
+	 * @throws IllegalStateException Si le nombre de cases dépasse la capacité
+	 *                               d'un tableau Java.
+	 */
+	public static CsrGraph of(Maze maze) {
+		int nbCol = maze.getNbColumns();
+		long size = maze.getNbCells();
+		if (size > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Maze too large for a graph: " + maze.getNbRows() + "x" + nbCol);
+
+		int n = (int) size;
+		int[] offsets = new int[n + 1];
+		for (int index = 0; index < n; index++)
+			offsets[index + 1] = offsets[index] + Integer.bitCount(maze.openMaskUnchecked(index));
+
+		int[] steps = new int[Side.COUNT];
+		for (Side side : Side.values())
+			steps[side.ordinal()] = side.dr * nbCol + side.dc;
+
+		int[] targets = new int[offsets[n]];
+		for (int index = 0, edge = 0; index < n; index++)
+			for (int mask = maze.openMaskUnchecked(index); mask != 0; mask &= mask - 1)
+				targets[edge++] = index + steps[Integer.numberOfTrailingZeros(mask)];
+
+		return new CsrGraph(offsets, targets, null, null, null);
+	}
+
+	@Override
+	public int getNbNodes() {
+		return offsets.length - 1;
+	}
+
+	@Override
+	public int getNbEdges() {
+		return targets.length;
+	}
+
+	@Override
+	public int firstEdge(int node) {
+		return offsets[node];
+	}
+
+	@Override
+	public int endEdge(int node) {
+		return offsets[node + 1];
+	}
+
+	@Override
+	public int target(int edge) {
+		return targets[edge];
+	}
+
+	@Override
+	public int weight(int edge) {
+		return (weights == null) ? 1 : weights[edge];
+	}
+
+	@Override
+	public int cellOf(int node) {
+		return (cells == null) ? node : cells[node];
+	}
+
+	@Override
+	public int nodeOf(int cell) {
+		if (nodes == null)
+			return (cell >= 0 && cell < getNbNodes()) ? cell : -1;
+		else
+			return (cell >= 0 && cell < nodes.length) ? nodes[cell] : -1;
+	}
+
+	/** Indique si les arcs du graphe ont des longueurs différentes de 1. */
+	public boolean isWeighted() {
+		return weights != null;
+	}
+}
@@ -0,0 +1,175 @@
+package com.rosty.maze.model.graph;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Graphe contracté d'un labyrinthe, dont les noeuds sont les carrefours et les
+ * impasses : chaque couloir (suite de cases à deux côtés ouverts) est remplacé
+ * par un arc dont la longueur est le nombre de pas nécessaires pour le
+ * traverser.
+ * <p>
+ * Les cases des couloirs sont conservées, une seule fois par couloir, et
+ * peuvent être relues dans le sens de parcours de chacun des deux arcs (cf.
+ * {@link #corridorCell(int, int)}) : un chemin trouvé dans le graphe contracté
+ * se développe ainsi en chemin de cases. Des cases supplémentaires, telles que
+ * le départ et l'arrivée d'une résolution, peuvent être imposées comme noeuds
+ * (cf. {@link #of(Maze, int...)}).
+ * </p>
+ * <p>
+ * Un circuit fermé de couloirs ne passant par aucun noeud n'est accessible
+ * depuis aucun noeud : ses cases ne figurent pas dans le graphe.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class JunctionGraph extends CsrGraph {
+	/**
+	 * Couloir emprunté par chaque arc : son numéro s'il est parcouru dans le sens
+	 * de sa construction, le complément binaire de ce numéro sinon.
+	 */
+	private final int[] edgeCorridors;
+
+	/** Position des cases de chaque couloir, suivie du nombre total de cases. */
+	private final int[] corridorOffsets;
+
+	/** Cases des couloirs, dans le sens de leur construction. */
+	private final int[] corridorCells;
+
+	/** Nombre de couloirs non vides. */
+	private final int nbCorridors;
+
+	private JunctionGraph(int[] offsets, int[] targets, int[] weights, int[] cells, int[] nodes, int[] edgeCorridors,
+			int[] corridorOffsets, int[] corridorCells, int nbCorridors) {
+		super(offsets, targets, weights, cells, nodes);
+		this.edgeCorridors = edgeCorridors;
+		this.corridorOffsets = corridorOffsets;
+		this.corridorCells = corridorCells;
+		this.nbCorridors = nbCorridors;
+	}
+
+	/**
+	 * Construit le graphe contracté d'un labyrinthe. Chaque couloir est parcouru
+	 * une seule fois ; la construction est linéaire en nombre de cases.
+	 *
+	 * @param maze   Labyrinthe à convertir.
+	 * @param pinned Indices de cases devant être des noeuds du graphe, même au
+	 *               milieu d'un couloir.
+	 * @throws IllegalStateException Si le nombre de cases dépasse la capacité
+	 *                               d'un tableau Java.
+	 */
+	public static JunctionGraph of(Maze maze, int... pinned) {
+		int nbCol = maze.getNbColumns();
+		long size = maze.getNbCells();
+		if (size > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Maze too large for a graph: " + maze.getNbRows() + "x" + nbCol);
+
+		int n = (int) size;
+		int[] steps = new int[Side.COUNT];
+		for (Side side : Side.values())
+			steps[side.ordinal()] = side.dr * nbCol + side.dc;
+
+		/* Etape 1 : repérage des noeuds (1) et des cases de couloir (0). */
+		int[] nodes = new int[n];
+		int nbNodes = 0;
+		for (int index = 0; index < n; index++) {
+			if (Integer.bitCount(maze.openMaskUnchecked(index)) != 2) {
+				nodes[index] = 1;
+				nbNodes++;
+			}
+		}
+
+		for (int cell : pinned) {
+			if (cell >= 0 && cell < n && nodes[cell] == 0) {
+				nodes[cell] = 1;
+				nbNodes++;
+			}
+		}
+
+		/* Etape 2 : numérotation des noeuds ; les cases de couloir valent -1. */
+		int[] cells = new int[nbNodes];
+		int[] offsets = new int[nbNodes + 1];
+		for (int index = 0, node = 0; index < n; index++) {
+			if (nodes[index] == 1) {
+				cells[node] = index;
+				offsets[node + 1] = offsets[node] + Integer.bitCount(maze.openMaskUnchecked(index));
+				nodes[index] = node++;
+			} else
+				nodes[index] = -1;
+		}
+
+		/*
+		 * Etape 3 : parcours des couloirs depuis chaque côté ouvert de chaque noeud.
+		 * Les cases d'un couloir déjà parcouru depuis son autre extrémité portent la
+		 * valeur -2 - numéro du couloir.
+		 */
+		int nbEdges = offsets[nbNodes];
+		int[] targets = new int[nbEdges], weights = new int[nbEdges], edgeCorridors = new int[nbEdges];
+		int[] corridorOffsets = new int[nbEdges / 2 + 1], corridorSources = new int[nbEdges / 2];
+		int[] corridorCells = new int[n - nbNodes];
+		int nbCorridors = 0, fill = 0;
+
+		for (int node = 0, edge = 0; node < nbNodes; node++) {
+			for (int mask = maze.openMaskUnchecked(cells[node]); mask != 0; mask &= mask - 1, edge++) {
+				int side = Integer.numberOfTrailingZeros(mask);
+				int cur = cells[node] + steps[side];
+
+				if (nodes[cur] >= 0) { // Noeuds adjacents
+					targets[edge] = nodes[cur];
+					weights[edge] = 1;
+				} else if (nodes[cur] < -1) { // Couloir parcouru à l'envers
+					int id = -2 - nodes[cur];
+					targets[edge] = corridorSources[id];
+					weights[edge] = corridorOffsets[id + 1] - corridorOffsets[id] + 1;
+					edgeCorridors[edge] = ~id;
+				} else { // Nouveau couloir
+					int id = nbCorridors++;
+					corridorSources[id] = node;
+					corridorOffsets[id] = fill;
+					while (nodes[cur] < 0) {
+						corridorCells[fill++] = cur;
+						nodes[cur] = -2 - id;
+
+						// Le couloir continue par le seul côté ouvert autre que celui d'entrée.
+						side = Integer.numberOfTrailingZeros(
+								maze.openMaskUnchecked(cur) & ~(1 << Side.of(side).opposite().ordinal()));
+						cur += steps[side];
+					}
+
+					corridorOffsets[id + 1] = fill;
+					targets[edge] = nodes[cur];
+					weights[edge] = fill - corridorOffsets[id] + 1;
+					edgeCorridors[edge] = id;
+				}
+			}
+		}
+
+		for (int index = 0; index < n; index++)
+			if (nodes[index] < -1)
+				nodes[index] = -1;
+
+		return new JunctionGraph(offsets, targets, weights, cells, nodes, edgeCorridors, corridorOffsets,
+				corridorCells, nbCorridors);
+	}
+
+	/** Indique le nombre de couloirs, c'est-à-dire d'arcs non réduits à un pas. */
+	public int getNbCorridors() {
+		return nbCorridors;
+	}
+
+	/**
+	 * Fournit la case d'un couloir, dans le sens de parcours de l'arc spécifié.
+	 *
+	 * @param edge Numéro de l'arc.
+	 * @param k    Rang de la case dans le couloir, compris entre 0 et
+	 *             <code>weight(edge) - 1</code> exclu.
+	 */
+	public int corridorCell(int edge, int k) {
+		int id = edgeCorridors[edge];
+		if (id >= 0)
+			return corridorCells[corridorOffsets[id] + k];
+		else
+			return corridorCells[corridorOffsets[~id + 1] - 1 - k];
+	}
+}
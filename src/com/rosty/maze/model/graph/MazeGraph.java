@@ -0,0 +1,51 @@
+package com.rosty.maze.model.graph;
+
+/**
+ * Interface définissant le graphe des passages d'un labyrinthe : les noeuds
+ * sont des cases, et deux noeuds sont reliés par un arc lorsque l'on peut aller
+ * de l'un à l'autre.
+ * <p>
+ * Les noeuds sont numérotés de 0 à {@link #getNbNodes()} exclu, et les arcs
+ * sortant d'un noeud occupent les numéros compris entre {@link #firstEdge(int)}
+ * (inclus) et {@link #endEdge(int)} (exclu). Un algorithme parcourant cette
+ * interface ignore la forme du terrain : une topologie non rectangulaire n'a
+ * qu'à fournir sa propre implémentation.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ * @see CsrGraph
+ */
+public interface MazeGraph {
+	/** Indique le nombre de noeuds du graphe. */
+	int getNbNodes();
+
+	/** Indique le nombre d'arcs du graphe ; chaque passage compte deux arcs. */
+	int getNbEdges();
+
+	/** Fournit le numéro du premier arc sortant du noeud spécifié. */
+	int firstEdge(int node);
+
+	/** Fournit le numéro suivant le dernier arc sortant du noeud spécifié. */
+	int endEdge(int node);
+
+	/** Fournit le noeud d'arrivée de l'arc spécifié. */
+	int target(int edge);
+
+	/** Fournit la longueur de l'arc spécifié, en nombre de pas. */
+	int weight(int edge);
+
+	/** Fournit l'indice dans le labyrinthe de la case du noeud spécifié. */
+	int cellOf(int node);
+
+	/**
+	 * Fournit le noeud de la case d'indice spécifié, où <b>-1</b> si cette case
+	 * n'est pas un noeud du graphe.
+	 */
+	int nodeOf(int cell);
+
+	/** Indique le nombre d'arcs sortant du noeud spécifié. */
+	default int degree(int node) {
+		return endEdge(node) - firstEdge(node);
+	}
+}
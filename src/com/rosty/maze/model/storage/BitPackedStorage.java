@@ -0,0 +1,229 @@
+package com.rosty.maze.model.storage;
+
+import java.util.Arrays;
+
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Support mémoire compact d'un labyrinthe : chaque mur n'occupe qu'un seul bit.
+ * <p>
+ * Les murs horizontaux et verticaux sont rangés dans deux tableaux de bits
+ * (<code>long[]</code>) et les valeurs des cases dans un {@link CellPlane},
+ * tous parcourus ligne par ligne. Chaque case possède le bit de
+ * son mur du bas et celui de son mur de droite ; les murs du haut et de gauche
+ * sont lus chez la case voisine. Un mur est présent si son bit vaut 1 ; toute
+ * valeur non nulle passée à {@link #setWall(int, int, Side, int)} est donc
+ * enregistrée comme <b>1</b>.
+ * </p>
+ * <p>
+ * Par rapport à {@link FlatStorage}, l'empreinte des murs est divisée par 32,
+ * ce qui améliore la localité des accès sur les grandes grilles.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class BitPackedStorage implements MazeStorage {
+	/** Generated by Java */
+	private static final long serialVersionUID = -1467023329816455420L;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private final int nbRow, nbCol;
+
+	/** Valeurs des cases, rangées ligne par ligne. */
+	private final CellPlane cells;
+
+	/** Bits des murs horizontaux (mur du bas de chaque case). */
+	private final long[] hWalls;
+
+	/** Bits des murs verticaux (mur de droite de chaque case). */
+	private final long[] vWalls;
+
+	/**
+	 * Constructeur de la classe {@link BitPackedStorage}, dont les cases sont
+	 * codées sur 32 bits.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @throws IllegalArgumentException Si le nombre de cases dépasse la taille
+	 *                                  maximale d'un tableau Java.
+	 */
+	public BitPackedStorage(int nbRow, int nbCol) {
+		this(nbRow, nbCol, CellPlane.Width.INT);
+	}
+
+	/**
+	 * Constructeur de la classe {@link BitPackedStorage}.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @param width Largeur initiale des valeurs des cases.
+	 * @throws IllegalArgumentException Si le nombre de cases dépasse la taille
+	 *                                  maximale d'un tableau Java.
+	 */
+	public BitPackedStorage(int nbRow, int nbCol, CellPlane.Width width) {
+		long size = (long) nbRow * nbCol;
+		if (size > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Maze too large for a heap storage: " + nbRow + "x" + nbCol);
+
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+
+		cells = new CellPlane((int) size, width);
+		hWalls = new long[(int) ((size + 63) >>> 6)];
+		vWalls = new long[hWalls.length];
+		clear();
+	}
+
+	/**
+	 * Constructeur par copie de la classe {@link BitPackedStorage}.
+	 *
+	 * @param old Support d'origine.
+	 */
+	private BitPackedStorage(BitPackedStorage old) {
+		this.nbRow = old.nbRow;
+		this.nbCol = old.nbCol;
+
+		cells = new CellPlane(old.cells);
+		hWalls = old.hWalls.clone();
+		vWalls = old.vWalls.clone();
+	}
+
+	@Override
+	public int getNbRows() {
+		return nbRow;
+	}
+
+	@Override
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	@Override
+	public int getCell(int row, int col) {
+		return cells.get(row * nbCol + col);
+	}
+
+	@Override
+	public void setCell(int row, int col, int value) {
+		cells.set(row * nbCol + col, value);
+	}
+
+	@Override
+	public int getWall(int row, int col, Side side) {
+		return getWall(row * nbCol + col, side);
+	}
+
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		setWall(row * nbCol + col, side, value);
+	}
+
+	@Override
+	public int getCell(int index) {
+		return cells.get(index);
+	}
+
+	@Override
+	public void setCell(int index, int value) {
+		cells.set(index, value);
+	}
+
+	@Override
+	public int getWall(int index, Side side) {
+		switch (side) {
+			case UP:
+				return (index < nbCol) ? 1 : bit(hWalls, index - nbCol);
+			case DOWN:
+				return bit(hWalls, index);
+			case LEFT:
+				// Le mur de droite de la case précédente est une bordure en début de ligne.
+				return (index == 0) ? 1 : bit(vWalls, index - 1);
+			case RIGHT:
+				return bit(vWalls, index);
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void setWall(int index, Side side, int value) {
+		switch (side) {
+			case UP:
+				setBit(hWalls, index - nbCol, value != 0);
+				break;
+			case DOWN:
+				setBit(hWalls, index, value != 0);
+				break;
+			case LEFT:
+				setBit(vWalls, index - 1, value != 0);
+				break;
+			case RIGHT:
+				setBit(vWalls, index, value != 0);
+				break;
+		}
+	}
+
+	@Override
+	public void fillCells(int row, int col0, int col1, int value) {
+		cells.fill(row * nbCol + col0, row * nbCol + col1, value);
+	}
+
+	@Override
+	public void fillWalls(int row, int col0, int col1, Side side, int value) {
+		fillBits((side == Side.RIGHT) ? vWalls : hWalls, row * nbCol + col0, row * nbCol + col1, value != 0);
+	}
+
+	@Override
+	public void clear() {
+		cells.clear();
+		// Tous les murs sont présents, y compris ceux des bordures du bas et de droite.
+		Arrays.fill(hWalls, -1L);
+		Arrays.fill(vWalls, -1L);
+	}
+
+	@Override
+	public MazeStorage copy() {
+		return new BitPackedStorage(this);
+	}
+
+	/** Lit le bit d'indice spécifié dans un tableau de bits. */
+	private static int bit(long[] bits, int index) {
+		return (int) (bits[index >>> 6] >>> index) & 1;
+	}
+
+	/**
+	 * Ecrit les bits d'indices compris entre <code>from</code> (inclus) et
+	 * <code>to</code> (exclu), un entier <code>long</code> à la fois.
+	 */
+	private static void fillBits(long[] bits, int from, int to, boolean value) {
+		if (from >= to)
+			return;
+
+		int first = from >>> 6, last = (to - 1) >>> 6;
+		long firstMask = -1L << from, lastMask = -1L >>> -to; // Décalages modulo 64
+		if (first == last) {
+			setBits(bits, first, firstMask & lastMask, value);
+		} else {
+			setBits(bits, first, firstMask, value);
+			Arrays.fill(bits, first + 1, last, value ? -1L : 0L);
+			setBits(bits, last, lastMask, value);
+		}
+	}
+
+	/** Lève ou baisse les bits d'un entier du tableau sélectionnés par un masque. */
+	private static void setBits(long[] bits, int word, long mask, boolean value) {
+		if (value)
+			bits[word] |= mask;
+		else
+			bits[word] &= ~mask;
+	}
+
+	/** Ecrit le bit d'indice spécifié dans un tableau de bits. */
+	private static void setBit(long[] bits, int index, boolean value) {
+		if (value)
+			bits[index >>> 6] |= 1L << index;
+		else
+			bits[index >>> 6] &= ~(1L << index);
+	}
+}
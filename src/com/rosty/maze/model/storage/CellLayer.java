@@ -0,0 +1,135 @@
+package com.rosty.maze.model.storage;
+
+import java.util.Arrays;
+
+/**
+ * Couche de valeurs des cases d'un labyrinthe, indépendante des valeurs
+ * enregistrées par l'algorithme de génération (cf.
+ * {@link com.rosty.maze.model.Maze#createLayer(String)}).
+ * <p>
+ * Chaque case mémorise, en plus de sa valeur, l'<i>époque</i> à laquelle elle a
+ * été écrite pour la dernière fois. Une case écrite lors d'une époque
+ * antérieure vaut la valeur par défaut de la couche : l'effacement de la couche
+ * se limite donc à changer d'époque, en temps constant, quelle que soit la
+ * taille du labyrinthe. Les tableaux ne sont réellement remis à zéro que
+ * lorsque le compteur d'époques fait le tour des entiers.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class CellLayer {
+	/** Nom de la couche. */
+	private final String name;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private final int nbRow, nbCol;
+
+	/** Valeurs des cases, rangées ligne par ligne. */
+	private final int[] values;
+
+	/** Epoque de la dernière écriture de chaque case. */
+	private final int[] stamps;
+
+	/** Epoque courante ; les cases d'une époque antérieure sont vierges. */
+	private int epoch = 1;
+
+	/** Valeur des cases vierges. */
+	private int defaultValue = 0;
+
+	/**
+	 * Constructeur de la classe {@link CellLayer}. Toutes les cases valent 0.
+	 *
+	 * @param name  Nom de la couche.
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 */
+	public CellLayer(String name, int nbRow, int nbCol) {
+		this.name = name;
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+
+		values = new int[nbRow * nbCol];
+		stamps = new int[nbRow * nbCol];
+	}
+
+	/** Indique le nom de la couche. */
+	public String getName() {
+		return name;
+	}
+
+	/** Indique l'époque courante de la couche. */
+	public int getEpoch() {
+		return epoch;
+	}
+
+	/** Indique la valeur des cases vierges. */
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Fournit la valeur de la case d'indice <code>row * nbCol + col</code>.
+	 *
+	 * @param index Indice de la case.
+	 */
+	public int get(int index) {
+		return (stamps[index] == epoch) ? values[index] : defaultValue;
+	}
+
+	/**
+	 * Définit la valeur de la case d'indice <code>row * nbCol + col</code>.
+	 *
+	 * @param index Indice de la case.
+	 * @param value Valeur de la case.
+	 */
+	public void set(int index, int value) {
+		values[index] = value;
+		stamps[index] = epoch;
+	}
+
+	/**
+	 * Fournit la valeur de la case à la ligne et à la colonne indiquée, où
+	 * <b>-1</b> si cette case n'est pas présente sur le terrain.
+	 *
+	 * @param row Numéro de ligne.
+	 * @param col Numéro de colonne.
+	 */
+	public int get(int row, int col) {
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol)
+			return get(row * nbCol + col);
+		else
+			return -1;
+	}
+
+	/**
+	 * Définit la valeur de la case à la ligne et à la colonne indiquée ; rien ne se
+	 * passe si cette case n'est pas présente sur le terrain.
+	 *
+	 * @param row   Numéro de ligne.
+	 * @param col   Numéro de colonne.
+	 * @param value Valeur de la case.
+	 */
+	public void set(int row, int col, int value) {
+		if (row >= 0 && row < nbRow && col >= 0 && col < nbCol)
+			set(row * nbCol + col, value);
+	}
+
+	/** Remet toutes les cases à 0, en temps constant. */
+	public void clear() {
+		clear(0);
+	}
+
+	/**
+	 * Attribue la même valeur à toutes les cases, en temps constant.
+	 *
+	 * @param value Nouvelle valeur de toutes les cases.
+	 */
+	public void clear(int value) {
+		defaultValue = value;
+		if (++epoch == 0) { // Le compteur a fait le tour : les anciennes époques reviendraient.
+			Arrays.fill(stamps, 0);
+			epoch = 1;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.rosty.maze.model.storage;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Tableau des valeurs des cases d'un labyrinthe, dont les éléments sont codés
+ * sur 8, 16 ou 32 bits.
+ * <p>
+ * La plupart des algorithmes ne rangent dans les cases que de petits marqueurs
+ * (0, 1, 2...) ; seuls les algorithmes de résolution fondés sur des distances
+ * ont besoin d'entiers complets. Le tableau est créé avec une largeur initiale
+ * ({@link Width}) et il est automatiquement élargi à la première valeur qui ne
+ * peut pas y être codée. L'effacement du tableau le ramène à sa largeur
+ * initiale.
+ * </p>
+ * <p>
+ * L'élargissement recopie le tableau : il ne doit pas avoir lieu pendant des
+ * écritures concurrentes.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class CellPlane implements Serializable {
+	/** Generated by Java */
+	private static final long serialVersionUID = -5183406630170416273L;
+
+	/**
+	 * Enumération des largeurs possibles des éléments d'un tableau de cases.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	public enum Width {
+		/** Valeurs comprises entre -128 et 127. */
+		BYTE,
+
+		/** Valeurs comprises entre -32768 et 32767. */
+		SHORT,
+
+		/** Toutes les valeurs entières. */
+		INT;
+
+		/** Indique si la valeur spécifiée peut être codée avec cette largeur. */
+		public boolean fits(int value) {
+			switch (this) {
+				case BYTE:
+					return value == (byte) value;
+				case SHORT:
+					return value == (short) value;
+				default:
+					return true;
+			}
+		}
+	}
+
+	/** Largeur initiale des éléments du tableau. */
+	private final Width initialWidth;
+
+	/** Largeur actuelle des éléments du tableau. */
+	private Width width;
+
+	/** Valeurs des cases ; seul le tableau de la largeur actuelle est alloué. */
+	private byte[] bytes;
+	private short[] shorts;
+	private int[] ints;
+
+	/** Nombre de cases. */
+	private final int length;
+
+	/**
+	 * Constructeur de la classe {@link CellPlane}. Toutes les cases valent 0.
+	 *
+	 * @param length Nombre de cases.
+	 * @param width  Largeur initiale des éléments.
+	 */
+	public CellPlane(int length, Width width) {
+		this.length = length;
+		this.initialWidth = width;
+		allocate(width);
+	}
+
+	/**
+	 * Constructeur par copie de la classe {@link CellPlane}.
+	 *
+	 * @param old Tableau d'origine.
+	 */
+	public CellPlane(CellPlane old) {
+		this.length = old.length;
+		this.initialWidth = old.initialWidth;
+		this.width = old.width;
+
+		bytes = (old.bytes == null) ? null : old.bytes.clone();
+		shorts = (old.shorts == null) ? null : old.shorts.clone();
+		ints = (old.ints == null) ? null : old.ints.clone();
+	}
+
+	/** Indique la largeur actuelle des éléments du tableau. */
+	public Width getWidth() {
+		return width;
+	}
+
+	/** Indique le nombre de cases. */
+	public int length() {
+		return length;
+	}
+
+	/** Fournit la valeur de la case d'indice spécifié. */
+	public int get(int index) {
+		if (ints != null)
+			return ints[index];
+		else if (shorts != null)
+			return shorts[index];
+		else
+			return bytes[index];
+	}
+
+	/**
+	 * Définit la valeur de la case d'indice spécifié, en élargissant le tableau si
+	 * cette valeur ne peut pas y être codée.
+	 */
+	public void set(int index, int value) {
+		if (ints != null)
+			ints[index] = value;
+		else if (shorts != null && value == (short) value)
+			shorts[index] = (short) value;
+		else if (bytes != null && value == (byte) value)
+			bytes[index] = (byte) value;
+		else {
+			widen(Width.SHORT.fits(value) ? Width.SHORT : Width.INT);
+			set(index, value);
+		}
+	}
+
+	/**
+	 * Attribue la même valeur aux cases d'indices compris entre <code>from</code>
+	 * (inclus) et <code>to</code> (exclu).
+	 */
+	public void fill(int from, int to, int value) {
+		if (!width.fits(value))
+			widen(Width.SHORT.fits(value) ? Width.SHORT : Width.INT);
+
+		if (ints != null)
+			Arrays.fill(ints, from, to, value);
+		else if (shorts != null)
+			Arrays.fill(shorts, from, to, (short) value);
+		else
+			Arrays.fill(bytes, from, to, (byte) value);
+	}
+
+	/** Remet toutes les cases à 0 et ramène le tableau à sa largeur initiale. */
+	public void clear() {
+		if (width == initialWidth)
+			fill(0, length, 0);
+		else
+			allocate(initialWidth);
+	}
+
+	/** Alloue un tableau vierge de la largeur spécifiée. */
+	private void allocate(Width width) {
+		this.width = width;
+		bytes = (width == Width.BYTE) ? new byte[length] : null;
+		shorts = (width == Width.SHORT) ? new short[length] : null;
+		ints = (width == Width.INT) ? new int[length] : null;
+	}
+
+	/** Recopie les valeurs des cases dans un tableau plus large. */
+	private void widen(Width target) {
+		if (target == Width.INT) {
+			int[] wide = new int[length];
+			for (int k = 0; k < length; k++)
+				wide[k] = get(k);
+
+			ints = wide;
+		} else {
+			short[] wide = new short[length];
+			for (int k = 0; k < length; k++)
+				wide[k] = bytes[k];
+
+			shorts = wide;
+		}
+
+		bytes = null;
+		if (target == Width.INT)
+			shorts = null;
+
+		width = target;
+	}
+}
@@ -0,0 +1,195 @@
+package com.rosty.maze.model.storage;
+
+import java.util.Arrays;
+
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Support mémoire par défaut d'un labyrinthe : les valeurs des murs
+ * horizontaux et des murs verticaux sont rangées dans un unique tableau
+ * d'entiers, en deux plans consécutifs parcourus ligne par ligne et indexés par
+ * le numéro de case <code>row * nbCol + col</code>. Les valeurs des cases sont
+ * rangées dans le même ordre dans un {@link CellPlane}, dont la largeur est
+ * choisie à la création du support.
+ * <p>
+ * Chaque case possède son mur du bas et son mur de droite ; les murs du haut et
+ * de gauche sont lus chez la case voisine. Les murs de droite de la dernière
+ * colonne et les murs du bas de la dernière ligne sont des bordures, toujours à
+ * <b>1</b> : le mur de gauche d'une case de la première colonne est donc lu,
+ * sans test, chez la dernière case de la ligne précédente.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class FlatStorage implements MazeStorage {
+	/** Generated by Java */
+	private static final long serialVersionUID = 3207958561385040176L;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private final int nbRow, nbCol;
+
+	/** Valeurs des cases, rangées ligne par ligne. */
+	private final CellPlane cells;
+
+	/**
+	 * Valeurs des murs : les murs du bas dans <code>[0, n[</code> et les murs de
+	 * droite dans <code>[n, 2n[</code>, où <code>n</code> est le nombre de cases.
+	 */
+	private final int[] data;
+
+	/** Position du plan des murs verticaux dans le tableau. */
+	private final int vWalls;
+
+	/**
+	 * Constructeur de la classe {@link FlatStorage}, dont les cases sont codées sur
+	 * 32 bits.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @throws IllegalArgumentException Si le nombre de cases dépasse la taille
+	 *                                  maximale d'un tableau Java.
+	 */
+	public FlatStorage(int nbRow, int nbCol) {
+		this(nbRow, nbCol, CellPlane.Width.INT);
+	}
+
+	/**
+	 * Constructeur de la classe {@link FlatStorage}.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @param width Largeur initiale des valeurs des cases.
+	 * @throws IllegalArgumentException Si le nombre de cases dépasse la taille
+	 *                                  maximale d'un tableau Java.
+	 */
+	public FlatStorage(int nbRow, int nbCol, CellPlane.Width width) {
+		long size = (long) nbRow * nbCol;
+		if (2 * size > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Maze too large for a heap storage: " + nbRow + "x" + nbCol);
+
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+
+		cells = new CellPlane((int) size, width);
+		vWalls = (int) size;
+		data = new int[2 * vWalls];
+		clear();
+	}
+
+	/**
+	 * Constructeur par copie de la classe {@link FlatStorage}.
+	 *
+	 * @param old Support d'origine.
+	 */
+	private FlatStorage(FlatStorage old) {
+		this.nbRow = old.nbRow;
+		this.nbCol = old.nbCol;
+
+		cells = new CellPlane(old.cells);
+		vWalls = old.vWalls;
+		data = old.data.clone();
+	}
+
+	@Override
+	public int getNbRows() {
+		return nbRow;
+	}
+
+	@Override
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	@Override
+	public int getCell(int row, int col) {
+		return cells.get(row * nbCol + col);
+	}
+
+	@Override
+	public void setCell(int row, int col, int value) {
+		cells.set(row * nbCol + col, value);
+	}
+
+	@Override
+	public int getWall(int row, int col, Side side) {
+		return getWall(row * nbCol + col, side);
+	}
+
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		setWall(row * nbCol + col, side, value);
+	}
+
+	@Override
+	public int getCell(int index) {
+		return cells.get(index);
+	}
+
+	@Override
+	public void setCell(int index, int value) {
+		cells.set(index, value);
+	}
+
+	@Override
+	public int getWall(int index, Side side) {
+		switch (side) {
+			case UP:
+				return (index < nbCol) ? 1 : data[index - nbCol];
+			case DOWN:
+				return data[index];
+			case LEFT:
+				return (index == 0) ? 1 : data[vWalls + index - 1];
+			case RIGHT:
+				return data[vWalls + index];
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void setWall(int index, Side side, int value) {
+		switch (side) {
+			case UP:
+				data[index - nbCol] = value;
+				break;
+			case DOWN:
+				data[index] = value;
+				break;
+			case LEFT:
+				data[vWalls + index - 1] = value;
+				break;
+			case RIGHT:
+				data[vWalls + index] = value;
+				break;
+		}
+	}
+
+	@Override
+	public void fillCells(int row, int col0, int col1, int value) {
+		cells.fill(row * nbCol + col0, row * nbCol + col1, value);
+	}
+
+	@Override
+	public void fillWalls(int row, int col0, int col1, Side side, int value) {
+		int offset = (side == Side.RIGHT) ? vWalls : 0;
+		Arrays.fill(data, offset + row * nbCol + col0, offset + row * nbCol + col1, value);
+	}
+
+	/** Chaque mur occupe son propre entier. */
+	@Override
+	public boolean supportsConcurrentWalls() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		cells.clear();
+		Arrays.fill(data, 1);
+	}
+
+	@Override
+	public MazeStorage copy() {
+		return new FlatStorage(this);
+	}
+}
@@ -0,0 +1,472 @@
+package com.rosty.maze.model.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Support mémoire d'un labyrinthe projeté en mémoire depuis un fichier, pour les
+ * grilles dépassant la taille du tas Java (plusieurs milliards de cases).
+ * <p>
+ * Le fichier débute par un en-tête de {@value #HEADER_SIZE} octets (signature,
+ * version, nombre de lignes et de colonnes), suivi d'un enregistrement de
+ * {@value #RECORD_SIZE} octets par case, rangé ligne par ligne : la valeur de
+ * la case sur 4 octets, puis son mur du bas et son mur de droite sur un octet
+ * chacun. Les cases sont adressées par un indice <code>long</code> et le
+ * fichier est projeté par segments de {@value #SEGMENT_RECORDS} cases, chaque
+ * segment étant un {@link MappedByteBuffer} distinct.
+ * </p>
+ * <p>
+ * Deux écritures concurrentes sur des cases ou des murs distincts ne partagent
+ * jamais un octet. Les méthodes par indice de {@link MazeStorage} ne couvrent
+ * que les <code>2<sup>31</sup></code> premières cases ; au-delà, les accès se
+ * font par ligne et colonne.
+ * </p>
+ * <p>
+ * La sérialisation d'un tel support ne conserve que le chemin de son fichier ;
+ * celui-ci est rouvert à la désérialisation.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class MappedStorage implements MazeStorage, Closeable {
+	/** Generated by Java */
+	private static final long serialVersionUID = -3318262006446329187L;
+
+	/** Signature du fichier ("MAZE"). */
+	private static final int MAGIC = 0x4D415A45;
+
+	/** Version du format de fichier. */
+	private static final int VERSION = 1;
+
+	/** Taille de l'en-tête du fichier, en octets. */
+	public static final int HEADER_SIZE = 16;
+
+	/** Taille de l'enregistrement d'une case, en octets. */
+	public static final int RECORD_SIZE = 6;
+
+	/** Décalage binaire donnant le nombre de cases par segment. */
+	private static final int SEGMENT_SHIFT = 26;
+
+	/** Nombre de cases par segment projeté. */
+	public static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+
+	/** Masque donnant la position d'une case dans son segment. */
+	private static final long SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+	/** Nombre de cases écrites d'un bloc lors de l'initialisation. */
+	private static final int FILL_RECORDS = 4096;
+
+	/** Chemin du fichier support. */
+	private final String path;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private int nbRow, nbCol;
+
+	/** Canal d'accès au fichier support. */
+	private transient FileChannel channel;
+
+	/** Segments projetés du fichier. */
+	private transient MappedByteBuffer[] segments;
+
+	/** Indique si le fichier support est temporaire, supprimé à la fermeture. */
+	private transient boolean temporary;
+
+	/**
+	 * Constructeur de la classe {@link MappedStorage}.
+	 *
+	 * @param path    Chemin du fichier support.
+	 * @param channel Canal d'accès au fichier, déjà ouvert en lecture-écriture.
+	 * @param nbRow   Nombre de lignes du terrain.
+	 * @param nbCol   Nombre de colonnes du terrain.
+	 */
+	private MappedStorage(Path path, FileChannel channel, int nbRow, int nbCol) throws IOException {
+		this.path = path.toAbsolutePath().toString();
+		this.channel = channel;
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+		map();
+	}
+
+	/**
+	 * Crée un labyrinthe dans un nouveau fichier ; un fichier existant au même
+	 * emplacement est écrasé. Toutes les cases valent 0 et tous les murs sont
+	 * présents.
+	 *
+	 * @param path  Chemin du fichier support.
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @throws IOException Si le fichier ne peut pas être créé.
+	 */
+	public static MappedStorage create(Path path, int nbRow, int nbCol) throws IOException {
+		if (nbRow <= 0 || nbCol <= 0)
+			throw new IllegalArgumentException("Invalid maze size: " + nbRow + "x" + nbCol);
+
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			writeHeader(channel, nbRow, nbCol);
+			MappedStorage storage = new MappedStorage(path, channel, nbRow, nbCol);
+			storage.clear();
+
+			return storage;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Crée un labyrinthe dans un fichier temporaire, supprimé à la fermeture du
+	 * support (cf. {@link #close()}) ou, à défaut, à l'arrêt de l'application.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 * @throws IOException Si le fichier ne peut pas être créé.
+	 */
+	public static MappedStorage createTemporary(int nbRow, int nbCol) throws IOException {
+		Path file = createTempFile();
+		try {
+			MappedStorage storage = create(file, nbRow, nbCol);
+			storage.temporary = true;
+
+			return storage;
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	/**
+	 * Ouvre un labyrinthe enregistré dans un fichier.
+	 *
+	 * @param path Chemin du fichier support.
+	 * @throws IOException Si le fichier est illisible ou n'est pas un labyrinthe.
+	 */
+	public static MappedStorage open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0)
+				;
+
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION)
+				throw new IOException("Not a maze file: " + path);
+
+			int nbRow = header.getInt(), nbCol = header.getInt();
+			if (channel.size() < HEADER_SIZE + (long) nbRow * nbCol * RECORD_SIZE)
+				throw new IOException("Truncated maze file: " + path);
+
+			return new MappedStorage(path, channel, nbRow, nbCol);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/** Fournit le chemin du fichier support. */
+	public Path getPath() {
+		return Paths.get(path);
+	}
+
+	@Override
+	public int getNbRows() {
+		return nbRow;
+	}
+
+	@Override
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	/** Indique le nombre de cases du labyrinthe. */
+	public long getNbCells() {
+		return (long) nbRow * nbCol;
+	}
+
+	/**
+	 * Ajoute des lignes au bas du labyrinthe. Les nouvelles cases valent 0 et leurs
+	 * murs sont présents. Une instance de {@link Maze} construite sur ce support
+	 * doit être recréée pour prendre en compte la nouvelle taille.
+	 *
+	 * @param rows Nombre de lignes à ajouter.
+	 * @throws IOException Si le fichier ne peut pas être agrandi.
+	 */
+	public void grow(int rows) throws IOException {
+		if (rows < 0 || (long) nbRow + rows > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid number of rows: " + rows);
+
+		long from = getNbCells();
+		nbRow += rows;
+		writeHeader(channel, nbRow, nbCol);
+		map();
+
+		// Le mur du bas de l'ancienne dernière ligne valait déjà 1 (bordure).
+		fill(from, getNbCells());
+	}
+
+	/**
+	 * Force l'écriture sur disque des modifications apportées au labyrinthe.
+	 */
+	public void flush() {
+		for (MappedByteBuffer segment : segments)
+			segment.force();
+	}
+
+	/**
+	 * Enregistre les modifications et ferme le fichier support, ou le supprime
+	 * s'il est temporaire (cf. {@link #copy()}). Le support n'est plus utilisable
+	 * par la suite.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			if (!temporary)
+				flush();
+
+			channel.close();
+			channel = null;
+			segments = new MappedByteBuffer[0];
+
+			// Tant que ses projections n'ont pas été libérées par le ramasse-miettes, le
+			// fichier peut rester verrouillé (Windows) : il est alors supprimé à l'arrêt.
+			if (temporary)
+				getPath().toFile().delete();
+		}
+	}
+
+	@Override
+	public int getCell(int row, int col) {
+		return getValue((long) row * nbCol + col);
+	}
+
+	@Override
+	public void setCell(int row, int col, int value) {
+		setValue((long) row * nbCol + col, value);
+	}
+
+	@Override
+	public int getWall(int row, int col, Side side) {
+		long index = (long) row * nbCol + col;
+		switch (side) {
+			case UP:
+				return (row == 0) ? 1 : getDown(index - nbCol);
+			case DOWN:
+				return getDown(index);
+			case LEFT:
+				return (col == 0) ? 1 : getRight(index - 1);
+			case RIGHT:
+				return getRight(index);
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		setWall((long) row * nbCol + col, side, value);
+	}
+
+	@Override
+	public int getCell(int index) {
+		return getValue(index);
+	}
+
+	@Override
+	public void setCell(int index, int value) {
+		setValue(index, value);
+	}
+
+	@Override
+	public int getWall(int index, Side side) {
+		switch (side) {
+			case UP:
+				return (index < nbCol) ? 1 : getDown(index - nbCol);
+			case DOWN:
+				return getDown(index);
+			case LEFT:
+				// Le mur de droite de la case précédente est une bordure en début de ligne.
+				return (index == 0) ? 1 : getRight(index - 1);
+			case RIGHT:
+				return getRight(index);
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void setWall(int index, Side side, int value) {
+		setWall((long) index, side, value);
+	}
+
+	/** Chaque mur occupe son propre octet dans l'enregistrement de sa case. */
+	@Override
+	public boolean supportsConcurrentWalls() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		fill(0, getNbCells());
+	}
+
+	/**
+	 * Fournit une copie indépendante du support, enregistrée dans un fichier
+	 * temporaire. La copie possède son propre canal d'accès : sa fermeture (cf.
+	 * {@link #close()}) le libère et supprime le fichier, supprimé sinon à l'arrêt
+	 * de l'application.
+	 */
+	@Override
+	public MazeStorage copy() {
+		Path target = null;
+		try {
+			flush();
+			target = createTempFile();
+
+			try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+				long size = channel.size();
+				for (long pos = 0; pos < size;)
+					pos += channel.transferTo(pos, size - pos, out);
+			}
+
+			MappedStorage copy = open(target);
+			copy.temporary = true;
+
+			return copy;
+		} catch (IOException e) {
+			if (target != null)
+				target.toFile().delete();
+
+			throw new IllegalStateException("Unable to copy maze file " + path, e);
+		}
+	}
+
+	/** Crée un fichier temporaire, supprimé au plus tard à l'arrêt de l'application. */
+	private static Path createTempFile() throws IOException {
+		Path file = Files.createTempFile("maze", ".map");
+		file.toFile().deleteOnExit();
+
+		return file;
+	}
+
+	/** Rouvre le fichier support lors de la désérialisation. */
+	private Object readResolve() throws ObjectStreamException {
+		try {
+			return open(getPath());
+		} catch (IOException e) {
+			InvalidObjectException ex = new InvalidObjectException("Unable to reopen maze file " + path);
+			ex.initCause(e);
+			throw ex;
+		}
+	}
+
+	/** Ecrit l'en-tête du fichier support. */
+	private static void writeHeader(FileChannel channel, int nbRow, int nbCol) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(nbRow).putInt(nbCol).flip();
+		while (header.hasRemaining())
+			channel.write(header, header.position());
+	}
+
+	/** Projette en mémoire l'ensemble des cases du fichier support. */
+	private void map() throws IOException {
+		long cells = getNbCells();
+		int count = (int) ((cells + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+
+		segments = new MappedByteBuffer[count];
+		for (int s = 0; s < count; s++) {
+			long records = Math.min(SEGMENT_RECORDS, cells - ((long) s << SEGMENT_SHIFT));
+			long position = HEADER_SIZE + ((long) s << SEGMENT_SHIFT) * RECORD_SIZE;
+			segments[s] = channel.map(MapMode.READ_WRITE, position, records * RECORD_SIZE);
+		}
+	}
+
+	/**
+	 * Initialise les cases d'indices compris entre <code>from</code> (inclus) et
+	 * <code>to</code> (exclu) : valeur 0 et murs présents.
+	 */
+	private void fill(long from, long to) {
+		byte[] pattern = new byte[FILL_RECORDS * RECORD_SIZE];
+		for (int k = 0; k < FILL_RECORDS; k++) {
+			pattern[k * RECORD_SIZE + 4] = 1;
+			pattern[k * RECORD_SIZE + 5] = 1;
+		}
+
+		for (long index = from; index < to;) {
+			MappedByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+			int offset = (int) (index & SEGMENT_MASK);
+			int count = (int) Math.min(Math.min(FILL_RECORDS, to - index), SEGMENT_RECORDS - offset);
+
+			ByteBuffer view = segment.duplicate();
+			view.position(offset * RECORD_SIZE);
+			view.put(pattern, 0, count * RECORD_SIZE);
+			index += count;
+		}
+	}
+
+	/** Ecrit la valeur d'un mur intérieur désigné par l'indice d'une case. */
+	private void setWall(long index, Side side, int value) {
+		switch (side) {
+			case UP:
+				setDown(index - nbCol, value);
+				break;
+			case DOWN:
+				setDown(index, value);
+				break;
+			case LEFT:
+				setRight(index - 1, value);
+				break;
+			case RIGHT:
+				setRight(index, value);
+				break;
+		}
+	}
+
+	/** Fournit le segment contenant la case d'indice spécifié. */
+	private MappedByteBuffer segment(long index) {
+		return segments[(int) (index >>> SEGMENT_SHIFT)];
+	}
+
+	/** Fournit la position de la case d'indice spécifié dans son segment. */
+	private static int offset(long index) {
+		return (int) (index & SEGMENT_MASK) * RECORD_SIZE;
+	}
+
+	private int getValue(long index) {
+		return segment(index).getInt(offset(index));
+	}
+
+	private void setValue(long index, int value) {
+		segment(index).putInt(offset(index), value);
+	}
+
+	private int getDown(long index) {
+		return segment(index).get(offset(index) + 4);
+	}
+
+	private void setDown(long index, int value) {
+		segment(index).put(offset(index) + 4, (byte) value);
+	}
+
+	private int getRight(long index) {
+		return segment(index).get(offset(index) + 5);
+	}
+
+	private void setRight(long index, int value) {
+		segment(index).put(offset(index) + 5, (byte) value);
+	}
+}
@@ -0,0 +1,210 @@
+package com.rosty.maze.model.storage;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Interface définissant le support mémoire d'un labyrinthe, c'est-à-dire la
+ * manière dont sont stockées les valeurs de ses cases et de ses murs.
+ * <p>
+ * Les méthodes de cette interface ne vérifient pas les coordonnées qui leur
+ * sont fournies : ce contrôle est réalisé en amont par la classe {@link Maze}.
+ * Les murs situés en bordure du terrain ne sont jamais modifiés ; leur valeur
+ * est toujours <b>1</b>.
+ * </p>
+ * <p>
+ * Les cases peuvent également être désignées par leur indice
+ * <code>row * nbCol + col</code> dans un parcours ligne par ligne du terrain.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ * @see Maze
+ */
+public interface MazeStorage extends Serializable {
+	/** Indique le nombre de lignes du labyrinthe. */
+	int getNbRows();
+
+	/** Indique le nombre de colonnes du labyrinthe. */
+	int getNbColumns();
+
+	/**
+	 * Fournit la valeur de la cellule à la ligne et à la colonne indiquée.
+	 *
+	 * @param row Numéro de ligne.
+	 * @param col Numéro de colonne.
+	 */
+	int getCell(int row, int col);
+
+	/**
+	 * Définit la valeur de la cellule à la ligne et à la colonne indiquée.
+	 *
+	 * @param row   Numéro de ligne.
+	 * @param col   Numéro de colonne.
+	 * @param value Valeur de la case.
+	 */
+	void setCell(int row, int col, int value);
+
+	/**
+	 * Fournit la valeur d'un mur en se référant à une case adjacente. Les murs de
+	 * bordure ont pour valeur <b>1</b>.
+	 *
+	 * @param row  Numéro de ligne de la case adjacente.
+	 * @param col  Numéro de colonne de la case adjacente.
+	 * @param side Direction du mur par rapport à la case adjacente.
+	 */
+	int getWall(int row, int col, Side side);
+
+	/**
+	 * Définit la valeur d'un mur intérieur du terrain en se référant à une case
+	 * adjacente.
+	 *
+	 * @param row   Numéro de ligne de la case adjacente.
+	 * @param col   Numéro de colonne de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 * @param value Valeur associée au mur.
+	 */
+	void setWall(int row, int col, Side side, int value);
+
+	/**
+	 * Fournit la valeur de la cellule d'indice spécifié.
+	 *
+	 * @param index Indice de la case.
+	 */
+	int getCell(int index);
+
+	/**
+	 * Définit la valeur de la cellule d'indice spécifié.
+	 *
+	 * @param index Indice de la case.
+	 * @param value Valeur de la case.
+	 */
+	void setCell(int index, int value);
+
+	/**
+	 * Fournit la valeur d'un mur en se référant à l'indice d'une case adjacente.
+	 * Les murs de bordure ont pour valeur <b>1</b>.
+	 *
+	 * @param index Indice de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 */
+	int getWall(int index, Side side);
+
+	/**
+	 * Définit la valeur d'un mur intérieur du terrain en se référant à l'indice
+	 * d'une case adjacente.
+	 *
+	 * @param index Indice de la case adjacente.
+	 * @param side  Direction du mur par rapport à la case adjacente.
+	 * @param value Valeur associée au mur.
+	 */
+	void setWall(int index, Side side, int value);
+
+	/**
+	 * Attribue la même valeur aux cases d'une ligne dont les colonnes sont
+	 * comprises entre <code>col0</code> (inclus) et <code>col1</code> (exclu). Les
+	 * supports dont les cases d'une ligne sont contiguës redéfinissent cette
+	 * méthode pour écrire la plage d'un seul tenant.
+	 *
+	 * @param row   Numéro de ligne.
+	 * @param col0  Première colonne (incluse).
+	 * @param col1  Dernière colonne (exclue).
+	 * @param value Valeur des cases.
+	 */
+	default void fillCells(int row, int col0, int col1, int value) {
+		for (int col = col0; col < col1; col++)
+			setCell(row, col, value);
+	}
+
+	/**
+	 * Attribue la même valeur aux murs du bas ({@link Side#DOWN}) ou de droite
+	 * ({@link Side#RIGHT}) des cases d'une ligne dont les colonnes sont comprises
+	 * entre <code>col0</code> (inclus) et <code>col1</code> (exclu). Tous ces murs
+	 * doivent être des murs intérieurs.
+	 *
+	 * @param row   Numéro de ligne.
+	 * @param col0  Première colonne (incluse).
+	 * @param col1  Dernière colonne (exclue).
+	 * @param side  {@link Side#DOWN} ou {@link Side#RIGHT}.
+	 * @param value Valeur des murs.
+	 */
+	default void fillWalls(int row, int col0, int col1, Side side, int value) {
+		for (int col = col0; col < col1; col++)
+			setWall(row, col, side, value);
+	}
+
+	/**
+	 * Indique si des murs distincts peuvent être écrits simultanément par
+	 * plusieurs threads (cf. {@link Maze#concurrentWalls(int, int)}), chaque mur
+	 * occupant alors un emplacement mémoire qui lui est propre. Par défaut, les
+	 * écritures doivent être sérialisées.
+	 */
+	default boolean supportsConcurrentWalls() {
+		return false;
+	}
+
+	/**
+	 * Efface les valeurs du support en apposant la valeur 0 aux cases et la valeur
+	 * 1 aux murs.
+	 */
+	void clear();
+
+	/** Fournit une copie indépendante du support. */
+	MazeStorage copy();
+
+	/**
+	 * Enumération des supports mémoire disponibles, pour les choisir par leur nom
+	 * (paramètres de lancement, préférences...).
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 * @see Maze#create(int, int, Kind, CellPlane.Width)
+	 */
+	enum Kind {
+		/** Support par défaut, un entier par mur (cf. {@link FlatStorage}). */
+		FLAT,
+
+		/** Un bit par mur (cf. {@link BitPackedStorage}). */
+		PACKED,
+
+		/** Tuiles allouées à la demande (cf. {@link TiledStorage}). */
+		TILED,
+
+		/** Fichier projeté en mémoire (cf. {@link MappedStorage}). */
+		MAPPED;
+
+		/**
+		 * Crée un support de ce type. Les supports {@link #TILED} et {@link #MAPPED}
+		 * codent toujours les cases sur 32 bits.
+		 *
+		 * @param nbRow Nombre de lignes du terrain.
+		 * @param nbCol Nombre de colonnes du terrain.
+		 * @param width Largeur initiale des valeurs des cases.
+		 * @param file  Fichier support d'un {@link MappedStorage}, écrasé s'il existe ;
+		 *              si <code>null</code>, un fichier temporaire supprimé à la
+		 *              fermeture du support est utilisé (cf.
+		 *              {@link MappedStorage#createTemporary(int, int)}). Ignoré par
+		 *              les autres supports.
+		 * @throws IOException Si le fichier support ne peut pas être créé.
+		 */
+		public MazeStorage create(int nbRow, int nbCol, CellPlane.Width width, Path file) throws IOException {
+			switch (this) {
+				case PACKED:
+					return new BitPackedStorage(nbRow, nbCol, width);
+				case TILED:
+					return new TiledStorage(nbRow, nbCol);
+				case MAPPED:
+					if (file == null)
+						return MappedStorage.createTemporary(nbRow, nbCol);
+
+					return MappedStorage.create(file, nbRow, nbCol);
+				default:
+					return new FlatStorage(nbRow, nbCol, width);
+			}
+		}
+	}
+}
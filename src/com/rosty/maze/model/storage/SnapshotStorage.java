@@ -0,0 +1,241 @@
+package com.rosty.maze.model.storage;
+
+import java.io.ObjectStreamException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Vue figée, en lecture seule, d'un support mémoire qui continue d'être
+ * modifié (cf. {@link Maze#snapshot()}).
+ * <p>
+ * Le terrain est découpé en régions de {@value #REGION_SIZE}x{@value #REGION_SIZE}
+ * cases. Une région non modifiée depuis la création de la vue est lue
+ * directement dans le support d'origine ; avant la première modification d'une
+ * région, le labyrinthe d'origine en conserve une copie dans la vue (cf.
+ * {@link #preserve(int, int)}). La création d'une vue est donc immédiate et son
+ * coût mémoire proportionnel à la surface modifiée depuis.
+ * </p>
+ * <p>
+ * Une région conservée est publiée avant la modification du support d'origine :
+ * une lecture concurrente relit la région après avoir lu le support d'origine,
+ * et renvoie la valeur conservée si elle est apparue entre-temps. La vue est
+ * sérialisée sous la forme d'une copie indépendante.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class SnapshotStorage implements MazeStorage {
+	/** Generated by Java */
+	private static final long serialVersionUID = 6052417744170361029L;
+
+	/** Décalage binaire correspondant à la taille d'une région. */
+	private static final int REGION_SHIFT = 6;
+
+	/** Nombre de lignes et de colonnes de cases d'une région. */
+	public static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+	/** Masque donnant la position d'une case dans sa région. */
+	private static final int REGION_MASK = REGION_SIZE - 1;
+
+	/** Support d'origine, toujours modifié par son labyrinthe. */
+	private final transient MazeStorage live;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private final int nbRow, nbCol;
+
+	/** Nombre de colonnes de régions. */
+	private final int regionCols;
+
+	/** Régions conservées, <code>null</code> tant qu'elles n'ont pas été modifiées. */
+	private final transient AtomicReferenceArray<Region> regions;
+
+	/**
+	 * Constructeur de la classe {@link SnapshotStorage}.
+	 *
+	 * @param live Support d'origine, dans son état à figer.
+	 */
+	public SnapshotStorage(MazeStorage live) {
+		this.live = live;
+		this.nbRow = live.getNbRows();
+		this.nbCol = live.getNbColumns();
+		this.regionCols = (nbCol + REGION_MASK) >>> REGION_SHIFT;
+
+		long count = (long) ((nbRow + REGION_MASK) >>> REGION_SHIFT) * regionCols;
+		this.regions = new AtomicReferenceArray<>((int) count);
+	}
+
+	/**
+	 * Conserve l'état actuel de la région contenant la case spécifiée, si ce n'est
+	 * déjà fait. Cette méthode doit être appelée avant toute modification du
+	 * support d'origine touchant cette case ou l'un de ses murs du bas et de
+	 * droite.
+	 *
+	 * @param row Numéro de ligne de la case.
+	 * @param col Numéro de colonne de la case.
+	 */
+	public void preserve(int row, int col) {
+		int index = (row >>> REGION_SHIFT) * regionCols + (col >>> REGION_SHIFT);
+		if (regions.get(index) == null)
+			regions.compareAndSet(index, null, new Region(row & ~REGION_MASK, col & ~REGION_MASK));
+	}
+
+	/** Conserve l'état actuel de toutes les régions qui ne l'ont pas encore été. */
+	public void preserveAll() {
+		for (int row = 0; row < nbRow; row += REGION_SIZE)
+			for (int col = 0; col < nbCol; col += REGION_SIZE)
+				preserve(row, col);
+	}
+
+	@Override
+	public int getNbRows() {
+		return nbRow;
+	}
+
+	@Override
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	@Override
+	public int getCell(int row, int col) {
+		Region region = region(row, col);
+		if (region == null) {
+			int value = live.getCell(row, col);
+			if ((region = region(row, col)) == null)
+				return value;
+		}
+
+		return region.cells[((row & REGION_MASK) << REGION_SHIFT) | (col & REGION_MASK)];
+	}
+
+	@Override
+	public int getWall(int row, int col, Side side) {
+		switch (side) {
+			case UP:
+				return (row == 0) ? 1 : getOwnWall(row - 1, col, Side.DOWN);
+			case LEFT:
+				return (col == 0) ? 1 : getOwnWall(row, col - 1, Side.RIGHT);
+			case DOWN:
+			case RIGHT:
+				return getOwnWall(row, col, side);
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public int getCell(int index) {
+		return getCell(index / nbCol, index % nbCol);
+	}
+
+	@Override
+	public int getWall(int index, Side side) {
+		return getWall(index / nbCol, index % nbCol, side);
+	}
+
+	/** Une vue figée n'est pas modifiable. */
+	@Override
+	public void setCell(int row, int col, int value) {
+		throw new UnsupportedOperationException("Read-only maze snapshot");
+	}
+
+	/** Une vue figée n'est pas modifiable. */
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		throw new UnsupportedOperationException("Read-only maze snapshot");
+	}
+
+	/** Une vue figée n'est pas modifiable. */
+	@Override
+	public void setCell(int index, int value) {
+		throw new UnsupportedOperationException("Read-only maze snapshot");
+	}
+
+	/** Une vue figée n'est pas modifiable. */
+	@Override
+	public void setWall(int index, Side side, int value) {
+		throw new UnsupportedOperationException("Read-only maze snapshot");
+	}
+
+	/** Une vue figée n'est pas modifiable. */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Read-only maze snapshot");
+	}
+
+	/** Fournit une copie indépendante et modifiable de la vue figée. */
+	@Override
+	public MazeStorage copy() {
+		FlatStorage copy = new FlatStorage(nbRow, nbCol);
+		for (int row = 0; row < nbRow; row++) {
+			for (int col = 0; col < nbCol; col++) {
+				copy.setCell(row, col, getCell(row, col));
+				if (row < nbRow - 1)
+					copy.setWall(row, col, Side.DOWN, getWall(row, col, Side.DOWN));
+				if (col < nbCol - 1)
+					copy.setWall(row, col, Side.RIGHT, getWall(row, col, Side.RIGHT));
+			}
+		}
+
+		return copy;
+	}
+
+	/** Sérialise la vue figée sous la forme d'une copie indépendante. */
+	private Object writeReplace() throws ObjectStreamException {
+		return copy();
+	}
+
+	/** Fournit la région conservée contenant la case spécifiée, le cas échéant. */
+	private Region region(int row, int col) {
+		return regions.get((row >>> REGION_SHIFT) * regionCols + (col >>> REGION_SHIFT));
+	}
+
+	/** Lit le mur du bas ou de droite d'une case. */
+	private int getOwnWall(int row, int col, Side side) {
+		Region region = region(row, col);
+		if (region == null) {
+			int value = live.getWall(row, col, side);
+			if ((region = region(row, col)) == null)
+				return value;
+		}
+
+		long bits = (side == Side.DOWN) ? region.down[row & REGION_MASK] : region.right[row & REGION_MASK];
+		return (int) (bits >>> col) & 1;
+	}
+
+	/**
+	 * Copie d'une région du support d'origine, dans l'état où elle se trouvait à la
+	 * création de la vue.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	private class Region {
+		/** Valeurs des cases, rangées ligne par ligne. */
+		final int[] cells = new int[REGION_SIZE * REGION_SIZE];
+
+		/** Murs du bas et de droite, une ligne de cases par entier. */
+		final long[] down = new long[REGION_SIZE], right = new long[REGION_SIZE];
+
+		/**
+		 * Constructeur de la classe {@link Region}.
+		 *
+		 * @param row0 Ligne de la première case de la région.
+		 * @param col0 Colonne de la première case de la région.
+		 */
+		Region(int row0, int col0) {
+			for (int i = 0, lenI = Math.min(REGION_SIZE, nbRow - row0); i < lenI; i++) {
+				for (int j = 0, lenJ = Math.min(REGION_SIZE, nbCol - col0); j < lenJ; j++) {
+					cells[(i << REGION_SHIFT) | j] = live.getCell(row0 + i, col0 + j);
+					if (live.getWall(row0 + i, col0 + j, Side.DOWN) != 0)
+						down[i] |= 1L << j;
+					if (live.getWall(row0 + i, col0 + j, Side.RIGHT) != 0)
+						right[i] |= 1L << j;
+				}
+			}
+		}
+	}
+}
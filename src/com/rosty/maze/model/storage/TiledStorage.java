@@ -0,0 +1,264 @@
+package com.rosty.maze.model.storage;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Support mémoire creux d'un labyrinthe, découpé en tuiles de
+ * {@value #TILE_SIZE}x{@value #TILE_SIZE} cases.
+ * <p>
+ * Une tuile n'est allouée qu'à la première écriture d'une valeur différente de
+ * l'état initial (case à 0, murs présents) ; les tuiles absentes répondent cet
+ * état initial. La création et l'effacement d'un labyrinthe ne coûtent donc que
+ * l'allocation d'une ligne de tuiles, et la mémoire occupée reste
+ * proportionnelle à la surface réellement modifiée. Les lignes de tuiles sont
+ * elles-mêmes allouées à la demande.
+ * </p>
+ * <p>
+ * Dans une tuile, les murs du bas et de droite de chaque ligne de cases sont
+ * rangés dans un entier <code>long</code>, un bit par case.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class TiledStorage implements MazeStorage {
+	/** Generated by Java */
+	private static final long serialVersionUID = -6405093148826302714L;
+
+	/** Décalage binaire correspondant à la taille d'une tuile. */
+	private static final int TILE_SHIFT = 6;
+
+	/** Nombre de lignes et de colonnes de cases d'une tuile. */
+	public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+	/** Masque donnant la position d'une case dans sa tuile. */
+	private static final int TILE_MASK = TILE_SIZE - 1;
+
+	/** Nombre de lignes et de colonnes du labyrinthe */
+	private final int nbRow, nbCol;
+
+	/** Nombre de lignes et de colonnes de tuiles. */
+	private final int tileRows, tileCols;
+
+	/** Tuiles du labyrinthe, <code>null</code> tant qu'elles n'ont pas été écrites. */
+	private Tile[][] tiles;
+
+	/**
+	 * Constructeur de la classe {@link TiledStorage}.
+	 *
+	 * @param nbRow Nombre de lignes du terrain.
+	 * @param nbCol Nombre de colonnes du terrain.
+	 */
+	public TiledStorage(int nbRow, int nbCol) {
+		this.nbRow = nbRow;
+		this.nbCol = nbCol;
+		this.tileRows = (nbRow + TILE_MASK) >>> TILE_SHIFT;
+		this.tileCols = (nbCol + TILE_MASK) >>> TILE_SHIFT;
+		clear();
+	}
+
+	/**
+	 * Constructeur par copie de la classe {@link TiledStorage}.
+	 *
+	 * @param old Support d'origine.
+	 */
+	private TiledStorage(TiledStorage old) {
+		this.nbRow = old.nbRow;
+		this.nbCol = old.nbCol;
+		this.tileRows = old.tileRows;
+		this.tileCols = old.tileCols;
+
+		tiles = new Tile[tileRows][];
+		for (int tr = 0; tr < tileRows; tr++) {
+			if (old.tiles[tr] != null) {
+				tiles[tr] = new Tile[tileCols];
+				for (int tc = 0; tc < tileCols; tc++)
+					if (old.tiles[tr][tc] != null)
+						tiles[tr][tc] = new Tile(old.tiles[tr][tc]);
+			}
+		}
+	}
+
+	@Override
+	public int getNbRows() {
+		return nbRow;
+	}
+
+	@Override
+	public int getNbColumns() {
+		return nbCol;
+	}
+
+	/** Indique le nombre de tuiles actuellement allouées. */
+	public int getTileCount() {
+		int count = 0;
+		for (Tile[] line : tiles)
+			if (line != null)
+				for (Tile tile : line)
+					if (tile != null)
+						count++;
+
+		return count;
+	}
+
+	@Override
+	public int getCell(int row, int col) {
+		Tile tile = tile(row, col);
+		return (tile == null) ? 0 : tile.cells[((row & TILE_MASK) << TILE_SHIFT) | (col & TILE_MASK)];
+	}
+
+	@Override
+	public void setCell(int row, int col, int value) {
+		Tile tile = (value == 0) ? tile(row, col) : allocate(row, col);
+		if (tile != null)
+			tile.cells[((row & TILE_MASK) << TILE_SHIFT) | (col & TILE_MASK)] = value;
+	}
+
+	@Override
+	public int getWall(int row, int col, Side side) {
+		switch (side) {
+			case UP:
+				return (row == 0) ? 1 : getDown(row - 1, col);
+			case DOWN:
+				return getDown(row, col);
+			case LEFT:
+				return (col == 0) ? 1 : getRight(row, col - 1);
+			case RIGHT:
+				return getRight(row, col);
+			default:
+				return -1;
+		}
+	}
+
+	@Override
+	public void setWall(int row, int col, Side side, int value) {
+		switch (side) {
+			case UP:
+				setDown(row - 1, col, value);
+				break;
+			case DOWN:
+				setDown(row, col, value);
+				break;
+			case LEFT:
+				setRight(row, col - 1, value);
+				break;
+			case RIGHT:
+				setRight(row, col, value);
+				break;
+		}
+	}
+
+	@Override
+	public int getCell(int index) {
+		return getCell(index / nbCol, index % nbCol);
+	}
+
+	@Override
+	public void setCell(int index, int value) {
+		setCell(index / nbCol, index % nbCol, value);
+	}
+
+	@Override
+	public int getWall(int index, Side side) {
+		return getWall(index / nbCol, index % nbCol, side);
+	}
+
+	@Override
+	public void setWall(int index, Side side, int value) {
+		setWall(index / nbCol, index % nbCol, side, value);
+	}
+
+	/** Efface le labyrinthe en libérant toutes ses tuiles. */
+	@Override
+	public void clear() {
+		tiles = new Tile[tileRows][];
+	}
+
+	@Override
+	public MazeStorage copy() {
+		return new TiledStorage(this);
+	}
+
+	/** Fournit la tuile contenant la case spécifiée, si elle est allouée. */
+	private Tile tile(int row, int col) {
+		Tile[] line = tiles[row >>> TILE_SHIFT];
+		return (line == null) ? null : line[col >>> TILE_SHIFT];
+	}
+
+	/** Fournit la tuile contenant la case spécifiée, en l'allouant si besoin. */
+	private Tile allocate(int row, int col) {
+		Tile[] line = tiles[row >>> TILE_SHIFT];
+		if (line == null)
+			line = tiles[row >>> TILE_SHIFT] = new Tile[tileCols];
+
+		Tile tile = line[col >>> TILE_SHIFT];
+		if (tile == null)
+			tile = line[col >>> TILE_SHIFT] = new Tile();
+
+		return tile;
+	}
+
+	private int getDown(int row, int col) {
+		Tile tile = tile(row, col);
+		return (tile == null) ? 1 : (int) (tile.down[row & TILE_MASK] >>> col) & 1;
+	}
+
+	private int getRight(int row, int col) {
+		Tile tile = tile(row, col);
+		return (tile == null) ? 1 : (int) (tile.right[row & TILE_MASK] >>> col) & 1;
+	}
+
+	private void setDown(int row, int col, int value) {
+		Tile tile = (value != 0) ? tile(row, col) : allocate(row, col);
+		if (tile != null)
+			tile.down[row & TILE_MASK] = setBit(tile.down[row & TILE_MASK], col, value != 0);
+	}
+
+	private void setRight(int row, int col, int value) {
+		Tile tile = (value != 0) ? tile(row, col) : allocate(row, col);
+		if (tile != null)
+			tile.right[row & TILE_MASK] = setBit(tile.right[row & TILE_MASK], col, value != 0);
+	}
+
+	/** Modifie le bit d'indice spécifié (modulo 64) d'un entier. */
+	private static long setBit(long bits, int index, boolean value) {
+		return value ? bits | (1L << index) : bits & ~(1L << index);
+	}
+
+	/**
+	 * Tuile de {@value TiledStorage#TILE_SIZE}x{@value TiledStorage#TILE_SIZE}
+	 * cases du labyrinthe.
+	 *
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	private static class Tile implements Serializable {
+		/** Generated by Java */
+		private static final long serialVersionUID = 2254311290718513468L;
+
+		/** Valeurs des cases, rangées ligne par ligne. */
+		final int[] cells;
+
+		/** Murs du bas et de droite, une ligne de cases par entier. */
+		final long[] down, right;
+
+		/** Constructeur d'une tuile vierge : cases à 0 et murs présents. */
+		Tile() {
+			cells = new int[TILE_SIZE * TILE_SIZE];
+			down = new long[TILE_SIZE];
+			right = new long[TILE_SIZE];
+			Arrays.fill(down, -1L);
+			Arrays.fill(right, -1L);
+		}
+
+		/** Constructeur par copie d'une tuile. */
+		Tile(Tile old) {
+			cells = old.cells.clone();
+			down = old.down.clone();
+			right = old.right.clone();
+		}
+	}
+}
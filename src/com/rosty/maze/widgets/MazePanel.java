@@ -3,13 +3,15 @@ package com.rosty.maze.widgets;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import com.rosty.maze.Mazette;
 import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
-import com.rosty.maze.model.Maze.WallCoord;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.MazeRoute;
+import com.rosty.maze.model.MazeRoute.PathListener;
 import com.rosty.util.colormap.ColorMap;
 import com.rosty.util.colormap.DiscreteColorMap;
 import com.rosty.util.javafx.NodeWriter;
@@ -17,8 +19,6 @@ import com.rosty.util.javafx.NodeWriter;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -34,6 +34,11 @@ import javafx.scene.shape.StrokeLineJoin;
 /**
  * Composant FXML permettant d'afficher un labyrinthe à l'écran, plus
  * précisément une instance de la classe {@link Maze}.
+ * <p>
+ * Les algorithmes n'écrivent pas dans le composant mais dans son support
+ * ({@link #getBoard()}), dont le composant est l'un des observateurs : chaque
+ * modification notifiée met à jour les seuls éléments graphiques concernés.
+ * </p>
  * 
  * @author Martin Rostagnat
  * @version 1.0
@@ -264,6 +269,10 @@ public class MazePanel extends Pane {
 	private Circle start, end;
 	private Polyline path;
 
+	private long paintedVersion = 0; // Version du labyrinthe affichée à l'écran
+	private final MazeBoard board = new MazeBoard(null, null); // Support d'écriture des algorithmes
+	private final BoardObserver observer = new BoardObserver(); // Observateur du support et du chemin
+
 	private double W = 0; // Largeur du labyrinthe
 	private double H = 0; // Hauteur du labytinthe
 	private double deltaX = 0; // Ecartement du labyrinthe à gauche du conteneur graphique
@@ -280,7 +289,17 @@ public class MazePanel extends Pane {
 
 	@FXML
 	public void initialize() {
+		board.addListener(observer);
+		mazeProperty.addListener(e -> board.setMaze(getMaze()));
 		mazeProperty.addListener(e -> update());
+		routeProperty.addListener((obs, oldRoute, newRoute) -> {
+			if (oldRoute != null)
+				oldRoute.removeListener(observer);
+			if (newRoute != null)
+				newRoute.addListener(observer);
+
+			board.setRoute(newRoute);
+		});
 		routeProperty.addListener(e -> update());
 
 		widthProperty().addListener(e -> update());
@@ -439,7 +458,7 @@ public class MazePanel extends Pane {
 			for (int j = 1; j < Y - 1; j += 2) {
 				Rectangle block = new Rectangle(deltaX + (H * (j - 1)) / (X - 1), deltaY + (W * (i - 1)) / (Y - 1),
 						(2 * H) / (X - 1), (2 * W) / (Y - 1));
-				Color blockColor = getBlockColorMap().getOrDefault(getMaze().get(i, j), Color.TRANSPARENT);
+				Color blockColor = getBlockColorMap().getOrDefault(getCell((i - 1) / 2, (j - 1) / 2), Color.TRANSPARENT);
 				block.setFill(blockColor);
 
 				blocks[(i - 1) / 2][(j - 1) / 2] = block;
@@ -456,7 +475,7 @@ public class MazePanel extends Pane {
 			for (int j = 0; 2 * j + 1 < Y; j++) {
 				double width = H / getMaze().getNbRows(), height = W / getMaze().getNbColumns();
 
-				Label lbl = new Label("" + getMaze().getCell(i, j));
+				Label lbl = new Label("" + getCell(i, j));
 				lbl.setLayoutX(deltaX + j * width);
 				lbl.setLayoutY(deltaY + i * height);
 				lbl.setPrefSize(width, height);
@@ -503,67 +522,21 @@ public class MazePanel extends Pane {
 			path.getPoints().addAll(posX, posY);
 		}
 
-		// Mise à jour du chemin chaque fois que les points changent.
-		getRoute().getPath().addListener((ListChangeListener<int[]>) change -> {
-			while (change.next())
-				if (change.wasAdded())
-					for (int id = change.getFrom(); id < change.getTo(); id++) {
-						int[] point = change.getList().get(id);
-						double posX = deltaX + (point[1] + 0.5) * (H / getMaze().getNbRows());
-						double posY = deltaY + (point[0] + 0.5) * (W / getMaze().getNbColumns());
-						path.getPoints().add(2 * id, posX);
-						path.getPoints().add(2 * id + 1, posY);
-					}
-				else if (change.wasRemoved())
-					path.getPoints().remove(2 * change.getFrom(), 2 * (change.getTo() + 1));
-		});
-
 		getChildren().add(path);
 	}
 
-	/** Fournit la valeur de la cellule à la ligne et à la colonne indiquée. */
-	public int getCell(int row, int col) {
-		return getMaze().getCell(row, col);
+	/** Fournit le support dans lequel écrivent les algorithmes. */
+	public MazeBoard getBoard() {
+		return board;
 	}
 
-	/**
-	 * Définit la valeur de la cellule à la ligne et à la colonne indiquée.
-	 * 
-	 * @param row   Numéro de ligne.
-	 * @param col   Numéro de colonne.
-	 * @param value Valeur de la case.
-	 */
-	public void setCell(int row, int col, int value) {
-		getMaze().setCell(row, col, value);
-		Color blockColor = getBlockColorMap().getOrDefault(value, Color.TRANSPARENT);
-		blocks[row][col].setFill(blockColor);
-
-		if (Mazette.arg_fxDebug())
-			Platform.runLater(() -> labels[row][col].setText("" + value));
+	/** Fournit la valeur affichée dans la case à la ligne et à la colonne indiquée. */
+	private int getCell(int row, int col) {
+		return board.getCell(row, col);
 	}
 
-	/**
-	 * Fournit la valeur d'un mur en se référant à une case adjacente, où <b>-1</b>
-	 * si ce mur n'est pas présent sur le terrain.
-	 * 
-	 * @param row  Numéro de ligne de la case adjacente.
-	 * @param col  Numéro de colonne de la case adjacente.
-	 * @param side Direction du mur par rapport à la case adjacente.
-	 */
-	public int getWall(int row, int col, Side side) {
-		return getMaze().getWall(row, col, side);
-	}
-
-	/**
-	 * Définit la valeur d'un mur du terrain en se référant à une case adjacente.
-	 * 
-	 * @param row   Numéro de ligne de la case adjacente.
-	 * @param col   Numéro de colonne de la case adjacente.
-	 * @param side  Direction du mur par rapport à la case adjacente.
-	 * @param value Valeur associée au mur.
-	 */
-	public void setWall(int row, int col, Side side, int value) {
-		getMaze().setWall(row, col, side, value);
+	/** Affiche ou masque le trait d'un mur selon sa valeur. */
+	private void paintWall(int row, int col, Side side, int value) {
 		switch (side) {
 			case UP:
 				hLines[row][col].setStroke((value == 1) ? getWallColor() : Color.TRANSPARENT);
@@ -604,49 +577,88 @@ public class MazePanel extends Pane {
 		end.setCenterY(deltaY + W * (x + 0.5) / getMaze().getNbColumns());
 	}
 
-	public ObservableList<int[]> getPath() {
+	public List<int[]> getPath() {
 		return getRoute().getPath();
 	}
 
-	/**
-	 * Récupère la valeur d'une case voisine à la case spécifiée.
-	 * 
-	 * @param wall Coordonnées du mur séparant les deux cases.
-	 * @return Valeur de la case voisine.
-	 */
-	public int getNeighbourCell(WallCoord wall) {
-		switch (wall.side) {
-			case LEFT:
-				return getMaze().getCell(wall.x, wall.y - 1);
-			case RIGHT:
-				return getMaze().getCell(wall.x, wall.y + 1);
-			case UP:
-				return getMaze().getCell(wall.x - 1, wall.y);
-			case DOWN:
-				return getMaze().getCell(wall.x + 1, wall.y);
-			default:
-				return -1;
-		}
-	}
-
 	/** Affiche le labyrinthe sous forme textuelle. */
 	public void display() {
 		getMaze().display();
 	}
 
-	/** Efface les cases et réinitialise le labyrinthe */
+	/**
+	 * Efface les cases et réinitialise le labyrinthe ; le composant revient à
+	 * l'affichage des valeurs du labyrinthe.
+	 */
 	public void clear() {
-		getMaze().clear();
-		getRoute().getPath().clear();
-
+		board.clear();
 		update();
 	}
 
+	/**
+	 * Met à jour les cases et les murs du composant graphique modifiés dans le
+	 * labyrinthe depuis le dernier affichage, sans recréer l'ensemble des
+	 * éléments graphiques.
+	 */
+	public void refresh() {
+		Maze maze = getMaze();
+		if (maze == null || blocks == null)
+			return;
+
+		int m = maze.getNbRows(), n = maze.getNbColumns();
+		BitSet regions = maze.getChangedRegions(paintedVersion);
+		for (int r = regions.nextSetBit(0); r >= 0; r = regions.nextSetBit(r + 1)) {
+			int i0 = (r / maze.getRegionColumns()) * Maze.REGION_SIZE;
+			int j0 = (r % maze.getRegionColumns()) * Maze.REGION_SIZE;
+			for (int i = i0, lenI = Math.min(i0 + Maze.REGION_SIZE, m); i < lenI; i++) {
+				for (int j = j0, lenJ = Math.min(j0 + Maze.REGION_SIZE, n); j < lenJ; j++) {
+					int value = getCell(i, j);
+					blocks[i][j].setFill(getBlockColorMap().getOrDefault(value, Color.TRANSPARENT));
+					if (labels != null && labels[i][j] != null)
+						labels[i][j].setText("" + value);
+
+					refreshLine(vLines[i][j], maze.getWall(i, j, Side.LEFT));
+					refreshLine(vLines[i][j + 1], maze.getWall(i, j, Side.RIGHT));
+					refreshLine(hLines[i][j], maze.getWall(i, j, Side.UP));
+					refreshLine(hLines[i + 1][j], maze.getWall(i, j, Side.DOWN));
+				}
+			}
+		}
+
+		paintedVersion = maze.getVersion();
+	}
+
+	/**
+	 * Met à jour la couleur (et le label) de toutes les cases à partir de la couche
+	 * de valeurs affichée.
+	 */
+	private void repaintBlocks() {
+		if (getMaze() == null || blocks == null)
+			return;
+
+		for (int i = 0; i < blocks.length; i++) {
+			for (int j = 0; j < blocks[i].length; j++) {
+				int value = getCell(i, j);
+				blocks[i][j].setFill(getBlockColorMap().getOrDefault(value, Color.TRANSPARENT));
+				if (labels != null && labels[i][j] != null)
+					labels[i][j].setText("" + value);
+			}
+		}
+	}
+
+	/** Affiche ou masque un mur selon sa valeur. */
+	private void refreshLine(Line line, int value) {
+		if (line != null)
+			line.setStroke((value == 1) ? getWallColor() : Color.TRANSPARENT);
+	}
+
 	/** Met à jour le labyrinthe dans composant graphique. */
 	protected void update() {
 		getChildren().clear();
 
 		if (getMaze() != null) {
+			paintedVersion = getMaze().getVersion();
+
 			int m = getMaze().getNbRows();
 			int n = getMaze().getNbColumns();
 			if (m != 0 || n != 0) {
@@ -690,4 +702,55 @@ public class MazePanel extends Pane {
 	public final void saveAsImage(File file) throws IOException, IllegalArgumentException {
 		NodeWriter.writeAsImage(this, file);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Observateur du support d'écriture des algorithmes et du chemin tracé dans le
+	 * labyrinthe, mettant à jour les éléments graphiques concernés.
+	 * 
+	 * @author Martin Rostagnat
+	 * @version 1.0
+	 */
+	private class BoardObserver implements MazeBoard.Listener, PathListener {
+		@Override
+		public void cellChanged(int row, int col, int value) {
+			if (blocks == null)
+				return;
+
+			blocks[row][col].setFill(getBlockColorMap().getOrDefault(value, Color.TRANSPARENT));
+			if (labels != null)
+				Platform.runLater(() -> labels[row][col].setText("" + value));
+		}
+
+		@Override
+		public void wallChanged(int row, int col, Side side, int value) {
+			if (blocks != null)
+				paintWall(row, col, side, value);
+		}
+
+		@Override
+		public void mazeChanged() {
+			refresh();
+		}
+
+		@Override
+		public void layerChanged() {
+			repaintBlocks();
+		}
+
+		@Override
+		public void added(List<int[]> points, int from, int to) {
+			for (int id = from; id < to; id++) {
+				int[] point = points.get(id);
+				double posX = deltaX + (point[1] + 0.5) * (H / getMaze().getNbRows());
+				double posY = deltaY + (point[0] + 0.5) * (W / getMaze().getNbColumns());
+				path.getPoints().add(2 * id, posX);
+				path.getPoints().add(2 * id + 1, posY);
+			}
+		}
+
+		@Override
+		public void removed(int from, int to) {
+			path.getPoints().remove(2 * from, 2 * to);
+		}
+	}
+}
@@ -3,8 +3,8 @@ package com.rosty.test;
 import java.util.function.Function;
 
 import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.MazeBoard;
 import com.rosty.maze.model.algorithm.generation.PersonalAlgorithm;
-import com.rosty.maze.widgets.MazePanel;
 import com.rosty.util.maze.MazeUtils;
 
 public class TestPerfo {
@@ -16,12 +16,10 @@ public class TestPerfo {
 
 		System.out.println("Instanciation Java");
 		Maze maze = new Maze(row, col);
-		System.out.println("Instanciation JavaFX");
-		MazePanel panel = new MazePanel();
-		panel.setMaze(maze);
+		MazeBoard board = new MazeBoard(maze);
 
 		System.out.println(String.format("Génération d'un labyrinthe (%d,%d)", row, col));
-		PersonalAlgorithm algo = new PersonalAlgorithm(panel);
+		PersonalAlgorithm algo = new PersonalAlgorithm(board);
 		algo.init();
 		while (!algo.isComplete())
 			algo.step();
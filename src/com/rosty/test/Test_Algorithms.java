@@ -0,0 +1,283 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.Algorithm;
+import com.rosty.maze.model.algorithm.generation.AldousBroderAlgorithm;
+import com.rosty.maze.model.algorithm.generation.BinaryTreeAlgorithm;
+import com.rosty.maze.model.algorithm.generation.EllerAlgorithm;
+import com.rosty.maze.model.algorithm.generation.GrowingTreeAlgorithm;
+import com.rosty.maze.model.algorithm.generation.HuntAndKillAlgorithm;
+import com.rosty.maze.model.algorithm.generation.KruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ParallelKruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.Personal2Algorithm;
+import com.rosty.maze.model.algorithm.generation.PrimAlgorithm;
+import com.rosty.maze.model.algorithm.generation.RecursiveBacktrackingAlgorithm;
+import com.rosty.maze.model.algorithm.generation.RecursiveDivisionAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ShuffledKruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.SidewinderAlgorithm;
+import com.rosty.maze.model.algorithm.generation.WilsonAlgorithm;
+import com.rosty.maze.model.algorithm.solving.AStarAlgorithm;
+import com.rosty.maze.model.algorithm.solving.DijkstraAlgorithm;
+import com.rosty.maze.model.algorithm.solving.LeeAlgorithm;
+import com.rosty.maze.model.graph.CsrGraph;
+import com.rosty.maze.model.storage.BitPackedStorage;
+import com.rosty.util.maze.MazeUtils;
+
+class Test_Algorithms {
+	/** Générateurs de labyrinthes parfaits. */
+	private static final List<Function<MazeBoard, Algorithm>> GENERATORS = Arrays.asList( //
+			AldousBroderAlgorithm::new, BinaryTreeAlgorithm::new, EllerAlgorithm::new, GrowingTreeAlgorithm::new,
+			HuntAndKillAlgorithm::new, KruskalAlgorithm::new, ParallelKruskalAlgorithm::new, PrimAlgorithm::new,
+			RecursiveBacktrackingAlgorithm::new, RecursiveDivisionAlgorithm::new, ShuffledKruskalAlgorithm::new,
+			SidewinderAlgorithm::new, WilsonAlgorithm::new);
+
+	/** Exécute un algorithme jusqu'à son terme, sans affichage. */
+	static void run(Algorithm algo) {
+		algo.init();
+		while (!algo.isComplete())
+			algo.step();
+
+		algo.finish();
+	}
+
+	@Test
+	void test1() {
+		for (Function<MazeBoard, Algorithm> generator : GENERATORS) {
+			Maze maze = new Maze(21, 34);
+			Algorithm algo = generator.apply(new MazeBoard(maze));
+			run(algo);
+
+			assertTrue(MazeUtils.isPerfect(maze), algo.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	void test2() {
+		Maze maze = new Maze(30, 40);
+		run(new RecursiveBacktrackingAlgorithm(new MazeBoard(maze)));
+
+		// Quelques boucles : le plus court chemin n'est plus le seul.
+		for (int k = 0; k < 40; k++)
+			maze.setWall(3 + (7 * k) % 24, 5 + (11 * k) % 30, Side.values()[k % 4], 0);
+
+		CsrGraph grid = CsrGraph.of(maze);
+		int corner = maze.getCell(0, 0);
+		int shortest = distance(grid, 0, maze.cellIndex(29, 39)) + 1;
+
+		List<Function<MazeBoard, Algorithm>> solvers = Arrays.asList(AStarAlgorithm::new, DijkstraAlgorithm::new,
+				LeeAlgorithm::new);
+		for (Function<MazeBoard, Algorithm> solver : solvers) {
+			MazeBoard board = new MazeBoard(maze);
+			Algorithm algo = solver.apply(board);
+			run(algo);
+
+			List<int[]> path = board.getPath();
+			assertEquals(shortest, path.size(), algo.getClass().getSimpleName());
+			for (int k = 1; k < path.size(); k++) {
+				int[] a = path.get(k - 1), b = path.get(k);
+				assertEquals(1, Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]));
+			}
+
+			// Le labyrinthe généré n'est pas modifié par la résolution.
+			assertEquals(corner, maze.getCell(0, 0));
+		}
+	}
+
+	@Test
+	void test3() {
+		List<Function<MazeBoard, Algorithm>> generators = new ArrayList<>(GENERATORS);
+		generators.add(Personal2Algorithm::new);
+		for (Function<MazeBoard, Algorithm> generator : generators) {
+			Maze maze = new Maze(150, 220);
+			Algorithm algo = generator.apply(new MazeBoard(maze));
+			algo.init();
+			algo.runToCompletion();
+
+			assertTrue(algo.isComplete(), algo.getClass().getSimpleName());
+			assertTrue(MazeUtils.isPerfect(maze), algo.getClass().getSimpleName());
+		}
+
+		// Un seul pas, puis le reste d'un seul tenant.
+		Maze maze = new Maze(40, 60);
+		Algorithm algo = new Personal2Algorithm(new MazeBoard(maze));
+		algo.init();
+		algo.step();
+		algo.runToCompletion();
+		assertTrue(MazeUtils.isPerfect(maze));
+	}
+
+	@Test
+	void test4() {
+		List<Function<MazeBoard, Algorithm>> generators = new ArrayList<>(GENERATORS);
+		generators.add(Personal2Algorithm::new);
+		for (Function<MazeBoard, Algorithm> generator : generators) {
+			Maze[] mazes = new Maze[3];
+			String name = null;
+			for (int k = 0; k < mazes.length; k++) {
+				mazes[k] = new Maze(31, 47);
+				Algorithm algo = generator.apply(new MazeBoard(mazes[k]));
+				algo.setSeed((k < 2) ? 1234L : 4321L);
+				run(algo);
+				name = algo.getClass().getSimpleName();
+			}
+
+			// Même graine, même labyrinthe ; une autre graine en donne un autre.
+			assertTrue(sameWalls(mazes[0], mazes[1]), name);
+			assertTrue(!sameWalls(mazes[0], mazes[2]), name);
+		}
+	}
+
+	@Test
+	void test5() {
+		// Bandes parallèles : même résultat qu'en pas à pas, à graine égale.
+		List<Function<MazeBoard, Algorithm>> generators = Arrays.asList(BinaryTreeAlgorithm::new,
+				SidewinderAlgorithm::new);
+		for (Function<MazeBoard, Algorithm> generator : generators) {
+			Maze stepped = new Maze(203, 57), parallel = new Maze(203, 57);
+			Algorithm algo = generator.apply(new MazeBoard(stepped));
+			algo.setSeed(77L);
+			run(algo);
+
+			algo = generator.apply(new MazeBoard(parallel));
+			algo.setSeed(77L);
+			algo.init();
+			for (int k = 0; k < 1000; k++)
+				algo.step();
+
+			algo.runToCompletion();
+			assertTrue(algo.isComplete(), algo.getClass().getSimpleName());
+			assertTrue(sameWalls(stepped, parallel), algo.getClass().getSimpleName());
+
+			// Ecritures sérialisées : même résultat.
+			Maze packed = new Maze(new BitPackedStorage(203, 57));
+			algo = generator.apply(new MazeBoard(packed));
+			algo.setSeed(77L);
+			algo.init();
+			algo.runToCompletion();
+			assertTrue(sameWalls(stepped, packed), algo.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	void test6() {
+		// Division récursive parallèle : même résultat qu'en pas à pas, à graine égale.
+		Maze stepped = new Maze(230, 170), parallel = new Maze(230, 170);
+		Algorithm algo = new RecursiveDivisionAlgorithm(new MazeBoard(stepped));
+		algo.setSeed(31L);
+		run(algo);
+		assertTrue(MazeUtils.isPerfect(stepped));
+
+		algo = new RecursiveDivisionAlgorithm(new MazeBoard(parallel));
+		algo.setSeed(31L);
+		algo.init();
+		for (int k = 0; k < 10; k++)
+			algo.step();
+
+		algo.runToCompletion();
+		assertTrue(algo.isComplete());
+		assertTrue(sameWalls(stepped, parallel));
+	}
+
+	@Test
+	void test7() {
+		// Algorithme personnel n°2 : même résultat qu'en pas à pas, à graine égale.
+		int[][] sizes = { { 2, 2 }, { 3, 5 }, { 17, 9 }, { 41, 63 }, { 130, 70 } };
+		for (int[] size : sizes) {
+			Maze stepped = new Maze(size[0], size[1]), direct = new Maze(size[0], size[1]);
+			Algorithm algo = new Personal2Algorithm(new MazeBoard(stepped));
+			algo.setSeed(7L);
+			run(algo);
+			assertTrue(MazeUtils.isPerfect(stepped), Arrays.toString(size));
+
+			algo = new Personal2Algorithm(new MazeBoard(direct));
+			algo.setSeed(7L);
+			algo.init();
+			algo.runToCompletion();
+			assertTrue(algo.isComplete(), Arrays.toString(size));
+			assertTrue(sameWalls(stepped, direct), Arrays.toString(size));
+			for (int i = 0; i < size[0]; i++)
+				for (int j = 0; j < size[1]; j++)
+					assertEquals(stepped.getCell(i, j), direct.getCell(i, j), Arrays.toString(size));
+		}
+
+		// Quelques pas (jusque dans le regroupement), puis le reste d'un seul tenant.
+		Maze stepped = new Maze(41, 63);
+		Algorithm algo = new Personal2Algorithm(new MazeBoard(stepped));
+		algo.setSeed(7L);
+		run(algo);
+		for (int steps : new int[] { 1, 2, 25, 400 }) {
+			Maze mixed = new Maze(41, 63);
+			algo = new Personal2Algorithm(new MazeBoard(mixed));
+			algo.setSeed(7L);
+			algo.init();
+			for (int k = 0; k < steps && !algo.isComplete(); k++)
+				algo.step();
+
+			algo.runToCompletion();
+			assertTrue(sameWalls(stepped, mixed), "steps=" + steps);
+		}
+	}
+
+	@Test
+	void test8() {
+		// Kruskal d'un seul tenant : même résultat qu'en pas à pas, à graine égale.
+		List<Function<MazeBoard, Algorithm>> generators = Arrays.asList(KruskalAlgorithm::new,
+				ShuffledKruskalAlgorithm::new);
+		for (Function<MazeBoard, Algorithm> generator : generators) {
+			Maze stepped = new Maze(57, 83), direct = new Maze(57, 83);
+			Algorithm algo = generator.apply(new MazeBoard(stepped));
+			algo.setSeed(5L);
+			run(algo);
+
+			algo = generator.apply(new MazeBoard(direct));
+			algo.setSeed(5L);
+			algo.init();
+			for (int k = 0; k < 100; k++)
+				algo.step();
+
+			algo.runToCompletion();
+			assertTrue(algo.isComplete(), algo.getClass().getSimpleName());
+			assertTrue(sameWalls(stepped, direct), algo.getClass().getSimpleName());
+			assertEquals(stepped.getCell(0, 0), direct.getCell(56, 82), algo.getClass().getSimpleName());
+		}
+	}
+
+	private static boolean sameWalls(Maze a, Maze b) {
+		for (int i = 0; i < a.getNbRows(); i++)
+			for (int j = 0; j < a.getNbColumns(); j++)
+				if (a.getWall(i, j, Side.DOWN) != b.getWall(i, j, Side.DOWN)
+						|| a.getWall(i, j, Side.RIGHT) != b.getWall(i, j, Side.RIGHT))
+					return false;
+
+		return true;
+	}
+
+	/** Longueur du plus court chemin entre deux noeuds, par un parcours en largeur. */
+	private static int distance(CsrGraph graph, int from, int to) {
+		int[] dist = new int[graph.getNbNodes()];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[graph.getNbNodes()];
+		dist[from] = 0;
+		queue[0] = from;
+		for (int head = 0, tail = 1; head < tail; head++)
+			for (int edge = graph.firstEdge(queue[head]); edge < graph.endEdge(queue[head]); edge++)
+				if (dist[graph.target(edge)] < 0) {
+					dist[graph.target(edge)] = dist[queue[head]] + 1;
+					queue[tail++] = graph.target(edge);
+				}
+
+		return dist[to];
+	}
+}
@@ -0,0 +1,112 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.application.BatchLauncher;
+import com.rosty.util.maze.MazeImageWriter;
+
+class Test_BatchLauncher {
+	@Test
+	void test1() throws IOException {
+		Path dir = Files.createTempDirectory("batch");
+		try {
+			String out = "-out=" + dir;
+
+			// Paramètres incompatibles : aucun labyrinthe n'est généré.
+			assertEquals(2, BatchLauncher.launch("-batch", "-stream", out, "-solve=astar"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-stream", out, "-image=png"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-stream"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-stream", out, "-algo=kruskal"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=50000x50000"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=50000x50000", "-storage=mapped", "-algo=wilson"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=10", "-image=png"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=10", out, "-image=bmp"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=20000x20000", out, "-image=png"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-size=0x10"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-seed=99999999999999999999"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-cells=12"));
+			assertEquals(2, BatchLauncher.launch("-batch", "-algo=unknown"));
+			assertEquals(0, files(dir).length);
+		} finally {
+			delete(dir);
+		}
+	}
+
+	@Test
+	void test2() {
+		MazeImageWriter.checkSize(20000, 20000, 2);
+		assertThrows(IllegalArgumentException.class, () -> MazeImageWriter.checkSize(20000, 20000, 4));
+		assertThrows(IllegalArgumentException.class, () -> MazeImageWriter.checkSize(1, Integer.MAX_VALUE, 2));
+	}
+
+	@Test
+	void test3() throws IOException {
+		// Même graine, mêmes fichiers, quel que soit le nombre de threads.
+		Path[] dirs = new Path[3];
+		try {
+			for (int k = 0; k < dirs.length; k++) {
+				dirs[k] = Files.createTempDirectory("batch");
+				assertEquals(0, BatchLauncher.launch("-batch", "-algo=wilson", "-solve=astar", "-size=23x31",
+						"-count=4", "-image=png", "-out=" + dirs[k], "-threads=" + (k + 1),
+						"-seed=" + ((k < 2) ? 2024 : 4202)));
+			}
+
+			File[] reference = files(dirs[0]), same = files(dirs[1]), other = files(dirs[2]);
+			assertEquals(8, reference.length);
+			boolean differs = false;
+			for (int k = 0; k < reference.length; k++) {
+				assertEquals(reference[k].getName(), same[k].getName());
+				byte[] bytes = Files.readAllBytes(reference[k].toPath());
+				assertArrayEquals(bytes, Files.readAllBytes(same[k].toPath()), reference[k].getName());
+				differs |= !Arrays.equals(bytes, Files.readAllBytes(other[k].toPath()));
+			}
+
+			// Une autre graine donne d'autres labyrinthes.
+			assertTrue(differs);
+
+			// En flux, les fichiers ne dépendent eux aussi que de la graine.
+			Path[] streams = { dirs[0].resolve("stream1"), dirs[0].resolve("stream2") };
+			for (Path stream : streams)
+				assertEquals(0, BatchLauncher.launch("-batch", "-stream", "-size=40x17", "-count=2", "-seed=7",
+						"-out=" + stream));
+
+			assertArrayEquals(Files.readAllBytes(streams[0].resolve("maze_1.mzr")),
+					Files.readAllBytes(streams[1].resolve("maze_1.mzr")));
+			assertFalse(Arrays.equals(Files.readAllBytes(streams[0].resolve("maze_0.mzr")),
+					Files.readAllBytes(streams[0].resolve("maze_1.mzr"))));
+		} finally {
+			for (Path dir : dirs)
+				if (dir != null)
+					delete(dir);
+		}
+	}
+
+	/** Fichiers d'un dossier, triés par nom. */
+	private static File[] files(Path dir) {
+		File[] files = dir.toFile().listFiles(File::isFile);
+		Arrays.sort(files);
+		return files;
+	}
+
+	/** Supprime un dossier et son contenu. */
+	private static void delete(Path dir) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+				Files.delete(path);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.ConcurrentDisjointSet;
+import com.rosty.maze.model.algorithm.DisjointSet;
+import com.rosty.maze.model.algorithm.generation.KruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ParallelKruskalAlgorithm;
+import com.rosty.maze.model.algorithm.generation.ShuffledKruskalAlgorithm;
+import com.rosty.util.maze.MazeUtils;
+
+class Test_DisjointSet {
+	@Test
+	void test1() {
+		int size = 500;
+		DisjointSet sets = new DisjointSet(size);
+		int[] labels = new int[size];
+		for (int x = 0; x < size; x++)
+			labels[x] = x;
+
+		// Comparaison avec un étiquetage naïf, membres chaînés à mi-parcours.
+		SplittableRandom rand = new SplittableRandom(11);
+		for (int k = 0; k < 2000; k++) {
+			if (k == 700)
+				sets.trackMembers();
+
+			int a = rand.nextInt(size), b = rand.nextInt(size);
+			int la = labels[a], lb = labels[b];
+			int absorbed = sets.union(a, b);
+			assertEquals(la == lb, absorbed < 0);
+			if (absorbed < 0)
+				continue;
+
+			// Membres de l'ensemble absorbé, repérés avant le réétiquetage.
+			boolean[] members = new boolean[size];
+			int expected = 0, lost = labels[absorbed];
+			for (int x = 0; x < size; x++) {
+				if (labels[x] == lost) {
+					members[x] = true;
+					expected++;
+				}
+
+				if (labels[x] == lb)
+					labels[x] = la;
+			}
+
+			if (sets.tracksMembers()) {
+				// Les membres absorbés suivent le représentant, jusqu'à l'ancien représentant.
+				int root = sets.find(a), count = 0;
+				for (int x = sets.nextMember(root);; x = sets.nextMember(x)) {
+					assertEquals(root, sets.find(x));
+					assertTrue(members[x], "membre " + x);
+					count++;
+					if (x == absorbed)
+						break;
+				}
+
+				assertEquals(expected, count);
+			}
+		}
+
+		int distinct = 0;
+		for (int x = 0; x < size; x++) {
+			assertEquals(labels[x] == labels[0], sets.connected(x, 0));
+			if (labels[x] == x)
+				distinct++;
+		}
+
+		assertEquals(distinct, sets.getNbSets());
+
+		// Retour à la partition initiale, membres toujours chaînés.
+		sets.reset();
+		assertEquals(size, sets.getNbSets());
+		for (int x = 0; x < size; x++) {
+			assertEquals(x, sets.find(x));
+			assertEquals(x, sets.nextMember(x));
+		}
+
+		assertTrue(sets.union(3, 4) >= 0);
+		assertEquals(4, sets.nextMember(3));
+	}
+
+	@Test
+	void test2() {
+		// Exécution pas à pas interrompue par une exécution d'un seul tenant, et
+		// inversement.
+		Maze maze = new Maze(37, 53);
+		KruskalAlgorithm algo = new ShuffledKruskalAlgorithm(new MazeBoard(maze));
+		algo.init();
+		for (int k = 0; k < 300; k++)
+			algo.step();
+
+		Thread.currentThread().interrupt();
+		algo.runToCompletion();
+		Thread.interrupted();
+		for (int k = 0; k < 300; k++)
+			algo.step();
+
+		algo.runToCompletion();
+		assertTrue(algo.isComplete());
+		assertTrue(MazeUtils.isPerfect(maze));
+		for (int i = 0; i < maze.getNbRows(); i++)
+			for (int j = 0; j < maze.getNbColumns(); j++)
+				assertEquals(maze.getCell(0, 0), maze.getCell(i, j));
+	}
+
+	@Test
+	void test3() throws InterruptedException {
+		// Unions concurrentes : autant d'unions réussies que d'ensembles fusionnés.
+		int size = 200000;
+		ConcurrentDisjointSet shared = new ConcurrentDisjointSet(size);
+		AtomicInteger unions = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			long seed = t;
+			threads[t] = new Thread(() -> {
+				SplittableRandom rand = new SplittableRandom(seed);
+				for (int k = 0; k < size; k++)
+					if (shared.union(rand.nextInt(size), rand.nextInt(size)) >= 0)
+						unions.incrementAndGet();
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads)
+			thread.join();
+
+		DisjointSet sets = new DisjointSet(size);
+		for (int x = 0; x < size; x++)
+			sets.union(x, shared.find(x));
+
+		assertEquals(size - unions.get(), sets.getNbSets());
+		for (int x = 0; x < size; x++)
+			assertEquals(sets.connected(x, 0), shared.connected(x, 0));
+	}
+
+	@Test
+	void test4() {
+		// Plusieurs tranches de murs, après quelques pas séquentiels.
+		Maze maze = new Maze(1100, 900);
+		KruskalAlgorithm algo = new ParallelKruskalAlgorithm(new MazeBoard(maze));
+		algo.init();
+		for (int k = 0; k < 1000; k++)
+			algo.step();
+
+		algo.runToCompletion();
+		assertTrue(algo.isComplete());
+		assertTrue(MazeUtils.isPerfect(maze));
+	}
+
+	@Test
+	void test5() {
+		// Kruskal parallèle : mêmes murs qu'en pas à pas, à graine égale (plusieurs
+		// tranches et plusieurs paquets de mélange).
+		Maze stepped = new Maze(300, 450), parallel = new Maze(300, 450);
+		KruskalAlgorithm algo = new ParallelKruskalAlgorithm(new MazeBoard(stepped));
+		algo.setSeed(57L);
+		algo.init();
+		while (!algo.isComplete())
+			algo.step();
+
+		algo = new ParallelKruskalAlgorithm(new MazeBoard(parallel));
+		algo.setSeed(57L);
+		algo.init();
+		for (int k = 0; k < 500; k++)
+			algo.step();
+
+		algo.runToCompletion();
+		assertTrue(algo.isComplete());
+		for (int i = 0; i < 300; i++)
+			for (int j = 0; j < 450; j++) {
+				assertEquals(stepped.getWall(i, j, Side.DOWN), parallel.getWall(i, j, Side.DOWN));
+				assertEquals(stepped.getWall(i, j, Side.RIGHT), parallel.getWall(i, j, Side.RIGHT));
+			}
+	}
+}
@@ -0,0 +1,94 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.MazeBoard;
+import com.rosty.maze.model.algorithm.generation.EllerAlgorithm;
+import com.rosty.maze.model.algorithm.generation.EllerStream;
+import com.rosty.util.maze.MazeRowWriter;
+import com.rosty.util.maze.MazeUtils;
+
+class Test_EllerStream {
+	/** Reporte les lignes reçues sur un labyrinthe dont tous les murs sont fermés. */
+	private static Maze collect(EllerStream stream) throws IOException {
+		Maze maze = new Maze((int) stream.getNbRows(), stream.getNbColumns());
+		for (int i = 0; i < maze.getNbRows(); i++)
+			for (int j = 0; j < maze.getNbColumns(); j++)
+				for (Side side : Side.values())
+					maze.setWall(i, j, side, 1);
+
+		stream.generate((row, masks) -> {
+			for (int c = 0; c < masks.length; c++)
+				for (Side side : Side.values())
+					if ((masks[c] & (1 << side.ordinal())) != 0)
+						maze.setWall((int) row, c, side, 0);
+		});
+
+		return maze;
+	}
+
+	@Test
+	void test1() throws IOException {
+		Maze streamed = collect(new EllerStream(37, 23, 99L));
+		assertTrue(MazeUtils.isPerfect(streamed));
+
+		// Mêmes murs que l'algorithme pas à pas, à graine égale.
+		Maze maze = new Maze(37, 23);
+		EllerAlgorithm algo = new EllerAlgorithm(new MazeBoard(maze));
+		algo.setSeed(99L);
+		Test_Algorithms.run(algo);
+		for (int i = 0; i < maze.getNbRows(); i++)
+			for (int j = 0; j < maze.getNbColumns(); j++)
+				for (Side side : Side.values())
+					assertEquals(maze.getWall(i, j, side), streamed.getWall(i, j, side));
+
+		assertTrue(MazeUtils.isPerfect(collect(new EllerStream(1, 17, 3L))));
+		assertTrue(MazeUtils.isPerfect(collect(new EllerStream(19, 1, 3L))));
+	}
+
+	@Test
+	void test2() throws IOException {
+		// Aller-retour par un flux d'octets.
+		List<byte[]> rows = new ArrayList<>();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (MazeRowWriter writer = new MazeRowWriter(bytes, 50, 41)) {
+			new EllerStream(50, 41, 7L).generate((row, masks) -> {
+				rows.add(masks.clone());
+				writer.accept(row, masks);
+			});
+		}
+
+		assertEquals(16 + 50 * 11, bytes.size());
+
+		List<byte[]> read = new ArrayList<>();
+		long count = MazeRowWriter.read(new ByteArrayInputStream(bytes.toByteArray()),
+				(row, masks) -> read.add(masks.clone()));
+		assertEquals(50, count);
+		for (int k = 0; k < rows.size(); k++)
+			assertArrayEquals(rows.get(k), read.get(k));
+	}
+
+	@Test
+	void test3() {
+		// Pas à pas, les cases de la dernière ligne finissent toutes dans le même groupe.
+		Maze maze = new Maze(30, 200);
+		EllerAlgorithm algo = new EllerAlgorithm(new MazeBoard(maze));
+		Test_Algorithms.run(algo);
+
+		assertTrue(MazeUtils.isPerfect(maze));
+		for (int j = 0; j < maze.getNbColumns(); j++)
+			assertEquals(maze.getCell(29, 0), maze.getCell(29, j));
+	}
+}
@@ -0,0 +1,335 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.storage.BitPackedStorage;
+import com.rosty.maze.model.storage.CellLayer;
+import com.rosty.maze.model.storage.FlatStorage;
+
+class Test_Maze {
+	@Test
+	void test1() {
+		Maze maze = new Maze(150, 100);
+		assertEquals(3, maze.getRegionRows());
+		assertEquals(2, maze.getRegionColumns());
+		assertTrue(maze.getChangedRegions(0).isEmpty());
+
+		maze.setCell(10, 10, 5);
+		long version = maze.getVersion();
+		assertEquals(1, version);
+
+		// Un mur à cheval sur deux régions les marque toutes les deux.
+		maze.setWall(130, 63, Side.RIGHT, 0);
+		BitSet changed = maze.getChangedRegions(version);
+		assertEquals(2, changed.cardinality());
+		assertTrue(changed.get(4));
+		assertTrue(changed.get(5));
+
+		// Les murs de bordure ne sont pas modifiables et ne changent pas la version.
+		version = maze.getVersion();
+		maze.setWall(0, 0, Side.UP, 0);
+		assertEquals(version, maze.getVersion());
+
+		maze.setCellAt(maze.cellIndex(70, 99), 1);
+		assertEquals(BitSet.valueOf(new long[] { 1 << 3 }), maze.getChangedRegions(version));
+
+		maze.clear();
+		assertEquals(6, maze.getChangedRegions(maze.getVersion() - 1).cardinality());
+	}
+
+	@Test
+	void test2() {
+		Maze maze = new Maze(100, 90);
+		maze.setCell(5, 5, 42);
+		maze.setWall(70, 70, Side.LEFT, 0);
+
+		Maze view = maze.snapshot();
+		assertEquals(maze.getVersion(), view.getVersion());
+
+		maze.setCell(5, 5, 7);
+		maze.setWall(70, 70, Side.LEFT, 1);
+		maze.setWall(64, 10, Side.UP, 0);
+
+		// Ecriture directe : vues et versions tenues à jour par l'appelant.
+		long version = maze.getVersion();
+		maze.preserveRegion(99, 89, 100, 90);
+		maze.setCellUnchecked(maze.cellIndex(99, 89), 3);
+		assertEquals(version, maze.getVersion());
+		maze.touchRegion(99, 89, 100, 90);
+		assertEquals(version + 1, maze.getVersion());
+
+		assertEquals(42, view.getCell(5, 5));
+		assertEquals(0, view.getWall(70, 70, Side.LEFT));
+		assertEquals(0, view.getWall(70, 69, Side.RIGHT));
+		assertEquals(1, view.getWall(64, 10, Side.UP));
+		assertEquals(1, view.getWall(63, 10, Side.DOWN));
+		assertEquals(0, view.getCell(99, 89));
+
+		// L'effacement du labyrinthe ne modifie pas la vue.
+		maze.clear();
+		assertEquals(42, view.getCell(5, 5));
+		assertEquals(0, view.getWall(70, 70, Side.LEFT));
+		assertEquals(0, maze.snapshot().getCell(5, 5));
+
+		assertThrows(UnsupportedOperationException.class, () -> view.setCell(0, 0, 1));
+
+		Maze copy = new Maze(view);
+		copy.setCell(5, 5, 1);
+		assertEquals(42, view.getCell(5, 5));
+		assertEquals(0, copy.getWall(70, 70, Side.LEFT));
+
+		// Une vue libérée n'est plus tenue à jour : elle lit le labyrinthe d'origine.
+		Maze.Snapshot released = maze.snapshot();
+		try {
+			maze.setCell(1, 1, 9);
+			assertEquals(0, released.getCell(1, 1));
+		} finally {
+			released.close();
+		}
+
+		maze.setCell(80, 80, 8);
+		assertEquals(8, released.getCell(80, 80));
+	}
+
+	@Test
+	void test3() {
+		int[][] slots = { //
+				{ 1, 1, 1, 1, 1, 1, 1 }, //
+				{ 1, 0, 0, 0, 1, 0, 1 }, //
+				{ 1, 1, 1, 0, 1, 0, 1 }, //
+				{ 1, 0, 0, 0, 0, 0, 1 }, //
+				{ 1, 1, 1, 1, 1, 1, 1 } //
+		};
+
+		Maze maze = ToolBox.parse(slots);
+		assertEquals(1, maze.degree(0, 0));
+		assertEquals(3, maze.degree(1, 1));
+		assertEquals(0, maze.degree(2, 0));
+		int mask = maze.openMask(1, 1);
+		assertEquals(3, Maze.openSideCount(mask));
+		assertEquals(Side.UP, Maze.openSide(mask, 0));
+		assertEquals(Side.RIGHT, Maze.openSide(mask, 1));
+		assertEquals(Side.LEFT, Maze.openSide(mask, 2));
+
+		// Les masques sont tenus à jour par les modifications de murs.
+		maze.setWall(1, 1, Side.UP, 1);
+		maze.setWall(maze.cellIndex(0, 2), Side.DOWN, 1);
+		assertEquals(0, maze.degree(0, 2));
+		assertEquals(1, maze.degree(0, 1));
+		assertEquals(1 << Side.RIGHT.ordinal() | 1 << Side.LEFT.ordinal(), maze.openMask(1, 1));
+
+		maze.clear();
+		assertEquals(0, maze.openMask(1, 1));
+		assertEquals(0, maze.openMask(-1, 0));
+	}
+
+	@Test
+	void test4() {
+		Maze maze = new Maze(3, 4);
+		Side[] buffer = new Side[Side.COUNT];
+
+		assertEquals(2, maze.neighbours(0, 0, buffer));
+		assertEquals(Side.RIGHT, buffer[0]);
+		assertEquals(Side.DOWN, buffer[1]);
+		assertEquals(4, maze.neighbours(1, 1, buffer));
+		assertArrayEquals(new Side[] { Side.UP, Side.RIGHT, Side.DOWN, Side.LEFT }, buffer);
+
+		// Filtrage des voisins selon leur valeur.
+		maze.setCell(1, 2, 7);
+		maze.setCell(0, 1, 7);
+		assertEquals(2, maze.neighbours(1, 1, 7, buffer));
+		assertEquals(Side.UP, buffer[0]);
+		assertEquals(Side.RIGHT, buffer[1]);
+		assertEquals(7, maze.getNeighbourCell(1, 1, Side.RIGHT));
+		assertEquals(-1, maze.getNeighbourCell(2, 3, Side.DOWN));
+
+		for (Side side : Side.values()) {
+			assertEquals(side, side.opposite().opposite());
+			assertEquals(0, side.dr + side.opposite().dr);
+			assertEquals(0, side.dc + side.opposite().dc);
+			assertEquals(side, Side.of(side.ordinal()));
+		}
+	}
+
+	@Test
+	void test5() {
+		Maze maze = new Maze(4, 5);
+		maze.setCell(2, 3, 9);
+
+		CellLayer layer = maze.createLayer(Maze.SOLVE_LAYER);
+		assertSame(layer, maze.createLayer(Maze.SOLVE_LAYER));
+		layer.set(2, 3, 4);
+		assertEquals(4, layer.get(2, 3));
+		assertEquals(9, maze.getCell(2, 3)); // Les valeurs du labyrinthe sont préservées.
+		assertEquals(-1, layer.get(4, 0));
+
+		// Les cases hors du terrain sont ignorées, sans déborder sur la ligne voisine.
+		layer.set(1, 5, 6);
+		layer.set(4, 0, 6);
+		layer.set(-1, 2, 6);
+		assertEquals(0, layer.get(2, 0));
+		assertEquals(0, layer.get(0, 2));
+
+		// Effacement en temps constant, avec une nouvelle valeur par défaut.
+		int epoch = layer.getEpoch();
+		layer.clear(Integer.MAX_VALUE);
+		assertEquals(epoch + 1, layer.getEpoch());
+		assertEquals(Integer.MAX_VALUE, layer.get(2, 3));
+		layer.set(maze.cellIndex(0, 0), 1);
+		assertEquals(1, layer.get(0, 0));
+
+		maze.createLayer(Maze.ANNOTATION_LAYER);
+		assertEquals(2, maze.getLayerNames().size());
+		assertTrue(maze.dropLayer(Maze.SOLVE_LAYER));
+		assertNull(maze.getLayer(Maze.SOLVE_LAYER));
+		assertEquals(0, maze.createLayer(Maze.SOLVE_LAYER).get(2, 3));
+	}
+
+	/** Labyrinthe 3x4 enregistré par la première version du logiciel (tableau "table"). */
+	private static final String LEGACY_MAZE = "rO0ABXNyABljb20ucm9zdHkubWF6ZS5tb2RlbC5NYXplkBhs2fA//RoCAANJAAVuYkNvbEkABW5iUm93WwAFdGFibGV0AANbW0l4cAAAAAQAAAADdXIAA1tbSRf35E8Zj4k8AgAAeHAAAAAHdXIAAltJTbpgJnbqsqUCAAB4cAAAAAkAAAABAAAAAQAAAAEAAAABAAAAAQAAAAEAAAABAAAAAQAAAAF1cQB+AAUAAAAJAAAAAQAAAAAAAAAAAAAAAAAAAAEAAAAAAAAAAQAAAAAAAAABdXEAfgAFAAAACQAAAAEAAAABAAAAAQAAAAAAAAABAAAAAQAAAAEAAAABAAAAAXVxAH4ABQAAAAkAAAABAAAAAAAAAAEAAAAAAAAAAQAAAAcAAAABAAAAAAAAAAF1cQB+AAUAAAAJAAAAAQAAAAEAAAABAAAAAQAAAAEAAAABAAAAAQAAAAAAAAABdXEAfgAFAAAACQAAAAEAAAADAAAAAQAAAAAAAAABAAAAAAAAAAEAAAAAAAAAAXVxAH4ABQAAAAkAAAABAAAAAQAAAAEAAAABAAAAAQAAAAEAAAABAAAAAQAAAAE=";
+
+	@Test
+	void test6() throws IOException, ClassNotFoundException {
+		// Relecture d'un ancien fichier.
+		Maze legacy;
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(Base64.getDecoder().decode(LEGACY_MAZE)))) {
+			legacy = (Maze) in.readObject();
+		}
+
+		assertEquals(3, legacy.getNbRows());
+		assertEquals(4, legacy.getNbColumns());
+		assertEquals(7, legacy.getCell(1, 2));
+		assertEquals(3, legacy.getCell(2, 0));
+		assertEquals(0, legacy.getWall(0, 1, Side.LEFT));
+		assertEquals(0, legacy.getWall(1, 1, Side.UP));
+		assertEquals(0, legacy.getWall(1, 3, Side.DOWN));
+		assertEquals(1, legacy.getWall(0, 1, Side.RIGHT));
+		assertEquals(1, legacy.degree(0, 0));
+
+		// Aller-retour, indépendant du support mémoire.
+		Maze packed = new Maze(new BitPackedStorage(5, 6));
+		packed.setCell(4, 5, 12);
+		packed.setWall(2, 2, Side.RIGHT, 0);
+		packed.setWall(3, 0, Side.DOWN, 0);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(packed);
+		}
+
+		Maze copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (Maze) in.readObject();
+		}
+
+		assertTrue(copy.getStorage() instanceof FlatStorage);
+		for (int i = 0; i < 5; i++)
+			for (int j = 0; j < 6; j++) {
+				assertEquals(packed.getCell(i, j), copy.getCell(i, j));
+				for (Side side : Side.values())
+					assertEquals(packed.getWall(i, j, side), copy.getWall(i, j, side));
+			}
+	}
+
+	@Test
+	void test7() {
+		// Ecriture simultanée des murs, directe ou sérialisée selon le support.
+		for (Maze maze : new Maze[] { new Maze(130, 70), new Maze(new BitPackedStorage(130, 70)) }) {
+			assertEquals(0, maze.openMask(100, 5)); // Masques construits
+			long version = maze.getVersion();
+
+			try (Maze.Snapshot view = maze.snapshot()) {
+				try (Maze.WallWriter writer = maze.concurrentWalls(64, 128)) {
+					IntStream.range(64, 128).parallel().forEach(i -> writer.setRowWalls(i, 0, 70, Side.UP, 0));
+					writer.setWall(10, 10, Side.RIGHT, 0); // Hors des lignes de l'écriture
+					assertEquals(version, maze.getVersion());
+				}
+
+				assertEquals(1, view.getWall(64, 3, Side.UP));
+				assertEquals(1, view.getWall(100, 3, Side.UP));
+			}
+
+			assertEquals(version + 1, maze.getVersion());
+			assertTrue(maze.getChangedRegions(version).get(0));
+			assertEquals(0, maze.getWall(64, 3, Side.UP));
+			assertEquals(0, maze.getWall(63, 3, Side.DOWN));
+			assertEquals(1, maze.getWall(10, 10, Side.RIGHT));
+
+			int up = 1 << Side.UP.ordinal(), down = 1 << Side.DOWN.ordinal();
+			assertEquals(up | down, maze.openMask(100, 5));
+			assertEquals(down, maze.openMask(63, 5));
+			assertEquals(up, maze.openMask(127, 5));
+		}
+	}
+
+	@Test
+	void test8() throws InterruptedException {
+		// Vue créée pendant qu'un autre fil d'exécution modifie le labyrinthe.
+		Maze maze = new Maze(128, 128);
+		AtomicLong passes = new AtomicLong();
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicInteger handshake = new AtomicInteger();
+		Thread writer = new Thread(() -> {
+			for (int value = 1; !stop.get(); value++) {
+				for (int i = 0; i < 128; i++)
+					maze.setCell(i, value % 128, value);
+
+				// Synchronisation avec le fil qui a créé la vue (cf. Maze.snapshot()).
+				handshake.compareAndSet(1, 2);
+				passes.incrementAndGet();
+			}
+		});
+		writer.start();
+
+		try {
+			while (passes.get() < 1000) // Boucle d'écriture compilée avant la vue
+				Thread.yield();
+
+			try (Maze.Snapshot view = maze.snapshot()) {
+				handshake.set(1);
+				while (handshake.get() < 2)
+					Thread.yield();
+
+				// La passe en cours a pu lire la liste des vues avant la synchronisation.
+				long pass = passes.get();
+				while (passes.get() < pass + 2)
+					Thread.yield();
+
+				int[] cells = new int[128 * 128];
+				for (int k = 0; k < cells.length; k++)
+					cells[k] = view.getCell(k / 128, k % 128);
+
+				pass = passes.get();
+				while (passes.get() < pass + 1000)
+					Thread.yield();
+
+				for (int k = 0; k < cells.length; k++)
+					assertEquals(cells[k], view.getCell(k / 128, k % 128));
+			}
+		} finally {
+			stop.set(true);
+			writer.join();
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.graph.CsrGraph;
+import com.rosty.maze.model.graph.JunctionGraph;
+import com.rosty.maze.model.graph.MazeGraph;
+import com.rosty.util.maze.MazeUtils;
+
+class Test_MazeGraph {
+	@Test
+	void test1() {
+		int rows = 40, cols = 57;
+		Maze maze = new Maze(rows, cols);
+		Random rand = new Random(3);
+		for (int k = 0; k < 1500; k++)
+			maze.setWall(rand.nextInt(rows), rand.nextInt(cols), Side.values()[rand.nextInt(4)], 0);
+
+		CsrGraph graph = CsrGraph.of(maze);
+		assertEquals(rows * cols, graph.getNbNodes());
+
+		Side[] buffer = new Side[Side.COUNT];
+		int edges = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				int node = graph.nodeOf(maze.cellIndex(i, j));
+				assertEquals(maze.degree(i, j), graph.degree(node));
+
+				// Les arcs suivent l'ordre des directions.
+				int edge = graph.firstEdge(node);
+				for (int k = 0, len = maze.neighbours(i, j, buffer); k < len; k++) {
+					if (maze.getWall(i, j, buffer[k]) == 0) {
+						int cell = graph.cellOf(graph.target(edge));
+						assertEquals(i + buffer[k].dr, maze.rowOf(cell));
+						assertEquals(j + buffer[k].dc, maze.columnOf(cell));
+						assertEquals(1, graph.weight(edge++));
+					}
+				}
+
+				assertEquals(graph.endEdge(node), edge);
+				edges += graph.degree(node);
+			}
+		}
+
+		assertEquals(edges, graph.getNbEdges());
+		assertEquals(MazeUtils.enclosures(maze), MazeUtils.enclosures(graph));
+		assertEquals(-1, graph.nodeOf(rows * cols));
+	}
+
+	@Test
+	void test2() {
+		int rows = 60, cols = 45;
+		Maze maze = backtracking(rows, cols, new Random(5));
+		int start = maze.cellIndex(0, 0), end = maze.cellIndex(rows - 1, cols - 1);
+
+		// Labyrinthe parfait, puis quelques boucles.
+		for (int round = 0; round < 2; round++) {
+			JunctionGraph graph = JunctionGraph.of(maze, start, end);
+			CsrGraph grid = CsrGraph.of(maze);
+			assertTrue(3 * graph.getNbNodes() < grid.getNbNodes(), "nodes: " + graph.getNbNodes());
+			assertTrue(graph.nodeOf(start) >= 0 && graph.nodeOf(end) >= 0);
+
+			// Chaque arc se développe en une suite de cases voisines et ouvertes.
+			int[] seen = new int[rows * cols];
+			for (int node = 0; node < graph.getNbNodes(); node++) {
+				seen[graph.cellOf(node)]++;
+				for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+					int prev = graph.cellOf(node);
+					for (int k = 0; k < graph.weight(edge) - 1; k++) {
+						int cell = graph.corridorCell(edge, k);
+						assertEquals(-1, graph.nodeOf(cell));
+						assertTrue(adjacent(maze, prev, cell));
+						seen[cell]++;
+						prev = cell;
+					}
+
+					assertTrue(adjacent(maze, prev, graph.cellOf(graph.target(edge))));
+				}
+			}
+
+			// Les cases des couloirs sont vues depuis les deux extrémités.
+			for (int cell = 0; cell < rows * cols; cell++)
+				assertEquals((graph.nodeOf(cell) >= 0) ? 1 : 2, seen[cell]);
+
+			assertEquals(bfs(grid, grid.nodeOf(start), grid.nodeOf(end)), dijkstra(graph, start, end));
+
+			Random rand = new Random(round);
+			for (int k = 0; k < 200; k++)
+				maze.setWall(rand.nextInt(rows), rand.nextInt(cols), Side.values()[rand.nextInt(4)], 0);
+		}
+	}
+
+	/** Génère un labyrinthe parfait par exploration exhaustive. */
+	private static Maze backtracking(int rows, int cols, Random rand) {
+		Maze maze = new Maze(rows, cols);
+		Side[] buffer = new Side[Side.COUNT];
+		Deque<Integer> stack = new ArrayDeque<>();
+		maze.setCell(0, 0, 1);
+		stack.push(0);
+		while (!stack.isEmpty()) {
+			int index = stack.peek(), i = maze.rowOf(index), j = maze.columnOf(index);
+			int count = maze.neighbours(i, j, 0, buffer);
+			if (count == 0) {
+				stack.pop();
+				continue;
+			}
+
+			Side side = buffer[rand.nextInt(count)];
+			maze.setWall(i, j, side, 0);
+			maze.setCell(i + side.dr, j + side.dc, 1);
+			stack.push(maze.cellIndex(i + side.dr, j + side.dc));
+		}
+
+		return maze;
+	}
+
+	private static boolean adjacent(Maze maze, int from, int to) {
+		for (Side side : Side.values())
+			if (maze.neighbourIndex(from, side) == to)
+				return maze.isOpen(from, side);
+
+		return false;
+	}
+
+	private static int bfs(MazeGraph graph, int from, int to) {
+		int[] dist = new int[graph.getNbNodes()];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[graph.getNbNodes()];
+		dist[from] = 0;
+		queue[0] = from;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int node = queue[head];
+			for (int edge = graph.firstEdge(node); edge < graph.endEdge(node); edge++) {
+				if (dist[graph.target(edge)] < 0) {
+					dist[graph.target(edge)] = dist[node] + graph.weight(edge);
+					queue[tail++] = graph.target(edge);
+				}
+			}
+		}
+
+		return dist[to];
+	}
+
+	private static int dijkstra(MazeGraph graph, int startCell, int endCell) {
+		int[] dist = new int[graph.getNbNodes()];
+		Arrays.fill(dist, Integer.MAX_VALUE);
+		PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+		dist[graph.nodeOf(startCell)] = 0;
+		queue.add(new int[] { 0, graph.nodeOf(startCell) });
+		while (!queue.isEmpty()) {
+			int[] item = queue.poll();
+			if (item[0] > dist[item[1]])
+				continue;
+
+			for (int edge = graph.firstEdge(item[1]); edge < graph.endEdge(item[1]); edge++) {
+				int next = graph.target(edge), d = item[0] + graph.weight(edge);
+				if (d < dist[next]) {
+					dist[next] = d;
+					queue.add(new int[] { d, next });
+				}
+			}
+		}
+
+		return dist[graph.nodeOf(endCell)];
+	}
+}
@@ -0,0 +1,324 @@
+package com.rosty.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.storage.BitPackedStorage;
+import com.rosty.maze.model.storage.CellPlane;
+import com.rosty.maze.model.storage.FlatStorage;
+import com.rosty.maze.model.storage.MappedStorage;
+import com.rosty.maze.model.storage.MazeStorage;
+import com.rosty.maze.model.storage.TiledStorage;
+import com.rosty.util.maze.MazeUtils;
+
+class Test_MazeStorage {
+	@Test
+	void test1() {
+		int rows = 37, cols = 71;
+		Maze table = new Maze(rows, cols);
+		Maze packed = new Maze(new BitPackedStorage(rows, cols));
+
+		Random rand = new Random(42);
+		for (int k = 0; k < 20000; k++) {
+			int i = rand.nextInt(rows), j = rand.nextInt(cols);
+			Side side = Side.values()[rand.nextInt(4)];
+			int value = rand.nextInt(2);
+
+			table.setWall(i, j, side, value);
+			packed.setWall(i, j, side, value);
+
+			table.setCell(i, j, k);
+			packed.setCell(i, j, k);
+		}
+
+		for (int i = 0; i <= 2 * rows; i++)
+			for (int j = 0; j <= 2 * cols; j++)
+				assertEquals(table.get(i, j), packed.get(i, j), "(" + i + ", " + j + ")");
+
+		assertEquals(MazeUtils.enclosures(table), MazeUtils.enclosures(packed));
+		assertEquals(MazeUtils.islets(table), MazeUtils.islets(packed));
+	}
+
+	@Test
+	void test2() {
+		int[][] slots = { //
+				{ 1, 1, 1, 1, 1, 1, 1, 1, 1 }, //
+				{ 1, 0, 0, 0, 1, 0, 0, 0, 1 }, //
+				{ 1, 1, 1, 0, 1, 1, 1, 0, 1 }, //
+				{ 1, 0, 0, 0, 0, 0, 1, 0, 1 }, //
+				{ 1, 0, 1, 1, 1, 0, 1, 0, 1 }, //
+				{ 1, 0, 1, 0, 0, 0, 0, 0, 1 }, //
+				{ 1, 1, 1, 1, 1, 1, 1, 1, 1 } //
+		};
+
+		Maze maze = ToolBox.parse(slots);
+		Maze copy = new Maze(maze);
+		copy.setWall(0, 1, Side.RIGHT, 0);
+
+		assertEquals(1, maze.getWall(0, 1, Side.RIGHT));
+		assertEquals(0, copy.getWall(0, 1, Side.RIGHT));
+
+		// Les bordures et les jonctions de murs ne sont pas modifiables.
+		copy.set(0, 1, 0);
+		copy.set(2, 2, 0);
+		assertEquals(1, copy.get(0, 1));
+		assertEquals(1, copy.get(2, 2));
+	}
+
+	@Test
+	void test3() {
+		int rows = 23, cols = 17;
+		Maze flat = new Maze(rows, cols);
+		Maze packed = new Maze(new BitPackedStorage(rows, cols));
+
+		Random rand = new Random(7);
+		for (int k = 0; k < 5000; k++) {
+			int index = rand.nextInt(rows * cols);
+			Side side = Side.values()[rand.nextInt(4)];
+			flat.setWall(index, side, 0);
+			packed.setWall(index, side, 0);
+			flat.setCellAt(index, k);
+			packed.setCellAt(index, k);
+		}
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				int index = flat.cellIndex(i, j);
+				assertEquals(i * cols + j, index);
+				assertEquals(flat.getCell(i, j), packed.getCellUnchecked(index));
+
+				for (Side side : Side.values()) {
+					assertEquals(flat.getWall(i, j, side), flat.getWall(index, side));
+					assertEquals(flat.getWall(i, j, side), packed.getWall(i, j, side));
+					assertEquals(flat.isOpen(index, side), packed.isOpenUnchecked(index, side));
+
+					int next = flat.neighbourIndex(index, side);
+					if (next >= 0)
+						assertEquals(next, flat.neighbourIndexUnchecked(index, side));
+					else
+						assertEquals(1, flat.getWall(index, side));
+				}
+			}
+		}
+
+		assertEquals(-1, flat.cellIndex(rows, 0));
+		assertEquals(-1, flat.getCellAt(rows * cols));
+		assertEquals(-1, flat.neighbourIndex(0, Side.LEFT));
+		assertEquals(-1, flat.neighbourIndex(cols - 1, Side.RIGHT));
+	}
+
+	@Test
+	void test4() throws IOException {
+		int rows = 19, cols = 29;
+		Path file = Files.createTempFile("test", ".map");
+		try {
+			Maze flat = new Maze(rows + 5, cols);
+			MappedStorage storage = MappedStorage.create(file, rows, cols);
+			Maze mapped = new Maze(storage);
+
+			Random rand = new Random(3);
+			for (int k = 0; k < 5000; k++) {
+				int i = rand.nextInt(rows), j = rand.nextInt(cols);
+				Side side = Side.values()[rand.nextInt(4)];
+				int value = rand.nextInt(2);
+
+				flat.setWall(i, j, side, value);
+				mapped.setWall(i, j, side, value);
+				flat.setCell(i, j, k);
+				mapped.setCell(i, j, k);
+			}
+			// Le mur du bas de la dernière ligne n'est pas encore une paroi intérieure.
+			for (int j = 0; j < cols; j++)
+				flat.setWall(rows - 1, j, Side.DOWN, 1);
+
+			storage.close();
+
+			// Réouverture puis agrandissement du fichier
+			storage = MappedStorage.open(file);
+			storage.grow(5);
+			mapped = new Maze(storage);
+			assertEquals(rows + 5, mapped.getNbRows());
+
+			for (int i = 0; i <= 2 * (rows + 5); i++)
+				for (int j = 0; j <= 2 * cols; j++)
+					assertEquals(flat.get(i, j), mapped.get(i, j), "(" + i + ", " + j + ")");
+
+			Maze copy = new Maze(mapped);
+			copy.setWall(rows, 0, Side.RIGHT, 0);
+			assertEquals(1, mapped.getWall(rows, 0, Side.RIGHT));
+			assertEquals(0, copy.getWall(rows, 0, Side.RIGHT));
+
+			// La fermeture de la copie libère et supprime son fichier temporaire.
+			MappedStorage copied = (MappedStorage) copy.getStorage();
+			assertTrue(Files.exists(copied.getPath()));
+			copied.close();
+			assertFalse(Files.exists(copied.getPath()));
+			storage.close();
+			assertTrue(Files.exists(file));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void test5() {
+		int rows = 150, cols = 131;
+		Maze flat = new Maze(rows, cols);
+		TiledStorage storage = new TiledStorage(rows, cols);
+		Maze tiled = new Maze(storage);
+
+		// Seule la tuile en haut à gauche est modifiée.
+		Random rand = new Random(11);
+		for (int k = 0; k < 3000; k++) {
+			int i = rand.nextInt(TiledStorage.TILE_SIZE - 1), j = rand.nextInt(TiledStorage.TILE_SIZE - 1);
+			Side side = (k % 2 == 0) ? Side.DOWN : Side.RIGHT;
+			int value = rand.nextInt(2);
+
+			flat.setWall(i, j, side, value);
+			tiled.setWall(i, j, side, value);
+			flat.setCell(i, j, k);
+			tiled.setCell(i, j, k);
+		}
+		assertEquals(1, storage.getTileCount());
+
+		// Les écritures de l'état initial n'allouent pas de tuile.
+		tiled.setCell(rows - 1, cols - 1, 0);
+		tiled.setWall(rows - 2, cols - 2, Side.DOWN, 1);
+		assertEquals(1, storage.getTileCount());
+
+		// Un mur à cheval sur deux tuiles est rangé dans la tuile de gauche.
+		flat.setWall(70, 64, Side.LEFT, 0);
+		tiled.setWall(70, 64, Side.LEFT, 0);
+		assertEquals(2, storage.getTileCount());
+
+		for (int i = 0; i <= 2 * rows; i++)
+			for (int j = 0; j <= 2 * cols; j++)
+				assertEquals(flat.get(i, j), tiled.get(i, j), "(" + i + ", " + j + ")");
+
+		Maze copy = new Maze(tiled);
+		tiled.clear();
+		assertEquals(0, storage.getTileCount());
+		assertEquals(0, copy.getWall(70, 63, Side.RIGHT));
+
+		Maze huge = new Maze(new TiledStorage(100_000, 100_000));
+		assertEquals(1, huge.getWall(99_999, 99_999, Side.LEFT));
+		assertEquals(0, huge.getCell(50_000, 50_000));
+	}
+
+	@Test
+	void test6() {
+		CellPlane plane = new CellPlane(1000, CellPlane.Width.BYTE);
+		for (int k = 0; k < 1000; k++)
+			plane.set(k, k % 3);
+		assertEquals(CellPlane.Width.BYTE, plane.getWidth());
+
+		plane.set(10, -300);
+		assertEquals(CellPlane.Width.SHORT, plane.getWidth());
+		plane.set(20, Integer.MAX_VALUE);
+		assertEquals(CellPlane.Width.INT, plane.getWidth());
+
+		assertEquals(-300, plane.get(10));
+		assertEquals(Integer.MAX_VALUE, plane.get(20));
+		assertEquals(999 % 3, plane.get(999));
+
+		plane.clear();
+		assertEquals(CellPlane.Width.BYTE, plane.getWidth());
+		assertEquals(0, plane.get(20));
+
+		Maze maze = new Maze(30, 40, CellPlane.Width.BYTE);
+		Maze packed = new Maze(new BitPackedStorage(30, 40, CellPlane.Width.SHORT));
+		maze.setCell(29, 39, 100_000);
+		packed.setCell(29, 39, 100_000);
+		assertEquals(100_000, maze.getCell(29, 39));
+		assertEquals(100_000, packed.getCell(29, 39));
+	}
+
+	@Test
+	void test7() {
+		int rows = 70, cols = 131;
+		Maze flat = new Maze(rows, cols);
+		Maze[] others = { new Maze(new BitPackedStorage(rows, cols)), new Maze(new TiledStorage(rows, cols)) };
+
+		// Référence construite mur par mur et case par case.
+		Maze single = new Maze(rows, cols);
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++) {
+				single.setWall(i, j, Side.DOWN, 0);
+				single.setWall(i, j, Side.RIGHT, 0);
+			}
+
+		Random rand = new Random(11);
+		for (Maze maze : others)
+			maze.removeAllInteriorWalls();
+		flat.removeAllInteriorWalls();
+		assertEquals(4, flat.degree(5, 5));
+		assertEquals(2, flat.degree(0, 0));
+
+		for (int k = 0; k < 300; k++) {
+			int a = rand.nextInt(rows + 2) - 1, b = rand.nextInt(cols + 2) - 1, c = rand.nextInt(cols + 2) - 1;
+			Side side = Side.values()[rand.nextInt(4)];
+			int value = rand.nextInt(2);
+			boolean row = rand.nextBoolean();
+
+			for (Maze maze : new Maze[] { flat, others[0], others[1] }) {
+				if (row)
+					maze.setRowWalls(a % rows, Math.min(b, c), Math.max(b, c), side, value);
+				else
+					maze.setColumnWalls(b, Math.min(a, c), Math.max(a, c), side, value);
+
+				maze.fillRegion(a, b, a + 3, c, k);
+			}
+
+			if (row)
+				for (int j = Math.min(b, c); j < Math.max(b, c); j++)
+					single.setWall(a % rows, j, side, value);
+			else
+				for (int i = Math.min(a, c); i < Math.max(a, c); i++)
+					single.setWall(i, b, side, value);
+
+			for (int i = a; i < a + 3; i++)
+				for (int j = b; j < c; j++)
+					single.setCell(i, j, k);
+		}
+
+		for (int i = 0; i <= 2 * rows; i++)
+			for (int j = 0; j <= 2 * cols; j++) {
+				assertEquals(flat.get(i, j), others[0].get(i, j), "(" + i + ", " + j + ")");
+				assertEquals(flat.get(i, j), others[1].get(i, j), "(" + i + ", " + j + ")");
+				assertEquals(flat.get(i, j), single.get(i, j), "(" + i + ", " + j + ")");
+			}
+
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				assertEquals(single.openMask(i, j), flat.openMask(i, j));
+
+		flat.fillCells(3);
+		assertEquals(3, flat.getCell(rows - 1, cols - 1));
+	}
+
+	@Test
+	void test8() throws IOException {
+		// Choix du support mémoire par son type.
+		Class<?>[] classes = { FlatStorage.class, BitPackedStorage.class, TiledStorage.class, MappedStorage.class };
+		for (MazeStorage.Kind kind : MazeStorage.Kind.values()) {
+			Maze maze = Maze.create(20, 30, kind, CellPlane.Width.BYTE);
+			assertEquals(classes[kind.ordinal()], maze.getStorage().getClass());
+			assertEquals(1, maze.getWall(3, 4, Side.LEFT));
+
+			maze.setCell(3, 4, 1000); // Elargissement automatique des cases
+			assertEquals(1000, maze.getCell(3, 4));
+			if (maze.getStorage() instanceof MappedStorage)
+				((MappedStorage) maze.getStorage()).close();
+		}
+	}
+}
@@ -69,4 +69,27 @@ class Test_MazeUtils {
 		boolean perf = MazeUtils.isPerfect(maze);
 		assertEquals(perf, false, "perfect: " + perf);
 	}
-}
\ No newline at end of file
+
+	@Test
+	void test3() {
+		// La case centrale de la 2e ligne est entourée d'un enclos qui la contourne
+		// par le haut et par le bas.
+		int[][] slots = { //
+				{ 1, 1, 1, 1, 1, 1, 1 }, //
+				{ 1, 0, 0, 0, 0, 0, 1 }, //
+				{ 1, 0, 1, 1, 1, 0, 1 }, //
+				{ 1, 0, 1, 0, 1, 0, 1 }, //
+				{ 1, 0, 1, 0, 1, 0, 1 }, //
+				{ 1, 0, 0, 0, 0, 0, 1 }, //
+				{ 1, 1, 1, 1, 1, 1, 1 } //
+		};
+
+		Maze maze = ToolBox.parse(slots);
+
+		int enc = MazeUtils.enclosures(maze);
+		assertEquals(1, enc, "enclosures: " + enc);
+
+		int isl = MazeUtils.islets(maze);
+		assertEquals(1, isl, "islets: " + isl);
+	}
+}
@@ -0,0 +1,128 @@
+package com.rosty.util.maze;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import com.rosty.maze.model.Maze;
+import com.rosty.maze.model.Maze.Side;
+
+/**
+ * Classe utilitaire pour l'export d'un labyrinthe sous forme d'image, sans
+ * passer par un composant graphique JavaFX : l'image est dessinée directement
+ * à partir des murs du labyrinthe, ce qui permet de l'utiliser sans affichage
+ * (cf. {@link com.rosty.util.javafx.NodeWriter} pour la capture de l'IHM).
+ * <p>
+ * L'image est en niveaux de gris : les murs sont noirs, les cases blanches et
+ * les cases du chemin éventuel grises.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class MazeImageWriter {
+	private static final int WALL = 0x00, CELL = 0xFF, PATH = 0xA0;
+
+	/** Nombre maximal de pixels d'une image (un octet par pixel). */
+	private static final long MAX_PIXELS = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Vérifie que l'image d'un labyrinthe peut être allouée, sans la dessiner.
+	 *
+	 * @param rows     Nombre de lignes du labyrinthe.
+	 * @param cols     Nombre de colonnes du labyrinthe.
+	 * @param cellSize Côté d'une case en pixels, murs compris.
+	 * @throws IllegalArgumentException Si l'image dépasse les dimensions d'un
+	 *                                  tableau Java.
+	 */
+	public static void checkSize(int rows, int cols, int cellSize) throws IllegalArgumentException {
+		int size = Math.max(2, cellSize);
+		long width = (long) cols * size + 1, height = (long) rows * size + 1;
+		if (width > MAX_PIXELS || height > MAX_PIXELS || width * height > MAX_PIXELS)
+			throw new IllegalArgumentException(
+					"Image too large: " + width + "x" + height + " pixels (at most " + MAX_PIXELS + " pixels)");
+	}
+
+	/**
+	 * Dessine un labyrinthe et le chemin tracé dans ce labyrinthe.
+	 *
+	 * @param maze     Labyrinthe à dessiner.
+	 * @param path     Cases du chemin (lignes et colonnes), où <code>null</code>.
+	 * @param cellSize Côté d'une case en pixels, murs compris (au moins 2).
+	 * @return Image du labyrinthe.
+	 * @throws IllegalArgumentException Si l'image est trop grande (cf.
+	 *                                  {@link #checkSize(int, int, int)}).
+	 */
+	public static BufferedImage draw(Maze maze, List<int[]> path, int cellSize) throws IllegalArgumentException {
+		int size = Math.max(2, cellSize);
+		int rows = maze.getNbRows(), cols = maze.getNbColumns();
+		checkSize(rows, cols, size);
+
+		BufferedImage image = new BufferedImage(cols * size + 1, rows * size + 1, BufferedImage.TYPE_BYTE_GRAY);
+		WritableRaster raster = image.getRaster();
+
+		int[] line = new int[image.getWidth()];
+		Arrays.fill(line, CELL);
+		for (int y = 0; y < image.getHeight(); y++)
+			raster.setSamples(0, y, line.length, 1, 0, line);
+
+		if (path != null)
+			for (int[] cell : path)
+				fill(raster, cell[1] * size + 1, cell[0] * size + 1, size - 1, size - 1, PATH);
+
+		// Bords du labyrinthe, puis murs du bas et de droite de chaque case
+		fill(raster, 0, 0, image.getWidth(), 1, WALL);
+		fill(raster, 0, 0, 1, image.getHeight(), WALL);
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				int x = j * size, y = i * size;
+				if (maze.getWall(i, j, Side.DOWN) != 0)
+					fill(raster, x, y + size, size + 1, 1, WALL);
+				if (maze.getWall(i, j, Side.RIGHT) != 0)
+					fill(raster, x + size, y, 1, size + 1, WALL);
+			}
+		}
+
+		return image;
+	}
+
+	/**
+	 * Enregistre l'image d'un labyrinthe. Le format est déduit de l'extension du
+	 * fichier : <b>PNG</b>, <b>GIF</b>, <b>JPG</b> ou <b>JPEG</b>.
+	 *
+	 * @param maze     Labyrinthe à dessiner.
+	 * @param path     Cases du chemin (lignes et colonnes), où <code>null</code>.
+	 * @param cellSize Côté d'une case en pixels, murs compris.
+	 * @param file     Fichier de sauvegarde.
+	 * @throws IOException              En cas de problème lors de l'écriture du
+	 *                                  fichier.
+	 * @throws IllegalArgumentException Si l'extension du fichier n'est pas prise en
+	 *                                  charge ou si l'image est trop grande.
+	 */
+	public static void write(Maze maze, List<int[]> path, int cellSize, File file)
+			throws IOException, IllegalArgumentException {
+		String[] words = file.getName().split("\\.");
+		String fileExtension = words[words.length - 1].toLowerCase();
+		switch (fileExtension) {
+			case "jpg":
+			case "jpeg":
+			case "png":
+			case "gif":
+				ImageIO.write(draw(maze, path, cellSize), fileExtension, file);
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported image format: " + fileExtension);
+		}
+	}
+
+	private static void fill(WritableRaster raster, int x, int y, int width, int height, int value) {
+		for (int v = y; v < y + height; v++)
+			for (int u = x; u < x + width; u++)
+				raster.setSample(u, v, 0, value);
+	}
+}
@@ -0,0 +1,115 @@
+package com.rosty.util.maze;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.RowSink;
+
+/**
+ * Ecriture d'un labyrinthe ligne par ligne dans un flux (fichier, connexion
+ * réseau...), au fur et à mesure de sa génération (cf.
+ * {@link com.rosty.maze.model.algorithm.generation.EllerStream}).
+ * <p>
+ * Le flux commence par un en-tête (l'entier <b>0x4D5A5253</b>, le nombre de
+ * lignes sur 8 octets et le nombre de colonnes sur 4 octets), suivi des lignes
+ * de haut en bas. Chaque case est codée sur 2 bits, 4 cases par octet en
+ * commençant par les bits de poids faible : le premier bit est levé si le mur de
+ * droite est ouvert, le second si le mur du bas est ouvert. Chaque ligne occupe
+ * un nombre entier d'octets.
+ * </p>
+ *
+ * @author Martin Rostagnat
+ * @version 1.0
+ */
+public class MazeRowWriter implements RowSink, Closeable {
+	/** Entier identifiant le format, en tête du flux. */
+	public static final int MAGIC = 0x4D5A5253;
+
+	private static final int UP = 1 << Side.UP.ordinal(), RIGHT = 1 << Side.RIGHT.ordinal(),
+			DOWN = 1 << Side.DOWN.ordinal(), LEFT = 1 << Side.LEFT.ordinal();
+
+	private final DataOutputStream out;
+	private final byte[] buffer;
+
+	/**
+	 * Constructeur de la classe {@link MazeRowWriter} ; l'en-tête est écrit
+	 * immédiatement.
+	 *
+	 * @param out   Flux de destination, fermé avec ce {@link MazeRowWriter}.
+	 * @param nbRow Nombre de lignes du labyrinthe.
+	 * @param nbCol Nombre de colonnes du labyrinthe.
+	 * @throws IOException En cas de problème lors de l'écriture.
+	 */
+	public MazeRowWriter(OutputStream out, long nbRow, int nbCol) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.buffer = new byte[(nbCol + 3) / 4];
+		this.out.writeInt(MAGIC);
+		this.out.writeLong(nbRow);
+		this.out.writeInt(nbCol);
+	}
+
+	@Override
+	public void accept(long row, byte[] masks) throws IOException {
+		for (int c = 0; c < masks.length; c++) {
+			int bits = ((masks[c] & RIGHT) != 0 ? 1 : 0) | ((masks[c] & DOWN) != 0 ? 2 : 0);
+			if ((c & 3) == 0)
+				buffer[c >> 2] = 0;
+
+			buffer[c >> 2] |= bits << ((c & 3) << 1);
+		}
+
+		out.write(buffer);
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Relit un labyrinthe écrit par un {@link MazeRowWriter}, ligne par ligne. Les
+	 * masques transmis décrivent les quatre côtés de chaque case.
+	 *
+	 * @param in   Flux source, qui n'est pas fermé.
+	 * @param sink Destinataire des lignes lues.
+	 * @return Nombre de lignes lues.
+	 * @throws IOException En cas de problème lors de la lecture, ou si le flux
+	 *                     n'est pas au bon format.
+	 */
+	public static long read(InputStream in, RowSink sink) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a maze row stream");
+
+		long nbRow = data.readLong();
+		int nbCol = data.readInt();
+		byte[] buffer = new byte[(nbCol + 3) / 4];
+		byte[] masks = new byte[nbCol];
+		for (long row = 0L; row < nbRow; row++) {
+			data.readFully(buffer);
+			for (int c = 0; c < nbCol; c++) {
+				int bits = buffer[c >> 2] >> ((c & 3) << 1);
+				int mask = ((masks[c] & DOWN) != 0) ? UP : 0;
+				if (c > 0 && (masks[c - 1] & RIGHT) != 0)
+					mask |= LEFT;
+				if ((bits & 1) != 0)
+					mask |= RIGHT;
+				if ((bits & 2) != 0)
+					mask |= DOWN;
+
+				masks[c] = (byte) mask;
+			}
+
+			sink.accept(row, masks);
+		}
+
+		return nbRow;
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import com.rosty.maze.model.Maze;
 import com.rosty.maze.model.Maze.Side;
+import com.rosty.maze.model.graph.MazeGraph;
 
 /**
  * Classe utilitaire dédiée aux opérations de plus haut niveau sur les
@@ -20,50 +21,81 @@ public class MazeUtils {
 	 * entre elles. Dans un enclos, il est possible d'aller d'une cellule à une
 	 * autre via un ou plusieurs chemins.
 	 * </p>
+	 * <p>
+	 * Le décompte se fait sur une vue figée du labyrinthe (cf.
+	 * {@link Maze#snapshot()}), ligne par ligne, avec un tampon de la taille d'une
+	 * ligne.
+	 * </p>
 	 */
 	public static int enclosures(Maze maze) {
-		Maze copy = new Maze(maze);
+		// Vue figée : le labyrinthe peut être modifié pendant le décompte.
+		try (Maze.Snapshot view = maze.snapshot()) {
+			return countEnclosures(view);
+		}
+	}
+
+	/** Décompte les enclos d'un labyrinthe qui n'est pas modifié pendant le décompte. */
+	private static int countEnclosures(Maze view) {
+		int nbCol = view.getNbColumns();
+
+		// Etiquettes de la "frontière" entre les cases traitées et les autres : les
+		// cases de la ligne courante avant la colonne j, celles de la ligne
+		// précédente à partir de la colonne j.
+		int[] buffer = new int[nbCol];
 		int addedTokens = 0, deletedTokens = 0;
 
-		for (int i = 0; i < copy.getNbRows(); i++) {
-			for (int j = 0; j < copy.getNbColumns(); j++) {
-				int up = copy.getWall(i, j, Side.UP);
-				int left = copy.getWall(i, j, Side.LEFT);
+		for (int i = 0, lenI = view.getNbRows(); i < lenI; i++) {
+			for (int j = 0; j < nbCol; j++) {
+				boolean up = (i > 0 && view.getWall(i, j, Side.UP) != 1);
+				boolean left = (j > 0 && view.getWall(i, j, Side.LEFT) != 1);
 
-				if (i == 0 && j == 0) {
-					copy.setCell(i, j, ++addedTokens);
-				} else if (i == 0) {
-					if (left == 1)
-						copy.setCell(i, j, ++addedTokens);
-					else
-						copy.setCell(i, j, copy.getCell(i, j - 1));
-				} else if (j == 0) {
-					if (up == 1)
-						copy.setCell(i, j, ++addedTokens);
-					else
-						copy.setCell(i, j, copy.getCell(i - 1, j));
-				} else {
-					int upCell = copy.getCell(i - 1, j);
-					int leftCell = copy.getCell(i, j - 1);
+				if (up && left && buffer[j] != buffer[j - 1]) {
+					// Fusion de deux enclos : toute la frontière est renommée.
+					int upCell = buffer[j], leftCell = buffer[j - 1];
+					for (int k = 0; k < nbCol; k++)
+						if (buffer[k] == leftCell)
+							buffer[k] = upCell;
 
-					if (up != 1 && left != 1 && upCell != leftCell) {
-						copy.setCell(i, j, upCell);
-						for (int k = 0; k < j; k++)
-							if (copy.getCell(i, k) == leftCell)
-								copy.setCell(i, k, upCell);
+					deletedTokens++;
+				} else if (!up)
+					buffer[j] = left ? buffer[j - 1] : ++addedTokens;
+			}
+		}
 
-						deletedTokens++;
-					} else if (up != 1)
-						copy.setCell(i, j, upCell);
-					else if (left != 1)
-						copy.setCell(i, j, leftCell);
-					else
-						copy.setCell(i, j, ++addedTokens);
+		return addedTokens - deletedTokens;
+	}
+
+	/**
+	 * Détermine le nombre d'enclos d'un graphe de labyrinthe (cf.
+	 * {@link MazeGraph}), c'est-à-dire son nombre de composantes connexes. Chaque
+	 * composante est parcourue en largeur, avec une file de la taille du graphe.
+	 */
+	public static int enclosures(MazeGraph graph) {
+		int n = graph.getNbNodes();
+		boolean[] seen = new boolean[n];
+		int[] queue = new int[n];
+		int count = 0;
+
+		for (int root = 0; root < n; root++) {
+			if (seen[root])
+				continue;
+
+			count++;
+			seen[root] = true;
+			queue[0] = root;
+			for (int head = 0, tail = 1; head < tail; head++) {
+				int node = queue[head];
+				for (int edge = graph.firstEdge(node), end = graph.endEdge(node); edge < end; edge++) {
+					int next = graph.target(edge);
+					if (!seen[next]) {
+						seen[next] = true;
+						queue[tail++] = next;
+					}
 				}
 			}
 		}
 
-		return addedTokens - deletedTokens;
+		return count;
 	}
 
 	/**
@@ -300,24 +332,26 @@ public class MazeUtils {
 	 * </p>
 	 */
 	public static int islets(Maze maze) {
-		int r = maze.getNbRows(), c = maze.getNbColumns();
+		try (Maze.Snapshot view = maze.snapshot()) {
+			int r = view.getNbRows(), c = view.getNbColumns();
 
-		int overEnclosures = enclosures(maze) - 1;
+			int overEnclosures = countEnclosures(view) - 1;
 
-		int openings = 0;
-		for (int i = 1; i < r; i++)
-			for (int j = 0; j < c; j++)
-				if (maze.getWall(i, j, Side.UP) != 1)
-					openings++;
+			int openings = 0;
+			for (int i = 1; i < r; i++)
+				for (int j = 0; j < c; j++)
+					if (view.getWall(i, j, Side.UP) != 1)
+						openings++;
 
-		for (int i = 0; i < r; i++)
-			for (int j = 1; j < c; j++)
-				if (maze.getWall(i, j, Side.LEFT) != 1)
-					openings++;
+			for (int i = 0; i < r; i++)
+				for (int j = 1; j < c; j++)
+					if (view.getWall(i, j, Side.LEFT) != 1)
+						openings++;
 
-		int openingsForPerfectMaze = r * c - 1;
+			int openingsForPerfectMaze = r * c - 1;
 
-		return overEnclosures + openings - openingsForPerfectMaze;
+			return overEnclosures + openings - openingsForPerfectMaze;
+		}
 	}
 
 	/**